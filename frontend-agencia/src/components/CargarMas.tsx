@@ -0,0 +1,22 @@
+interface CargarMasProps {
+  hayMas: boolean;
+  isLoading: boolean;
+  onClick: () => void;
+}
+
+// Botón al pie de un listado paginado: pide la página siguiente mientras el backend informe que hay más
+export const CargarMas = ({ hayMas, isLoading, onClick }: CargarMasProps) => {
+  if (!hayMas) return null;
+  return (
+    <div className="flex justify-center mt-4">
+      <button
+        onClick={onClick}
+        disabled={isLoading}
+        className="px-4 py-2 text-sm font-medium text-blue-700 bg-blue-100 hover:bg-blue-200 rounded-md shadow-sm
+                   disabled:opacity-50 dark:bg-gray-700 dark:text-blue-300 dark:hover:bg-gray-600"
+      >
+        {isLoading ? 'Cargando...' : 'Cargar más'}
+      </button>
+    </div>
+  );
+};
@@ -1,6 +1,6 @@
 import React, { useState, useEffect } from 'react';
 import { useLocation } from 'react-router-dom';
-import { clienteApi, vueloApi, reservaApi } from '../services/apiService';
+import { clienteApi, vueloApi, reservaApi, obtenerTodasLasPaginas } from '../services/apiService';
 import { useAuth } from '../context/AuthContext';
 import type { 
   Cliente, 
@@ -33,29 +33,18 @@ export const ReservaForm = ({ onReservaCreada }: ReservaFormProps) => {
   useEffect(() => {
     // 4. Solo carga la lista de clientes SI el usuario es ADMIN
     if (esAdmin) {
-      clienteApi.get('/clientes')
-        .then(res => {
-          if (!res.ok) throw new Error('Error al cargar clientes');
-          return res.json()
-        })
-        .then((data: MensajeRespondeCliente) => {
-          setClientes(data.clienteLista || []);
-        })
+      obtenerTodasLasPaginas(clienteApi.get, '/clientes', (data: MensajeRespondeCliente) => data.clienteLista)
+        .then(setClientes)
         .catch(err => {
           console.error("Error cargando clientes:", err);
           setError("No se pudieron cargar los clientes (requiere rol ADMIN).");
         });
     }
 
-    // Carga los vuelos (todos pueden verlos)
-    vueloApi.get('/vuelos')
-      .then(res => {
-        if (!res.ok) throw new Error('Error al cargar vuelos');
-        return res.json()
-      })
-      .then((data: MensajeRespondeVuelo) => {
-        setVuelos(data.vueloLista || []);
-      })
+    // Carga los vuelos (todos pueden verlos). Los desplegables necesitan el listado entero: es la unica
+    // pantalla que recorre todas las páginas (no hay un endpoint de búsqueda por texto para autocompletar)
+    obtenerTodasLasPaginas(vueloApi.get, '/vuelos', (data: MensajeRespondeVuelo) => data.vueloLista)
+      .then(setVuelos)
       .catch(err => {
         console.error("Error cargando vuelos:", err);
         setError("No se pudieron cargar los vuelos.");
@@ -85,6 +74,7 @@ export const ReservaForm = ({ onReservaCreada }: ReservaFormProps) => {
     }
 
     // 7. Decide qué endpoint y qué body usar según el ROL
+    // El código de la reserva lo genera el servidor (prefijo RES-), no se envía
     let endpoint = '';
     let body: any;
 
@@ -92,7 +82,6 @@ export const ReservaForm = ({ onReservaCreada }: ReservaFormProps) => {
       // El ADMIN llama al endpoint antiguo y envía el ID del cliente
       endpoint = '/reserva';
       body = {
-        codigo: `RES-ADM-${Date.now().toString().slice(-6)}`,
         clienteId: parseInt(clienteId),
         vueloId: parseInt(vueloId),
         observaciones: observaciones
@@ -101,7 +90,6 @@ export const ReservaForm = ({ onReservaCreada }: ReservaFormProps) => {
       // El USER llama al nuevo endpoint y NO envía el ID del cliente
       endpoint = '/reservas/mia';
       body = {
-        codigo: `RES-WEB-${Date.now().toString().slice(-6)}`,
         vueloId: parseInt(vueloId),
         observaciones: observaciones
       };
@@ -1,29 +1,15 @@
-import React, { useState, useEffect } from 'react';
-import { VUELO_API_URL } from '../services/api';
-import type { VueloDTO, MensajeResponde } from '../types';
+import React, { useState } from 'react';
+import { vueloApi } from '../services/apiService';
+import type { VueloDTO, MensajeRespondeVuelo } from '../types';
+import { CargarMas } from './CargarMas';
+import { useListadoPaginado } from '../hooks/useListadoPaginado';
 
 export const VueloList = () => { // Eliminado React.FC
-  const [vuelos, setVuelos] = useState<VueloDTO[]>([]);
-  const [error, setError] = useState<string | null>(null);
   const [filtro, setFiltro] = useState("");
-
-  useEffect(() => {
-    fetch(`${VUELO_API_URL}/vuelos`) // Asume endpoint 'GET /vuelos'
-      .then(response => {
-        if (!response.ok) {
-          throw new Error('Error de red (Vuelos). ¿CORS habilitado y Docker corriendo en 8094?');
-        }
-        return response.json();
-      })
-      .then((data: MensajeResponde | VueloDTO[]) => {
-        const lista = (data as MensajeResponde).objecto || data;
-        setVuelos(Array.isArray(lista) ? lista : []);
-      })
-      .catch(err => {
-        console.error("Error al cargar vuelos:", err);
-        setError((err as Error).message);
-      });
-  }, []);
+  // GET /vuelos está paginado: de a una página, el resto con "Cargar más"
+  const { elementos, hayMas, isLoading, error, cargarMas } = useListadoPaginado(vueloApi.get, '/vuelos',
+    (data: MensajeRespondeVuelo) => data.vueloLista);
+  const vuelos: VueloDTO[] = elementos;
 
   const vuelosFiltrados = vuelos.filter(v =>
     v.codigo?.toLowerCase().includes(filtro.toLowerCase()) ||
@@ -50,6 +36,7 @@ export const VueloList = () => { // Eliminado React.FC
           </li>
         )) : <li className="py-3 text-gray-500">No se encontraron vuelos.</li>}
       </ul>
+      <CargarMas hayMas={hayMas} isLoading={isLoading} onClick={cargarMas} />
     </div>
   );
 };
\ No newline at end of file
@@ -0,0 +1,52 @@
+import { useState, useEffect, useCallback } from 'react';
+import { obtenerPagina } from '../services/apiService';
+
+/**
+ * Tamaño de página de las pantallas de listado.
+ */
+const LIMITE_LISTADO = 50;
+
+/**
+ * Listado paginado por cursor: carga la primera página y agrega las siguientes a pedido (cargarMas),
+ * siguiendo el `siguiente` que devuelve el backend. recargar vuelve a la primera página.
+ */
+export const useListadoPaginado = <R extends { siguiente?: string | null }, T>(
+  get: (endpoint: string) => Promise<Response>,
+  endpoint: string,
+  lista: (data: R) => T[] | null | undefined,
+  habilitado: boolean = true,
+) => {
+  const [elementos, setElementos] = useState<T[]>([]);
+  const [siguiente, setSiguiente] = useState<string | null>(null);
+  const [isLoading, setIsLoading] = useState(habilitado);
+  const [error, setError] = useState<string | null>(null);
+
+  const cargar = useCallback(async (cursor: string | null) => {
+    setIsLoading(true);
+    setError(null);
+    try {
+      const pagina = await obtenerPagina(get, endpoint, lista, LIMITE_LISTADO, cursor);
+      setElementos(anteriores => cursor ? [...anteriores, ...pagina.elementos] : pagina.elementos);
+      setSiguiente(pagina.siguiente);
+    } catch (err) {
+      console.error(`Error cargando ${endpoint}:`, err);
+      setError((err as Error).message);
+    } finally {
+      setIsLoading(false);
+    }
+    // get y lista son funciones fijas de cada pantalla
+    // eslint-disable-next-line react-hooks/exhaustive-deps
+  }, [endpoint]);
+
+  const recargar = useCallback(() => cargar(null), [cargar]);
+
+  const cargarMas = useCallback(() => {
+    if (siguiente) cargar(siguiente);
+  }, [cargar, siguiente]);
+
+  useEffect(() => {
+    if (habilitado) recargar();
+  }, [habilitado, recargar]);
+
+  return { elementos, hayMas: siguiente !== null, isLoading, error, recargar, cargarMas };
+};
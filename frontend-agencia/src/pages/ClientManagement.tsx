@@ -1,42 +1,30 @@
-import React, { useState, useEffect, useMemo } from 'react';
+import React, { useState, useMemo } from 'react';
 // 1. Importar el nuevo servicio
 import { clienteApi } from '../services/apiService'; 
 import type { Cliente, MensajeRespondeCliente } from '../types';
 import { ClientList } from '../components/ClientList';
 import { ClientForm } from '../components/ClientForm';
+import { CargarMas } from '../components/CargarMas';
+import { useListadoPaginado } from '../hooks/useListadoPaginado';
 
 export const ClientManagement = () => {
-  const [allClients, setAllClients] = useState<Cliente[]>([]);
   const [filtro, setFiltro] = useState("");
-  const [isLoading, setIsLoading] = useState(true);
   const [error, setError] = useState<string | null>(null);
   const [clientToEdit, setClientToEdit] = useState<Cliente | null>(null);
   const [isFormExpanded, setIsFormExpanded] = useState(false);
   const isEditing = clientToEdit !== null;
 
-  const fetchClients = async () => {
-    setIsLoading(true);
+  // 2. Usar clienteApi.get (ahora envía el token); el listado está paginado: de a una página, el resto con "Cargar más"
+  const listado = useListadoPaginado(clienteApi.get, '/clientes',
+    (data: MensajeRespondeCliente) => data.clienteLista);
+  const allClients: Cliente[] = listado.elementos;
+  const isLoading = listado.isLoading && allClients.length === 0;
+
+  const fetchClients = () => {
     setError(null);
-    try {
-      // 2. Usar clienteApi.get (ahora envía el token)
-      const response = await clienteApi.get('/clientes');
-      
-      if (!response.ok) throw new Error('Error de red al cargar clientes.');
-      
-      const data: MensajeRespondeCliente = await response.json();
-      setAllClients(data.clienteLista || []);
-    } catch (err) {
-      console.error("Error cargando clientes:", err);
-      setError("No se pudo cargar la lista de clientes.");
-    } finally {
-      setIsLoading(false);
-    }
+    listado.recargar();
   };
 
-  useEffect(() => {
-    fetchClients();
-  }, []);
-
   const filteredClients = useMemo(() => {
     if (!filtro) return allClients;
     const lowerFiltro = filtro.toLowerCase();
@@ -112,15 +100,19 @@ export const ClientManagement = () => {
         />
         
         {error && <div className="p-3 bg-red-100 border border-red-400 text-red-700 rounded-md mb-4">{error}</div>}
+        {listado.error && <div className="p-3 bg-red-100 border border-red-400 text-red-700 rounded-md mb-4">No se pudo cargar la lista de clientes.</div>}
         
         {isLoading ? (
           <p className="text-center text-lg text-gray-600 dark:text-gray-400">Cargando clientes...</p>
         ) : (
-          <ClientList 
-            clientes={filteredClients} 
-            onEditClick={handleEditClick}
-            onDeleteClick={handleDeleteClick} 
-          />
+          <>
+            <ClientList 
+              clientes={filteredClients} 
+              onEditClick={handleEditClick}
+              onDeleteClick={handleDeleteClick} 
+            />
+            <CargarMas hayMas={listado.hayMas} isLoading={listado.isLoading} onClick={listado.cargarMas} />
+          </>
         )}
       </div>
 
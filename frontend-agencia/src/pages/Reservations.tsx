@@ -1,26 +1,36 @@
 import React, { useEffect, useState } from 'react';
 import { ReservaForm } from '../components/ReservaForm';
 import ReservaList from '../components/ReservaList';
+import { CargarMas } from '../components/CargarMas';
 import { reservaApi } from '../services/apiService'; 
 import type { ReservaDTO, MensajeRespondeReserva, AuthUser } from '../types';
 import { useAuth } from '../context/AuthContext'; 
+import { useListadoPaginado } from '../hooks/useListadoPaginado';
 
 export const Reservations = () => {
-    const [reservas, setReservas] = useState<ReservaDTO[]>([]);
+    const [misReservas, setMisReservas] = useState<ReservaDTO[]>([]);
     const [isLoading, setIsLoading] = useState(true);
     const [error, setError] = useState<string | null>(null);
     const { user } = useAuth(); // 3. Obtener el usuario logueado
     const esAdmin = user?.rol === 'ROLE_ADMIN';
+    // El listado general está paginado: se muestra de a una página y el resto se pide con "Cargar más"
+    const listado = useListadoPaginado(reservaApi.get, '/reservas',
+        (data: MensajeRespondeReserva) => data.reservaLista, esAdmin);
+
+    const reservas = esAdmin ? listado.elementos : misReservas;
+    const cargando = esAdmin ? listado.isLoading && listado.elementos.length === 0 : isLoading;
+    const errorListado = error ?? (esAdmin ? listado.error : null);
 
     const fetchReservas = async () => {
+        if (esAdmin) {
+            listado.recargar();
+            return;
+        }
         setIsLoading(true);
         setError(null);
         
-        const endpoint = esAdmin ? '/reservas' : '/reservas/mis-reservas';
-
         try {
-        
-            const response = await reservaApi.get(endpoint);
+            const response = await reservaApi.get('/reservas/mis-reservas');
 
             if (!response.ok) {
                 const status = response.status;
@@ -28,7 +38,7 @@ export const Reservations = () => {
             }
             
             const data: MensajeRespondeReserva = await response.json();
-            setReservas(data.reservaLista || []);
+            setMisReservas(data.reservaLista || []);
         } catch (err) {
             console.error("Error cargando reservas:", err);
             setError((err as Error).message);
@@ -38,7 +48,7 @@ export const Reservations = () => {
     };
 
     useEffect(() => {
-        fetchReservas();
+        if (!esAdmin) fetchReservas();
     }, [esAdmin]); 
 
     const handleReservaCreada = () => {
@@ -98,20 +108,25 @@ export const Reservations = () => {
                     {esAdmin ? 'Listado de Todas las Reservas' : 'Listado de Mis Reservas'}
                 </h2>
 
-                {error && (
+                {errorListado && (
                     <div className="p-4 bg-red-100 border border-red-400 text-red-700 rounded-lg">
-                        {error}
+                        {errorListado}
                     </div>
                 )}
 
-                {isLoading ? (
+                {cargando ? (
                     <p className="text-center text-lg text-gray-600 dark:text-gray-400">Cargando listado de reservas...</p>
                 ) : (
-                    <ReservaList 
-                        reservas={reservas} 
-                        onConfirmarClick={handleConfirmar}
-                        onCancelarClick={handleCancelar}
-                    />
+                    <>
+                        <ReservaList 
+                            reservas={reservas} 
+                            onConfirmarClick={handleConfirmar}
+                            onCancelarClick={handleCancelar}
+                        />
+                        {esAdmin && (
+                            <CargarMas hayMas={listado.hayMas} isLoading={listado.isLoading} onClick={listado.cargarMas} />
+                        )}
+                    </>
                 )}
             </div>
         </div>
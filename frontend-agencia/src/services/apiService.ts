@@ -73,4 +73,57 @@ export const reservaApi = {
     apiFetch(`${RESERVA_API_URL}${endpoint}`, { ...options, method: 'POST', body: JSON.stringify(body) }),
   put: (endpoint: string, body: any = {}, options: RequestInit = {}) =>
     apiFetch(`${RESERVA_API_URL}${endpoint}`, { ...options, method: 'PUT', body: JSON.stringify(body) }),
-};
\ No newline at end of file
+};
+
+/**
+ * Tamaño de página pedido al recorrer un listado completo (el backend lo recorta a su máximo).
+ */
+const LIMITE_PAGINA = 200;
+
+/**
+ * Una página de un listado paginado por cursor: sus elementos y el cursor de la siguiente (null en la última).
+ */
+export interface Pagina<T> {
+  elementos: T[];
+  siguiente: string | null;
+}
+
+/**
+ * Pide una sola página de un listado paginado por cursor.
+ */
+export const obtenerPagina = async <R extends { siguiente?: string | null }, T>(
+  get: (endpoint: string) => Promise<Response>,
+  endpoint: string,
+  lista: (data: R) => T[] | null | undefined,
+  limite: number,
+  cursor?: string | null,
+): Promise<Pagina<T>> => {
+  const params = new URLSearchParams({ limite: String(limite) });
+  if (cursor) params.set('cursor', cursor);
+  const response = await get(`${endpoint}?${params.toString()}`);
+  if (!response.ok) {
+    throw new Error(`Error ${response.status} al cargar ${endpoint}`);
+  }
+  const data: R = await response.json();
+  return { elementos: lista(data) || [], siguiente: data.siguiente ?? null };
+};
+
+/**
+ * Recorre un listado paginado por cursor hasta la última página y devuelve todos los elementos juntos.
+ * Solo para los desplegables que necesitan el listado entero; las pantallas de listado piden de a una
+ * página (useListadoPaginado).
+ */
+export const obtenerTodasLasPaginas = async <R extends { siguiente?: string | null }, T>(
+  get: (endpoint: string) => Promise<Response>,
+  endpoint: string,
+  lista: (data: R) => T[] | null | undefined,
+): Promise<T[]> => {
+  const elementos: T[] = [];
+  let cursor: string | null = null;
+  do {
+    const pagina: Pagina<T> = await obtenerPagina(get, endpoint, lista, LIMITE_PAGINA, cursor);
+    elementos.push(...pagina.elementos);
+    cursor = pagina.siguiente;
+  } while (cursor);
+  return elementos;
+};
@@ -47,16 +47,19 @@ export interface MensajeRespondeCliente {
   mensaje: string;
   cliente: Cliente | null;
   clienteLista: Cliente[] | null;
+  siguiente?: string | null; // Cursor de la página siguiente (null en la última)
 }
 
 export interface MensajeRespondeVuelo {
   mensaje: string;
   vuelo: VueloDTO | null;
   vueloLista: VueloDTO[] | null;
+  siguiente?: string | null; // Cursor de la página siguiente (null en la última)
 }
 
 export interface MensajeRespondeReserva {
   mensaje: string;
   reserva: ReservaDTO | null;
   reservaLista: ReservaDTO[] | null;
+  siguiente?: string | null; // Cursor de la página siguiente (null en la última)
 }
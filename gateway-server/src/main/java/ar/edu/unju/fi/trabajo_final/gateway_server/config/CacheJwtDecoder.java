@@ -0,0 +1,107 @@
+package ar.edu.unju.fi.trabajo_final.gateway_server.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Decoder que guarda los JWT ya verificados por el decoder real (firma HMAC y validadores de Nimbus),
+ * indexados por el hash SHA-256 del token (el token en si no queda en memoria).
+ * - Una repeticion del mismo token devuelve el Jwt guardado sin volver a parsear ni verificar la firma.
+ * - Cada entrada vale hasta el {@code exp} del token; los tokens sin {@code exp} no se guardan.
+ * - Se guardan como maximo {@code jwt.cacheMaxEntradas}; con el cache lleno primero se descartan los vencidos
+ *   y, si sigue lleno, el token se verifica igual pero no se guarda.
+ * - Los errores (firma invalida, token vencido) nunca se guardan.
+ * Metricas: {@code gateway.jwt.cache.consultas} (tag resultado = acierto/fallo), {@code gateway.jwt.cache.tasa_aciertos}
+ * y {@code gateway.jwt.cache.entradas}.
+ */
+public class CacheJwtDecoder implements ReactiveJwtDecoder {
+
+    private record Entrada(Jwt jwt, long venceEn) {}
+
+    private final ConcurrentHashMap<String, Entrada> entradas = new ConcurrentHashMap<>();
+    private final ReactiveJwtDecoder delegado;
+    private final int maxEntradas;
+    private final LongSupplier reloj;
+    private final Counter aciertos;
+    private final Counter fallos;
+
+    public CacheJwtDecoder(ReactiveJwtDecoder delegado, int maxEntradas, MeterRegistry registry) {
+        this(delegado, maxEntradas, registry, System::currentTimeMillis);
+    }
+
+    public CacheJwtDecoder(ReactiveJwtDecoder delegado, int maxEntradas, MeterRegistry registry, LongSupplier reloj) {
+        this.delegado = delegado;
+        this.maxEntradas = maxEntradas;
+        this.reloj = reloj;
+        this.aciertos = Counter.builder("gateway.jwt.cache.consultas").tag("resultado", "acierto")
+                .description("Tokens resueltos desde el cache sin verificar la firma").register(registry);
+        this.fallos = Counter.builder("gateway.jwt.cache.consultas").tag("resultado", "fallo")
+                .description("Tokens verificados por el decoder real").register(registry);
+        Gauge.builder("gateway.jwt.cache.tasa_aciertos", this, CacheJwtDecoder::tasaAciertos)
+                .description("Aciertos / consultas desde el arranque").register(registry);
+        Gauge.builder("gateway.jwt.cache.entradas", entradas, ConcurrentHashMap::size)
+                .description("Tokens verificados en memoria").register(registry);
+    }
+
+    @Override
+    public Mono<Jwt> decode(String token) throws JwtException {
+        String clave = hash(token);
+        Entrada entrada = entradas.get(clave);
+        if (entrada != null) {
+            if (entrada.venceEn() > reloj.getAsLong()) {
+                aciertos.increment();
+                return Mono.just(entrada.jwt());
+            }
+            entradas.remove(clave, entrada);
+        }
+        fallos.increment();
+        return delegado.decode(token).doOnNext(jwt -> guardar(clave, jwt));
+    }
+
+    public double tasaAciertos() {
+        double consultas = aciertos.count() + fallos.count();
+        return consultas == 0 ? 0 : aciertos.count() / consultas;
+    }
+
+    private void guardar(String clave, Jwt jwt) {
+        Instant expira = jwt.getExpiresAt();
+        if (expira == null) {
+            return;
+        }
+        if (entradas.size() >= maxEntradas) {
+            limpiarVencidas();
+            if (entradas.size() >= maxEntradas) {
+                return;
+            }
+        }
+        entradas.put(clave, new Entrada(jwt, expira.toEpochMilli()));
+    }
+
+    private void limpiarVencidas() {
+        long ahora = reloj.getAsLong();
+        entradas.values().removeIf(entrada -> entrada.venceEn() <= ahora);
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 esta en toda JVM
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package ar.edu.unju.fi.trabajo_final.gateway_server.config;
+
+import ar.edu.unju.fi.trabajo_final.seguridad.IdentidadGateway;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Agrega a cada peticion ruteada la identidad firmada del usuario ya autenticado (ver {@link IdentidadGateway}).
+ * La cabecera que mande el cliente siempre se descarta, este o no activo el modo.
+ */
+@Component
+public class IdentidadGatewayFilter implements GlobalFilter, Ordered {
+
+    private final IdentidadGateway identidadGateway;
+    private final boolean habilitado;
+
+    // La identidad se firma con jwt.identidadSecret (distinta de jwt.secret); solo se exige si el modo esta activo
+    @Autowired
+    public IdentidadGatewayFilter(@Value("${jwt.identidadGateway:false}") boolean habilitado,
+                                  @Value("${jwt.identidadSecret:}") String identidadSecret) {
+        this(habilitado ? new IdentidadGateway(identidadSecret) : null, habilitado);
+    }
+
+    public IdentidadGatewayFilter(IdentidadGateway identidadGateway, boolean habilitado) {
+        this.identidadGateway = identidadGateway;
+        this.habilitado = habilitado;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest sinIdentidad = exchange.getRequest().mutate()
+                .headers(headers -> headers.remove(IdentidadGateway.CABECERA))
+                .build();
+        if (!habilitado) {
+            return chain.filter(exchange.mutate().request(sinIdentidad).build());
+        }
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .filter(JwtAuthenticationToken.class::isInstance)
+                .map(autenticacion -> ((JwtAuthenticationToken) autenticacion).getToken())
+                // Sin exp no se puede acotar la identidad: el servicio verifica el Bearer como siempre
+                .filter(jwt -> jwt.getExpiresAt() != null)
+                .map(jwt -> sinIdentidad.mutate().header(IdentidadGateway.CABECERA, firmar(jwt)).build())
+                .defaultIfEmpty(sinIdentidad)
+                .flatMap(request -> chain.filter(exchange.mutate().request(request).build()));
+    }
+
+    private String firmar(Jwt jwt) {
+        Object id = jwt.getClaim("id");
+        return identidadGateway.firmar(id instanceof Number numero ? numero.longValue() : null,
+                jwt.getClaimAsString("rol"), jwt.getSubject(), jwt.getExpiresAt());
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
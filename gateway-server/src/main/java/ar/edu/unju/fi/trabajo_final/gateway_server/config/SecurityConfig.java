@@ -1,5 +1,6 @@
 package ar.edu.unju.fi.trabajo_final.gateway_server.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -31,9 +32,11 @@ import java.util.Collections;
 public class SecurityConfig {
     @Value("${jwt.secret:ClaveSecretaDemoParaPortafolioGithub1234567890}")
     private String jwtSecret;
+    @Value("${jwt.cacheMaxEntradas:10000}")
+    private int jwtCacheMaxEntradas;
 
     @Bean
-    public SecurityWebFilterChain springSecurityFilterChain(ServerHttpSecurity http) {
+    public SecurityWebFilterChain springSecurityFilterChain(ServerHttpSecurity http, ReactiveJwtDecoder reactiveJwtDecoder) {
         http.cors(cors -> cors.configurationSource(corsConfigurationSource()));
 
         http.csrf(csrf -> csrf.disable());
@@ -69,7 +72,7 @@ public class SecurityConfig {
         );
 
         http.oauth2ResourceServer(oauth2 -> oauth2.jwt(jwt ->
-                jwt.jwtDecoder(reactiveJwtDecoder())
+                jwt.jwtDecoder(reactiveJwtDecoder)
                         .jwtAuthenticationConverter(jwtAuthenticationConverter())
         ));
 
@@ -106,15 +109,19 @@ public class SecurityConfig {
         return source;
     }
 
+    // La verificacion completa (Nimbus) corre una vez por token; las repeticiones salen del cache
     @Bean
-    public ReactiveJwtDecoder reactiveJwtDecoder() {
+    public ReactiveJwtDecoder reactiveJwtDecoder(MeterRegistry meterRegistry) {
+        byte[] keyBytes = claveSecreta().getBytes();
+        SecretKeySpec secretKey = new SecretKeySpec(keyBytes, "HmacSHA256");
+        return new CacheJwtDecoder(NimbusReactiveJwtDecoder.withSecretKey(secretKey).build(), jwtCacheMaxEntradas, meterRegistry);
+    }
 
+    private String claveSecreta() {
         if (jwtSecret == null || jwtSecret.length() < 32) {
 
             jwtSecret = "ClaveSecretaDemoParaPortafolioGithub1234567890";
         }
-        byte[] keyBytes = jwtSecret.getBytes();
-        SecretKeySpec secretKey = new SecretKeySpec(keyBytes, "HmacSHA256");
-        return NimbusReactiveJwtDecoder.withSecretKey(secretKey).build();
+        return jwtSecret;
     }
 }
\ No newline at end of file
@@ -0,0 +1,90 @@
+package ar.edu.unju.fi.trabajo_final.gateway_server.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CacheJwtDecoderTest {
+
+    private static final long AHORA = 1_000_000L;
+
+    private ReactiveJwtDecoder delegado;
+    private SimpleMeterRegistry registry;
+    private AtomicLong reloj;
+    private CacheJwtDecoder decoder;
+
+    @BeforeEach
+    void setUp() {
+        delegado = mock(ReactiveJwtDecoder.class);
+        registry = new SimpleMeterRegistry();
+        reloj = new AtomicLong(AHORA);
+        decoder = new CacheJwtDecoder(delegado, 2, registry, reloj::get);
+    }
+
+    private void verificado(String token, long expiraEn) {
+        Jwt jwt = Jwt.withTokenValue(token).header("alg", "HS256").subject(token)
+                .issuedAt(Instant.ofEpochMilli(AHORA - 1000)).expiresAt(Instant.ofEpochMilli(expiraEn)).build();
+        when(delegado.decode(token)).thenReturn(Mono.just(jwt));
+    }
+
+    @Test
+    void decode_RepeticionDelMismoToken_NoVuelveAVerificar() {
+        verificado("a", AHORA + 60_000);
+
+        Jwt primero = decoder.decode("a").block();
+        Jwt segundo = decoder.decode("a").block();
+        Jwt tercero = decoder.decode("a").block();
+
+        assertSame(primero, segundo);
+        assertSame(primero, tercero);
+        verify(delegado, times(1)).decode("a");
+        assertEquals(2.0 / 3, decoder.tasaAciertos(), 1e-9);
+        assertEquals(2.0, registry.get("gateway.jwt.cache.consultas").tag("resultado", "acierto").counter().count());
+        assertEquals(1.0, registry.get("gateway.jwt.cache.entradas").gauge().value());
+    }
+
+    @Test
+    void decode_TokenVencido_VuelveAlDecoderReal() {
+        verificado("a", AHORA + 60_000);
+        decoder.decode("a").block();
+
+        reloj.set(AHORA + 60_000);
+        when(delegado.decode("a")).thenReturn(Mono.error(new BadJwtException("Jwt expired")));
+
+        assertThrows(BadJwtException.class, () -> decoder.decode("a").block());
+        assertThrows(BadJwtException.class, () -> decoder.decode("a").block());
+        verify(delegado, times(3)).decode("a");
+    }
+
+    @Test
+    void decode_CacheLleno_DescartaVencidosYSinoNoGuarda() {
+        verificado("a", AHORA + 1_000);
+        verificado("b", AHORA + 60_000);
+        verificado("c", AHORA + 60_000);
+        verificado("d", AHORA + 60_000);
+        decoder.decode("a").block();
+        decoder.decode("b").block();
+
+        // "a" vencio: se descarta para hacerle lugar a "c"
+        reloj.set(AHORA + 2_000);
+        decoder.decode("c").block();
+        // Lleno con "b" y "c" vigentes: "d" se verifica pero no se guarda
+        decoder.decode("d").block();
+        decoder.decode("d").block();
+        decoder.decode("c").block();
+
+        verify(delegado, times(2)).decode("d");
+        verify(delegado, times(1)).decode("c");
+        assertEquals(2.0, registry.get("gateway.jwt.cache.entradas").gauge().value());
+    }
+}
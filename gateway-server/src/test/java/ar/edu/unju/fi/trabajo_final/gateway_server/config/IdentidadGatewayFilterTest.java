@@ -0,0 +1,63 @@
+package ar.edu.unju.fi.trabajo_final.gateway_server.config;
+
+import ar.edu.unju.fi.trabajo_final.seguridad.IdentidadGateway;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdentidadGatewayFilterTest {
+
+    private static final String SECRET = "ClaveSecretaDemoParaPortafolioGithub1234567890";
+    private static final Instant EXPIRA = Instant.ofEpochSecond(1_900_000_000L);
+
+    private final IdentidadGateway identidad = new IdentidadGateway(SECRET);
+    private final AtomicReference<ServerWebExchange> reenviado = new AtomicReference<>();
+    private final GatewayFilterChain chain = exchange -> {
+        reenviado.set(exchange);
+        return Mono.empty();
+    };
+
+    private static MockServerWebExchange peticionConIdentidadFalsa() {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1_1/reservas")
+                .header(IdentidadGateway.CABECERA, "idg1.1.ROLE_ADMIN.9999999999.YQ.falsa"));
+    }
+
+    private static JwtAuthenticationToken autenticado() {
+        Jwt jwt = Jwt.withTokenValue("token").header("alg", "HS256")
+                .subject("usuario@mail.com").claim("id", 42L).claim("rol", "ROLE_USER")
+                .issuedAt(EXPIRA.minusSeconds(3600)).expiresAt(EXPIRA).build();
+        return new JwtAuthenticationToken(jwt);
+    }
+
+    @Test
+    void filter_UsuarioAutenticado_ReemplazaLaCabeceraPorLaIdentidadFirmada() {
+        new IdentidadGatewayFilter(identidad, true).filter(peticionConIdentidadFalsa(), chain)
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(autenticado()))
+                .block();
+
+        assertEquals(identidad.firmar(42L, "ROLE_USER", "usuario@mail.com", EXPIRA),
+                reenviado.get().getRequest().getHeaders().getFirst(IdentidadGateway.CABECERA));
+    }
+
+    @Test
+    void filter_SinAutenticacionOModoApagado_SoloDescartaLaCabeceraDelCliente() {
+        new IdentidadGatewayFilter(identidad, true).filter(peticionConIdentidadFalsa(), chain).block();
+        assertFalse(reenviado.get().getRequest().getHeaders().containsKey(IdentidadGateway.CABECERA));
+
+        new IdentidadGatewayFilter(identidad, false).filter(peticionConIdentidadFalsa(), chain)
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(autenticado()))
+                .block();
+        assertFalse(reenviado.get().getRequest().getHeaders().containsKey(IdentidadGateway.CABECERA));
+    }
+}
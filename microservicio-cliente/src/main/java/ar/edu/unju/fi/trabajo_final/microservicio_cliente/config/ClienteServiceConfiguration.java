@@ -13,4 +13,16 @@ public class ClienteServiceConfiguration {
     private String msg;
     private String buildVersion;
     private Map<String,String> mailDetails;
+    // Cantidad maxima de IDs aceptados por POST clientes/lookup
+    private int lookupMaxIds = 500;
+    // Listado paginado de clientes: tamaño de pagina si no se indica limite y tope maximo
+    private int paginaTamanio = 50;
+    private int paginaMax = 200;
+    // Login: costo de BCrypt (los hashes guardados con otro costo se rehashean al iniciar sesion) y pool acotado
+    // de hilos para calcular los hashes, con el tope de su cola (se achica segun el costo medido del hash; muy por
+    // debajo de los hilos de Tomcat) y la espera maxima de cada peticion
+    private int bcryptCosto = 10;
+    private int loginHilos = 4;
+    private int loginCola = 50;
+    private long loginEsperaMs = 5000;
 }
@@ -1,18 +1,16 @@
 package ar.edu.unju.fi.trabajo_final.microservicio_cliente.config;
 
+import ar.edu.unju.fi.trabajo_final.seguridad.CredencialServicio;
+import ar.edu.unju.fi.trabajo_final.seguridad.IdentidadGateway;
+import ar.edu.unju.fi.trabajo_final.seguridad.IdentidadGatewayResolver;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.AuthenticationProvider;
-import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
-import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
@@ -28,32 +26,30 @@ import java.util.Collections;
 @EnableWebSecurity
 public class SecurityConfig {
 
-    private final UserDetailsService userDetailsService;
+    private final ClienteServiceConfiguration configCliente;
 
     // 1. Inyecta la clave secreta desde cliente-dev.properties
     @Value("${jwt.secret}")
     private String jwtSecret;
-
-    public SecurityConfig(UserDetailsService userDetailsService) {
-        this.userDetailsService = userDetailsService;
+    // Modo gateway de confianza: se acepta la identidad firmada por el gateway (ver IdentidadGateway en seguridad-comun)
+    @Value("${jwt.identidadGateway:false}")
+    private boolean identidadGateway;
+    // Clave de las credenciales de servicio (ROLE_SERVICIO), distinta de jwt.secret (ver CredencialServicio)
+    @Value("${jwt.servicioSecret}")
+    private String servicioSecret;
+    // Clave propia de la identidad del gateway, distinta de jwt.secret
+    @Value("${jwt.identidadSecret:}")
+    private String identidadSecret;
+
+    public SecurityConfig(ClienteServiceConfiguration configCliente) {
+        this.configCliente = configCliente;
     }
 
+    // Costo configurable (cliente.bcryptCosto): los hashes con otro costo se rehashean en el login (LoginServiceImpl,
+    // el unico lugar donde se verifican contraseñas: no hay AuthenticationManager)
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
-
-    @Bean
-    public AuthenticationProvider authenticationProvider() {
-        DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
-        authProvider.setUserDetailsService(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
-        return authProvider;
-    }
-
-    @Bean
-    public AuthenticationManager authenticationManager(AuthenticationConfiguration authConfig) throws Exception {
-        return authConfig.getAuthenticationManager();
+        return new BCryptPasswordEncoder(configCliente.getBcryptCosto());
     }
 
     @Bean
@@ -81,6 +77,8 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.POST, "/api/v1_1/cliente").hasRole("ADMIN") // Crear
                         .requestMatchers(HttpMethod.PUT, "/api/v1_1/cliente").hasRole("ADMIN") // Actualizar
                         .requestMatchers(HttpMethod.DELETE, "/api/v1_1/cliente/**").hasRole("ADMIN") // Eliminar
+                        // Busqueda masiva (email y documento de muchos clientes): solo servicios internos y ADMIN
+                        .requestMatchers(HttpMethod.POST, "/api/v1_1/clientes/lookup").hasAnyRole("SERVICIO", "ADMIN")
 
                         // 3. Rutas de Cliente (Autenticado para lectura simple)
                         // (Esto permite al ms-reserva llamar a obtenerClientePorId)
@@ -90,11 +88,14 @@ public class SecurityConfig {
                         // 4. Cualquier otra ruta debe estar autenticada
                         .anyRequest().authenticated()
                 )
-                .authenticationProvider(authenticationProvider())
-                .oauth2ResourceServer(oauth2 -> oauth2.jwt(jwt ->
-                        jwt.decoder(jwtDecoder())
-                                .jwtAuthenticationConverter(jwtAuthenticationConverter())
-                ));
+                .oauth2ResourceServer(oauth2 -> {
+                    if (identidadGateway) {
+                        oauth2.bearerTokenResolver(new IdentidadGatewayResolver());
+                    }
+                    oauth2.jwt(jwt ->
+                            jwt.decoder(jwtDecoder())
+                                    .jwtAuthenticationConverter(jwtAuthenticationConverter()));
+                });
 
         return http.build();
     }
@@ -122,6 +123,8 @@ public class SecurityConfig {
         byte[] keyBytes = jwtSecret.getBytes();
         SecretKeySpec secretKey = new SecretKeySpec(keyBytes, "HmacSHA256");
 
-        return NimbusJwtDecoder.withSecretKey(secretKey).build();
+        NimbusJwtDecoder usuarios = NimbusJwtDecoder.withSecretKey(secretKey).build();
+        JwtDecoder decoder = CredencialServicio.decoder(usuarios, servicioSecret);
+        return identidadGateway ? new IdentidadGateway(identidadSecret).decoder(decoder) : decoder;
     }
 }
\ No newline at end of file
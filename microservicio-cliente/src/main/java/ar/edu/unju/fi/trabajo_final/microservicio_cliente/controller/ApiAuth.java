@@ -26,9 +26,10 @@ public interface ApiAuth {
                     Valida las credenciales del usuario.
                     
                     Flujo real:
-                    - Spring Security autentica email + contraseña.
-                    - Se carga el usuario con UserDetailsServiceImpl.
-                    - Si es correcto → se genera un token JWT mediante JwtUtil.
+                    - LoginService carga el cliente por email (una sola consulta) y compara la contraseña con BCrypt.
+                    - Si el hash guardado tiene otro costo que cliente.bcryptCosto, se rehashea con el costo actual.
+                    - Si es correcto → se genera un token JWT mediante JwtUtil con ese mismo cliente.
+                    - Con el pool de hash saturado responde 503.
                     - El token incluye: id, email, rol.
                     
                     Devuelve un objeto LoginResponse con el JWT.
@@ -73,6 +74,11 @@ public interface ApiAuth {
                                             }
                                             """)
                             )
+                    ),
+                    @ApiResponse(
+                            responseCode = "503",
+                            description = "Pool de hash saturado, reintentar en unos segundos",
+                            content = @Content(mediaType = "application/json")
                     )
             }
     )
@@ -1,5 +1,6 @@
 package ar.edu.unju.fi.trabajo_final.microservicio_cliente.controller;
 
+import ar.edu.unju.fi.trabajo_final.microservicio_cliente.dto.ClienteResumenDTO;
 import ar.edu.unju.fi.trabajo_final.microservicio_cliente.entity.Cliente;
 import ar.edu.unju.fi.trabajo_final.microservicio_cliente.payload.ApiResponde;
 import ar.edu.unju.fi.trabajo_final.microservicio_cliente.payload.MensajeRespondeCliente;
@@ -17,6 +18,9 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.Map;
+
 public interface ApiCliente {
 
     @GetMapping("cliente/mi-perfil")
@@ -436,7 +440,10 @@ public interface ApiCliente {
     @GetMapping("clientes")
     @Operation(
             summary = "[ADMIN] Listar todos los clientes",
-            description = "Devuelve la lista completa de clientes registrados.",
+            description = """
+                    Devuelve los clientes registrados de a una pagina (id descendente).
+                    Si hay mas clientes, `siguiente` trae el cursor para pedir la pagina siguiente; es null en la ultima.
+                    """,
             responses = {
                     @ApiResponse(
                             responseCode = "200",
@@ -458,7 +465,12 @@ public interface ApiCliente {
                     )
             }
     )
-    ResponseEntity<MensajeRespondeCliente> obtenerClientes();
+    ResponseEntity<MensajeRespondeCliente> obtenerClientes(
+            @Parameter(description = "Cursor `siguiente` devuelto por la pagina anterior (vacio para la primera pagina)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Cantidad maxima de elementos de la pagina (por defecto y tope segun configuracion)")
+            @RequestParam(required = false) Integer limite
+    );
 
 
     @GetMapping("clientes/{id}")
@@ -507,6 +519,52 @@ public interface ApiCliente {
     ResponseEntity<MensajeRespondeCliente> obtenerClientePorId(@PathVariable Long id);
 
 
+    @PostMapping("clientes/lookup")
+    @Operation(
+            summary = "[INTERNO] Busqueda masiva de clientes por sus IDs",
+            description = """
+                    Devuelve en una sola consulta un mapa `id -> cliente` con la vista reducida de los clientes indicados.
+                    Los IDs inexistentes se omiten. Se aceptan como maximo `cliente.lookupMaxIds` IDs por peticion (por defecto 500).
+                    Solo ROLE_SERVICIO (credencial de ms-reserva) o ROLE_ADMIN: expone email y documento.
+                    """,
+            requestBody = @RequestBody(
+                    description = "Lista de IDs de clientes a buscar.",
+                    required = true,
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(value = "[1, 2]")
+                    )
+            ),
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Clientes encontrados",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    examples = @ExampleObject(
+                                            value = """
+                                            {
+                                              "1": { "id": 1, "nombreCompleto": "Juan Pérez", "email": "juan@mail.com", "documento": "30111222" },
+                                              "2": { "id": 2, "nombreCompleto": "María Gómez", "email": "maria@mail.com", "documento": "30333444" }
+                                            }
+                                            """
+                                    )
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Se supero la cantidad maxima de IDs por peticion",
+                            content = @Content(schema = @Schema(implementation = ApiResponde.class))
+                    ),
+                    @ApiResponse(
+                            responseCode = "403",
+                            description = "El token no es de servicio ni de ADMIN"
+                    )
+            }
+    )
+    ResponseEntity<Map<Long, ClienteResumenDTO>> buscarClientesPorIds(@org.springframework.web.bind.annotation.RequestBody List<Long> ids);
+
+
     @GetMapping("clientes/read/properties")
     @Operation(
             summary = "Leer propiedades del microservicio",
@@ -3,13 +3,9 @@ package ar.edu.unju.fi.trabajo_final.microservicio_cliente.controller;
 import ar.edu.unju.fi.trabajo_final.microservicio_cliente.entity.Cliente;
 import ar.edu.unju.fi.trabajo_final.microservicio_cliente.service.ClienteService;
 import ar.edu.unju.fi.trabajo_final.microservicio_cliente.service.JwtUtil;
+import ar.edu.unju.fi.trabajo_final.microservicio_cliente.service.LoginService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
@@ -24,30 +20,23 @@ record LoginResponse(String token) {}
 @RequestMapping("/api/v1_1/auth")
 public class AuthController {
 
-    private final AuthenticationManager authenticationManager;
+    private final LoginService loginService;
     private final ClienteService clienteService;
-    private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
 
-    public AuthController(AuthenticationManager authenticationManager,
+    public AuthController(LoginService loginService,
                           ClienteService clienteService,
-                          PasswordEncoder passwordEncoder,
                           JwtUtil jwtUtil) {
-        this.authenticationManager = authenticationManager;
+        this.loginService = loginService;
         this.clienteService = clienteService;
-        this.passwordEncoder = passwordEncoder;
         this.jwtUtil = jwtUtil;
     }
 
     @PostMapping("/login")
     public ResponseEntity<LoginResponse> login(@RequestBody LoginRequest loginRequest) {
 
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(loginRequest.email(), loginRequest.password())
-        );
-
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-        Cliente cliente = clienteService.buscarPorEmail(loginRequest.email());
+        // Una sola consulta: el mismo Cliente verificado se usa para los claims del token
+        Cliente cliente = loginService.autenticar(loginRequest.email(), loginRequest.password());
 
         String token = jwtUtil.generarToken(cliente);
 
@@ -57,7 +46,7 @@ public class AuthController {
     @PostMapping("/register")
     public ResponseEntity<Map<String, String>> register(@RequestBody Cliente cliente) {
 
-        cliente.setPassword(passwordEncoder.encode(cliente.getPassword()));
+        cliente.setPassword(loginService.codificar(cliente.getPassword()));
         cliente.setRol("ROLE_USER");
         clienteService.guardar(cliente);
 
@@ -2,9 +2,12 @@ package ar.edu.unju.fi.trabajo_final.microservicio_cliente.controller;
 
 import ar.edu.unju.fi.trabajo_final.microservicio_cliente.config.ClienteServiceConfiguration;
 import ar.edu.unju.fi.trabajo_final.microservicio_cliente.dto.ClienteMapper;
+import ar.edu.unju.fi.trabajo_final.microservicio_cliente.dto.ClienteResumenDTO;
 import ar.edu.unju.fi.trabajo_final.microservicio_cliente.entity.Cliente;
 import ar.edu.unju.fi.trabajo_final.microservicio_cliente.entity.PropertiesCliente;
+import ar.edu.unju.fi.trabajo_final.microservicio_cliente.exception.ValidacionException;
 import ar.edu.unju.fi.trabajo_final.microservicio_cliente.payload.MensajeRespondeCliente;
+import ar.edu.unju.fi.trabajo_final.microservicio_cliente.payload.Pagina;
 import ar.edu.unju.fi.trabajo_final.microservicio_cliente.service.ClienteService;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -18,7 +21,9 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 
 @RestController
@@ -105,12 +110,15 @@ public class ClienteController  implements ApiCliente{
     }
 
     @Override
-    public ResponseEntity<MensajeRespondeCliente> obtenerClientes(){
-        List<Cliente> clientes = clienteService.buscarTodos();
+    public ResponseEntity<MensajeRespondeCliente> obtenerClientes(@RequestParam(required = false) String cursor,
+                                                                  @RequestParam(required = false) Integer limite){
+        int tamanio = Pagina.resolverLimite(limite, configCliente.getPaginaTamanio(), configCliente.getPaginaMax());
+        Pagina<Cliente> pagina = clienteService.buscarPaginados(cursor, tamanio);
 
         return new ResponseEntity<>(MensajeRespondeCliente.builder()
                 .mensaje("Cliente obtenidos exitosamente.")
-                .clienteLista(clienteMapper.listaClienteTolistaClienteDTO(clientes))
+                .clienteLista(clienteMapper.listaClienteTolistaClienteDTO(pagina.getElementos()))
+                .siguiente(pagina.getSiguiente())
                 .build()
                 , HttpStatus.OK);
 
@@ -126,6 +134,18 @@ public class ClienteController  implements ApiCliente{
                 , HttpStatus.OK);
     }
 
+    @Override
+    public ResponseEntity<Map<Long, ClienteResumenDTO>> buscarClientesPorIds(@RequestBody List<Long> ids){
+        if (ids != null && ids.size() > configCliente.getLookupMaxIds()) {
+            throw new ValidacionException("No se pueden buscar mas de " + configCliente.getLookupMaxIds() + " clientes por peticion.");
+        }
+        Map<Long, ClienteResumenDTO> clientes = new LinkedHashMap<>();
+        for (ClienteResumenDTO cliente : clienteService.buscarResumenPorIds(ids)) {
+            clientes.put(cliente.getId(), cliente);
+        }
+        return new ResponseEntity<>(clientes, HttpStatus.OK);
+    }
+
     @Override
     public String obtenerPropiedades()throws JsonProcessingException {
         ObjectWriter owj = new ObjectMapper().writer().withDefaultPrettyPrinter();
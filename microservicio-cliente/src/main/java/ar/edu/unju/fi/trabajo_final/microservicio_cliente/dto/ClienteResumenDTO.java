@@ -0,0 +1,19 @@
+package ar.edu.unju.fi.trabajo_final.microservicio_cliente.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Vista reducida de un Cliente (sin domicilios ni credenciales).
+ * Es lo que devuelve la busqueda masiva usada por otros microservicios.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClienteResumenDTO {
+    private Long id;
+    private String nombreCompleto;
+    private String email;
+    private String documento;
+}
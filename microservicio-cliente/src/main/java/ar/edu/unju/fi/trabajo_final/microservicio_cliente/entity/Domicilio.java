@@ -8,7 +8,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "domicilios")
+@Table(name = "domicilios", indexes = @Index(name = "idx_domicilios_cliente", columnList = "cliente_id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -30,6 +30,14 @@ public class GlobalExceptionHandler {
         ApiResponde apiResponde = new ApiResponde(e.getMessage(), webRequest.getDescription(false));
         return new ResponseEntity<>(apiResponde, HttpStatus.NOT_FOUND);
     }
+    /**
+     * Pool de hash del login saturado: el cliente puede reintentar en unos segundos.
+     */
+    @ExceptionHandler(ServicioNoDisponibleException.class)
+    public ResponseEntity<ApiResponde> handlerServicioNoDisponibleException(ServicioNoDisponibleException e, WebRequest webRequest){
+        ApiResponde apiResponde = new ApiResponde(e.getMessage(), webRequest.getDescription(false));
+        return new ResponseEntity<>(apiResponde, HttpStatus.SERVICE_UNAVAILABLE);
+    }
     /**
      * Maneja las excepciones de validación de @Valid (formato de email, campos no vacíos, etc.).
      * Devuelve un 400 Bad Request.
@@ -0,0 +1,7 @@
+package ar.edu.unju.fi.trabajo_final.microservicio_cliente.exception;
+
+public class ServicioNoDisponibleException extends RuntimeException {
+    public ServicioNoDisponibleException(String message) {
+        super(message);
+    }
+}
@@ -15,4 +15,6 @@ public class MensajeRespondeCliente {
     private String mensaje;
     private ClienteDTO cliente;
     private List<ClienteDTO> clienteLista;
+    // Cursor para pedir la pagina siguiente del listado (null si no hay mas)
+    private String siguiente;
 }
@@ -1,8 +1,17 @@
 package ar.edu.unju.fi.trabajo_final.microservicio_cliente.repository;
 
+import ar.edu.unju.fi.trabajo_final.microservicio_cliente.dto.ClienteResumenDTO;
 import ar.edu.unju.fi.trabajo_final.microservicio_cliente.entity.Cliente;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
 
 /**
  * Repositorio JPA para la entidad Cliente.
@@ -20,10 +29,53 @@ public interface ClienteRepository extends JpaRepository<Cliente, Long> {
     Cliente findByEmail(String email);
 
     /**
-     * Busca un Cliente por su número de documento.
+     * Busca en una sola consulta los Clientes que ya usan el email o el documento indicados.
+     * Solo proyecta las columnas necesarias; por las restricciones unique devuelve como mucho dos filas
+     * (una por email y otra por documento, o una sola si es el mismo cliente).
      * Método necesario para la validación de unicidad en la capa de servicio.
-     * @param documento El número de documento del cliente.
-     * @return Cliente o null si no existe.
+     * @param email Email a validar, o null para no validarlo.
+     * @param documento Documento a validar, o null para no validarlo.
+     * @return Los clientes en conflicto (vacía si ambos están libres).
+     */
+    @Query("select new ar.edu.unju.fi.trabajo_final.microservicio_cliente.dto.ClienteResumenDTO(" +
+            "c.id, c.nombreCompleto, c.email, c.documento) from Cliente c " +
+            "where c.email = :email or c.documento = :documento")
+    List<ClienteResumenDTO> findConflictosUnicidad(@Param("email") String email, @Param("documento") String documento);
+
+    /**
+     * Busca en una sola consulta la vista reducida de los Clientes cuyos IDs se indican.
+     * Solo proyecta las columnas necesarias (no carga domicilios ni password).
+     * @param ids Los IDs de los clientes.
+     * @return Lista con los clientes encontrados; los IDs inexistentes se omiten.
+     */
+    @Query("select new ar.edu.unju.fi.trabajo_final.microservicio_cliente.dto.ClienteResumenDTO(" +
+            "c.id, c.nombreCompleto, c.email, c.documento) from Cliente c where c.id in :ids")
+    List<ClienteResumenDTO> findResumenByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Primera pagina del listado de clientes (id descendente).
+     * @param pageable Solo se usa el tamaño; siempre se pide la pagina 0.
+     * @return Como mucho {@code pageable.getPageSize()} clientes.
+     */
+    List<Cliente> findAllByOrderByIdDesc(Pageable pageable);
+
+    /**
+     * Paginas siguientes del listado: los clientes con id menor al ultimo devuelto.
+     * @param id El id del ultimo cliente de la pagina anterior.
+     * @param pageable Solo se usa el tamaño; siempre se pide la pagina 0.
+     * @return Como mucho {@code pageable.getPageSize()} clientes.
+     */
+    List<Cliente> findByIdLessThanOrderByIdDesc(Long id, Pageable pageable);
+
+    /**
+     * Reemplaza solo el hash de la contraseña (rehash al iniciar sesion con otro costo de BCrypt),
+     * sin cargar ni tocar los domicilios.
+     * @param id El id del cliente.
+     * @param password El nuevo hash.
+     * @return 1 si se actualizo, 0 si el cliente no existe.
      */
-    Cliente findByDocumento(String documento);
-}
\ No newline at end of file
+    @Transactional
+    @Modifying
+    @Query("update Cliente c set c.password = :password where c.id = :id")
+    int actualizarPassword(@Param("id") Long id, @Param("password") String password);
+}
@@ -1,8 +1,11 @@
 package ar.edu.unju.fi.trabajo_final.microservicio_cliente.service;
 
+import ar.edu.unju.fi.trabajo_final.microservicio_cliente.dto.ClienteResumenDTO;
 import ar.edu.unju.fi.trabajo_final.microservicio_cliente.entity.Cliente;
 import ar.edu.unju.fi.trabajo_final.microservicio_cliente.exception.ElementoNoEncontradoException;
 import ar.edu.unju.fi.trabajo_final.microservicio_cliente.exception.ValidacionException;
+import ar.edu.unju.fi.trabajo_final.microservicio_cliente.payload.Pagina;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -21,10 +24,14 @@ public interface ClienteService {
     Cliente guardar(Cliente cliente) throws ValidacionException;
 
     /**
-     * [ADMIN] Busca y retorna todos los Clientes.
-     * @return Una lista de todos los Clientes.
+     * [ADMIN] Busca una pagina del listado de Clientes, del id mas alto al mas bajo.
+     * Pagina por cursor sobre el id, sin OFFSET.
+     * @param cursor El cursor {@code siguiente} de la pagina anterior, o null para la primera pagina.
+     * @param limite Cantidad maxima de Clientes de la pagina.
+     * @return La pagina con los Clientes y el cursor de la siguiente.
+     * @throws ValidacionException Si el cursor no es valido.
      */
-    List<Cliente> buscarTodos();
+    Pagina<Cliente> buscarPaginados(String cursor, int limite) throws ValidacionException;
 
     /**
      * [ADMIN/INTERNO] Busca un Cliente por su ID.
@@ -34,6 +41,15 @@ public interface ClienteService {
      */
     Cliente buscarPorId(Long id) throws ElementoNoEncontradoException;
 
+    /**
+     * [INTERNO] Busca en una sola consulta la vista reducida de los Clientes cuyos IDs se indican.
+     * (Usado por ms-reserva para ensamblar listados sin una llamada por reserva)
+     * Los IDs que no existen se omiten del resultado.
+     * @param ids Los IDs de los clientes a buscar.
+     * @return Una lista con el resumen de los Clientes encontrados.
+     */
+    List<ClienteResumenDTO> buscarResumenPorIds(Collection<Long> ids);
+
     /**
      * [ADMIN] Actualiza la información de un Cliente existente (vía ID del body).
      * @param cliente El Cliente con la información actualizada.
@@ -6,39 +6,45 @@ import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import io.jsonwebtoken.io.Serializer;
 import java.security.Key;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.ServiceLoader;
 
 @Service
 public class JwtUtil {
 
-    // 1. Lee la clave secreta desde el .properties (Git)
-    @Value("${jwt.secret}")
-    private String secret;
+    private static final long EXPIRACION_MS = 1000L * 60 * 60 * 10; // 10 horas
 
-    private Key getSigningKey() {
-        byte[] keyBytes = secret.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+    // 1. La clave HMAC se arma una sola vez a partir de la clave secreta del .properties (Git)
+    private final Key signingKey;
+    // Serializador JSON de jjwt (jjwt-jackson): sin indicarlo, cada compact() lo vuelve a buscar con ServiceLoader
+    private final Serializer<Map<String, ?>> serializer;
+
+    @SuppressWarnings("unchecked")
+    public JwtUtil(@Value("${jwt.secret}") String secret) {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        this.serializer = ServiceLoader.load(Serializer.class).findFirst()
+                .orElseThrow(() -> new IllegalStateException("No hay un Serializer de jjwt en el classpath (jjwt-jackson)."));
     }
 
     // 2. Genera el token
     public String generarToken(Cliente cliente) {
-        Map<String, Object> claims = new HashMap<>();
-        // 3. Añade los "claims" (datos) que el Gateway y otros servicios necesitarán
-        claims.put("id", cliente.getId());
-        claims.put("rol", cliente.getRol());
-
+        long ahora = System.currentTimeMillis();
+        // 3. Añade los "claims" (datos) que el Gateway y otros servicios necesitarán,
+        // directo en el builder (sin armar un mapa aparte por cada login)
         return Jwts.builder()
-                .setClaims(claims)
+                .serializeToJsonWith(serializer)
+                .claim("id", cliente.getId())
+                .claim("rol", cliente.getRol())
                 .setSubject(cliente.getEmail()) // 'sub' (Subject) es el email
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 10)) // 10 horas
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .setIssuedAt(new Date(ahora))
+                .setExpiration(new Date(ahora + EXPIRACION_MS))
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     // (Añadiríamos métodos 'validarToken' y 'getClaims' para el Gateway,
     // pero el Cliente solo necesita 'generarToken')
-}
\ No newline at end of file
+}
@@ -0,0 +1,31 @@
+package ar.edu.unju.fi.trabajo_final.microservicio_cliente.service;
+
+import ar.edu.unju.fi.trabajo_final.microservicio_cliente.entity.Cliente;
+import ar.edu.unju.fi.trabajo_final.microservicio_cliente.exception.ServicioNoDisponibleException;
+import org.springframework.security.authentication.BadCredentialsException;
+
+/**
+ * Define el contrato del login y del hash de contraseñas (usado por /auth/login y /auth/register).
+ * Los hashes BCrypt se calculan en un pool de hilos acotado, separado de los hilos de Tomcat.
+ */
+public interface LoginService {
+
+    /**
+     * Verifica las credenciales cargando el Cliente una sola vez.
+     * Si el hash guardado tiene un costo distinto de {@code cliente.bcryptCosto}, se rehashea con el costo actual.
+     * @param email El email del usuario.
+     * @param password La contraseña en texto plano.
+     * @return El Cliente autenticado (para armar el token).
+     * @throws BadCredentialsException Si el email no existe o la contraseña no coincide.
+     * @throws ServicioNoDisponibleException Si el pool de hash esta saturado.
+     */
+    Cliente autenticar(String email, String password) throws BadCredentialsException, ServicioNoDisponibleException;
+
+    /**
+     * Calcula el hash BCrypt de una contraseña con el costo configurado.
+     * @param password La contraseña en texto plano.
+     * @return El hash a guardar.
+     * @throws ServicioNoDisponibleException Si el pool de hash esta saturado.
+     */
+    String codificar(String password) throws ServicioNoDisponibleException;
+}
@@ -1,16 +1,21 @@
 package ar.edu.unju.fi.trabajo_final.microservicio_cliente.service.impl;
 
+import ar.edu.unju.fi.trabajo_final.microservicio_cliente.dto.ClienteResumenDTO;
 import ar.edu.unju.fi.trabajo_final.microservicio_cliente.entity.Cliente;
 import ar.edu.unju.fi.trabajo_final.microservicio_cliente.entity.Domicilio;
 import ar.edu.unju.fi.trabajo_final.microservicio_cliente.exception.ElementoNoEncontradoException;
 import ar.edu.unju.fi.trabajo_final.microservicio_cliente.exception.ValidacionException;
+import ar.edu.unju.fi.trabajo_final.microservicio_cliente.payload.Pagina;
 import ar.edu.unju.fi.trabajo_final.microservicio_cliente.repository.ClienteRepository;
 import ar.edu.unju.fi.trabajo_final.microservicio_cliente.service.ClienteService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -21,6 +26,8 @@ import java.util.List;
 public class ClienteServiceImpl implements ClienteService {
 
     private static final Logger logger = LoggerFactory.getLogger(ClienteServiceImpl.class);
+    private static final String EMAIL_DUPLICADO = "El email ya pertenece a otro cliente.";
+    private static final String DOCUMENTO_DUPLICADO = "El documento ya pertenece a otro cliente.";
     private final ClienteRepository clienteRepository;
 
     /**
@@ -35,6 +42,7 @@ public class ClienteServiceImpl implements ClienteService {
 
     /**
      * Válida que el email y documento sean únicos, excepto si pertenecen al cliente con 'idExcluir'.
+     * Una sola consulta proyectada para ambos campos (sin cargar entidades ni domicilios).
      *
      * @param email     Email a validar.
      * @param documento Documento a validar.
@@ -43,23 +51,49 @@ public class ClienteServiceImpl implements ClienteService {
     private void validarUnicidad(String email, String documento, Long idExcluir) throws ValidacionException {
         // (No permitimos cambiar el email en esta lógica,
         // pero la validación de documento sigue siendo crucial).
+        if (email == null && documento == null) {
+            return;
+        }
 
-        // Validación de Email Duplicado (si se proporciona)
-        if (email != null) {
-            Cliente existentePorEmail = clienteRepository.findByEmail(email);
-            if (existentePorEmail != null && (idExcluir == null || !existentePorEmail.getId().equals(idExcluir))) {
-                logger.warn("VALIDACIÓN FALLIDA: El email '{}' ya pertenece al Cliente ID {}.", email, existentePorEmail.getId());
-                throw new ValidacionException("El email ya pertenece a otro cliente.");
+        // Email primero, como antes: si ambos chocan se informa el email
+        ClienteResumenDTO conflictoDocumento = null;
+        for (ClienteResumenDTO existente : clienteRepository.findConflictosUnicidad(email, documento)) {
+            if (existente.getId().equals(idExcluir)) {
+                continue;
+            }
+            if (email != null && email.equals(existente.getEmail())) {
+                logger.warn("VALIDACIÓN FALLIDA: El email '{}' ya pertenece al Cliente ID {}.", email, existente.getId());
+                throw new ValidacionException(EMAIL_DUPLICADO);
             }
+            if (documento != null && documento.equals(existente.getDocumento())) {
+                conflictoDocumento = existente;
+            }
+        }
+
+        if (conflictoDocumento != null) {
+            logger.warn("VALIDACIÓN FALLIDA: El documento '{}' ya pertenece al Cliente ID {}.", documento, conflictoDocumento.getId());
+            throw new ValidacionException(DOCUMENTO_DUPLICADO);
         }
+    }
 
-        // Validación de Documento Duplicado (si se proporciona)
-        if (documento != null) {
-            Cliente existentePorDoc = clienteRepository.findByDocumento(documento);
-            if (existentePorDoc != null && (idExcluir == null || !existentePorDoc.getId().equals(idExcluir))) {
-                logger.warn("VALIDACIÓN FALLIDA: El documento '{}' ya pertenece al Cliente ID {}.", documento, existentePorDoc.getId());
-                throw new ValidacionException("El documento ya pertenece a otro cliente.");
+    /**
+     * Guarda y hace flush dentro del método para que una violación de las restricciones unique
+     * (otro alta concurrente que pasó la validación al mismo tiempo) llegue como ValidacionException
+     * con el mismo mensaje que validarUnicidad, y no como error 500 al hacer commit.
+     */
+    private Cliente guardarValidando(Cliente cliente) throws ValidacionException {
+        try {
+            return clienteRepository.saveAndFlush(cliente);
+        } catch (DataIntegrityViolationException e) {
+            String causa = String.valueOf(e.getMostSpecificCause().getMessage()).toLowerCase();
+            logger.warn("VALIDACIÓN FALLIDA: Restricción de unicidad violada al guardar el cliente: {}", causa);
+            if (causa.contains("email")) {
+                throw new ValidacionException(EMAIL_DUPLICADO);
             }
+            if (causa.contains("documento")) {
+                throw new ValidacionException(DOCUMENTO_DUPLICADO);
+            }
+            throw e;
         }
     }
 
@@ -77,14 +111,21 @@ public class ClienteServiceImpl implements ClienteService {
             }
         }
 
-        Cliente nuevoCliente = clienteRepository.save(cliente);
+        Cliente nuevoCliente = guardarValidando(cliente);
         logger.info("Cliente guardado exitosamente. ID: {}", nuevoCliente.getId());
         return nuevoCliente;
     }
 
     @Override
-    public List<Cliente> buscarTodos() {
-        return clienteRepository.findAll();
+    @Transactional(readOnly = true)
+    public Pagina<Cliente> buscarPaginados(String cursor, int limite) throws ValidacionException {
+        Long despuesDe = Pagina.decodificar(cursor);
+        // Se pide una fila de mas para saber si hay otra pagina
+        PageRequest pagina = PageRequest.of(0, limite + 1);
+        List<Cliente> filas = despuesDe == null
+                ? clienteRepository.findAllByOrderByIdDesc(pagina)
+                : clienteRepository.findByIdLessThanOrderByIdDesc(despuesDe, pagina);
+        return Pagina.de(filas, limite, Cliente::getId);
     }
 
     @Override
@@ -96,6 +137,15 @@ public class ClienteServiceImpl implements ClienteService {
                 });
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<ClienteResumenDTO> buscarResumenPorIds(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        return clienteRepository.findResumenByIdIn(ids);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Cliente buscarPorEmail(String email) throws ElementoNoEncontradoException {
@@ -135,7 +185,7 @@ public class ClienteServiceImpl implements ClienteService {
             }
         }
 
-        Cliente clienteActualizado = clienteRepository.save(clienteExistente);
+        Cliente clienteActualizado = guardarValidando(clienteExistente);
         logger.info("Cliente ID {} (Admin) actualizado exitosamente.", cliente.getId());
         return clienteActualizado;
     }
@@ -186,7 +236,7 @@ public class ClienteServiceImpl implements ClienteService {
             }
         }
 
-        Cliente perfilActualizado = clienteRepository.save(perfilActual);
+        Cliente perfilActualizado = guardarValidando(perfilActual);
         logger.info("Perfil del Cliente ID {} actualizado exitosamente.", clienteId);
         return perfilActualizado;
     }
@@ -0,0 +1,154 @@
+package ar.edu.unju.fi.trabajo_final.microservicio_cliente.service.impl;
+
+import ar.edu.unju.fi.trabajo_final.microservicio_cliente.config.ClienteServiceConfiguration;
+import ar.edu.unju.fi.trabajo_final.microservicio_cliente.entity.Cliente;
+import ar.edu.unju.fi.trabajo_final.microservicio_cliente.exception.ServicioNoDisponibleException;
+import ar.edu.unju.fi.trabajo_final.microservicio_cliente.repository.ClienteRepository;
+import ar.edu.unju.fi.trabajo_final.microservicio_cliente.service.LoginService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Implementación del login con BCrypt.
+ * - El Cliente se carga una sola vez por login y se reutiliza para el token (antes: loadUserByUsername + buscarPorEmail).
+ * - Si el email no existe igual se compara contra un hash de relleno, para que la respuesta tarde lo mismo.
+ * - Rehash transparente: si el hash guardado tiene otro costo que {@code cliente.bcryptCosto}, se vuelve a
+ *   calcular con la contraseña recien verificada y se actualiza solo esa columna. Si el pool no puede hacerlo
+ *   el login sigue igual y el rehash queda para el proximo.
+ * - Los hashes corren en un pool fijo de {@code cliente.loginHilos} hilos. La cola admite solo los hashes que
+ *   alcanzan a terminar dentro de {@code cliente.loginEsperaMs} segun el costo medido al iniciar (como mucho
+ *   {@code cliente.loginCola}); con la cola llena se responde 503 enseguida, sin dejar un hilo de Tomcat esperando.
+ */
+@Service
+public class LoginServiceImpl implements LoginService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginServiceImpl.class);
+    // $2a$10$... / $2b$12$... : el costo son los dos digitos despues de la version
+    private static final Pattern COSTO = Pattern.compile("^\\$2[aby]?\\$(\\d{2})\\$");
+
+    private final ClienteRepository clienteRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final ClienteServiceConfiguration configCliente;
+    private final ThreadPoolExecutor pool;
+    private final String hashRelleno;
+    private final int capacidadCola;
+
+    public LoginServiceImpl(ClienteRepository clienteRepository,
+                            PasswordEncoder passwordEncoder,
+                            ClienteServiceConfiguration configCliente) {
+        this.clienteRepository = clienteRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.configCliente = configCliente;
+        this.hashRelleno = passwordEncoder.encode("relleno-para-emails-inexistentes");
+        // El primer hash calienta el encoder; se mide el segundo, que cuesta lo mismo que un login
+        long inicio = System.nanoTime();
+        passwordEncoder.matches("relleno-para-emails-inexistentes", hashRelleno);
+        long hashMs = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+        this.capacidadCola = (int) Math.max(1, Math.min(configCliente.getLoginCola(),
+                configCliente.getLoginHilos() * configCliente.getLoginEsperaMs() / hashMs));
+        logger.info("Pool de login: {} hilos, cola de {} (hash de {} ms).", configCliente.getLoginHilos(), capacidadCola, hashMs);
+        AtomicInteger hilos = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(configCliente.getLoginHilos(), configCliente.getLoginHilos(),
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(capacidadCola),
+                tarea -> {
+                    Thread hilo = new Thread(tarea, "login-bcrypt-" + hilos.incrementAndGet());
+                    hilo.setDaemon(true);
+                    return hilo;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        pool.shutdownNow();
+    }
+
+    @Override
+    public Cliente autenticar(String email, String password) throws BadCredentialsException, ServicioNoDisponibleException {
+        Cliente cliente = email == null ? null : clienteRepository.findByEmail(email);
+        String hash = cliente != null ? cliente.getPassword() : hashRelleno;
+        boolean coincide = password != null && enPool(() -> passwordEncoder.matches(password, hash));
+
+        if (cliente == null || !coincide) {
+            logger.warn("LOGIN FALLIDO: credenciales invalidas para {}.", email);
+            throw new BadCredentialsException("Credenciales invalidas");
+        }
+
+        if (costo(hash) != configCliente.getBcryptCosto()) {
+            rehashear(cliente, password);
+        }
+        return cliente;
+    }
+
+    private void rehashear(Cliente cliente, String password) {
+        String nuevo;
+        try {
+            nuevo = codificar(password);
+        } catch (ServicioNoDisponibleException e) {
+            // La contraseña ya se verifico: el rehash es una mejora y no debe convertir el login en un 503
+            logger.info("REHASH POSTERGADO: pool de hash ocupado para el cliente ID {}.", cliente.getId());
+            return;
+        }
+        clienteRepository.actualizarPassword(cliente.getId(), nuevo);
+        cliente.setPassword(nuevo);
+        logger.info("REHASH: contraseña del cliente ID {} actualizada al costo {}.", cliente.getId(), configCliente.getBcryptCosto());
+    }
+
+    int capacidadCola() {
+        return capacidadCola;
+    }
+
+    @Override
+    public String codificar(String password) throws ServicioNoDisponibleException {
+        return enPool(() -> passwordEncoder.encode(password));
+    }
+
+    /**
+     * Costo del hash BCrypt guardado, o -1 si no tiene el formato esperado (en ese caso tambien se rehashea).
+     */
+    static int costo(String hash) {
+        Matcher matcher = COSTO.matcher(hash);
+        return matcher.find() ? Integer.parseInt(matcher.group(1)) : -1;
+    }
+
+    private <T> T enPool(Callable<T> tarea) throws ServicioNoDisponibleException {
+        Future<T> futuro;
+        try {
+            futuro = pool.submit(tarea);
+        } catch (RejectedExecutionException e) {
+            logger.warn("LOGIN RECHAZADO: pool de hash saturado ({} en cola).", pool.getQueue().size());
+            throw new ServicioNoDisponibleException("Servicio de autenticacion saturado, reintente en unos segundos.");
+        }
+        try {
+            return futuro.get(configCliente.getLoginEsperaMs(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            futuro.cancel(true);
+            throw new ServicioNoDisponibleException("Servicio de autenticacion saturado, reintente en unos segundos.");
+        } catch (InterruptedException e) {
+            futuro.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServicioNoDisponibleException("Autenticacion interrumpida.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
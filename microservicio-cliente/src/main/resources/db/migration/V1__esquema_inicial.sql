@@ -0,0 +1,23 @@
+-- Esquema de ms-cliente tal como lo venia generando Hibernate (ddl-auto=update).
+-- Usa IF NOT EXISTS para poder correr tambien sobre bases creadas antes de Flyway.
+
+create table if not exists clientes (
+    id bigint generated by default as identity primary key,
+    nombre_completo varchar(255) not null,
+    email varchar(255) not null unique,
+    documento varchar(255) not null unique,
+    password varchar(255) not null,
+    rol varchar(255) not null
+);
+
+create table if not exists domicilios (
+    id bigint generated by default as identity primary key,
+    calle varchar(255),
+    numero varchar(255),
+    ciudad varchar(255),
+    provincia varchar(255),
+    pais varchar(255),
+    codigo_postal varchar(255),
+    principal boolean,
+    cliente_id bigint not null references clientes (id)
+);
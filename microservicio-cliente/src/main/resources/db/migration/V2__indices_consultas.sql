@@ -0,0 +1,2 @@
+-- Domicilios de un cliente (coleccion Cliente.domicilios): la FK no crea indice en PostgreSQL
+create index if not exists idx_domicilios_cliente on domicilios (cliente_id);
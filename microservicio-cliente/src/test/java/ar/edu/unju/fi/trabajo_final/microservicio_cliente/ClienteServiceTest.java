@@ -1,8 +1,10 @@
 package ar.edu.unju.fi.trabajo_final.microservicio_cliente;
 
+import ar.edu.unju.fi.trabajo_final.microservicio_cliente.dto.ClienteResumenDTO;
 import ar.edu.unju.fi.trabajo_final.microservicio_cliente.entity.Cliente;
 import ar.edu.unju.fi.trabajo_final.microservicio_cliente.exception.ElementoNoEncontradoException;
 import ar.edu.unju.fi.trabajo_final.microservicio_cliente.exception.ValidacionException;
+import ar.edu.unju.fi.trabajo_final.microservicio_cliente.payload.Pagina;
 import ar.edu.unju.fi.trabajo_final.microservicio_cliente.repository.ClienteRepository;
 import ar.edu.unju.fi.trabajo_final.microservicio_cliente.service.impl.ClienteServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,6 +14,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.util.*;
 
@@ -51,40 +54,57 @@ class ClienteServiceTest {
     @DisplayName("G-01: Debe guardar un cliente si email y documento son únicos")
     void testGuardar_UnicidadExitosa() throws ValidacionException {
 
-        when(clienteRepository.findByEmail(anyString())).thenReturn(null);
-        when(clienteRepository.findByDocumento(anyString())).thenReturn(null);
-        when(clienteRepository.save(any(Cliente.class))).thenReturn(
+        when(clienteRepository.findConflictosUnicidad(anyString(), anyString())).thenReturn(List.of());
+        when(clienteRepository.saveAndFlush(any(Cliente.class))).thenReturn(
                 new Cliente(1L, "Lionel Messi", "leo.messi@mail.com", "30000000", new ArrayList<>(),"123456789","ROLE_USER")
         );
 
         Cliente clienteGuardado = clienteService.guardar(clienteNuevo);
 
         assertNotNull(clienteGuardado.getId());
-        verify(clienteRepository).save(clienteNuevo);
+        verify(clienteRepository).saveAndFlush(clienteNuevo);
+        // Una sola lectura para email y documento
+        verify(clienteRepository, times(1)).findConflictosUnicidad("leo.messi@mail.com", "30000000");
+        verify(clienteRepository, never()).findByEmail(anyString());
     }
 
     @Test
     @DisplayName("G-02: Debe lanzar ValidacionException si el email ya existe")
     void testGuardar_EmailDuplicado_LanzaExcepcion() {
 
-        Cliente existente = new Cliente(2L, "Otro", clienteNuevo.getEmail(), "444", new ArrayList<>(),"123","ROLE_USER");
-        when(clienteRepository.findByEmail(clienteNuevo.getEmail())).thenReturn(existente);
+        when(clienteRepository.findConflictosUnicidad(clienteNuevo.getEmail(), clienteNuevo.getDocumento()))
+                .thenReturn(List.of(new ClienteResumenDTO(2L, "Otro", clienteNuevo.getEmail(), "444")));
 
-        assertThrows(ValidacionException.class, () -> clienteService.guardar(clienteNuevo));
+        ValidacionException e = assertThrows(ValidacionException.class, () -> clienteService.guardar(clienteNuevo));
 
-        verify(clienteRepository, never()).save(any());
+        assertEquals("El email ya pertenece a otro cliente.", e.getMessage());
+        verify(clienteRepository, never()).saveAndFlush(any());
     }
 
     @Test
     @DisplayName("G-03: Debe lanzar ValidacionException si el documento ya existe")
     void testGuardar_DocumentoDuplicado_LanzaExcepcion() {
 
-        when(clienteRepository.findByEmail(anyString())).thenReturn(null);
+        when(clienteRepository.findConflictosUnicidad(clienteNuevo.getEmail(), clienteNuevo.getDocumento()))
+                .thenReturn(List.of(new ClienteResumenDTO(3L, "X", "otro@mail.com", clienteNuevo.getDocumento())));
 
-        Cliente existente = new Cliente(3L, "X", "otro@mail.com", clienteNuevo.getDocumento(), new ArrayList<>(),"123","ROLE_USER");
-        when(clienteRepository.findByDocumento(clienteNuevo.getDocumento())).thenReturn(existente);
+        ValidacionException e = assertThrows(ValidacionException.class, () -> clienteService.guardar(clienteNuevo));
 
-        assertThrows(ValidacionException.class, () -> clienteService.guardar(clienteNuevo));
+        assertEquals("El documento ya pertenece a otro cliente.", e.getMessage());
+    }
+
+    @Test
+    @DisplayName("G-04: Una violación de la restricción unique al guardar se informa como ValidacionException")
+    void testGuardar_RestriccionUnicaConcurrente_LanzaValidacion() {
+
+        when(clienteRepository.findConflictosUnicidad(anyString(), anyString())).thenReturn(List.of());
+        when(clienteRepository.saveAndFlush(any(Cliente.class))).thenThrow(new DataIntegrityViolationException(
+                "could not execute statement",
+                new RuntimeException("duplicate key value violates unique constraint \"clientes_documento_key\"")));
+
+        ValidacionException e = assertThrows(ValidacionException.class, () -> clienteService.guardar(clienteNuevo));
+
+        assertEquals("El documento ya pertenece a otro cliente.", e.getMessage());
     }
 
     // -------------------------------------------------------------------------
@@ -106,16 +126,17 @@ class ClienteServiceTest {
         );
 
         when(clienteRepository.findById(1L)).thenReturn(Optional.of(clienteExistente));
-        when(clienteRepository.findByEmail(anyString())).thenReturn(null);
-        when(clienteRepository.findByDocumento(anyString())).thenReturn(null);
-        when(clienteRepository.save(any(Cliente.class))).thenReturn(clienteExistente);
+        // El propio cliente aparece como conflicto de su documento: se ignora
+        when(clienteRepository.findConflictosUnicidad(anyString(), anyString()))
+                .thenReturn(List.of(new ClienteResumenDTO(1L, "Lionel Messi", "leo.messi@mail.com", "30000000")));
+        when(clienteRepository.saveAndFlush(any(Cliente.class))).thenReturn(clienteExistente);
 
         Cliente resultado = clienteService.actualizar(clienteActualizado);
 
         assertEquals("Lionel Andres Messi", resultado.getNombreCompleto());
         assertEquals("leo.messi.nuevo@mail.com", resultado.getEmail());
 
-        verify(clienteRepository).save(clienteExistente);
+        verify(clienteRepository).saveAndFlush(clienteExistente);
     }
 
     @Test
@@ -128,7 +149,7 @@ class ClienteServiceTest {
 
         assertThrows(ElementoNoEncontradoException.class, () -> clienteService.actualizar(clienteNuevo));
 
-        verify(clienteRepository, never()).save(any());
+        verify(clienteRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -139,12 +160,11 @@ class ClienteServiceTest {
                 1L, "Propio", "propio@mail.com", "111",
                 new ArrayList<>(),"123","ROLE_USER");
 
-        Cliente otro = new Cliente(
-                2L, "Otro", "duplicado@mail.com", "222",
-                new ArrayList<>(),"123","ROLE_USER");
+        ClienteResumenDTO otro = new ClienteResumenDTO(2L, "Otro", "duplicado@mail.com", "222");
 
         when(clienteRepository.findById(1L)).thenReturn(Optional.of(existente));
-        when(clienteRepository.findByEmail("duplicado@mail.com")).thenReturn(otro);
+        when(clienteRepository.findConflictosUnicidad("duplicado@mail.com", "111"))
+                .thenReturn(List.of(new ClienteResumenDTO(1L, "Propio", "propio@mail.com", "111"), otro));
 
         Cliente datosUpdate = new Cliente(
                 1L, "Propio Mod", "duplicado@mail.com", "111",
@@ -152,7 +172,7 @@ class ClienteServiceTest {
 
         assertThrows(ValidacionException.class, () -> clienteService.actualizar(datosUpdate));
 
-        verify(clienteRepository, never()).save(any());
+        verify(clienteRepository, never()).saveAndFlush(any());
     }
 
     // -------------------------------------------------------------------------
@@ -160,20 +180,21 @@ class ClienteServiceTest {
     // -------------------------------------------------------------------------
 
     @Test
-    @DisplayName("C-01: Debe retornar la lista de todos los clientes")
-    void testBuscarTodos() {
-
-        List<Cliente> lista = Arrays.asList(
-                new Cliente(1L,"A","a@a.com","1",new ArrayList<>(),"1","ROLE_USER"),
-                new Cliente(2L,"B","b@b.com","2",new ArrayList<>(),"2","ROLE_USER")
-        );
-
-        when(clienteRepository.findAll()).thenReturn(lista);
-
-        List<Cliente> resultado = clienteService.buscarTodos();
-
-        assertEquals(2, resultado.size());
-        assertFalse(resultado.isEmpty());
+    @DisplayName("C-01b: El listado paginado corta en el limite y devuelve el cursor de la pagina siguiente")
+    void testBuscarPaginados() {
+        Cliente c3 = new Cliente(3L,"C","c@c.com","3",new ArrayList<>(),"3","ROLE_USER");
+        Cliente c2 = new Cliente(2L,"B","b@b.com","2",new ArrayList<>(),"2","ROLE_USER");
+        Cliente c1 = new Cliente(1L,"A","a@a.com","1",new ArrayList<>(),"1","ROLE_USER");
+        when(clienteRepository.findAllByOrderByIdDesc(any())).thenReturn(List.of(c3, c2, c1));
+        when(clienteRepository.findByIdLessThanOrderByIdDesc(eq(2L), any())).thenReturn(List.of(c1));
+
+        Pagina<Cliente> primera = clienteService.buscarPaginados(null, 2);
+        Pagina<Cliente> segunda = clienteService.buscarPaginados(primera.getSiguiente(), 2);
+
+        assertEquals(List.of(c3, c2), primera.getElementos());
+        assertEquals(List.of(c1), segunda.getElementos());
+        assertNull(segunda.getSiguiente());
+        assertThrows(ValidacionException.class, () -> clienteService.buscarPaginados("xyz", 2));
     }
 
     @Test
@@ -197,6 +218,23 @@ class ClienteServiceTest {
         assertThrows(ElementoNoEncontradoException.class, () -> clienteService.buscarPorId(99L));
     }
 
+    @Test
+    @DisplayName("C-02c: Debe buscar el resumen de varios clientes por IDs en una sola consulta")
+    void testBuscarResumenPorIds_UnaSolaConsulta() {
+
+        List<Long> ids = List.of(1L, 2L);
+        when(clienteRepository.findResumenByIdIn(ids)).thenReturn(List.of(
+                new ClienteResumenDTO(1L,"A","a@a.com","1"),
+                new ClienteResumenDTO(2L,"B","b@b.com","2")
+        ));
+
+        List<ClienteResumenDTO> resultado = clienteService.buscarResumenPorIds(ids);
+
+        assertEquals(2, resultado.size());
+        verify(clienteRepository, times(1)).findResumenByIdIn(ids);
+        verify(clienteRepository, never()).findById(anyLong());
+    }
+
     @Test
     @DisplayName("C-03: Debe eliminar si el cliente existe")
     void testEliminar_Exitosa() throws ElementoNoEncontradoException {
@@ -0,0 +1,57 @@
+package ar.edu.unju.fi.trabajo_final.microservicio_cliente.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Milisegundos por verificacion BCrypt en el login segun el costo, para elegir {@code cliente.bcryptCosto}:
+ * cada hilo de {@code cliente.loginHilos} atiende aproximadamente 1000 / tiempo logins por segundo.
+ * <p>
+ * Ejecutar con: {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark.clase=ar.edu.unju.fi.trabajo_final.microservicio_cliente.benchmark.BCryptCostoBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class BCryptCostoBenchmark {
+
+    @Param({"8", "10", "12"})
+    public int costo;
+
+    private BCryptPasswordEncoder encoder;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(costo);
+        hash = encoder.encode("12345");
+    }
+
+    @Benchmark
+    public boolean verificar() {
+        return encoder.matches("12345", hash);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BCryptCostoBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,81 @@
+package ar.edu.unju.fi.trabajo_final.microservicio_cliente.benchmark;
+
+import ar.edu.unju.fi.trabajo_final.microservicio_cliente.entity.Cliente;
+import ar.edu.unju.fi.trabajo_final.microservicio_cliente.service.JwtUtil;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tokens por segundo y bytes asignados por token (gc.alloc.rate.norm) al emitir un JWT en el login.
+ * {@code anterior} reproduce la emision previa (clave HMAC y mapa de claims nuevos por token) como referencia.
+ * <p>
+ * Ejecutar con: {@code mvn -Pbenchmark test-compile exec:exec}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private static final String SECRET = "ClaveSecretaDemoParaPortafolioGithub1234567890";
+
+    private JwtUtil jwtUtil;
+    private Cliente cliente;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(SECRET);
+        cliente = new Cliente();
+        cliente.setId(42L);
+        cliente.setEmail("usuario@mail.com");
+        cliente.setRol("ROLE_USER");
+    }
+
+    @Benchmark
+    public String generarToken() {
+        return jwtUtil.generarToken(cliente);
+    }
+
+    @Benchmark
+    public String anterior() {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("id", cliente.getId());
+        claims.put("rol", cliente.getRol());
+        return Jwts.builder()
+                .setClaims(claims)
+                .setSubject(cliente.getEmail())
+                .setIssuedAt(new Date(System.currentTimeMillis()))
+                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 10))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtUtilBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,39 @@
+package ar.edu.unju.fi.trabajo_final.microservicio_cliente.service;
+
+import ar.edu.unju.fi.trabajo_final.microservicio_cliente.entity.Cliente;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilTest {
+
+    private static final String SECRET = "ClaveSecretaDemoParaPortafolioGithub1234567890";
+
+    @Test
+    void generarToken_EsValidoParaLosDemasServicios() {
+        Cliente cliente = new Cliente();
+        cliente.setId(42L);
+        cliente.setEmail("usuario@mail.com");
+        cliente.setRol("ROLE_USER");
+        JwtUtil jwtUtil = new JwtUtil(SECRET);
+
+        // Mismo decoder que arman ms-vuelo y ms-reserva en su SecurityConfig
+        NimbusJwtDecoder decoder = NimbusJwtDecoder
+                .withSecretKey(new SecretKeySpec(SECRET.getBytes(), "HmacSHA256"))
+                .build();
+        Jwt primero = decoder.decode(jwtUtil.generarToken(cliente));
+        Jwt segundo = decoder.decode(jwtUtil.generarToken(cliente));
+
+        assertEquals("usuario@mail.com", primero.getSubject());
+        assertEquals(42L, ((Number) primero.getClaim("id")).longValue());
+        assertEquals("ROLE_USER", primero.getClaimAsString("rol"));
+        assertEquals("HS256", primero.getHeaders().get("alg"));
+        assertEquals(Duration.ofHours(10), Duration.between(primero.getIssuedAt(), primero.getExpiresAt()));
+        assertEquals("usuario@mail.com", segundo.getSubject());
+    }
+}
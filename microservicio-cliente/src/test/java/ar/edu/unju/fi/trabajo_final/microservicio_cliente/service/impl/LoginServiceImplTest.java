@@ -0,0 +1,168 @@
+package ar.edu.unju.fi.trabajo_final.microservicio_cliente.service.impl;
+
+import ar.edu.unju.fi.trabajo_final.microservicio_cliente.config.ClienteServiceConfiguration;
+import ar.edu.unju.fi.trabajo_final.microservicio_cliente.entity.Cliente;
+import ar.edu.unju.fi.trabajo_final.microservicio_cliente.exception.ServicioNoDisponibleException;
+import ar.edu.unju.fi.trabajo_final.microservicio_cliente.repository.ClienteRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class LoginServiceImplTest {
+
+    // Costo bajo para que el test no tarde; el minimo de BCrypt es 4
+    private static final int COSTO = 4;
+
+    private ClienteRepository clienteRepository;
+    private BCryptPasswordEncoder encoder;
+    private LoginServiceImpl loginService;
+
+    @BeforeEach
+    void setUp() {
+        clienteRepository = mock(ClienteRepository.class);
+        ClienteServiceConfiguration config = new ClienteServiceConfiguration();
+        config.setBcryptCosto(COSTO);
+        config.setLoginHilos(2);
+        encoder = new BCryptPasswordEncoder(COSTO);
+        loginService = new LoginServiceImpl(clienteRepository, encoder, config);
+    }
+
+    @AfterEach
+    void tearDown() {
+        loginService.cerrar();
+    }
+
+    private Cliente cliente(String hash) {
+        Cliente cliente = new Cliente();
+        cliente.setId(7L);
+        cliente.setEmail("usuario@mail.com");
+        cliente.setPassword(hash);
+        cliente.setRol("ROLE_USER");
+        when(clienteRepository.findByEmail("usuario@mail.com")).thenReturn(cliente);
+        return cliente;
+    }
+
+    @Test
+    void autenticar_MismoCosto_DevuelveElClienteSinRehashear() {
+        Cliente cliente = cliente(encoder.encode("12345"));
+
+        assertSame(cliente, loginService.autenticar("usuario@mail.com", "12345"));
+
+        verify(clienteRepository, times(1)).findByEmail("usuario@mail.com");
+        verify(clienteRepository, never()).actualizarPassword(anyLong(), anyString());
+    }
+
+    @Test
+    void autenticar_OtroCosto_RehasheaConElCostoConfigurado() {
+        String anterior = new BCryptPasswordEncoder(5).encode("12345");
+        Cliente cliente = cliente(anterior);
+
+        loginService.autenticar("usuario@mail.com", "12345");
+
+        assertNotEquals(anterior, cliente.getPassword());
+        assertEquals(COSTO, LoginServiceImpl.costo(cliente.getPassword()));
+        assertTrue(encoder.matches("12345", cliente.getPassword()));
+        verify(clienteRepository).actualizarPassword(7L, cliente.getPassword());
+    }
+
+    @Test
+    void autenticar_CredencialesInvalidas_LanzaBadCredentials() {
+        cliente(encoder.encode("12345"));
+
+        assertThrows(BadCredentialsException.class, () -> loginService.autenticar("usuario@mail.com", "otra"));
+        assertThrows(BadCredentialsException.class, () -> loginService.autenticar("nadie@mail.com", "12345"));
+        verify(clienteRepository, never()).actualizarPassword(anyLong(), anyString());
+    }
+
+    @Test
+    void pool_ColaDimensionadaPorElCostoMedido() {
+        PasswordEncoder lento = mock(PasswordEncoder.class);
+        when(lento.encode(anyString())).thenReturn("$2a$04$relleno");
+        when(lento.matches(anyString(), anyString())).thenAnswer(invocacion -> {
+            Thread.sleep(100);
+            return false;
+        });
+        ClienteServiceConfiguration config = new ClienteServiceConfiguration();
+        config.setLoginHilos(2);
+        config.setLoginEsperaMs(200);
+        LoginServiceImpl servicio = new LoginServiceImpl(clienteRepository, lento, config);
+        try {
+            // 2 hilos x 200 ms / ~100 ms por hash: entran unos 4 en cola, no los 50 del tope
+            assertTrue(servicio.capacidadCola() >= 1 && servicio.capacidadCola() <= 4);
+        } finally {
+            servicio.cerrar();
+        }
+    }
+
+    @Test
+    void autenticar_PoolSaturado_Responde503SinEsperar() throws Exception {
+        PasswordEncoder bloqueado = mock(PasswordEncoder.class);
+        when(bloqueado.encode(anyString())).thenReturn("$2a$04$relleno");
+        ClienteServiceConfiguration config = new ClienteServiceConfiguration();
+        config.setBcryptCosto(COSTO);
+        config.setLoginHilos(1);
+        config.setLoginCola(1);
+        LoginServiceImpl servicio = new LoginServiceImpl(clienteRepository, bloqueado, config);
+        CountDownLatch enCurso = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(bloqueado.matches(anyString(), anyString())).thenAnswer(invocacion -> {
+            enCurso.countDown();
+            liberar.await(5, TimeUnit.SECONDS);
+            return true;
+        });
+        cliente("$2a$04$guardado");
+        try {
+            CompletableFuture<Cliente> primero = CompletableFuture.supplyAsync(() -> servicio.autenticar("usuario@mail.com", "12345"));
+            assertTrue(enCurso.await(2, TimeUnit.SECONDS));
+            // Un hilo ocupado y un lugar en la cola: de los dos siguientes, uno espera y el otro se rechaza
+            CompletableFuture<Cliente> segundo = CompletableFuture.supplyAsync(() -> servicio.autenticar("usuario@mail.com", "12345"));
+            CompletableFuture<Cliente> tercero = CompletableFuture.supplyAsync(() -> servicio.autenticar("usuario@mail.com", "12345"));
+
+            ExecutionException rechazo = assertThrows(ExecutionException.class,
+                    () -> CompletableFuture.anyOf(segundo, tercero).get(1, TimeUnit.SECONDS));
+            assertInstanceOf(ServicioNoDisponibleException.class, rechazo.getCause());
+
+            liberar.countDown();
+            assertNotNull(primero.get(2, TimeUnit.SECONDS));
+        } finally {
+            liberar.countDown();
+            servicio.cerrar();
+        }
+    }
+
+    @Test
+    void autenticar_RehashSinLugarEnElPool_IgualDevuelveElCliente() {
+        PasswordEncoder lento = mock(PasswordEncoder.class);
+        when(lento.encode(anyString())).thenReturn("$2a$04$relleno");
+        ClienteServiceConfiguration config = new ClienteServiceConfiguration();
+        config.setBcryptCosto(COSTO);
+        config.setLoginHilos(1);
+        config.setLoginEsperaMs(100);
+        LoginServiceImpl servicio = new LoginServiceImpl(clienteRepository, lento, config);
+        when(lento.matches(anyString(), anyString())).thenReturn(true);
+        when(lento.encode(anyString())).thenAnswer(invocacion -> {
+            Thread.sleep(1000);
+            return "$2a$04$nuevo";
+        });
+        Cliente cliente = cliente("$2a$05$guardado");
+        try {
+            assertSame(cliente, servicio.autenticar("usuario@mail.com", "12345"));
+            assertEquals("$2a$05$guardado", cliente.getPassword());
+            verify(clienteRepository, never()).actualizarPassword(anyLong(), anyString());
+        } finally {
+            servicio.cerrar();
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package ar.edu.unju.fi.trabajo_final.microservicio_reserva.configuration;
 
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.service.client.LlamadaDeServicio;
+import ar.edu.unju.fi.trabajo_final.seguridad.IdentidadGateway;
 import feign.RequestInterceptor;
 import feign.RequestTemplate;
 import org.springframework.stereotype.Component;
@@ -11,12 +13,22 @@ public class FeignClientInterceptor implements RequestInterceptor {
 
     private static final String AUTHORIZATION_HEADER = "Authorization";
 
+    private final TokenServicio tokenServicio;
+
+    public FeignClientInterceptor(TokenServicio tokenServicio) {
+        this.tokenServicio = tokenServicio;
+    }
+
     @Override
     public void apply(RequestTemplate template) {
         // 1. Obtiene la petición HTTP actual
         ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
 
-        if (attributes != null) {
+        if (attributes == null || esLlamadaDeServicio(template)) {
+            // Llamada desde una tarea programada (sin petición de origen) o a un endpoint interno marcado con
+            // @LlamadaDeServicio: se usa el token de servicio y no se reenvia la identidad del usuario
+            template.header(AUTHORIZATION_HEADER, "Bearer " + tokenServicio.obtener());
+        } else {
             // 2. Obtiene el token "Authorization" (Bearer eyJhbG...) de la petición actual
             String authorizationHeader = attributes.getRequest().getHeader(AUTHORIZATION_HEADER);
 
@@ -24,6 +36,17 @@ public class FeignClientInterceptor implements RequestInterceptor {
                 // 3. Lo añade a la plantilla de la petición Feign saliente
                 template.header(AUTHORIZATION_HEADER, authorizationHeader);
             }
+            // 4. Si vino la identidad firmada por el gateway, tambien se reenvia: ms-vuelo y ms-cliente
+            // la validan con un HMAC en lugar de volver a decodificar el token
+            String identidadGateway = attributes.getRequest().getHeader(IdentidadGateway.CABECERA);
+            if (identidadGateway != null) {
+                template.header(IdentidadGateway.CABECERA, identidadGateway);
+            }
         }
     }
-}
\ No newline at end of file
+
+    private static boolean esLlamadaDeServicio(RequestTemplate template) {
+        return template.methodMetadata() != null
+                && template.methodMetadata().method().isAnnotationPresent(LlamadaDeServicio.class);
+    }
+}
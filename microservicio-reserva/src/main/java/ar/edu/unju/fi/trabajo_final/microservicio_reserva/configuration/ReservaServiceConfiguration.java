@@ -13,5 +13,51 @@ public class ReservaServiceConfiguration {
     private String msg;
     private String buildVersion;
     private Map<String,String> mailDetails;
+    // Cantidad de IDs por llamada a los endpoints de lookup de vuelo y cliente
+    private int lookupLote = 500;
+    // Maximo de llamadas simultaneas a ms-vuelo/ms-cliente
+    private int consultasSimultaneas = 16;
+    // Plazo de cada llamada remota en milisegundos
+    private long consultaTimeoutMs = 3000;
+    // Cache local de vuelos/clientes remotos: vencimiento por entrada y tamaño maximo (por cache)
+    private long cacheVueloTtlMs = 60000;
+    private long cacheClienteTtlMs = 300000;
+    private int cacheMaxEntradas = 10000;
+    // Listados paginados: tamaño de pagina si no se indica limite y tope maximo permitido
+    private int paginaTamanio = 50;
+    private int paginaMax = 200;
+    // Exportacion NDJSON: cantidad de reservas que se ensamblan y escriben por lote
+    private int exportLote = 500;
+    // Snapshot de vuelo/cliente en la reserva: cada cuanto corre el refresco, vigencia y reservas por pasada
+    private long snapshotRefrescoMs = 60000;
+    private long snapshotTtlMs = 600000;
+    private int snapshotLote = 500;
+    // Outbox de eventos de asiento: cada cuanto corre el relay, eventos por llamada a ms-vuelo, cuanto se conservan
+    // los eventos ya publicados y cada cuanto se borran los vencidos
+    private long outboxRelayMs = 1000;
+    private int outboxLote = 200;
+    private long outboxRetencionMs = 604800000;
+    private long outboxPurgaMs = 3600000;
+    // Saga de confirmacion grupal: intentos por paso, backoff exponencial (base y tope), plazo antes de que
+    // el barrido retome una saga sin avances, cada cuanto corre el barrido y sagas por pasada
+    private int sagaIntentos = 3;
+    private long sagaBackoffMs = 200;
+    private long sagaBackoffMaxMs = 10000;
+    private long sagaPlazoMs = 60000;
+    private long sagaBarridoMs = 30000;
+    private int sagaLote = 50;
+    // Idempotency-Key: vigencia de la respuesta guardada, espera maxima de una repeticion mientras la original
+    // sigue en curso, cada cuanto se purgan las vencidas y cantidad maxima de claves registradas
+    private long idempotenciaTtlMs = 86400000;
+    private long idempotenciaEsperaMs = 30000;
+    private long idempotenciaLimpiezaMs = 60000;
+    private int idempotenciaMaxEntradas = 100000;
+    // Codigos de reserva: cantidad de codigos que cada instancia reparte por cada valor que pide a la secuencia
+    private int codigoBloque = 1000;
+    // Expiracion de reservas GENERADA: dias sin confirmar antes de cancelarlas, cada cuanto corre el barrido
+    // y reservas canceladas por transaccion
+    private int expiracionDias = 2;
+    private long expiracionBarridoMs = 60000;
+    private int expiracionLote = 500;
 }
 
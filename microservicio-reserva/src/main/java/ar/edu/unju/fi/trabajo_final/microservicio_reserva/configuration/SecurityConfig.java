@@ -1,8 +1,12 @@
 package ar.edu.unju.fi.trabajo_final.microservicio_reserva.configuration; // (Verifica tu package)
 
+import ar.edu.unju.fi.trabajo_final.seguridad.CredencialServicio;
+import ar.edu.unju.fi.trabajo_final.seguridad.IdentidadGateway;
+import ar.edu.unju.fi.trabajo_final.seguridad.IdentidadGatewayResolver;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
@@ -22,6 +26,15 @@ public class SecurityConfig {
 
     @Value("${jwt.secret}")
     private String jwtSecret;
+    // Modo gateway de confianza: se acepta la identidad firmada por el gateway (ver IdentidadGateway en seguridad-comun)
+    @Value("${jwt.identidadGateway:false}")
+    private boolean identidadGateway;
+    // Clave de las credenciales de servicio (ROLE_SERVICIO), distinta de jwt.secret (ver CredencialServicio)
+    @Value("${jwt.servicioSecret}")
+    private String servicioSecret;
+    // Clave propia de la identidad del gateway, distinta de jwt.secret
+    @Value("${jwt.identidadSecret:}")
+    private String identidadSecret;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -42,15 +55,21 @@ public class SecurityConfig {
                                 "/webjars/**"
                         ).permitAll()
                         // 1. RUTAS PRIVADAS (Todas las rutas de reserva requieren un token)
+                        .requestMatchers(HttpMethod.DELETE, "/api/v1_1/reserva/cache").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/api/v1_1/reservas/exportar").hasRole("ADMIN")
                         .requestMatchers("/api/v1_1/reservas/**").authenticated()
                         .requestMatchers("/api/v1_1/reserva/**").authenticated()
                         .anyRequest().authenticated()
                 )
                 // 2. Configura la validación de JWT
-                .oauth2ResourceServer(oauth2 -> oauth2.jwt(jwt ->
-                        jwt.decoder(jwtDecoder())
-                                .jwtAuthenticationConverter(jwtAuthenticationConverter())
-                ));
+                .oauth2ResourceServer(oauth2 -> {
+                    if (identidadGateway) {
+                        oauth2.bearerTokenResolver(new IdentidadGatewayResolver());
+                    }
+                    oauth2.jwt(jwt ->
+                            jwt.decoder(jwtDecoder())
+                                    .jwtAuthenticationConverter(jwtAuthenticationConverter()));
+                });
 
         return http.build();
     }
@@ -75,6 +94,8 @@ public class SecurityConfig {
     public JwtDecoder jwtDecoder() {
         byte[] keyBytes = jwtSecret.getBytes();
         SecretKeySpec secretKey = new SecretKeySpec(keyBytes, "HmacSHA256");
-        return NimbusJwtDecoder.withSecretKey(secretKey).build();
+        NimbusJwtDecoder usuarios = NimbusJwtDecoder.withSecretKey(secretKey).build();
+        JwtDecoder decoder = CredencialServicio.decoder(usuarios, servicioSecret);
+        return identidadGateway ? new IdentidadGateway(identidadSecret).decoder(decoder) : decoder;
     }
 }
\ No newline at end of file
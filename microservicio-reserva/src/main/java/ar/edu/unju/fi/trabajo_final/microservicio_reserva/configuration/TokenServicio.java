@@ -0,0 +1,54 @@
+package ar.edu.unju.fi.trabajo_final.microservicio_reserva.configuration;
+
+import ar.edu.unju.fi.trabajo_final.seguridad.CredencialServicio;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.Key;
+import java.util.Date;
+
+/**
+ * Token propio de ms-reserva para las llamadas que no nacen de una peticion HTTP
+ * (tareas programadas), donde no hay un token de usuario para reenviar.
+ * Se firma con {@code jwt.servicioSecret}, una clave propia distinta de la de los tokens de usuario
+ * ({@code jwt.secret}); dura pocos minutos y solo lleva el rol ROLE_SERVICIO. ms-vuelo/ms-cliente la validan
+ * con {@code CredencialServicio} (seguridad-comun), que con esa clave no acepta ningun otro rol.
+ */
+@Component
+public class TokenServicio {
+
+    private static final long VIGENCIA_MS = 5 * 60 * 1000;
+    // Se renueva un poco antes de vencer para no enviar un token que expire en vuelo
+    private static final long MARGEN_MS = 30 * 1000;
+
+    private final Key clave;
+    private volatile String token;
+    private volatile long venceEn;
+
+    public TokenServicio(@Value("${jwt.servicioSecret}") String servicioSecret) {
+        this.clave = Keys.hmacShaKeyFor(servicioSecret.getBytes());
+    }
+
+    public String obtener() {
+        long ahora = System.currentTimeMillis();
+        if (token == null || ahora >= venceEn - MARGEN_MS) {
+            synchronized (this) {
+                if (token == null || ahora >= venceEn - MARGEN_MS) {
+                    long vence = ahora + VIGENCIA_MS;
+                    token = Jwts.builder()
+                            .setSubject("ms-reserva")
+                            .claim("rol", CredencialServicio.ROL)
+                            .setIssuedAt(new Date(ahora))
+                            .setExpiration(new Date(vence))
+                            .signWith(clave, SignatureAlgorithm.HS256)
+                            .compact();
+                    venceEn = vence;
+                }
+            }
+        }
+        return token;
+    }
+}
@@ -11,11 +11,15 @@ import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.util.List;
+
 public interface ApiReserva {
 
     // ============================================================
@@ -84,7 +88,7 @@ public interface ApiReserva {
     @PostMapping("reservas/mia")
     @Operation(
             summary = "Crear una reserva para el usuario autenticado",
-            description = "Crea una reserva asignándola automáticamente al cliente del token JWT.",
+            description = "Crea una reserva asignándola automáticamente al cliente del token JWT. El código de la reserva lo genera el servidor.",
             requestBody = @RequestBody(
                     description = "Datos necesarios para crear la reserva",
                     required = true,
@@ -93,7 +97,6 @@ public interface ApiReserva {
                             schema = @Schema(implementation = ReservaRequestDTO.class),
                             examples = @ExampleObject(value = """
                                     {
-                                      "codigo": "RSV0023",
                                       "vueloId": 2,
                                       "observaciones": "Asiento pasillo"
                                     }
@@ -169,7 +172,10 @@ public interface ApiReserva {
     )
     ResponseEntity<MensajeRespondeReserva> crearMiReserva(
             @RequestBody ReservaRequestDTO request,
-            @Parameter(hidden = true) @AuthenticationPrincipal Jwt jwt
+            @Parameter(hidden = true) @AuthenticationPrincipal Jwt jwt,
+            @Parameter(description = "Clave para reintentos seguros: una repeticion devuelve la respuesta original sin volver a crear la reserva",
+                    example = "9b2f6c1e-1d4a-4c55-8f0e-7a3b2d1c0e9f")
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey
     );
 
 
@@ -180,7 +186,7 @@ public interface ApiReserva {
     @PostMapping("reserva")
     @Operation(
             summary = "Crear reserva (Admin)",
-            description = "Permite crear una reserva manualmente como administrador.",
+            description = "Permite crear una reserva manualmente como administrador. Si no se indica el código, lo genera el servidor.",
             requestBody = @RequestBody(
                     required = true,
                     description = "Entidad completa de reserva a crear",
@@ -287,7 +293,10 @@ public interface ApiReserva {
     @GetMapping("reservas")
     @Operation(
             summary = "Listar todas las reservas",
-            description = "Devuelve todas las reservas registradas en el sistema.",
+            description = """
+                    Devuelve las reservas registradas en el sistema de a una pagina, de la mas nueva a la mas vieja.
+                    Si hay mas reservas, `siguiente` trae el cursor para pedir la pagina siguiente; es null en la ultima.
+                    """,
             responses = {
                     @ApiResponse(
                             responseCode = "200",
@@ -349,7 +358,12 @@ public interface ApiReserva {
                     )
             }
     )
-    ResponseEntity<MensajeRespondeReserva> obtenerReservas();
+    ResponseEntity<MensajeRespondeReserva> obtenerReservas(
+            @Parameter(description = "Cursor `siguiente` devuelto por la pagina anterior (vacio para la primera pagina)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Cantidad maxima de elementos de la pagina (por defecto y tope segun configuracion)")
+            @RequestParam(required = false) Integer limite
+    );
 
 
     // ============================================================
@@ -359,7 +373,11 @@ public interface ApiReserva {
     @PutMapping("reserva/confirmar/{id}")
     @Operation(
             summary = "Confirmar una reserva",
-            description = "Actualiza el estado de la reserva a `CONFIRMADA`.",
+            description = """
+                    Actualiza el estado de la reserva a `CONFIRMADA`.
+                    El asiento se toma en ms-vuelo de forma asincronica (outbox): si el vuelo no tiene lugar,
+                    la reserva vuelve a `GENERADA` en los segundos siguientes.
+                    """,
 
             responses = {
                     @ApiResponse(
@@ -419,14 +437,60 @@ public interface ApiReserva {
             }
     )
     ResponseEntity<MensajeRespondeReserva> confirmarReserva(
-            @Parameter(description = "ID de la reserva", example = "1") @PathVariable Long id
+            @Parameter(description = "ID de la reserva", example = "1") @PathVariable Long id,
+            @Parameter(description = "Clave para reintentos seguros: una repeticion devuelve la respuesta original sin volver a confirmar",
+                    example = "3c1d8e2a-6b7f-4a90-9e21-5d4c3b2a1f0e")
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey
     );
 
 
+    @PutMapping("reserva/confirmar/batch")
+    @Operation(
+            summary = "Confirmar varias reservas a la vez",
+            description = """
+                    Confirma todas las reservas indicadas (deben estar en estado `GENERADA`).
+                    Se ejecuta como una saga: reserva los asientos en ms-vuelo y despues confirma las reservas.
+                    Si algun vuelo no tiene lugar o falla un paso se liberan los asientos tomados y no se confirma ninguna.
+                    """,
+            requestBody = @RequestBody(
+                    description = "IDs de las reservas a confirmar.",
+                    required = true,
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(value = "[8, 9, 10]")
+                    )
+            ),
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Reservas confirmadas",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = MensajeRespondeReserva.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Alguna reserva no esta GENERADA o algun vuelo no tiene lugar (no se confirmo ninguna)",
+                            content = @Content(schema = @Schema(implementation = ApiResponde.class))
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Alguna reserva no existe",
+                            content = @Content(schema = @Schema(implementation = ApiResponde.class))
+                    )
+            }
+    )
+    ResponseEntity<MensajeRespondeReserva> confirmarReservas(List<Long> ids);
+
+
     @PutMapping("reserva/cancelar/{id}")
     @Operation(
             summary = "Cancelar una reserva",
-            description = "Actualiza el estado de una reserva a `CANCELADA`.",
+            description = """
+                    Actualiza el estado de una reserva a `CANCELADA`.
+                    Si estaba confirmada, el asiento se libera en ms-vuelo de forma asincronica (outbox).
+                    """,
             responses = {
                     @ApiResponse(
                             responseCode = "200",
@@ -485,7 +549,10 @@ public interface ApiReserva {
             }
     )
     ResponseEntity<MensajeRespondeReserva> cancelarReserva(
-            @Parameter(description = "ID de la reserva", example = "8") @PathVariable Long id
+            @Parameter(description = "ID de la reserva", example = "8") @PathVariable Long id,
+            @Parameter(description = "Clave para reintentos seguros: una repeticion devuelve la respuesta original sin volver a cancelar",
+                    example = "7e6d5c4b-3a29-4180-b7c6-d5e4f3a2b1c0")
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey
     );
 
 
@@ -553,6 +620,59 @@ public interface ApiReserva {
     );
 
 
+    // ============================================================
+    // EXPORTACION (NDJSON)
+    // ============================================================
+
+    @GetMapping(value = "reservas/exportar", produces = "application/x-ndjson")
+    @Operation(
+            summary = "Exportar todas las reservas en NDJSON (solo ADMIN)",
+            description = """
+                    Descarga todas las reservas, de la mas nueva a la mas vieja, con una reserva (JSON) por linea.
+                    La respuesta se escribe a medida que se leen las reservas, de a lotes de `reserva.exportLote`,
+                    sin armar el listado completo en memoria.
+                    """,
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Reservas exportadas",
+                            content = @Content(
+                                    mediaType = "application/x-ndjson",
+                                    examples = @ExampleObject(value = """
+                                            {"id":3,"codigo":"RES-WEB-778352","estado":"GENERADA","cliente":"Parraga Jairo","origen":"(ARGBAC001)- argentina: buenos aires","destino":"(ESPBAR001)- espana: barcelona","observaciones":"","codigoVuelo":"VUL02"}
+                                            {"id":2,"codigo":"RES-ADM-376004","estado":"GENERADA","cliente":"Esteban Farfan","origen":"(CLSC001)- chile: santiago de chicle","destino":"(PRLM001)- peru: lima","observaciones":"","codigoVuelo":"VUL03"}
+                                            """)
+                            )
+                    ),
+                    @ApiResponse(responseCode = "403", description = "El usuario no tiene rol ADMIN")
+            }
+    )
+    void exportarReservas(HttpServletResponse response) throws IOException;
+
+
+    // ============================================================
+    // CACHE LOCAL DE VUELOS Y CLIENTES
+    // ============================================================
+
+    @DeleteMapping("reserva/cache")
+    @Operation(
+            summary = "Invalidar la cache local de vuelos/clientes (solo ADMIN)",
+            description = """
+                    Descarta los datos de vuelos y clientes que ms-reserva guarda en memoria para ensamblar reservas.
+                    - Con `vueloId` y/o `clienteId` solo se descartan esas entradas.
+                    - Sin parametros se vacia toda la cache.
+                    """,
+            responses = {
+                    @ApiResponse(responseCode = "204", description = "Cache invalidada"),
+                    @ApiResponse(responseCode = "403", description = "El usuario no tiene rol ADMIN")
+            }
+    )
+    ResponseEntity<Void> invalidarCache(
+            @Parameter(description = "ID del vuelo a descartar", example = "1") @RequestParam(required = false) Long vueloId,
+            @Parameter(description = "ID del cliente a descartar", example = "10") @RequestParam(required = false) Long clienteId
+    );
+
+
     // ============================================================
     // PROPERTIES DEL MICROSERVICIO
     // ============================================================
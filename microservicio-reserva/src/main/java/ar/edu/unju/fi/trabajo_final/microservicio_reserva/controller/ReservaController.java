@@ -1,28 +1,37 @@
 package ar.edu.unju.fi.trabajo_final.microservicio_reserva.controller;
 
 import ar.edu.unju.fi.trabajo_final.microservicio_reserva.configuration.ReservaServiceConfiguration;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.dto.reservaDTO.ReservaDTO;
 import ar.edu.unju.fi.trabajo_final.microservicio_reserva.entity.PropertiesReserva;
 import ar.edu.unju.fi.trabajo_final.microservicio_reserva.entity.Reserva;
 import ar.edu.unju.fi.trabajo_final.microservicio_reserva.payload.MensajeRespondeReserva;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.payload.Pagina;
 import ar.edu.unju.fi.trabajo_final.microservicio_reserva.service.ReservaService; // <-- Importa la Interfaz, no la Impl
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.service.impl.RegistroIdempotencia;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 /**
  * DTO simple para la petición de crear una reserva como usuario.
- * No contiene clienteId, ya que se extrae del token.
+ * No contiene clienteId, ya que se extrae del token, ni codigo, que lo genera el servidor.
  */
-record ReservaRequestDTO(Long vueloId, String codigo, String observaciones) {}
+record ReservaRequestDTO(Long vueloId, String observaciones) {}
 
 @RestController
 @RequestMapping("api/v1_1/")
@@ -31,10 +40,15 @@ public class ReservaController implements ApiReserva {
 
     private final ReservaService reservaService;
     private final ReservaServiceConfiguration configReserva;
+    private final ObjectMapper objectMapper;
+    private final RegistroIdempotencia registroIdempotencia;
 
-    public ReservaController(ReservaService reservaService, ReservaServiceConfiguration configReserva) {
+    public ReservaController(ReservaService reservaService, ReservaServiceConfiguration configReserva, ObjectMapper objectMapper,
+                             RegistroIdempotencia registroIdempotencia) {
         this.reservaService = reservaService;
         this.configReserva = configReserva;
+        this.objectMapper = objectMapper;
+        this.registroIdempotencia = registroIdempotencia;
     }
 
     // ---
@@ -58,23 +72,21 @@ public class ReservaController implements ApiReserva {
     @Override
     public ResponseEntity<MensajeRespondeReserva> crearMiReserva(
             @RequestBody ReservaRequestDTO request,
-            @AuthenticationPrincipal Jwt jwt) {
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestHeader(value = RegistroIdempotencia.CABECERA, required = false) String idempotencyKey) {
 
         // --- ¡CORRECCIÓN AQUÍ! ---
         Long clienteId = (Long) jwt.getClaim("id");
 
-        Reserva nuevaReserva = new Reserva();
-        nuevaReserva.setVueloId(request.vueloId());
-        nuevaReserva.setObservaciones(request.observaciones());
-        nuevaReserva.setCodigo(request.codigo());
+        ResponseEntity<Reserva> creada = registroIdempotencia.ejecutar(idempotencyKey, "crear:" + request, () -> {
+            Reserva nuevaReserva = new Reserva();
+            nuevaReserva.setVueloId(request.vueloId());
+            nuevaReserva.setObservaciones(request.observaciones());
 
-        Reserva reservaCreada = reservaService.crearReservaParaUsuario(nuevaReserva, clienteId);
-
-        MensajeRespondeReserva mensaje = MensajeRespondeReserva.builder()
-                .mensaje("Reserva creada exitosamente para el usuario")
-                .reserva(reservaService.clienteVueloEsamblador(reservaCreada)) // <-- Ahora esto compila
-                .build();
-        return new ResponseEntity<>(mensaje, HttpStatus.CREATED);
+            Reserva reservaCreada = reservaService.crearReservaParaUsuario(nuevaReserva, clienteId, idempotencyKey);
+            return new ResponseEntity<>(reservaCreada, HttpStatus.CREATED);
+        });
+        return conReservaEnsamblada(creada, "Reserva creada exitosamente para el usuario");
     }
 
 
@@ -93,11 +105,14 @@ public class ReservaController implements ApiReserva {
     }
 
     @Override
-    public ResponseEntity<MensajeRespondeReserva> obtenerReservas(){
-        List<Reserva> reservas = reservaService.buscarTodasReserva();
+    public ResponseEntity<MensajeRespondeReserva> obtenerReservas(@RequestParam(required = false) String cursor,
+                                                                  @RequestParam(required = false) Integer limite){
+        int tamanio = Pagina.resolverLimite(limite, configReserva.getPaginaTamanio(), configReserva.getPaginaMax());
+        Pagina<Reserva> pagina = reservaService.buscarReservasPaginadas(cursor, tamanio);
         MensajeRespondeReserva responde = MensajeRespondeReserva.builder()
                 .mensaje("Reservas encontradas")
-                .reservaLista(reservaService.clienteVueloEsamblador(reservas)) // <-- Ahora esto compila
+                .reservaLista(reservaService.clienteVueloEsamblador(pagina.getElementos()))
+                .siguiente(pagina.getSiguiente())
                 .build();
         return new ResponseEntity<>(responde, HttpStatus.OK);
     }
@@ -107,25 +122,31 @@ public class ReservaController implements ApiReserva {
     // ---
 
     @Override
-    public ResponseEntity<MensajeRespondeReserva> confirmarReserva(@PathVariable Long id){
-        Reserva reservaConfirmada = reservaService.confirmar(id);
-        MensajeRespondeReserva mensaje = MensajeRespondeReserva.builder()
-                .mensaje("Reserva Confirmada")
-                .reserva(reservaService.clienteVueloEsamblador(reservaConfirmada)) // <-- Ahora esto compila
-                .build();
-        return new ResponseEntity<>(mensaje, HttpStatus.OK);
+    public ResponseEntity<MensajeRespondeReserva> confirmarReserva(@PathVariable Long id,
+            @RequestHeader(value = RegistroIdempotencia.CABECERA, required = false) String idempotencyKey){
+        ResponseEntity<Reserva> confirmada = registroIdempotencia.ejecutar(idempotencyKey, "confirmar:" + id,
+                () -> new ResponseEntity<>(reservaService.confirmar(id), HttpStatus.OK));
+        return conReservaEnsamblada(confirmada, "Reserva Confirmada");
     }
 
     @Override
-    public ResponseEntity<MensajeRespondeReserva> cancelarReserva(@PathVariable Long id){
-        Reserva reservaCancelada = reservaService.cancelar(id);
+    public ResponseEntity<MensajeRespondeReserva> confirmarReservas(@RequestBody List<Long> ids){
+        List<Reserva> reservasConfirmadas = reservaService.confirmarVarias(ids);
         MensajeRespondeReserva mensaje = MensajeRespondeReserva.builder()
-                .mensaje("Reserva Cancelada")
-                .reserva(reservaService.clienteVueloEsamblador(reservaCancelada)) // <-- Ahora esto compila
+                .mensaje("Reservas Confirmadas")
+                .reservaLista(reservaService.clienteVueloEsamblador(reservasConfirmadas))
                 .build();
         return new ResponseEntity<>(mensaje, HttpStatus.OK);
     }
 
+    @Override
+    public ResponseEntity<MensajeRespondeReserva> cancelarReserva(@PathVariable Long id,
+            @RequestHeader(value = RegistroIdempotencia.CABECERA, required = false) String idempotencyKey){
+        ResponseEntity<Reserva> cancelada = registroIdempotencia.ejecutar(idempotencyKey, "cancelar:" + id,
+                () -> new ResponseEntity<>(reservaService.cancelar(id), HttpStatus.OK));
+        return conReservaEnsamblada(cancelada, "Reserva Cancelada");
+    }
+
     @Override
     public ResponseEntity<MensajeRespondeReserva> obtenerReservasID(@PathVariable Long id){
         Reserva reserva = reservaService.buscarReservaId(id);
@@ -136,6 +157,47 @@ public class ReservaController implements ApiReserva {
         return new ResponseEntity<>(responde, HttpStatus.OK);
     }
 
+    @Override
+    public void exportarReservas(HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"reservas.ndjson\"");
+        ObjectWriter escritor = objectMapper.writerFor(ReservaDTO.class);
+        OutputStream salida = response.getOutputStream();
+        // Se escribe en el mismo hilo de la peticion: FeignClientInterceptor sigue teniendo el token
+        reservaService.exportarReservas(lote -> {
+            try {
+                for (ReservaDTO reserva : lote) {
+                    salida.write(escritor.writeValueAsBytes(reserva));
+                    salida.write('\n');
+                }
+                salida.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @Override
+    public ResponseEntity<Void> invalidarCache(@RequestParam(required = false) Long vueloId,
+                                               @RequestParam(required = false) Long clienteId) {
+        reservaService.invalidarCacheRemota(vueloId, clienteId);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Arma la respuesta con la reserva ensamblada, conservando estado y cabeceras de la respuesta registrada.
+     * El registro de idempotencia guarda la reserva apenas se confirma la transaccion: si el ensamblado falla,
+     * el reintento con la misma clave repite la reserva ya creada en vez de volver a ejecutar la operacion.
+     */
+    private ResponseEntity<MensajeRespondeReserva> conReservaEnsamblada(ResponseEntity<Reserva> respuesta, String texto) {
+        MensajeRespondeReserva mensaje = MensajeRespondeReserva.builder()
+                .mensaje(texto)
+                .reserva(reservaService.clienteVueloEsamblador(respuesta.getBody()))
+                .build();
+        return ResponseEntity.status(respuesta.getStatusCode()).headers(respuesta.getHeaders()).body(mensaje);
+    }
+
     @Override
     public String obtenerPropiedades()throws JsonProcessingException {
         ObjectWriter owj = new ObjectMapper().writer().withDefaultPrettyPrinter();
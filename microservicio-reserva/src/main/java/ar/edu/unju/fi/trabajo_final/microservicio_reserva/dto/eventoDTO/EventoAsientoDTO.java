@@ -0,0 +1,22 @@
+package ar.edu.unju.fi.trabajo_final.microservicio_reserva.dto.eventoDTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Evento de asiento que el outbox publica a ms-vuelo.
+ * {@code delta} es +1 (reservar) o -1 (liberar); en una liberacion {@code referencia}
+ * es el evento de confirmacion de la misma reserva, si lo hubo.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventoAsientoDTO {
+    private String eventoId;
+    private Long vueloId;
+    private int delta;
+    private String referencia;
+}
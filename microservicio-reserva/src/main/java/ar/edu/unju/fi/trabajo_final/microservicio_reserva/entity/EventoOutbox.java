@@ -0,0 +1,52 @@
+package ar.edu.unju.fi.trabajo_final.microservicio_reserva.entity;
+
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.enums.ResultadoEventoAsiento;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento de asiento pendiente de publicar a ms-vuelo (outbox transaccional).
+ * Se inserta en la misma transaccion que el cambio de estado de la reserva, asi que o se guardan
+ * los dos o ninguno; RelayOutbox lo publica despues y registra el resultado.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "outbox_eventos", indexes = @Index(name = "idx_outbox_eventos_pendientes", columnList = "publicado, id"))
+public class EventoOutbox {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "evento_id", length = 36, nullable = false, unique = true)
+    private String eventoId;
+
+    @Column(name = "reserva_id", nullable = false)
+    private Long reservaId;
+
+    @Column(name = "vuelo_id", nullable = false)
+    private Long vueloId;
+
+    @Column(nullable = false)
+    private int delta;
+
+    @Column(length = 36)
+    private String referencia;
+
+    @Column(nullable = false)
+    private LocalDateTime creado;
+
+    @Column
+    private LocalDateTime publicado;
+
+    @Enumerated(EnumType.STRING)
+    @Column
+    private ResultadoEventoAsiento resultado;
+}
@@ -10,20 +10,31 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Entity
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Table (name = "reservas")
+// Los indices los crean las migraciones de db/migration; se declaran aca para que ddl-auto los reconozca
+@Table (name = "reservas", indexes = {
+        @Index(name = "idx_reservas_cliente", columnList = "id_cliente, id"),
+        @Index(name = "idx_reservas_vuelo", columnList = "id_vuelo"),
+        // Barrido de expiracion: reservas GENERADA ordenadas por antiguedad
+        @Index(name = "idx_reservas_estado_fecha_creacion", columnList = "estado, fecha_creacion")
+}, uniqueConstraints = {
+        // Mismo nombre que le da Postgres a la restriccion "unique" de V1: el servicio la reconoce por nombre
+        @UniqueConstraint(name = "reservas_codigo_key", columnNames = "codigo"),
+        @UniqueConstraint(name = "ux_reservas_clave_idempotencia", columnNames = "clave_idempotencia")
+})
 public class Reserva {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
     @NotBlank
-    @Column(length = 30, nullable = false, unique = true)
+    @Column(length = 30, nullable = false)
     private String codigo;
 
     @Enumerated(EnumType.STRING)
@@ -43,4 +54,31 @@ public class Reserva {
     @Column
     private String observaciones;
 
+    // Snapshot de los datos de vuelo y cliente que se muestran con la reserva.
+    // Se guarda al crearla y lo mantiene al dia RefrescoSnapshotsReserva; evita consultar a ms-vuelo/ms-cliente en cada lectura.
+    @Column(name = "vuelo_codigo")
+    private String codigoVuelo;
+
+    @Column(name = "vuelo_origen")
+    private String origen;
+
+    @Column(name = "vuelo_destino")
+    private String destino;
+
+    @Column(name = "cliente_nombre")
+    private String cliente;
+
+    @Column(name = "snapshot_actualizado")
+    private LocalDateTime snapshotActualizado;
+
+    // Evento del outbox que pidio el asiento al confirmar; la cancelacion lo referencia para que
+    // ms-vuelo solo libere un asiento que efectivamente se tomo.
+    @Column(name = "evento_confirmacion", length = 36)
+    private String eventoConfirmacion;
+
+    // Idempotency-Key con la que el usuario creo la reserva ("clienteId:clave"). El indice unico hace que un
+    // reintento que llega a otra instancia, o despues de perder el registro en memoria, no cree otra reserva.
+    @Column(name = "clave_idempotencia", length = 300)
+    private String claveIdempotencia;
+
 }
\ No newline at end of file
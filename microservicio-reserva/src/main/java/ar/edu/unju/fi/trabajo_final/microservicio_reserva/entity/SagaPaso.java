@@ -0,0 +1,50 @@
+package ar.edu.unju.fi.trabajo_final.microservicio_reserva.entity;
+
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.enums.ResultadoEventoAsiento;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Una reserva dentro de una saga grupal. Los IDs de evento se fijan al crear la saga:
+ * reintentar un paso reenvia los mismos eventos y ms-vuelo no los aplica dos veces.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "saga_pasos", indexes = @Index(name = "idx_saga_pasos_saga", columnList = "saga_id"))
+public class SagaPaso {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "saga_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private SagaReserva saga;
+
+    @Column(name = "reserva_id", nullable = false)
+    private Long reservaId;
+
+    @Column(name = "vuelo_id", nullable = false)
+    private Long vueloId;
+
+    // Evento que toma el asiento (+1) y evento que lo devuelve (-1) si hay que compensar
+    @Column(name = "evento_reserva", length = 36, nullable = false)
+    private String eventoReserva;
+
+    @Column(name = "evento_liberacion", length = 36, nullable = false)
+    private String eventoLiberacion;
+
+    // Resultado de evento_reserva en ms-vuelo (null mientras no se conozca)
+    @Enumerated(EnumType.STRING)
+    @Column
+    private ResultadoEventoAsiento resultado;
+}
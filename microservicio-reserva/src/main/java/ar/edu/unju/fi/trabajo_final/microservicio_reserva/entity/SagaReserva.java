@@ -0,0 +1,63 @@
+package ar.edu.unju.fi.trabajo_final.microservicio_reserva.entity;
+
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.enums.EstadoSaga;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Estado persistido de una saga de confirmacion grupal. Se guarda en cada paso, asi que si el
+ * servicio se cae a mitad de camino RecuperacionSagas la retoma desde el ultimo paso registrado.
+ * Una sola instancia avanza la saga a la vez: el barrido la reclama con un UPDATE condicionado a la version.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "sagas_reserva", indexes = @Index(name = "idx_sagas_reserva_pendientes", columnList = "estado, proximo_intento"))
+public class SagaReserva {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private EstadoSaga estado;
+
+    // Fallas seguidas del paso actual; vuelve a 0 cuando la saga avanza
+    @Column(nullable = false)
+    private int intentos;
+
+    // Desde cuando la puede retomar el barrido (plazo del dueño actual o espera del proximo reintento)
+    @Column(name = "proximo_intento", nullable = false)
+    private LocalDateTime proximoIntento;
+
+    // true si se compenso por una regla de negocio (vuelo sin lugar, reserva modificada) y no por una falla remota
+    @Column(nullable = false)
+    private boolean rechazada;
+
+    @Column(name = "ultimo_error", length = 500)
+    private String ultimoError;
+
+    @Column(nullable = false)
+    private LocalDateTime creada;
+
+    @Column
+    private LocalDateTime actualizada;
+
+    // Cada guardado la incrementa: si otra instancia tomo la saga, el guardado de la anterior falla
+    @Version
+    private Long version;
+
+    @OneToMany(mappedBy = "saga", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+    @OrderBy("id")
+    @Builder.Default
+    private List<SagaPaso> pasos = new ArrayList<>();
+}
@@ -0,0 +1,11 @@
+package ar.edu.unju.fi.trabajo_final.microservicio_reserva.enums;
+
+/**
+ * Pasos de la saga de confirmacion grupal.
+ * INICIADA: falta reservar los asientos en ms-vuelo. ASIENTOS_RESERVADOS: falta confirmar las reservas locales.
+ * COMPENSANDO: hay que liberar en ms-vuelo los asientos que se hayan tomado.
+ * COMPLETADA y COMPENSADA son estados finales.
+ */
+public enum EstadoSaga {
+    INICIADA, ASIENTOS_RESERVADOS, COMPLETADA, COMPENSANDO, COMPENSADA
+}
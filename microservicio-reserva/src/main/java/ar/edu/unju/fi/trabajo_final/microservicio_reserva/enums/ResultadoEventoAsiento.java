@@ -0,0 +1,10 @@
+package ar.edu.unju.fi.trabajo_final.microservicio_reserva.enums;
+
+/**
+ * Resultado que informa ms-vuelo al aplicar un evento de asiento del outbox.
+ * APLICADO: el cupo se modifico. RECHAZADO: el vuelo no existe o no tenia lugar.
+ * OMITIDO: liberacion de un asiento cuya confirmacion nunca llego a aplicarse.
+ */
+public enum ResultadoEventoAsiento {
+    APLICADO, RECHAZADO, OMITIDO
+}
@@ -32,6 +32,11 @@ public class GlobalExceptionHandler {
         ApiResponde apiResponde = new ApiResponde(e.getMessage(), webRequest.getDescription(false));
         return new ResponseEntity<>(apiResponde, HttpStatus.BAD_REQUEST);
     }
+    @ExceptionHandler(ServicioRemotoException.class)
+    public ResponseEntity<ApiResponde> handlerServicioRemotoException(ServicioRemotoException e, WebRequest webRequest){
+        ApiResponde apiResponde = new ApiResponde(e.getMessage(), webRequest.getDescription(false));
+        return new ResponseEntity<>(apiResponde, HttpStatus.SERVICE_UNAVAILABLE);
+    }
 
     @ExceptionHandler(FeignException.NotFound.class)
     public ResponseEntity<ApiResponde> handlerFeignExceptionNotFound(FeignException.NotFound e){
@@ -0,0 +1,7 @@
+package ar.edu.unju.fi.trabajo_final.microservicio_reserva.exception;
+
+public class ServicioRemotoException extends RuntimeException {
+    public ServicioRemotoException(String message) {
+        super(message);
+    }
+}
@@ -13,4 +13,6 @@ public class MensajeRespondeReserva {
     private String mensaje;
     private ReservaDTO reserva;
     private List<ReservaDTO> reservaLista;
+    // Cursor para pedir la pagina siguiente del listado (null si no hay mas)
+    private String siguiente;
 }
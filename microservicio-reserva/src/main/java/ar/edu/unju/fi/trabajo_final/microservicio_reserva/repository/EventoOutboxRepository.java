@@ -0,0 +1,26 @@
+package ar.edu.unju.fi.trabajo_final.microservicio_reserva.repository;
+
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.entity.EventoOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EventoOutboxRepository extends JpaRepository<EventoOutbox, Long> {
+
+    /**
+     * Eventos todavia no publicados, en el orden en que se generaron.
+     */
+    List<EventoOutbox> findByPublicadoIsNullOrderByIdAsc(Pageable pageable);
+
+    /**
+     * IDs de eventos publicados antes de {@code limite} (los pendientes nunca se incluyen).
+     */
+    @Query("select e.id from EventoOutbox e where e.publicado < :limite order by e.id")
+    List<Long> findIdsPublicadosAntesDe(@Param("limite") LocalDateTime limite, Pageable pageable);
+}
@@ -1,15 +1,32 @@
 package ar.edu.unju.fi.trabajo_final.microservicio_reserva.repository;
 
 import ar.edu.unju.fi.trabajo_final.microservicio_reserva.entity.Reserva;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.enums.EstadoReserva;
 // --- ¡ESTA ES LA IMPORTACIÓN CORRECTA! ---
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ReservaRepository extends JpaRepository<Reserva, Long> {
     Optional<Reserva> findByCodigo(String codigo);
 
+    /**
+     * Reserva creada con la Idempotency-Key indicada ("clienteId:clave"), si existe.
+     */
+    Optional<Reserva> findByClaveIdempotencia(String claveIdempotencia);
+
     /**
      * Busca todas las reservas asociadas a un ID de cliente específico.
      * @param clienteId El ID del cliente.
@@ -17,4 +34,82 @@ public interface ReservaRepository extends JpaRepository<Reserva, Long> {
      * @return Lista de reservas ordenadas.
      */
     List<Reserva> findByClienteId(Long clienteId, Sort sort);
-}
\ No newline at end of file
+
+    /**
+     * Primera pagina del listado de reservas (mas nuevas primero).
+     * @param pageable Solo se usa el tamaño; siempre se pide la pagina 0.
+     */
+    List<Reserva> findAllByOrderByIdDesc(Pageable pageable);
+
+    /**
+     * Paginas siguientes del listado: las reservas con id menor al ultimo devuelto.
+     * Al filtrar por id (indice de la PK) no recorre las filas ya leidas como haria un OFFSET.
+     */
+    List<Reserva> findByIdLessThanOrderByIdDesc(Long id, Pageable pageable);
+
+    /**
+     * Recorre todas las reservas (mas nuevas primero) con un cursor de solo avance.
+     * El driver trae las filas de a {@code fetchSize}, sin cargar la tabla completa en memoria.
+     * Debe consumirse dentro de una transaccion y cerrarse al terminar (try-with-resources).
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select r from Reserva r order by r.id desc")
+    Stream<Reserva> streamAllByOrderByIdDesc();
+
+    /**
+     * Reservas activas (no CANCELADA) cuyo snapshot de vuelo/cliente nunca se guardo o es anterior a {@code vencimiento}.
+     * Las canceladas conservan el ultimo snapshot y no se vuelven a consultar.
+     * @param vencimiento Los snapshots actualizados antes de esta fecha se consideran vencidos.
+     * @param pageable Solo se usa el tamaño: cantidad maxima de reservas a refrescar por pasada.
+     */
+    @Query("select r from Reserva r where r.estado <> ar.edu.unju.fi.trabajo_final.microservicio_reserva.enums.EstadoReserva.CANCELADA " +
+            "and (r.snapshotActualizado is null or r.snapshotActualizado < :vencimiento) order by r.id")
+    List<Reserva> findSnapshotsVencidos(@Param("vencimiento") LocalDateTime vencimiento, Pageable pageable);
+
+    /**
+     * Guarda el snapshot del vuelo en las reservas indicadas y marca la fecha del refresco.
+     * Solo toca esas columnas: no pisa un cambio de estado hecho mientras se consultaba ms-vuelo.
+     */
+    @Transactional
+    @Modifying
+    @Query("update Reserva r set r.codigoVuelo = :codigo, r.origen = :origen, r.destino = :destino, " +
+            "r.snapshotActualizado = :actualizado where r.id in :ids")
+    int actualizarSnapshotVuelo(@Param("ids") List<Long> ids, @Param("codigo") String codigo,
+                                @Param("origen") String origen, @Param("destino") String destino,
+                                @Param("actualizado") LocalDateTime actualizado);
+
+    /**
+     * Guarda el snapshot del cliente (nombre) en las reservas indicadas.
+     */
+    @Transactional
+    @Modifying
+    @Query("update Reserva r set r.cliente = :cliente where r.id in :ids")
+    int actualizarSnapshotCliente(@Param("ids") List<Long> ids, @Param("cliente") String cliente);
+
+    /**
+     * Toma y bloquea hasta {@code lote} reservas GENERADA creadas antes de {@code limite}, las mas viejas primero
+     * (usa el indice por estado y fecha de creacion). Con {@code SKIP LOCKED} las filas que ya tiene bloqueadas
+     * otra instancia se saltean en lugar de esperarlas, asi varias instancias reparten el barrido sin pisarse.
+     * Debe llamarse dentro de la transaccion que despues las cancela.
+     */
+    @Query(value = "select id from reservas where estado = 'GENERADA' and fecha_creacion < :limite " +
+            "order by fecha_creacion, id limit :lote for update skip locked", nativeQuery = true)
+    List<Long> bloquearGeneradasVencidas(@Param("limite") LocalDate limite, @Param("lote") int lote);
+
+    /**
+     * Cambia el estado de las reservas indicadas que sigan en {@code actual}.
+     * @return Cantidad de reservas actualizadas.
+     */
+    @Modifying
+    @Query("update Reserva r set r.estado = :nuevo where r.id in :ids and r.estado = :actual")
+    int actualizarEstado(@Param("ids") List<Long> ids, @Param("actual") EstadoReserva actual, @Param("nuevo") EstadoReserva nuevo);
+
+    /**
+     * Fecha de creacion de la reserva mas vieja en el estado indicado (null si no hay ninguna).
+     */
+    @Query("select min(r.fechaCreacion) from Reserva r where r.estado = :estado")
+    LocalDate findFechaCreacionMasAntigua(@Param("estado") EstadoReserva estado);
+}
@@ -0,0 +1,33 @@
+package ar.edu.unju.fi.trabajo_final.microservicio_reserva.repository;
+
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.entity.SagaReserva;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.enums.EstadoSaga;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SagaReservaRepository extends JpaRepository<SagaReserva, Long> {
+
+    /**
+     * Sagas sin terminar cuyo plazo ya vencio: las abandono una instancia caida o esperan un reintento.
+     */
+    List<SagaReserva> findByEstadoInAndProximoIntentoLessThanEqualOrderByIdAsc(Collection<EstadoSaga> estados, LocalDateTime ahora, Pageable pageable);
+
+    /**
+     * Reclama la saga para esta instancia si nadie la guardo desde que se leyo (misma version).
+     * @return 1 si se reclamo, 0 si otra instancia la tomo o la avanzo antes.
+     */
+    @Transactional
+    @Modifying
+    @Query("update SagaReserva s set s.proximoIntento = :plazo, s.version = s.version + 1 where s.id = :id and s.version = :version")
+    int reclamar(@Param("id") Long id, @Param("version") Long version, @Param("plazo") LocalDateTime plazo);
+}
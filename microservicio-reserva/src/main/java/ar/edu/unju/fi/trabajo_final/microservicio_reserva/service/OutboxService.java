@@ -0,0 +1,39 @@
+package ar.edu.unju.fi.trabajo_final.microservicio_reserva.service;
+
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.entity.Reserva;
+
+/**
+ * Outbox de eventos de asiento hacia ms-vuelo.
+ * Confirmar o cancelar una reserva no llama a ms-vuelo: registra un evento en la misma transaccion
+ * y el relay lo publica despues, asi la latencia de la reserva no depende de ms-vuelo.
+ */
+public interface OutboxService {
+
+    /**
+     * Registra un evento de asiento para la reserva. Debe llamarse dentro de la transaccion
+     * que cambia el estado de la reserva.
+     *
+     * @param reserva La reserva que toma o libera el asiento.
+     * @param delta +1 para reservar el asiento, -1 para liberarlo.
+     * @param referencia En una liberacion, el evento de confirmacion de la reserva (null si no lo hubo).
+     * @return El ID del evento registrado.
+     */
+    String registrar(Reserva reserva, int delta, String referencia);
+
+    /**
+     * Publica a ms-vuelo una tanda de eventos pendientes (como mucho {@code reserva.outboxLote})
+     * y guarda el resultado de cada uno. Si ms-vuelo rechaza una confirmacion por falta de lugar,
+     * la reserva vuelve a {@code GENERADA}.
+     *
+     * @return La cantidad de eventos publicados.
+     */
+    int publicarPendientes();
+
+    /**
+     * Borra una tanda (como mucho {@code reserva.outboxLote}) de eventos publicados hace mas de
+     * {@code reserva.outboxRetencionMs}. Los pendientes no se tocan.
+     *
+     * @return La cantidad de eventos borrados.
+     */
+    int purgarPublicados();
+}
@@ -3,7 +3,10 @@ package ar.edu.unju.fi.trabajo_final.microservicio_reserva.service;
 import ar.edu.unju.fi.trabajo_final.microservicio_reserva.dto.reservaDTO.ReservaDTO;
 import ar.edu.unju.fi.trabajo_final.microservicio_reserva.entity.Reserva;
 import ar.edu.unju.fi.trabajo_final.microservicio_reserva.exception.*;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.payload.Pagina;
+import java.time.Duration;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ReservaService {
     /**
@@ -21,18 +24,31 @@ public interface ReservaService {
     /**
      * Confirma una reserva existente.
      * Solo se puede confirmar si el estado actual es {@code GENERADO}.
-     * Actualiza el cupo reservado del vuelo correspondiente.
+     * No llama a ms-vuelo: registra en el outbox el evento que reserva el asiento. Si ms-vuelo
+     * lo rechaza por falta de lugar, la reserva vuelve a {@code GENERADA}.
      *
      * @param id El ID de la reserva a confirmar.
      * @return La reserva confirmada con estado {@code CONFIRMAR}.
      * @throws ElementoNoEncontradoException Si no existe la reserva con el ID dado.
-     * @throws ValidacionException Si el estado de la reserva no permite confirmación o si el vuelo está completo.
+     * @throws ValidacionException Si el estado de la reserva no permite confirmación.
      */
     Reserva confirmar(Long id);
 
+    /**
+     * Confirma varias reservas a la vez (reservas grupales o confirmacion masiva de un ADMIN).
+     * Se ejecuta como una saga persistida (ver {@link SagaReservaService}): si algun vuelo no tiene lugar
+     * o falla un paso, se liberan los asientos ya tomados, asi que o se confirman todas las reservas o ninguna.
+     *
+     * @param ids Los IDs de las reservas a confirmar (sin repetidos).
+     * @return Las reservas confirmadas.
+     * @throws ElementoNoEncontradoException Si alguna reserva no existe.
+     * @throws ValidacionException Si la lista esta vacia, alguna reserva no esta {@code GENERADA} o algun vuelo no tiene lugar.
+     */
+    List<Reserva> confirmarVarias(List<Long> ids);
+
     /**
      * Cancela una reserva existente.
-     * Si la reserva estaba confirmada, se decrementa el cupo reservado del vuelo.
+     * Si la reserva estaba confirmada, se registra en el outbox el evento que libera el asiento en ms-vuelo.
      *
      * @param id El ID de la reserva a cancelar.
      * @return La reserva cancelada con estado {@code CANCELADA}.
@@ -42,11 +58,25 @@ public interface ReservaService {
     Reserva cancelar(Long id);
 
     /**
-     * Recupera todas las reservas existentes (para ADMINS).
+     * Recupera una pagina del listado de reservas (para ADMINS), de la mas nueva a la mas vieja.
+     * Pagina por cursor sobre el id, por lo que el costo de cada pagina no depende de cuantas se leyeron antes.
+     *
+     * @param cursor El cursor {@code siguiente} de la pagina anterior, o null para la primera pagina.
+     * @param limite Cantidad maxima de reservas de la pagina (ya acotada por el controlador).
+     * @return La pagina con las reservas y el cursor de la siguiente.
+     * @throws ValidacionException Si el cursor no es valido.
+     */
+    Pagina<Reserva> buscarReservasPaginadas(String cursor, int limite);
+
+    /**
+     * [ADMIN] Recorre todas las reservas (mas nuevas primero) y las entrega ya ensambladas con
+     * vuelo y cliente, de a lotes de {@code reserva.exportLote}.
+     * Las filas se leen con un cursor de solo avance y cada lote se descarta despues de entregarlo,
+     * por lo que la memoria usada no depende del tamaño de la tabla.
      *
-     * @return Una lista con todas las reservas.
+     * @param destino Recibe cada lote ensamblado (ej: lo escribe en la respuesta HTTP).
      */
-    List<Reserva> buscarTodasReserva();
+    void exportarReservas(Consumer<List<ReservaDTO>> destino);
 
     /**
      * Busca una reserva por su ID.
@@ -67,11 +97,14 @@ public interface ReservaService {
     /**
      * Crea una nueva reserva asociada directamente a un usuario (clienteId).
      * El clienteId se obtiene del token, no del body, por seguridad.
+     * Con {@code claveIdempotencia} la reserva queda asociada a esa clave: si el usuario ya creo una con la misma
+     * clave se devuelve esa en lugar de crear otra.
      * @param reserva Objeto Reserva (sin clienteId)
      * @param clienteId El ID del usuario autenticado.
-     * @return La reserva creada.
+     * @param claveIdempotencia Valor de la cabecera Idempotency-Key, o null si no se envio.
+     * @return La reserva creada, o la creada antes con la misma clave.
      */
-    Reserva crearReservaParaUsuario(Reserva reserva, Long clienteId);
+    Reserva crearReservaParaUsuario(Reserva reserva, Long clienteId, String claveIdempotencia);
 
 
     // --- ¡MÉTODOS AÑADIDOS! ---
@@ -91,4 +124,39 @@ public interface ReservaService {
      * @return La lista de ReservaDTO ensamblados.
      */
     List<ReservaDTO> clienteVueloEsamblador(List<Reserva> reservas);
-}
\ No newline at end of file
+
+    /**
+     * [ADMIN] Descarta snapshots de vuelos/clientes de la cache local, para que la
+     * proxima consulta los vuelva a pedir al microservicio correspondiente.
+     * Si ambos parametros son null se vacia toda la cache.
+     *
+     * @param vueloId ID del vuelo a descartar (opcional).
+     * @param clienteId ID del cliente a descartar (opcional).
+     */
+    void invalidarCacheRemota(Long vueloId, Long clienteId);
+
+    /**
+     * Vuelve a copiar en las reservas activas (no CANCELADA) los datos de vuelo y cliente cuyo snapshot vencio
+     * ({@code reserva.snapshotTtlMs}), de a {@code reserva.snapshotLote} reservas por pasada.
+     * Lo invoca periodicamente {@code RefrescoSnapshotsReserva}.
+     *
+     * @return Cantidad de reservas refrescadas (0 si no habia snapshots vencidos).
+     */
+    int refrescarSnapshots();
+
+    /**
+     * Cancela una tanda de hasta {@code reserva.expiracionLote} reservas GENERADA que llevan mas de
+     * {@code reserva.expiracionDias} dias sin confirmarse. Las filas que otra instancia esta procesando se saltean.
+     * Lo invoca periodicamente {@code ExpiracionReservas}.
+     *
+     * @return Cantidad de reservas canceladas (0 si no habia vencidas libres).
+     */
+    int expirarGeneradas();
+
+    /**
+     * Atraso del barrido de expiracion: cuanto hace que vencio la reserva GENERADA mas vieja que sigue sin cancelar.
+     *
+     * @return {@link Duration#ZERO} si no hay reservas GENERADA vencidas.
+     */
+    Duration atrasoExpiracion();
+}
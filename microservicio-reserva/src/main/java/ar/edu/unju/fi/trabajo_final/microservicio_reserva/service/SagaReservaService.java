@@ -0,0 +1,32 @@
+package ar.edu.unju.fi.trabajo_final.microservicio_reserva.service;
+
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.entity.Reserva;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.exception.ServicioRemotoException;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.exception.ValidacionException;
+
+import java.util.List;
+
+/**
+ * Coordinador de la saga de confirmacion grupal de reservas.
+ * Pasos: reservar los asientos en ms-vuelo, confirmar las reservas locales; si algo falla,
+ * se compensa liberando en ms-vuelo los asientos tomados. Cada paso se persiste y se reintenta con backoff.
+ */
+public interface SagaReservaService {
+
+    /**
+     * Confirma todas las reservas o ninguna.
+     *
+     * @param reservas Reservas {@code GENERADA} ya validadas.
+     * @return Las reservas confirmadas.
+     * @throws ValidacionException Si algun vuelo no tiene lugar o alguna reserva cambio de estado (se compenso).
+     * @throws ServicioRemotoException Si ms-vuelo no respondio tras los reintentos (se compenso o se compensara).
+     */
+    List<Reserva> confirmarGrupo(List<Reserva> reservas);
+
+    /**
+     * Retoma las sagas sin terminar cuyo plazo vencio (instancia caida o reintento programado).
+     *
+     * @return La cantidad de sagas retomadas.
+     */
+    int recuperarPendientes();
+}
@@ -0,0 +1,98 @@
+package ar.edu.unju.fi.trabajo_final.microservicio_reserva.service.client;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache en memoria acotada, con vencimiento por entrada (TTL) y expulsion LRU por tamaño.
+ * - Una entrada vencida se trata como fallo y se descarta al leerla.
+ * - Al superar {@code maxEntradas} se expulsa la entrada usada hace mas tiempo.
+ * Todas las operaciones estan sincronizadas: los valores son snapshots chicos y
+ * la seccion critica no incluye ninguna llamada remota.
+ */
+public class CacheLocal<K, V> {
+
+    private record Entrada<V>(V valor, long venceEn) {}
+
+    private final long ttlMs;
+    private final int maxEntradas;
+    private final LongSupplier reloj;
+    private final Map<K, Entrada<V>> entradas;
+
+    private final AtomicLong aciertos = new AtomicLong();
+    private final AtomicLong fallos = new AtomicLong();
+    private final AtomicLong expulsiones = new AtomicLong();
+
+    public CacheLocal(long ttlMs, int maxEntradas) {
+        this(ttlMs, maxEntradas, System::currentTimeMillis);
+    }
+
+    public CacheLocal(long ttlMs, int maxEntradas, LongSupplier reloj) {
+        this.ttlMs = ttlMs;
+        this.maxEntradas = Math.max(1, maxEntradas);
+        this.reloj = reloj;
+        // accessOrder = true: el orden de iteracion es del menos al mas recientemente usado
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entrada<V>> eldest) {
+                if (size() > CacheLocal.this.maxEntradas) {
+                    expulsiones.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * @return el valor guardado, o null si no existe o ya vencio.
+     */
+    public synchronized V obtener(K clave) {
+        Entrada<V> entrada = entradas.get(clave);
+        if (entrada == null) {
+            fallos.incrementAndGet();
+            return null;
+        }
+        if (entrada.venceEn() <= reloj.getAsLong()) {
+            entradas.remove(clave);
+            expulsiones.incrementAndGet();
+            fallos.incrementAndGet();
+            return null;
+        }
+        aciertos.incrementAndGet();
+        return entrada.valor();
+    }
+
+    public synchronized void guardar(K clave, V valor) {
+        if (clave == null || valor == null) {
+            return;
+        }
+        entradas.put(clave, new Entrada<>(valor, reloj.getAsLong() + ttlMs));
+    }
+
+    public synchronized void invalidar(K clave) {
+        entradas.remove(clave);
+    }
+
+    public synchronized void invalidarTodo() {
+        entradas.clear();
+    }
+
+    public synchronized int tamanio() {
+        return entradas.size();
+    }
+
+    public long getAciertos() {
+        return aciertos.get();
+    }
+
+    public long getFallos() {
+        return fallos.get();
+    }
+
+    public long getExpulsiones() {
+        return expulsiones.get();
+    }
+}
@@ -0,0 +1,72 @@
+package ar.edu.unju.fi.trabajo_final.microservicio_reserva.service.client;
+
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.configuration.ReservaServiceConfiguration;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.remote.ClienteRemote;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.remote.VueloRemote;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caches locales de los snapshots de ms-vuelo y ms-cliente usados para ensamblar reservas.
+ * Publica en Micrometer (actuator/metrics) las metricas estandar de cache, con el tag {@code cache=vuelo|cliente}:
+ * {@code cache.gets} (result=hit|miss), {@code cache.evictions} y {@code cache.size}.
+ */
+@Component
+public class CacheRemotos {
+
+    private final CacheLocal<Long, VueloRemote> vuelos;
+    private final CacheLocal<Long, ClienteRemote> clientes;
+
+    public CacheRemotos(ReservaServiceConfiguration configReserva, MeterRegistry meterRegistry) {
+        this.vuelos = new CacheLocal<>(configReserva.getCacheVueloTtlMs(), configReserva.getCacheMaxEntradas());
+        this.clientes = new CacheLocal<>(configReserva.getCacheClienteTtlMs(), configReserva.getCacheMaxEntradas());
+        registrarMetricas(meterRegistry, "vuelo", vuelos);
+        registrarMetricas(meterRegistry, "cliente", clientes);
+    }
+
+    public VueloRemote obtenerVuelo(Long id) {
+        return vuelos.obtener(id);
+    }
+
+    public void guardarVuelo(VueloRemote vuelo) {
+        if (vuelo != null) {
+            vuelos.guardar(vuelo.getId(), vuelo);
+        }
+    }
+
+    public void invalidarVuelo(Long id) {
+        vuelos.invalidar(id);
+    }
+
+    public ClienteRemote obtenerCliente(Long id) {
+        return clientes.obtener(id);
+    }
+
+    public void guardarCliente(ClienteRemote cliente) {
+        if (cliente != null) {
+            clientes.guardar(cliente.getId(), cliente);
+        }
+    }
+
+    public void invalidarCliente(Long id) {
+        clientes.invalidar(id);
+    }
+
+    public void invalidarTodo() {
+        vuelos.invalidarTodo();
+        clientes.invalidarTodo();
+    }
+
+    private static void registrarMetricas(MeterRegistry registry, String nombre, CacheLocal<?, ?> cache) {
+        FunctionCounter.builder("cache.gets", cache, CacheLocal::getAciertos)
+                .tag("cache", nombre).tag("result", "hit").register(registry);
+        FunctionCounter.builder("cache.gets", cache, CacheLocal::getFallos)
+                .tag("cache", nombre).tag("result", "miss").register(registry);
+        FunctionCounter.builder("cache.evictions", cache, CacheLocal::getExpulsiones)
+                .tag("cache", nombre).register(registry);
+        Gauge.builder("cache.size", cache, CacheLocal::tamanio)
+                .tag("cache", nombre).register(registry);
+    }
+}
@@ -2,14 +2,24 @@ package ar.edu.unju.fi.trabajo_final.microservicio_reserva.service.client;
 
 
 import ar.edu.unju.fi.trabajo_final.microservicio_reserva.payload.MensajeRespondeCliente;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.remote.ClienteRemote;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 
+import java.util.Collection;
+import java.util.Map;
+
 @FeignClient("cliente")
 public interface ClienteFeignClient {
 
     @RequestMapping(method = RequestMethod.GET, value = "api/v1_1/clientes/{id}", consumes = "application/json")
     MensajeRespondeCliente obtenerClientePorId (@PathVariable Long id);
+
+    // Restringido a ROLE_SERVICIO/ADMIN en ms-cliente (devuelve email y documento)
+    @LlamadaDeServicio
+    @RequestMapping(method = RequestMethod.POST, value = "api/v1_1/clientes/lookup", consumes = "application/json")
+    Map<Long, ClienteRemote> buscarClientesPorIds (@RequestBody Collection<Long> ids);
 }
@@ -0,0 +1,118 @@
+package ar.edu.unju.fi.trabajo_final.microservicio_reserva.service.client;
+
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.configuration.ReservaServiceConfiguration;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.exception.ServicioRemotoException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Ejecuta en paralelo las llamadas Feign a ms-vuelo y ms-cliente.
+ * - El pool tiene {@code reserva.consultasSimultaneas} hilos: es el maximo de llamadas simultaneas,
+ *   el resto espera en cola.
+ * - Cada llamada tiene un plazo de {@code reserva.consultaTimeoutMs} que empieza a correr cuando
+ *   un hilo del pool la toma (el tiempo en cola no cuenta). Al vencer se interrumpe el hilo para
+ *   liberarlo; como HttpURLConnection no responde a interrupciones, la lectura tambien esta acotada
+ *   por {@code spring.cloud.openfeign.client.config.default.readTimeout}.
+ * - Se propaga el contexto de la peticion HTTP para que {@code FeignClientInterceptor}
+ *   siga reenviando el token Authorization desde el hilo del pool.
+ */
+@Component
+public class ConsultasRemotas {
+
+    private final ExecutorService executor;
+    private final ScheduledExecutorService vigilante;
+    private final long timeoutMs;
+
+    public ConsultasRemotas(ReservaServiceConfiguration configReserva) {
+        this.timeoutMs = configReserva.getConsultaTimeoutMs();
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, configReserva.getConsultasSimultaneas()), tarea -> {
+            Thread hilo = new Thread(tarea, "consulta-remota-" + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        this.vigilante = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "consulta-remota-plazo");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+
+    /**
+     * Lanza la consulta en el pool y devuelve su futuro.
+     * Si el plazo vence el futuro termina con TimeoutException y el hilo que la ejecuta se interrumpe.
+     */
+    public <T> CompletableFuture<T> lanzar(Supplier<T> consulta) {
+        RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+        CompletableFuture<T> resultado = new CompletableFuture<>();
+        executor.execute(() -> {
+            if (resultado.isDone()) {
+                return;
+            }
+            Thread hilo = Thread.currentThread();
+            // El candado evita interrumpir al hilo cuando ya paso a otra consulta
+            Object candado = new Object();
+            boolean[] terminada = {false};
+            ScheduledFuture<?> plazo = vigilante.schedule(() -> {
+                synchronized (candado) {
+                    if (!terminada[0] && resultado.completeExceptionally(new TimeoutException())) {
+                        hilo.interrupt();
+                    }
+                }
+            }, timeoutMs, TimeUnit.MILLISECONDS);
+            RequestContextHolder.setRequestAttributes(atributos);
+            try {
+                resultado.complete(consulta.get());
+            } catch (Throwable e) {
+                resultado.completeExceptionally(e);
+            } finally {
+                synchronized (candado) {
+                    terminada[0] = true;
+                }
+                plazo.cancel(false);
+                Thread.interrupted();
+                RequestContextHolder.resetRequestAttributes();
+            }
+        });
+        return resultado;
+    }
+
+    /**
+     * Espera el resultado de una consulta lanzada con {@link #lanzar(Supplier)}.
+     * Las excepciones de la consulta (ej: FeignException.NotFound) se relanzan tal cual.
+     * @throws ServicioRemotoException si se vencio el plazo de la llamada.
+     */
+    public <T> T esperar(CompletableFuture<T> futuro) {
+        try {
+            return futuro.join();
+        } catch (CompletionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof TimeoutException) {
+                throw new ServicioRemotoException("El servicio remoto no respondio dentro de los " + timeoutMs + " ms.");
+            }
+            if (causa instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        vigilante.shutdownNow();
+        executor.shutdownNow();
+    }
+}
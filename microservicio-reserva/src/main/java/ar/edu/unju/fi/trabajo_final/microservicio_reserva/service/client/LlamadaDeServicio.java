@@ -0,0 +1,16 @@
+package ar.edu.unju.fi.trabajo_final.microservicio_reserva.service.client;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca un metodo Feign que siempre sale con el token de servicio (ROLE_SERVICIO), aunque haya una peticion de
+ * usuario en curso: es para endpoints internos restringidos a servicios, como la busqueda masiva de clientes.
+ * Lo aplica {@code FeignClientInterceptor}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface LlamadaDeServicio {
+}
@@ -1,21 +1,35 @@
 package ar.edu.unju.fi.trabajo_final.microservicio_reserva.service.client;
 
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.dto.eventoDTO.EventoAsientoDTO;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.enums.ResultadoEventoAsiento;
 import ar.edu.unju.fi.trabajo_final.microservicio_reserva.payload.MensajeRespondeVuelo;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.remote.VueloRemote;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
 @FeignClient("vuelo")
 public interface VuelosFeignClient {
 
     @RequestMapping(method = RequestMethod.GET, value = "api/v1_1/vuelos/{id}", consumes = "application/json")
     MensajeRespondeVuelo obtenerVueloPorId (@PathVariable Long id);
 
+    @RequestMapping(method = RequestMethod.POST, value = "api/v1_1/vuelos/lookup", consumes = "application/json")
+    Map<Long, VueloRemote> buscarVuelosPorIds (@RequestBody Collection<Long> ids);
+
     @RequestMapping(method = RequestMethod.PUT, value = "api/v1_1/vuelo/confirmar/{id}", consumes = "application/json")
     MensajeRespondeVuelo confirmarVuelo(@PathVariable Long id);
 
     @RequestMapping(method = RequestMethod.PUT, value = "api/v1_1/vuelo/cancelar/{id}",consumes = "application/json")
     MensajeRespondeVuelo cancelarVuelo(@PathVariable Long id);
 
+    @RequestMapping(method = RequestMethod.POST, value = "api/v1_1/vuelo/eventos/asientos", consumes = "application/json")
+    Map<String, ResultadoEventoAsiento> publicarEventosAsiento(@RequestBody List<EventoAsientoDTO> eventos);
+
 }
@@ -0,0 +1,64 @@
+package ar.edu.unju.fi.trabajo_final.microservicio_reserva.service.impl;
+
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.configuration.ReservaServiceConfiguration;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.service.ReservaService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cancela las reservas GENERADA que nunca se confirmaron.
+ * Cada {@code reserva.expiracionBarridoMs} cancela tandas de {@code reserva.expiracionLote} reservas, una
+ * transaccion por tanda, mientras vengan llenas. Varias instancias pueden correrlo a la vez: cada una
+ * toma filas distintas ({@code SKIP LOCKED}).
+ * Publica en Micrometer {@code reserva.expiradas} (reservas canceladas) y
+ * {@code reserva.expiracion.atraso} (segundos desde que vencio la GENERADA mas vieja sin cancelar).
+ */
+@Component
+public class ExpiracionReservas {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExpiracionReservas.class);
+
+    private final ReservaService reservaService;
+    private final ReservaServiceConfiguration configReserva;
+    private final Counter expiradas;
+    private final AtomicLong atrasoSegundos = new AtomicLong();
+
+    public ExpiracionReservas(ReservaService reservaService, ReservaServiceConfiguration configReserva, MeterRegistry meterRegistry) {
+        this.reservaService = reservaService;
+        this.configReserva = configReserva;
+        this.expiradas = Counter.builder("reserva.expiradas")
+                .description("Reservas GENERADA canceladas por vencimiento")
+                .register(meterRegistry);
+        Gauge.builder("reserva.expiracion.atraso", atrasoSegundos, AtomicLong::get)
+                .description("Segundos desde que vencio la reserva GENERADA mas vieja que sigue sin cancelar")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${reserva.expiracionBarridoMs:60000}", initialDelayString = "${reserva.expiracionBarridoMs:60000}")
+    public void expirar() {
+        try {
+            int canceladas;
+            int total = 0;
+            do {
+                canceladas = reservaService.expirarGeneradas();
+                expiradas.increment(canceladas);
+                total += canceladas;
+            } while (canceladas >= Math.max(1, configReserva.getExpiracionLote()));
+            if (total > 0) {
+                logger.info("Reservas GENERADA vencidas canceladas: {}.", total);
+            }
+            atrasoSegundos.set(reservaService.atrasoExpiracion().toSeconds());
+        } catch (RuntimeException e) {
+            // Las reservas que quedaron sin cancelar se toman en la proxima pasada
+            logger.warn("No se pudieron expirar las reservas vencidas: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package ar.edu.unju.fi.trabajo_final.microservicio_reserva.service.impl;
+
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.configuration.ReservaServiceConfiguration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Genera los codigos de reserva del lado del servidor.
+ * Cada instancia toma de la secuencia {@code reserva_codigo_bloques} un numero de bloque y reparte
+ * {@code reserva.codigoBloque} codigos de ese bloque sin volver a la base. Como cada bloque lo entrega
+ * la secuencia una sola vez, dos instancias nunca generan el mismo codigo; el indice unico de
+ * {@code reservas.codigo} queda como ultima garantia.
+ * Formato: {@code RES-<bloque en base 36>-<posicion en base 36, 4 caracteres>} (como maximo 22 caracteres).
+ */
+@Component
+public class GeneradorCodigoReserva {
+
+    public static final String PREFIJO = "RES-";
+    static final String SECUENCIA = "reserva_codigo_bloques";
+    // La posicion dentro del bloque se escribe con 4 digitos en base 36
+    private static final int MAX_BLOQUE = 36 * 36 * 36 * 36;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int tamanioBloque;
+    private long bloque;
+    private int siguiente;
+
+    public GeneradorCodigoReserva(JdbcTemplate jdbcTemplate, ReservaServiceConfiguration configReserva) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tamanioBloque = Math.min(MAX_BLOQUE, Math.max(1, configReserva.getCodigoBloque()));
+        this.siguiente = tamanioBloque;
+    }
+
+    public synchronized String generar() {
+        if (siguiente >= tamanioBloque) {
+            bloque = nuevoBloque();
+            siguiente = 0;
+        }
+        return formatear(bloque, siguiente++);
+    }
+
+    static String formatear(long bloque, int posicion) {
+        String sufijo = Integer.toString(posicion, 36).toUpperCase();
+        return PREFIJO + Long.toString(bloque, 36).toUpperCase() + "-" + "0".repeat(4 - sufijo.length()) + sufijo;
+    }
+
+    private long nuevoBloque() {
+        // La secuencia la crea la migracion V1 de db/migration
+        Long valor = jdbcTemplate.queryForObject("select nextval('" + SECUENCIA + "')", Long.class);
+        if (valor == null) {
+            throw new IllegalStateException("La secuencia " + SECUENCIA + " no devolvio un valor");
+        }
+        return valor;
+    }
+}
@@ -0,0 +1,146 @@
+package ar.edu.unju.fi.trabajo_final.microservicio_reserva.service.impl;
+
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.configuration.ReservaServiceConfiguration;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.dto.eventoDTO.EventoAsientoDTO;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.entity.EventoOutbox;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.entity.Reserva;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.enums.EstadoReserva;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.enums.ResultadoEventoAsiento;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.repository.EventoOutboxRepository;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.repository.ReservaRepository;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.service.OutboxService;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.service.client.CacheRemotos;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.service.client.VuelosFeignClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+@Service
+public class OutboxServiceImpl implements OutboxService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxServiceImpl.class);
+
+    private final EventoOutboxRepository outboxRepository;
+    private final ReservaRepository reservaRepository;
+    private final VuelosFeignClient vuelosFeignClient;
+    private final CacheRemotos cacheRemotos;
+    private final ReservaServiceConfiguration configReserva;
+    private final TransactionTemplate transactionTemplate;
+
+    public OutboxServiceImpl(EventoOutboxRepository outboxRepository, ReservaRepository reservaRepository, VuelosFeignClient vuelosFeignClient,
+                             CacheRemotos cacheRemotos, ReservaServiceConfiguration configReserva, PlatformTransactionManager transactionManager) {
+        this.outboxRepository = outboxRepository;
+        this.reservaRepository = reservaRepository;
+        this.vuelosFeignClient = vuelosFeignClient;
+        this.cacheRemotos = cacheRemotos;
+        this.configReserva = configReserva;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public String registrar(Reserva reserva, int delta, String referencia) {
+        EventoOutbox evento = EventoOutbox.builder()
+                .eventoId(UUID.randomUUID().toString())
+                .reservaId(reserva.getId())
+                .vueloId(reserva.getVueloId())
+                .delta(delta)
+                .referencia(referencia)
+                .creado(LocalDateTime.now())
+                .build();
+        outboxRepository.save(evento);
+        return evento.getEventoId();
+    }
+
+    @Override
+    public int publicarPendientes() {
+        List<EventoOutbox> pendientes = outboxRepository.findByPublicadoIsNullOrderByIdAsc(
+                PageRequest.of(0, Math.max(1, configReserva.getOutboxLote())));
+        if (pendientes.isEmpty()) {
+            return 0;
+        }
+        List<EventoAsientoDTO> eventos = new ArrayList<>(pendientes.size());
+        for (EventoOutbox pendiente : pendientes) {
+            eventos.add(EventoAsientoDTO.builder()
+                    .eventoId(pendiente.getEventoId())
+                    .vueloId(pendiente.getVueloId())
+                    .delta(pendiente.getDelta())
+                    .referencia(pendiente.getReferencia())
+                    .build());
+        }
+        // La llamada queda fuera de toda transaccion: esperar a ms-vuelo no retiene conexiones de la base.
+        // Si falla, los eventos siguen pendientes y se reenvian (ms-vuelo descarta los repetidos).
+        Map<String, ResultadoEventoAsiento> resultados = vuelosFeignClient.publicarEventosAsiento(eventos);
+        Integer publicados = transactionTemplate.execute(status -> registrarResultados(pendientes, resultados));
+        return publicados != null ? publicados : 0;
+    }
+
+    @Override
+    public int purgarPublicados() {
+        LocalDateTime limite = LocalDateTime.now().minus(Duration.ofMillis(configReserva.getOutboxRetencionMs()));
+        List<Long> ids = outboxRepository.findIdsPublicadosAntesDe(limite,
+                PageRequest.of(0, Math.max(1, configReserva.getOutboxLote())));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        outboxRepository.deleteAllByIdInBatch(ids);
+        return ids.size();
+    }
+
+    /**
+     * Marca como publicados los eventos que ms-vuelo informo y revierte las confirmaciones rechazadas.
+     * Se corta en el primer evento sin resultado para no publicar fuera de orden.
+     */
+    private int registrarResultados(List<EventoOutbox> pendientes, Map<String, ResultadoEventoAsiento> resultados) {
+        LocalDateTime ahora = LocalDateTime.now();
+        List<EventoOutbox> publicados = new ArrayList<>();
+        Set<Long> vuelosModificados = new HashSet<>();
+        for (EventoOutbox evento : pendientes) {
+            ResultadoEventoAsiento resultado = resultados != null ? resultados.get(evento.getEventoId()) : null;
+            if (resultado == null) {
+                break;
+            }
+            evento.setResultado(resultado);
+            evento.setPublicado(ahora);
+            publicados.add(evento);
+            if (resultado == ResultadoEventoAsiento.APLICADO) {
+                vuelosModificados.add(evento.getVueloId());
+            } else if (resultado == ResultadoEventoAsiento.RECHAZADO && evento.getDelta() > 0) {
+                revertirConfirmacion(evento);
+            }
+        }
+        outboxRepository.saveAll(publicados);
+        vuelosModificados.forEach(cacheRemotos::invalidarVuelo);
+        return publicados.size();
+    }
+
+    /**
+     * El vuelo no tenia lugar: la reserva vuelve a GENERADA, salvo que ya se haya cancelado
+     * o vuelto a confirmar con otro evento.
+     */
+    private void revertirConfirmacion(EventoOutbox evento) {
+        reservaRepository.findById(evento.getReservaId())
+                .filter(reserva -> EstadoReserva.CONFIRMADA.equals(reserva.getEstado()))
+                .filter(reserva -> evento.getEventoId().equals(reserva.getEventoConfirmacion()))
+                .ifPresent(reserva -> {
+                    reserva.setEstado(EstadoReserva.GENERADA);
+                    reserva.setEventoConfirmacion(null);
+                    reservaRepository.save(reserva);
+                    logger.info("Reserva {} vuelve a GENERADA: el vuelo {} no tiene lugar.", reserva.getId(), evento.getVueloId());
+                });
+    }
+}
@@ -0,0 +1,39 @@
+package ar.edu.unju.fi.trabajo_final.microservicio_reserva.service.impl;
+
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.configuration.ReservaServiceConfiguration;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.service.SagaReservaService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Barrido de recuperacion de sagas: termina las que quedaron a medias por la caida de una instancia
+ * (plazo {@code reserva.sagaPlazoMs} vencido) y reintenta las compensaciones pendientes.
+ * Corre al arrancar y despues cada {@code reserva.sagaBarridoMs}.
+ */
+@Component
+public class RecuperacionSagas {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecuperacionSagas.class);
+
+    private final SagaReservaService sagaService;
+    private final ReservaServiceConfiguration configReserva;
+
+    public RecuperacionSagas(SagaReservaService sagaService, ReservaServiceConfiguration configReserva) {
+        this.sagaService = sagaService;
+        this.configReserva = configReserva;
+    }
+
+    @Scheduled(fixedDelayString = "${reserva.sagaBarridoMs:30000}")
+    public void recuperar() {
+        try {
+            int retomadas;
+            do {
+                retomadas = sagaService.recuperarPendientes();
+            } while (retomadas >= Math.max(1, configReserva.getSagaLote()));
+        } catch (RuntimeException e) {
+            logger.warn("No se pudieron recuperar las sagas pendientes: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package ar.edu.unju.fi.trabajo_final.microservicio_reserva.service.impl;
+
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.configuration.ReservaServiceConfiguration;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.service.ReservaService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Mantiene al dia el snapshot de vuelo/cliente guardado en las reservas.
+ * Cada {@code reserva.snapshotRefrescoMs} refresca una tanda de snapshots vencidos; si la tanda
+ * vino llena sigue con la proxima, hasta que no queden vencidos.
+ * Las llamadas a ms-vuelo/ms-cliente salen sin peticion HTTP de origen, con el token de servicio.
+ */
+@Component
+public class RefrescoSnapshotsReserva {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefrescoSnapshotsReserva.class);
+
+    private final ReservaService reservaService;
+    private final ReservaServiceConfiguration configReserva;
+
+    public RefrescoSnapshotsReserva(ReservaService reservaService, ReservaServiceConfiguration configReserva) {
+        this.reservaService = reservaService;
+        this.configReserva = configReserva;
+    }
+
+    @Scheduled(fixedDelayString = "${reserva.snapshotRefrescoMs:60000}", initialDelayString = "${reserva.snapshotRefrescoMs:60000}")
+    public void refrescar() {
+        try {
+            int refrescadas;
+            int total = 0;
+            do {
+                refrescadas = reservaService.refrescarSnapshots();
+                total += refrescadas;
+            } while (refrescadas >= Math.max(1, configReserva.getSnapshotLote()));
+            if (total > 0) {
+                logger.info("Snapshots de vuelo/cliente refrescados en {} reservas.", total);
+            }
+        } catch (RuntimeException e) {
+            // Si ms-vuelo o ms-cliente no responden se reintenta en la proxima pasada
+            logger.warn("No se pudieron refrescar los snapshots de reservas: {}", e.getMessage());
+        }
+    }
+}
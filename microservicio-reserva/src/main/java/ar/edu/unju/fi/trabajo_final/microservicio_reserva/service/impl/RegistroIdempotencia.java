@@ -0,0 +1,191 @@
+package ar.edu.unju.fi.trabajo_final.microservicio_reserva.service.impl;
+
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.configuration.ReservaServiceConfiguration;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.exception.ElementoExistenteException;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.exception.ServicioRemotoException;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.exception.ValidacionException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Registro de respuestas por {@code Idempotency-Key} para crear, confirmar y cancelar reservas.
+ * - La primera peticion con una clave se ejecuta y su respuesta se guarda {@code reserva.idempotenciaTtlMs}.
+ * - Una repeticion con la misma clave devuelve la respuesta guardada (cabecera {@code Idempotent-Replayed})
+ *   sin volver a ejecutar; si la primera sigue en curso, espera su resultado en vez de correr en paralelo.
+ * - Los errores no se guardan: un reintento con la misma clave vuelve a ejecutar la operacion.
+ * - Guarda como maximo {@code reserva.idempotenciaMaxEntradas} claves: lleno, descarta las completadas mas
+ *   viejas y, si todas siguen en curso, rechaza la clave nueva.
+ * Las claves se separan por usuario autenticado. El registro es local a cada instancia: una creacion repetida
+ * que llega a otra instancia (o cuya clave ya se descarto) la frena el indice unico de
+ * {@code reservas.clave_idempotencia}; confirmar y cancelar validan el estado de la reserva.
+ */
+@Component
+public class RegistroIdempotencia {
+
+    public static final String CABECERA = "Idempotency-Key";
+    public static final String CABECERA_REPETIDA = "Idempotent-Replayed";
+
+    private static final int LARGO_MAXIMO = 255;
+
+    private static final class Entrada {
+        private final String huella;
+        private final CompletableFuture<ResponseEntity<?>> respuesta = new CompletableFuture<>();
+        // Mientras la operacion esta en curso la entrada no vence
+        private volatile long venceEn = Long.MAX_VALUE;
+
+        private Entrada(String huella) {
+            this.huella = huella;
+        }
+    }
+
+    private record Completada(String id, Entrada entrada) {
+    }
+
+    private final ConcurrentHashMap<String, Entrada> entradas = new ConcurrentHashMap<>();
+    // Entradas con respuesta, en el orden en que terminaron: las primeras en descartarse si el registro se llena
+    private final ConcurrentLinkedQueue<Completada> completadas = new ConcurrentLinkedQueue<>();
+    private final ReservaServiceConfiguration configReserva;
+    private final LongSupplier reloj;
+
+    public RegistroIdempotencia(ReservaServiceConfiguration configReserva) {
+        this(configReserva, System::currentTimeMillis);
+    }
+
+    public RegistroIdempotencia(ReservaServiceConfiguration configReserva, LongSupplier reloj) {
+        this.configReserva = configReserva;
+        this.reloj = reloj;
+    }
+
+    /**
+     * Ejecuta la operacion una sola vez por clave.
+     *
+     * @param clave Valor de la cabecera {@code Idempotency-Key}; si es null o vacia la operacion se ejecuta sin registro.
+     * @param huella Identifica la operacion y sus parametros: la misma clave con otra huella se rechaza.
+     * @param operacion La operacion a ejecutar.
+     * @return La respuesta de la operacion, propia o repetida.
+     * @throws ValidacionException Si la clave es demasiado larga o ya se uso para otra operacion.
+     * @throws ElementoExistenteException Si la operacion original sigue en curso despues de {@code reserva.idempotenciaEsperaMs}.
+     * @throws ServicioRemotoException Si el registro esta lleno de operaciones en curso.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ResponseEntity<T> ejecutar(String clave, String huella, Supplier<ResponseEntity<T>> operacion) {
+        if (clave == null || clave.isBlank()) {
+            return operacion.get();
+        }
+        if (clave.length() > LARGO_MAXIMO) {
+            throw new ValidacionException("La cabecera " + CABECERA + " no puede superar los " + LARGO_MAXIMO + " caracteres.");
+        }
+        String id = sujetoActual() + ":" + clave;
+        while (true) {
+            Entrada existente = entradas.get(id);
+            if (existente == null) {
+                Entrada nueva = new Entrada(huella);
+                existente = registrar(id, nueva);
+                if (existente == null) {
+                    return ejecutarPrimera(id, nueva, operacion);
+                }
+            }
+            if (existente.venceEn <= reloj.getAsLong()) {
+                entradas.remove(id, existente);
+                continue;
+            }
+            if (!existente.huella.equals(huella)) {
+                throw new ValidacionException("La " + CABECERA + " ya se uso para otra operacion.");
+            }
+            return (ResponseEntity<T>) repetir(esperar(existente));
+        }
+    }
+
+    /**
+     * Agrega la entrada sin pasar {@code reserva.idempotenciaMaxEntradas}. Las altas pasan todas por aca;
+     * las bajas (vencimiento, error) solo achican el mapa, asi que el tope se respeta sin bloquear las lecturas.
+     * @return La entrada que ya tenia la clave, o null si se registro la nueva.
+     */
+    private synchronized Entrada registrar(String id, Entrada nueva) {
+        Entrada existente = entradas.get(id);
+        if (existente != null) {
+            return existente;
+        }
+        if (entradas.size() >= configReserva.getIdempotenciaMaxEntradas()) {
+            limpiarVencidas();
+            while (entradas.size() >= configReserva.getIdempotenciaMaxEntradas()) {
+                Completada masVieja = completadas.poll();
+                if (masVieja == null) {
+                    throw new ServicioRemotoException("Hay demasiadas operaciones con " + CABECERA + " en curso; reintente en unos segundos.");
+                }
+                entradas.remove(masVieja.id(), masVieja.entrada());
+            }
+        }
+        entradas.put(id, nueva);
+        return null;
+    }
+
+    private <T> ResponseEntity<T> ejecutarPrimera(String id, Entrada entrada, Supplier<ResponseEntity<T>> operacion) {
+        ResponseEntity<T> respuesta;
+        try {
+            respuesta = operacion.get();
+        } catch (RuntimeException e) {
+            // No se guarda: las repeticiones que ya esperaban reciben el mismo error y la clave queda libre
+            entradas.remove(id, entrada);
+            entrada.respuesta.completeExceptionally(e);
+            throw e;
+        }
+        entrada.venceEn = reloj.getAsLong() + configReserva.getIdempotenciaTtlMs();
+        entrada.respuesta.complete(respuesta);
+        completadas.add(new Completada(id, entrada));
+        return respuesta;
+    }
+
+    private ResponseEntity<?> esperar(Entrada entrada) {
+        try {
+            return entrada.respuesta.get(configReserva.getIdempotenciaEsperaMs(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new ServicioRemotoException("Fallo la operacion original de esta " + CABECERA + ".");
+        } catch (TimeoutException e) {
+            throw new ElementoExistenteException("La operacion con esta " + CABECERA + " sigue en curso.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServicioRemotoException("Se interrumpio la espera de la operacion original de esta " + CABECERA + ".");
+        }
+    }
+
+    private ResponseEntity<?> repetir(ResponseEntity<?> original) {
+        return ResponseEntity.status(original.getStatusCode())
+                .headers(cabeceras -> {
+                    cabeceras.addAll(original.getHeaders());
+                    cabeceras.set(CABECERA_REPETIDA, "true");
+                })
+                .body(original.getBody());
+    }
+
+    @Scheduled(fixedDelayString = "${reserva.idempotenciaLimpiezaMs:60000}")
+    public void limpiarVencidas() {
+        long ahora = reloj.getAsLong();
+        entradas.values().removeIf(entrada -> entrada.venceEn <= ahora);
+        completadas.removeIf(completada -> completada.entrada().venceEn <= ahora);
+    }
+
+    public int tamanio() {
+        return entradas.size();
+    }
+
+    private String sujetoActual() {
+        Authentication autenticacion = SecurityContextHolder.getContext().getAuthentication();
+        return autenticacion != null ? autenticacion.getName() : "anonimo";
+    }
+}
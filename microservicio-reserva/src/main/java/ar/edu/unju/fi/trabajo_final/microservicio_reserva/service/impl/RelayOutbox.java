@@ -0,0 +1,58 @@
+package ar.edu.unju.fi.trabajo_final.microservicio_reserva.service.impl;
+
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.configuration.ReservaServiceConfiguration;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.service.OutboxService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publica a ms-vuelo los eventos de asiento del outbox.
+ * Cada {@code reserva.outboxRelayMs} envia tandas de {@code reserva.outboxLote} eventos mientras vengan llenas.
+ * Corre sin peticion HTTP de origen, con el token de servicio.
+ * Cada {@code reserva.outboxPurgaMs} borra los eventos publicados hace mas de {@code reserva.outboxRetencionMs}.
+ */
+@Component
+public class RelayOutbox {
+
+    private static final Logger logger = LoggerFactory.getLogger(RelayOutbox.class);
+
+    private final OutboxService outboxService;
+    private final ReservaServiceConfiguration configReserva;
+
+    public RelayOutbox(OutboxService outboxService, ReservaServiceConfiguration configReserva) {
+        this.outboxService = outboxService;
+        this.configReserva = configReserva;
+    }
+
+    @Scheduled(fixedDelayString = "${reserva.outboxRelayMs:1000}", initialDelayString = "${reserva.outboxRelayMs:1000}")
+    public void publicar() {
+        try {
+            int publicados;
+            do {
+                publicados = outboxService.publicarPendientes();
+            } while (publicados >= Math.max(1, configReserva.getOutboxLote()));
+        } catch (RuntimeException e) {
+            // ms-vuelo no responde: los eventos quedan pendientes y se reintentan en la proxima pasada
+            logger.warn("No se pudieron publicar los eventos de asiento: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${reserva.outboxPurgaMs:3600000}", initialDelayString = "${reserva.outboxPurgaMs:3600000}")
+    public void purgar() {
+        try {
+            int total = 0;
+            int borrados;
+            do {
+                borrados = outboxService.purgarPublicados();
+                total += borrados;
+            } while (borrados >= Math.max(1, configReserva.getOutboxLote()));
+            if (total > 0) {
+                logger.debug("Se borraron {} eventos de asiento ya publicados.", total);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("No se pudieron borrar los eventos de asiento publicados: {}", e.getMessage());
+        }
+    }
+}
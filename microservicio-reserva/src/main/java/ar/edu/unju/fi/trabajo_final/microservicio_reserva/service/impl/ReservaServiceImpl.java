@@ -1,5 +1,6 @@
 package ar.edu.unju.fi.trabajo_final.microservicio_reserva.service.impl;
 
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.configuration.ReservaServiceConfiguration;
 import ar.edu.unju.fi.trabajo_final.microservicio_reserva.dto.clienteDTO.ClienteDTO;
 import ar.edu.unju.fi.trabajo_final.microservicio_reserva.dto.EntityMapper;
 import ar.edu.unju.fi.trabajo_final.microservicio_reserva.dto.reservaDTO.ReservaDTO;
@@ -11,48 +12,94 @@ import ar.edu.unju.fi.trabajo_final.microservicio_reserva.exception.ElementoNoEn
 import ar.edu.unju.fi.trabajo_final.microservicio_reserva.exception.ValidacionException;
 import ar.edu.unju.fi.trabajo_final.microservicio_reserva.payload.MensajeRespondeCliente;
 import ar.edu.unju.fi.trabajo_final.microservicio_reserva.payload.MensajeRespondeVuelo;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.payload.Pagina;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.remote.ClienteRemote;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.remote.VueloRemote;
 import ar.edu.unju.fi.trabajo_final.microservicio_reserva.repository.ReservaRepository;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.service.OutboxService;
 import ar.edu.unju.fi.trabajo_final.microservicio_reserva.service.ReservaService;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.service.SagaReservaService;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.service.client.CacheRemotos;
 import ar.edu.unju.fi.trabajo_final.microservicio_reserva.service.client.ClienteFeignClient;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.service.client.ConsultasRemotas;
 import ar.edu.unju.fi.trabajo_final.microservicio_reserva.service.client.VuelosFeignClient;
 import feign.FeignException;
+import jakarta.persistence.EntityManager;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort; // <-- Importación corregida
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 @Service
 public class ReservaServiceImpl implements ReservaService {
 
+    private static final String RESTRICCION_CODIGO = "reservas_codigo_key";
+    private static final String RESTRICCION_CLAVE_IDEMPOTENCIA = "ux_reservas_clave_idempotencia";
+
     private final ReservaRepository reservaRepository;
     private final EntityMapper entityMapper;
     private final ClienteFeignClient clienteFeignClient;
     private final VuelosFeignClient  vuelosFeignClient;
+    private final ReservaServiceConfiguration configReserva;
+    private final ConsultasRemotas consultasRemotas;
+    private final CacheRemotos cacheRemotos;
+    private final EntityManager entityManager;
+    private final OutboxService outboxService;
+    private final SagaReservaService sagaService;
+    private final GeneradorCodigoReserva generadorCodigo;
 
-    public ReservaServiceImpl(ReservaRepository reservaRepository, EntityMapper entityMapper, ClienteFeignClient clienteFeignClient, VuelosFeignClient vuelosFeignClient) {
+    public ReservaServiceImpl(ReservaRepository reservaRepository, EntityMapper entityMapper, ClienteFeignClient clienteFeignClient, VuelosFeignClient vuelosFeignClient, ReservaServiceConfiguration configReserva, ConsultasRemotas consultasRemotas, CacheRemotos cacheRemotos, EntityManager entityManager, OutboxService outboxService, SagaReservaService sagaService, GeneradorCodigoReserva generadorCodigo) {
         this.reservaRepository = reservaRepository;
         this.entityMapper = entityMapper;
         this.clienteFeignClient = clienteFeignClient;
         this.vuelosFeignClient = vuelosFeignClient;
+        this.configReserva = configReserva;
+        this.consultasRemotas = consultasRemotas;
+        this.cacheRemotos = cacheRemotos;
+        this.entityManager = entityManager;
+        this.outboxService = outboxService;
+        this.sagaService = sagaService;
+        this.generadorCodigo = generadorCodigo;
     }
 
     // --------------------------- CREAR RESERVA ---------------------------
     @Override
     @Transactional
     public Reserva crear(Reserva reserva) {
-        reservaRepository.findByCodigo(reserva.getCodigo())
-                .ifPresent(r -> {
-                    throw new ElementoExistenteException("El código de reserva ya existe");
-                });
-        vuelosFeignClient.obtenerVueloPorId(reserva.getVueloId());
-        clienteFeignClient.obtenerClientePorId(reserva.getClienteId());
+        MensajeRespondeVuelo vuelo = vuelosFeignClient.obtenerVueloPorId(reserva.getVueloId());
+        MensajeRespondeCliente cliente = clienteFeignClient.obtenerClientePorId(reserva.getClienteId());
+        guardarSnapshotInicial(reserva, vuelo, cliente);
+        if (reserva.getCodigo() == null || reserva.getCodigo().isBlank()) {
+            reserva.setCodigo(generadorCodigo.generar());
+        } else if (reserva.getCodigo().regionMatches(true, 0, GeneradorCodigoReserva.PREFIJO, 0, GeneradorCodigoReserva.PREFIJO.length())) {
+            // Reservado para los codigos generados: uno cargado a mano haria fallar mas adelante una alta generada
+            throw new ValidacionException("El código de reserva no puede empezar con " + GeneradorCodigoReserva.PREFIJO);
+        }
+        // La Idempotency-Key solo la asigna la creacion del usuario; el body del admin no puede ocupar una
+        reserva.setClaveIdempotencia(null);
         reserva.setEstado(EstadoReserva.GENERADA);
         reserva.setFechaCreacion(LocalDate.now());
-        return reservaRepository.save(reserva);
+        return guardarNueva(reserva);
     }
 
 
@@ -65,16 +112,33 @@ public class ReservaServiceImpl implements ReservaService {
         if (!EstadoReserva.GENERADA.equals(reserva.getEstado())) {
             throw new ValidacionException("No se puede CONFIRMAR una reserva cuyo estado no sea GENERADO");
         }
-        MensajeRespondeVuelo mensaje = vuelosFeignClient.obtenerVueloPorId(reserva.getVueloId());
-        VueloDTO vuelo = entityMapper.vueloRemoteToVueloDTO(mensaje.getVuelo());
-        if (vuelo.getCupoReservado() + 1 > vuelo.getCupoTotal()) {
-            throw new ValidacionException("El vuelo ha alcanzado el cupo total de " + vuelo.getCupoTotal());
-        }
-        vuelosFeignClient.confirmarVuelo(vuelo.getId());
+        // El asiento lo toma ms-vuelo al recibir el evento; si no hay lugar la reserva vuelve a GENERADA
+        reserva.setEventoConfirmacion(outboxService.registrar(reserva, 1, null));
         reserva.setEstado(EstadoReserva.CONFIRMADA);
         return reservaRepository.save(reserva);
     }
 
+    @Override
+    public List<Reserva> confirmarVarias(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new ValidacionException("Debe indicar al menos una reserva a confirmar.");
+        }
+        Set<Long> idsUnicos = new LinkedHashSet<>(ids);
+        List<Reserva> reservas = reservaRepository.findAllById(idsUnicos);
+        if (reservas.size() != idsUnicos.size()) {
+            Set<Long> faltantes = new LinkedHashSet<>(idsUnicos);
+            reservas.forEach(reserva -> faltantes.remove(reserva.getId()));
+            throw new ElementoNoEncontradoException("No existen reservas con los ids: " + faltantes);
+        }
+        for (Reserva reserva : reservas) {
+            if (!EstadoReserva.GENERADA.equals(reserva.getEstado())) {
+                throw new ValidacionException("No se puede CONFIRMAR la reserva " + reserva.getId() + " porque su estado no es GENERADO");
+            }
+        }
+        // Sin transaccion local: la saga persiste cada paso y compensa si algo falla despues de tomar los asientos
+        return sagaService.confirmarGrupo(reservas);
+    }
+
     @Override
     @Transactional
     public Reserva cancelar(Long id) {
@@ -83,11 +147,8 @@ public class ReservaServiceImpl implements ReservaService {
         if (EstadoReserva.CANCELADA.equals(reserva.getEstado())) {
             throw new ValidacionException("La reserva con id " + id + " ya está CANCELADA");
         }
-        MensajeRespondeVuelo mensaje = vuelosFeignClient.obtenerVueloPorId(reserva.getVueloId());
-        VueloDTO vuelo = entityMapper.vueloRemoteToVueloDTO(mensaje.getVuelo());
         if (EstadoReserva.CONFIRMADA.equals(reserva.getEstado())) {
-            vuelo.setCupoReservado(vuelo.getCupoReservado() - 1);
-            vuelosFeignClient.cancelarVuelo(vuelo.getId());
+            outboxService.registrar(reserva, -1, reserva.getEventoConfirmacion());
         }
         reserva.setEstado(EstadoReserva.CANCELADA);
         return reservaRepository.save(reserva);
@@ -95,8 +156,43 @@ public class ReservaServiceImpl implements ReservaService {
 
 
     @Override
-    public List<Reserva> buscarTodasReserva(){
-        return reservaRepository.findAll(Sort.by(Sort.Direction.DESC, "id"));
+    @Transactional(readOnly = true)
+    public Pagina<Reserva> buscarReservasPaginadas(String cursor, int limite) {
+        Long despuesDe = Pagina.decodificar(cursor);
+        // Se lee una fila de mas solo para saber si existe otra pagina
+        PageRequest pagina = PageRequest.of(0, limite + 1);
+        List<Reserva> filas = despuesDe == null
+                ? reservaRepository.findAllByOrderByIdDesc(pagina)
+                : reservaRepository.findByIdLessThanOrderByIdDesc(despuesDe, pagina);
+        return Pagina.de(filas, limite, Reserva::getId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportarReservas(Consumer<List<ReservaDTO>> destino) {
+        int tamanioLote = Math.max(1, configReserva.getExportLote());
+        List<Reserva> lote = new ArrayList<>(tamanioLote);
+        try (Stream<Reserva> reservas = reservaRepository.streamAllByOrderByIdDesc()) {
+            reservas.forEach(reserva -> {
+                lote.add(reserva);
+                if (lote.size() == tamanioLote) {
+                    entregarLote(lote, destino);
+                }
+            });
+        }
+        if (!lote.isEmpty()) {
+            entregarLote(lote, destino);
+        }
+    }
+
+    /**
+     * Ensambla y entrega un lote de la exportacion. Despues se sacan las reservas del contexto de
+     * persistencia: si no, Hibernate las seguiria referenciando hasta el final de la transaccion.
+     */
+    private void entregarLote(List<Reserva> lote, Consumer<List<ReservaDTO>> destino) {
+        destino.accept(clienteVueloEsamblador(lote));
+        lote.forEach(entityManager::detach);
+        lote.clear();
     }
     @Override
     public Reserva buscarReservaId(Long id){
@@ -111,48 +207,334 @@ public class ReservaServiceImpl implements ReservaService {
 
     @Override
     @Transactional
-    public Reserva crearReservaParaUsuario(Reserva reserva, Long clienteId) {
-        reservaRepository.findByCodigo(reserva.getCodigo())
-                .ifPresent(r -> {
-                    throw new ElementoExistenteException("El código de reserva ya existe");
-                });
-
-        vuelosFeignClient.obtenerVueloPorId(reserva.getVueloId());
-        clienteFeignClient.obtenerClientePorId(clienteId);
+    public Reserva crearReservaParaUsuario(Reserva reserva, Long clienteId, String claveIdempotencia) {
+        if (claveIdempotencia != null && !claveIdempotencia.isBlank()) {
+            String clave = clienteId + ":" + claveIdempotencia;
+            Reserva previa = reservaRepository.findByClaveIdempotencia(clave).orElse(null);
+            if (previa != null) {
+                if (!Objects.equals(previa.getVueloId(), reserva.getVueloId())
+                        || !Objects.equals(previa.getObservaciones(), reserva.getObservaciones())) {
+                    throw new ValidacionException("La Idempotency-Key ya se uso para otra operacion.");
+                }
+                return previa;
+            }
+            reserva.setClaveIdempotencia(clave);
+        }
+        MensajeRespondeVuelo vuelo = vuelosFeignClient.obtenerVueloPorId(reserva.getVueloId());
+        MensajeRespondeCliente cliente = clienteFeignClient.obtenerClientePorId(clienteId);
+        guardarSnapshotInicial(reserva, vuelo, cliente);
 
+        reserva.setCodigo(generadorCodigo.generar());
         reserva.setClienteId(clienteId);
         reserva.setEstado(EstadoReserva.GENERADA);
         reserva.setFechaCreacion(LocalDate.now());
-        return reservaRepository.save(reserva);
+        return guardarNueva(reserva);
+    }
+
+    /**
+     * Inserta una reserva nueva. No se consulta antes si el codigo existe: el indice unico de
+     * {@code reservas.codigo} lo resuelve en el mismo INSERT (la PK IDENTITY hace que se ejecute en el save).
+     * Si choca con la Idempotency-Key es que otra peticion con la misma clave la creo en paralelo:
+     * el reintento la encuentra y la devuelve. Cualquier otra violacion (una FK, un NOT NULL) se propaga tal cual.
+     */
+    private Reserva guardarNueva(Reserva reserva) {
+        try {
+            return reservaRepository.save(reserva);
+        } catch (DataIntegrityViolationException e) {
+            if (violaRestriccion(e, RESTRICCION_CLAVE_IDEMPOTENCIA, "clave_idempotencia")) {
+                throw new ElementoExistenteException("Ya se esta creando una reserva con esta Idempotency-Key; reintente para obtenerla.");
+            }
+            if (violaRestriccion(e, RESTRICCION_CODIGO, "codigo")) {
+                throw new ElementoExistenteException("El código de reserva ya existe");
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Reconoce la restriccion por nombre o, si tiene otro (las bases que armo ddl-auto antes de Flyway la
+     * llaman UK...), por la columna que informa el mensaje de la base: "Key (codigo)=..." en Postgres.
+     */
+    private static boolean violaRestriccion(DataIntegrityViolationException e, String restriccion, String columna) {
+        for (Throwable causa = e; causa != null; causa = causa.getCause()) {
+            if (causa instanceof ConstraintViolationException violacion && violacion.getConstraintName() != null
+                    && violacion.getConstraintName().toLowerCase(Locale.ROOT).contains(restriccion)) {
+                return true;
+            }
+        }
+        String mensaje = String.valueOf(e.getMostSpecificCause().getMessage()).toLowerCase(Locale.ROOT);
+        return Pattern.compile("\\(" + columna + "\\b").matcher(mensaje).find();
     }
 
     // ----- INICIO DE MÉTODOS MODIFICADOS -----
 
+    /**
+     * Ensambla una reserva pidiendo el vuelo y el cliente en paralelo:
+     * el tiempo de respuesta es el de la llamada mas lenta y no la suma de ambas.
+     * Lo que ya esta en el snapshot de la reserva o en la cache local no se vuelve a pedir.
+     */
     @Override
     public ReservaDTO clienteVueloEsamblador(Reserva reserva){
-        ReservaDTO dto = entityMapper.reservaToReservaDTO(reserva);
+        boolean pedirVuelo = !tieneSnapshotVuelo(reserva);
+        boolean pedirCliente = !tieneSnapshotCliente(reserva);
+        VueloRemote vueloRemote = pedirVuelo ? cacheRemotos.obtenerVuelo(reserva.getVueloId()) : null;
+        ClienteRemote clienteRemote = pedirCliente ? cacheRemotos.obtenerCliente(reserva.getClienteId()) : null;
 
-        VueloDTO vueloDTO = null;
-        ClienteDTO clienteDTO = null;
+        CompletableFuture<MensajeRespondeVuelo> futuroVuelo = !pedirVuelo || vueloRemote != null ? null :
+                consultasRemotas.lanzar(() -> vuelosFeignClient.obtenerVueloPorId(reserva.getVueloId()));
+        CompletableFuture<MensajeRespondeCliente> futuroCliente = !pedirCliente || clienteRemote != null ? null :
+                consultasRemotas.lanzar(() -> clienteFeignClient.obtenerClientePorId(reserva.getClienteId()));
 
-        try {
-            MensajeRespondeVuelo mensajeVuelo = vuelosFeignClient.obtenerVueloPorId(reserva.getVueloId());
-            if (mensajeVuelo != null && mensajeVuelo.getVuelo() != null) {
-                vueloDTO = entityMapper.vueloRemoteToVueloDTO(mensajeVuelo.getVuelo());
+        if (futuroVuelo != null) {
+            try {
+                MensajeRespondeVuelo mensajeVuelo = consultasRemotas.esperar(futuroVuelo);
+                if (mensajeVuelo != null && mensajeVuelo.getVuelo() != null) {
+                    vueloRemote = mensajeVuelo.getVuelo();
+                    cacheRemotos.guardarVuelo(vueloRemote);
+                }
+            } catch (FeignException.NotFound e) {
+                System.err.println("Advertencia: No se encontró el Vuelo con ID: " + reserva.getVueloId());
             }
-        } catch (FeignException.NotFound e) {
-            System.err.println("Advertencia: No se encontró el Vuelo con ID: " + reserva.getVueloId());
         }
 
-        try {
-            MensajeRespondeCliente mensajeCliente = clienteFeignClient.obtenerClientePorId(reserva.getClienteId());
-            if (mensajeCliente != null && mensajeCliente.getCliente() != null) {
-                // ----- ¡AQUÍ ESTÁ LA CORRECCIÓN DEL TIPEO! -----
-                clienteDTO =  entityMapper.clienteRemoteToClienteDTO(mensajeCliente.getCliente());
+        if (futuroCliente != null) {
+            try {
+                MensajeRespondeCliente mensajeCliente = consultasRemotas.esperar(futuroCliente);
+                if (mensajeCliente != null && mensajeCliente.getCliente() != null) {
+                    clienteRemote = mensajeCliente.getCliente();
+                    cacheRemotos.guardarCliente(clienteRemote);
+                }
+            } catch (FeignException.NotFound e) {
+                System.err.println("Advertencia: No se encontró el Cliente con ID: " + reserva.getClienteId());
+            }
+        }
+
+        VueloDTO vueloDTO = vueloRemote != null ? entityMapper.vueloRemoteToVueloDTO(vueloRemote) : null;
+        ClienteDTO clienteDTO = clienteRemote != null ? entityMapper.clienteRemoteToClienteDTO(clienteRemote) : null;
+        return ensamblar(reserva, vueloDTO, clienteDTO);
+    }
+
+    /**
+     * Ensambla la lista en lote. Las reservas con snapshot guardado no generan llamadas remotas;
+     * para el resto se juntan los IDs distintos de vuelo y cliente y se resuelven con
+     * {@link #resolverRemotos(Set, Set)}.
+     */
+    @Override
+    public List<ReservaDTO> clienteVueloEsamblador(List<Reserva> reservas){
+        if (reservas.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Set<Long> vueloIds = new HashSet<>();
+        Set<Long> clienteIds = new HashSet<>();
+        for (Reserva reserva : reservas) {
+            if (!tieneSnapshotVuelo(reserva)) {
+                vueloIds.add(reserva.getVueloId());
+            }
+            if (!tieneSnapshotCliente(reserva)) {
+                clienteIds.add(reserva.getClienteId());
+            }
+        }
+        Remotos remotos = resolverRemotos(vueloIds, clienteIds);
+
+        Map<Long, VueloDTO> vuelos = new HashMap<>();
+        remotos.vuelos().forEach((id, vueloRemote) -> vuelos.put(id, entityMapper.vueloRemoteToVueloDTO(vueloRemote)));
+        Map<Long, ClienteDTO> clientes = new HashMap<>();
+        remotos.clientes().forEach((id, clienteRemote) -> clientes.put(id, entityMapper.clienteRemoteToClienteDTO(clienteRemote)));
+
+        List<ReservaDTO> dtos = new ArrayList<>(reservas.size());
+        for (Reserva reserva : reservas) {
+            dtos.add(ensamblar(reserva, vuelos.get(reserva.getVueloId()), clientes.get(reserva.getClienteId())));
+        }
+        return dtos;
+    }
+
+    @Override
+    @Transactional
+    public int expirarGeneradas() {
+        List<Long> ids = reservaRepository.bloquearGeneradasVencidas(limiteExpiracion(LocalDate.now()),
+                Math.max(1, configReserva.getExpiracionLote()));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        // No tomaron asiento (eso pasa al confirmar), asi que no hay nada que avisar a ms-vuelo
+        return reservaRepository.actualizarEstado(ids, EstadoReserva.GENERADA, EstadoReserva.CANCELADA);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Duration atrasoExpiracion() {
+        LocalDate masAntigua = reservaRepository.findFechaCreacionMasAntigua(EstadoReserva.GENERADA);
+        if (masAntigua == null) {
+            return Duration.ZERO;
+        }
+        // Una reserva creada el dia D vence cuando D queda antes del limite, es decir al empezar el dia D + dias + 1
+        LocalDateTime vencio = masAntigua.plusDays(Math.max(0, configReserva.getExpiracionDias()) + 1L).atStartOfDay();
+        Duration atraso = Duration.between(vencio, LocalDateTime.now());
+        return atraso.isNegative() ? Duration.ZERO : atraso;
+    }
+
+    /**
+     * Las reservas GENERADA creadas antes de esta fecha estan vencidas.
+     */
+    private LocalDate limiteExpiracion(LocalDate hoy) {
+        return hoy.minusDays(Math.max(0, configReserva.getExpiracionDias()));
+    }
+
+    /**
+     * Sin transaccion propia: la lectura del lote y cada update corren en su propia transaccion corta,
+     * y las llamadas a ms-vuelo/ms-cliente se hacen en el medio sin retener una conexion a la base.
+     */
+    @Override
+    public int refrescarSnapshots() {
+        LocalDateTime vencimiento = LocalDateTime.now().minus(Duration.ofMillis(configReserva.getSnapshotTtlMs()));
+        List<Reserva> vencidas = reservaRepository.findSnapshotsVencidos(vencimiento,
+                PageRequest.of(0, Math.max(1, configReserva.getSnapshotLote())));
+        if (vencidas.isEmpty()) {
+            return 0;
+        }
+        Map<Long, List<Long>> porVuelo = new HashMap<>();
+        Map<Long, List<Long>> porCliente = new HashMap<>();
+        vencidas.forEach(reserva -> {
+            porVuelo.computeIfAbsent(reserva.getVueloId(), id -> new ArrayList<>()).add(reserva.getId());
+            porCliente.computeIfAbsent(reserva.getClienteId(), id -> new ArrayList<>()).add(reserva.getId());
+        });
+        Remotos remotos = resolverRemotos(porVuelo.keySet(), porCliente.keySet());
+
+        // Un update por vuelo y por cliente distintos del lote (no uno por reserva)
+        LocalDateTime ahora = LocalDateTime.now();
+        porVuelo.forEach((vueloId, ids) -> {
+            VueloRemote vuelo = remotos.vuelos().get(vueloId);
+            reservaRepository.actualizarSnapshotVuelo(ids, vuelo != null ? vuelo.getCodigo() : null,
+                    vuelo != null ? vuelo.getOrigen() : null, vuelo != null ? vuelo.getDestino() : null, ahora);
+        });
+        porCliente.forEach((clienteId, ids) -> {
+            ClienteRemote cliente = remotos.clientes().get(clienteId);
+            reservaRepository.actualizarSnapshotCliente(ids, cliente != null ? cliente.getNombreCompleto() : null);
+        });
+        return vencidas.size();
+    }
+
+    /**
+     * Vuelos y clientes remotos resueltos por ID (los IDs inexistentes no estan en el mapa).
+     */
+    private record Remotos(Map<Long, VueloRemote> vuelos, Map<Long, ClienteRemote> clientes) {}
+
+    /**
+     * Busca los vuelos y clientes indicados: primero en la cache local y el resto en los
+     * endpoints de lookup (una llamada por microservicio y por lote de {@code reserva.lookupLote} IDs).
+     * Todos los lotes de ambos microservicios se lanzan a la vez (hasta
+     * {@code reserva.consultasSimultaneas} simultaneos).
+     */
+    private Remotos resolverRemotos(Set<Long> vueloIds, Set<Long> clienteIds) {
+        Map<Long, VueloRemote> vuelosRemotos = new HashMap<>();
+        Map<Long, ClienteRemote> clientesRemotos = new HashMap<>();
+        Set<Long> vuelosFaltantes = new HashSet<>();
+        Set<Long> clientesFaltantes = new HashSet<>();
+        for (Long vueloId : vueloIds) {
+            VueloRemote enCache = cacheRemotos.obtenerVuelo(vueloId);
+            if (enCache != null) {
+                vuelosRemotos.put(vueloId, enCache);
+            } else {
+                vuelosFaltantes.add(vueloId);
+            }
+        }
+        for (Long clienteId : clienteIds) {
+            ClienteRemote enCache = cacheRemotos.obtenerCliente(clienteId);
+            if (enCache != null) {
+                clientesRemotos.put(clienteId, enCache);
+            } else {
+                clientesFaltantes.add(clienteId);
+            }
+        }
+
+        List<CompletableFuture<Map<Long, VueloRemote>>> futurosVuelos = new ArrayList<>();
+        for (List<Long> lote : dividirEnLotes(vuelosFaltantes)) {
+            futurosVuelos.add(consultasRemotas.lanzar(() -> vuelosFeignClient.buscarVuelosPorIds(lote)));
+        }
+        List<CompletableFuture<Map<Long, ClienteRemote>>> futurosClientes = new ArrayList<>();
+        for (List<Long> lote : dividirEnLotes(clientesFaltantes)) {
+            futurosClientes.add(consultasRemotas.lanzar(() -> clienteFeignClient.buscarClientesPorIds(lote)));
+        }
+
+        for (CompletableFuture<Map<Long, VueloRemote>> futuro : futurosVuelos) {
+            Map<Long, VueloRemote> encontrados = consultasRemotas.esperar(futuro);
+            if (encontrados != null) {
+                encontrados.values().forEach(cacheRemotos::guardarVuelo);
+                vuelosRemotos.putAll(encontrados);
+            }
+        }
+        for (CompletableFuture<Map<Long, ClienteRemote>> futuro : futurosClientes) {
+            Map<Long, ClienteRemote> encontrados = consultasRemotas.esperar(futuro);
+            if (encontrados != null) {
+                encontrados.values().forEach(cacheRemotos::guardarCliente);
+                clientesRemotos.putAll(encontrados);
             }
-        } catch (FeignException.NotFound e) {
-            System.err.println("Advertencia: No se encontró el Cliente con ID: " + reserva.getClienteId());
         }
+        return new Remotos(vuelosRemotos, clientesRemotos);
+    }
+
+    /**
+     * Copia en la reserva los datos de vuelo y cliente que se muestran al listarla.
+     * Si el vuelo o el cliente ya no existen (null) se borra su parte del snapshot, para que
+     * la lectura vuelva a consultarlos y los marque como eliminados.
+     */
+    private void aplicarSnapshot(Reserva reserva, VueloRemote vuelo, ClienteRemote cliente) {
+        reserva.setCodigoVuelo(vuelo != null ? vuelo.getCodigo() : null);
+        reserva.setOrigen(vuelo != null ? vuelo.getOrigen() : null);
+        reserva.setDestino(vuelo != null ? vuelo.getDestino() : null);
+        reserva.setCliente(cliente != null ? cliente.getNombreCompleto() : null);
+    }
+
+    /**
+     * Al crear la reserva ya se consultaron vuelo y cliente para validarlos: se guardan sus datos
+     * para no tener que pedirlos de nuevo en cada lectura.
+     */
+    private void guardarSnapshotInicial(Reserva reserva, MensajeRespondeVuelo vuelo, MensajeRespondeCliente cliente) {
+        aplicarSnapshot(reserva, vuelo != null ? vuelo.getVuelo() : null, cliente != null ? cliente.getCliente() : null);
+        reserva.setSnapshotActualizado(LocalDateTime.now());
+    }
+
+    private boolean tieneSnapshotVuelo(Reserva reserva) {
+        return reserva.getCodigoVuelo() != null;
+    }
+
+    private boolean tieneSnapshotCliente(Reserva reserva) {
+        return reserva.getCliente() != null;
+    }
+
+    @Override
+    public void invalidarCacheRemota(Long vueloId, Long clienteId) {
+        if (vueloId == null && clienteId == null) {
+            cacheRemotos.invalidarTodo();
+            return;
+        }
+        if (vueloId != null) {
+            cacheRemotos.invalidarVuelo(vueloId);
+        }
+        if (clienteId != null) {
+            cacheRemotos.invalidarCliente(clienteId);
+        }
+    }
+
+    /**
+     * Parte los IDs en lotes que respetan el maximo aceptado por los endpoints de lookup.
+     */
+    private List<List<Long>> dividirEnLotes(Set<Long> ids) {
+        int tamanio = Math.max(1, configReserva.getLookupLote());
+        List<Long> todos = new ArrayList<>(ids);
+        List<List<Long>> lotes = new ArrayList<>();
+        for (int desde = 0; desde < todos.size(); desde += tamanio) {
+            lotes.add(todos.subList(desde, Math.min(desde + tamanio, todos.size())));
+        }
+        return lotes;
+    }
+
+    /**
+     * Completa el ReservaDTO con los datos remotos ya obtenidos (los campos del snapshot ya vienen del mapper).
+     * Si el vuelo o el cliente no existen (null) y no hay snapshot se marca como eliminado.
+     */
+    private ReservaDTO ensamblar(Reserva reserva, VueloDTO vueloDTO, ClienteDTO clienteDTO) {
+        ReservaDTO dto = entityMapper.reservaToReservaDTO(reserva);
 
         if (vueloDTO != null) {
             if (dto.getCodigoVuelo()==null){
@@ -164,7 +546,7 @@ public class ReservaServiceImpl implements ReservaService {
             if (dto.getDestino()==null){
                 dto.setDestino(vueloDTO.getDestino());
             }
-        } else {
+        } else if (!tieneSnapshotVuelo(reserva)) {
             dto.setCodigoVuelo("[Vuelo Eliminado]");
             dto.setOrigen("[Vuelo Eliminado]");
             dto.setDestino("[Vuelo Eliminado]");
@@ -173,19 +555,10 @@ public class ReservaServiceImpl implements ReservaService {
             if (dto.getCliente()==null){
                 dto.setCliente(clienteDTO.getNombreCompleto());
             }
-        } else {
+        } else if (!tieneSnapshotCliente(reserva)) {
             dto.setCliente("[Cliente Eliminado]");
         }
 
         return dto;
     }
-
-    @Override
-    public List<ReservaDTO> clienteVueloEsamblador(List<Reserva> reservas){
-        List<ReservaDTO> dtos = new ArrayList<>();
-        for (Reserva reserva : reservas) {
-            dtos.add(clienteVueloEsamblador(reserva));
-        }
-        return dtos;
-    }
 }
\ No newline at end of file
@@ -0,0 +1,314 @@
+package ar.edu.unju.fi.trabajo_final.microservicio_reserva.service.impl;
+
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.configuration.ReservaServiceConfiguration;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.dto.eventoDTO.EventoAsientoDTO;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.entity.Reserva;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.entity.SagaPaso;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.entity.SagaReserva;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.enums.EstadoReserva;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.enums.EstadoSaga;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.enums.ResultadoEventoAsiento;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.exception.ServicioRemotoException;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.exception.ValidacionException;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.repository.ReservaRepository;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.repository.SagaReservaRepository;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.service.SagaReservaService;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.service.client.CacheRemotos;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.service.client.VuelosFeignClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Orquesta la confirmacion grupal como una saga persistida.
+ * Los eventos de asiento se envian al consumidor idempotente de ms-vuelo, asi que reintentar un paso
+ * (por una falla o al retomar la saga despues de una caida) nunca toma ni libera un asiento dos veces.
+ * Ningun paso corre dentro de una transaccion que espere a ms-vuelo.
+ */
+@Service
+public class SagaReservaServiceImpl implements SagaReservaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SagaReservaServiceImpl.class);
+
+    private static final EnumSet<EstadoSaga> SIN_TERMINAR =
+            EnumSet.of(EstadoSaga.INICIADA, EstadoSaga.ASIENTOS_RESERVADOS, EstadoSaga.COMPENSANDO);
+
+    private final SagaReservaRepository sagaRepository;
+    private final ReservaRepository reservaRepository;
+    private final VuelosFeignClient vuelosFeignClient;
+    private final CacheRemotos cacheRemotos;
+    private final ReservaServiceConfiguration configReserva;
+    private final TransactionTemplate transactionTemplate;
+
+    public SagaReservaServiceImpl(SagaReservaRepository sagaRepository, ReservaRepository reservaRepository, VuelosFeignClient vuelosFeignClient,
+                                  CacheRemotos cacheRemotos, ReservaServiceConfiguration configReserva, PlatformTransactionManager transactionManager) {
+        this.sagaRepository = sagaRepository;
+        this.reservaRepository = reservaRepository;
+        this.vuelosFeignClient = vuelosFeignClient;
+        this.cacheRemotos = cacheRemotos;
+        this.configReserva = configReserva;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public List<Reserva> confirmarGrupo(List<Reserva> reservas) {
+        LocalDateTime ahora = LocalDateTime.now();
+        SagaReserva saga = SagaReserva.builder()
+                .estado(EstadoSaga.INICIADA)
+                .creada(ahora)
+                .build();
+        for (Reserva reserva : reservas) {
+            saga.getPasos().add(SagaPaso.builder()
+                    .saga(saga)
+                    .reservaId(reserva.getId())
+                    .vueloId(reserva.getVueloId())
+                    .eventoReserva(UUID.randomUUID().toString())
+                    .eventoLiberacion(UUID.randomUUID().toString())
+                    .build());
+        }
+        guardar(saga);
+        if (!ejecutar(saga)) {
+            throw new ServicioRemotoException("La confirmacion del grupo demoro demasiado y la continua el barrido de sagas.");
+        }
+
+        if (saga.getEstado() == EstadoSaga.COMPLETADA) {
+            return reservaRepository.findAllById(saga.getPasos().stream().map(SagaPaso::getReservaId).toList());
+        }
+        if (saga.isRechazada()) {
+            throw new ValidacionException(saga.getUltimoError());
+        }
+        throw new ServicioRemotoException("No se pudo confirmar el grupo de reservas: " + saga.getUltimoError());
+    }
+
+    @Override
+    public int recuperarPendientes() {
+        List<SagaReserva> pendientes = sagaRepository.findByEstadoInAndProximoIntentoLessThanEqualOrderByIdAsc(
+                SIN_TERMINAR, LocalDateTime.now(), PageRequest.of(0, Math.max(1, configReserva.getSagaLote())));
+        int retomadas = 0;
+        for (SagaReserva saga : pendientes) {
+            if (!reclamar(saga)) {
+                // Otra instancia la reclamo o su dueño la avanzo despues de leerla
+                continue;
+            }
+            logger.info("Retomando saga {} en estado {}.", saga.getId(), saga.getEstado());
+            ejecutar(saga);
+            retomadas++;
+        }
+        return retomadas;
+    }
+
+    /**
+     * Toma la saga con un UPDATE condicionado a la version leida: de dos instancias (o del dueño lento
+     * y el barrido) solo una la reclama, y la otra falla en su proximo guardado.
+     */
+    private boolean reclamar(SagaReserva saga) {
+        LocalDateTime plazo = LocalDateTime.now().plusNanos(configReserva.getSagaPlazoMs() * 1_000_000);
+        if (sagaRepository.reclamar(saga.getId(), saga.getVersion(), plazo) == 0) {
+            return false;
+        }
+        saga.setVersion(saga.getVersion() + 1);
+        saga.setProximoIntento(plazo);
+        return true;
+    }
+
+    /**
+     * Avanza la saga hasta un estado final. Cada paso fallido se reintenta con backoff exponencial;
+     * agotados los reintentos se pasa a compensar. Si la compensacion tampoco puede completarse,
+     * queda programada para que la termine el barrido.
+     * @return false si otra instancia reclamo la saga mientras tanto (esta deja de avanzarla).
+     */
+    private boolean ejecutar(SagaReserva saga) {
+        try {
+            avanzar(saga);
+            return true;
+        } catch (OptimisticLockingFailureException e) {
+            // El paso local se revirtio junto con el guardado: lo que queda lo hace el nuevo dueño
+            logger.warn("Saga {}: la reclamo otra instancia, se deja de avanzar.", saga.getId());
+            return false;
+        }
+    }
+
+    private void avanzar(SagaReserva saga) {
+        while (SIN_TERMINAR.contains(saga.getEstado())) {
+            EstadoSaga anterior = saga.getEstado();
+            try {
+                switch (anterior) {
+                    case INICIADA -> reservarAsientos(saga);
+                    case ASIENTOS_RESERVADOS -> confirmarReservas(saga);
+                    case COMPENSANDO -> liberarAsientos(saga);
+                    default -> throw new IllegalStateException("Estado de saga inesperado: " + anterior);
+                }
+                saga.setIntentos(0);
+                guardar(saga);
+            } catch (OptimisticLockingFailureException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                // El paso no se completo: se descarta cualquier avance que haya quedado a medias en memoria
+                saga.setEstado(anterior);
+                saga.setIntentos(saga.getIntentos() + 1);
+                saga.setUltimoError(recortar(e.getMessage()));
+                long espera = backoff(saga.getIntentos());
+                if (saga.getIntentos() < Math.max(1, configReserva.getSagaIntentos())) {
+                    guardar(saga);
+                    esperar(espera);
+                } else if (anterior != EstadoSaga.COMPENSANDO) {
+                    logger.warn("Saga {}: fallo el paso {} ({}), se compensa.", saga.getId(), anterior, e.getMessage());
+                    saga.setEstado(EstadoSaga.COMPENSANDO);
+                    saga.setIntentos(0);
+                    guardar(saga);
+                } else {
+                    logger.warn("Saga {}: no se pudo compensar ({}), se reintenta en {} ms.", saga.getId(), e.getMessage(), espera);
+                    saga.setActualizada(LocalDateTime.now());
+                    persistir(saga, LocalDateTime.now().plusNanos(espera * 1_000_000));
+                    return;
+                }
+            }
+        }
+    }
+
+    private void reservarAsientos(SagaReserva saga) {
+        List<EventoAsientoDTO> eventos = new ArrayList<>();
+        for (SagaPaso paso : saga.getPasos()) {
+            eventos.add(EventoAsientoDTO.builder()
+                    .eventoId(paso.getEventoReserva())
+                    .vueloId(paso.getVueloId())
+                    .delta(1)
+                    .build());
+        }
+        Map<String, ResultadoEventoAsiento> resultados = vuelosFeignClient.publicarEventosAsiento(eventos);
+        Long vueloSinLugar = null;
+        for (SagaPaso paso : saga.getPasos()) {
+            paso.setResultado(resultado(resultados, paso.getEventoReserva()));
+            if (paso.getResultado() == ResultadoEventoAsiento.APLICADO) {
+                cacheRemotos.invalidarVuelo(paso.getVueloId());
+            } else if (vueloSinLugar == null) {
+                vueloSinLugar = paso.getVueloId();
+            }
+        }
+        if (vueloSinLugar != null) {
+            rechazar(saga, "El vuelo " + vueloSinLugar + " no tiene lugar suficiente. No se confirmo ninguna reserva.");
+        } else {
+            saga.setEstado(EstadoSaga.ASIENTOS_RESERVADOS);
+        }
+    }
+
+    /**
+     * Paso local: las reservas y el estado de la saga se guardan en la misma transaccion,
+     * asi que una caida no deja reservas confirmadas con la saga sin completar (ni al reves).
+     */
+    private void confirmarReservas(SagaReserva saga) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<Long, SagaPaso> pasosPorReserva = new HashMap<>();
+            saga.getPasos().forEach(paso -> pasosPorReserva.put(paso.getReservaId(), paso));
+            List<Reserva> reservas = reservaRepository.findAllById(pasosPorReserva.keySet());
+            boolean todasGeneradas = reservas.size() == pasosPorReserva.size()
+                    && reservas.stream().allMatch(reserva -> EstadoReserva.GENERADA.equals(reserva.getEstado()));
+            if (!todasGeneradas) {
+                rechazar(saga, "Alguna reserva del grupo cambio de estado mientras se confirmaba. No se confirmo ninguna reserva.");
+                return;
+            }
+            for (Reserva reserva : reservas) {
+                reserva.setEstado(EstadoReserva.CONFIRMADA);
+                // La cancelacion posterior referencia este evento para liberar el asiento
+                reserva.setEventoConfirmacion(pasosPorReserva.get(reserva.getId()).getEventoReserva());
+            }
+            reservaRepository.saveAll(reservas);
+            saga.setEstado(EstadoSaga.COMPLETADA);
+            guardar(saga);
+        });
+    }
+
+    /**
+     * Compensacion: libera los asientos que pudieron tomarse. Si el resultado de la reserva no se conoce
+     * (ms-vuelo no respondio) tambien se envia: ms-vuelo solo libera lo que efectivamente aplico.
+     */
+    private void liberarAsientos(SagaReserva saga) {
+        List<EventoAsientoDTO> eventos = new ArrayList<>();
+        for (SagaPaso paso : saga.getPasos()) {
+            if (paso.getResultado() != ResultadoEventoAsiento.RECHAZADO) {
+                eventos.add(EventoAsientoDTO.builder()
+                        .eventoId(paso.getEventoLiberacion())
+                        .vueloId(paso.getVueloId())
+                        .delta(-1)
+                        .referencia(paso.getEventoReserva())
+                        .build());
+            }
+        }
+        if (!eventos.isEmpty()) {
+            Map<String, ResultadoEventoAsiento> resultados = vuelosFeignClient.publicarEventosAsiento(eventos);
+            for (EventoAsientoDTO evento : eventos) {
+                if (resultado(resultados, evento.getEventoId()) == ResultadoEventoAsiento.APLICADO) {
+                    cacheRemotos.invalidarVuelo(evento.getVueloId());
+                }
+            }
+        }
+        saga.setEstado(EstadoSaga.COMPENSADA);
+    }
+
+    private ResultadoEventoAsiento resultado(Map<String, ResultadoEventoAsiento> resultados, String eventoId) {
+        ResultadoEventoAsiento resultado = resultados != null ? resultados.get(eventoId) : null;
+        if (resultado == null) {
+            throw new ServicioRemotoException("ms-vuelo no informo el resultado del evento " + eventoId);
+        }
+        return resultado;
+    }
+
+    private void rechazar(SagaReserva saga, String motivo) {
+        saga.setRechazada(true);
+        saga.setUltimoError(motivo);
+        saga.setEstado(EstadoSaga.COMPENSANDO);
+    }
+
+    /**
+     * Persiste el paso actual y renueva el plazo: mientras esta instancia avance la saga, el barrido no la toma.
+     */
+    private void guardar(SagaReserva saga) {
+        LocalDateTime ahora = LocalDateTime.now();
+        saga.setActualizada(ahora);
+        persistir(saga, ahora.plusNanos(configReserva.getSagaPlazoMs() * 1_000_000));
+    }
+
+    /**
+     * Guarda con control de version (falla con OptimisticLockingFailureException si otra instancia reclamo
+     * la saga) y copia la version nueva a la saga en memoria para el proximo guardado.
+     */
+    private void persistir(SagaReserva saga, LocalDateTime proximoIntento) {
+        saga.setProximoIntento(proximoIntento);
+        SagaReserva guardada = sagaRepository.saveAndFlush(saga);
+        saga.setVersion(guardada.getVersion());
+    }
+
+    private long backoff(int intentos) {
+        long base = Math.max(1, configReserva.getSagaBackoffMs());
+        long espera = base << Math.min(intentos - 1, 20);
+        return Math.min(espera, Math.max(base, configReserva.getSagaBackoffMaxMs()));
+    }
+
+    private void esperar(long milisegundos) {
+        try {
+            Thread.sleep(milisegundos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServicioRemotoException("Se interrumpio la espera entre reintentos de la saga.");
+        }
+    }
+
+    private String recortar(String mensaje) {
+        if (mensaje == null) {
+            return null;
+        }
+        return mensaje.length() > 500 ? mensaje.substring(0, 500) : mensaje;
+    }
+}
@@ -0,0 +1,57 @@
+-- Esquema de ms-reserva tal como lo venia generando Hibernate (ddl-auto=update).
+-- Usa IF NOT EXISTS para poder correr tambien sobre bases creadas antes de Flyway, incluidas
+-- las que todavia no tienen las columnas del snapshot y del outbox.
+
+create table if not exists reservas (
+    id bigint generated by default as identity primary key,
+    codigo varchar(30) not null unique,
+    estado varchar(255) not null,
+    id_cliente bigint not null,
+    id_vuelo bigint not null,
+    fecha_creacion date not null,
+    observaciones varchar(255)
+);
+alter table reservas add column if not exists vuelo_codigo varchar(30);
+alter table reservas add column if not exists vuelo_origen varchar(255);
+alter table reservas add column if not exists vuelo_destino varchar(255);
+alter table reservas add column if not exists cliente_nombre varchar(255);
+alter table reservas add column if not exists snapshot_actualizado timestamp(6);
+alter table reservas add column if not exists evento_confirmacion varchar(36);
+
+create table if not exists outbox_eventos (
+    id bigint generated by default as identity primary key,
+    evento_id varchar(36) not null unique,
+    reserva_id bigint not null,
+    vuelo_id bigint not null,
+    delta integer not null,
+    referencia varchar(36),
+    creado timestamp(6) not null,
+    publicado timestamp(6),
+    resultado varchar(255)
+);
+create index if not exists idx_outbox_eventos_pendientes on outbox_eventos (publicado, id);
+
+create table if not exists sagas_reserva (
+    id bigint generated by default as identity primary key,
+    estado varchar(30) not null,
+    intentos integer not null,
+    proximo_intento timestamp(6) not null,
+    rechazada boolean not null,
+    ultimo_error varchar(500),
+    creada timestamp(6) not null,
+    actualizada timestamp(6)
+);
+create index if not exists idx_sagas_reserva_pendientes on sagas_reserva (estado, proximo_intento);
+
+create table if not exists saga_pasos (
+    id bigint generated by default as identity primary key,
+    saga_id bigint not null references sagas_reserva (id),
+    reserva_id bigint not null,
+    vuelo_id bigint not null,
+    evento_reserva varchar(36) not null,
+    evento_liberacion varchar(36) not null,
+    resultado varchar(255)
+);
+
+-- Bloques de codigos de reserva (GeneradorCodigoReserva)
+create sequence if not exists reserva_codigo_bloques;
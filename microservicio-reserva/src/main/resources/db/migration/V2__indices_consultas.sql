@@ -0,0 +1,11 @@
+-- findByClienteId ordenado por id descendente: el indice entrega las filas ya ordenadas
+create index if not exists idx_reservas_cliente on reservas (id_cliente, id);
+
+-- Reservas de un vuelo (id_vuelo es la referencia a ms-vuelo, sin FK)
+create index if not exists idx_reservas_vuelo on reservas (id_vuelo);
+
+-- Filtros por estado y barrido de expiracion de GENERADA (ExpiracionReservas)
+create index if not exists idx_reservas_estado_fecha_creacion on reservas (estado, fecha_creacion);
+
+-- Pasos de una saga (coleccion SagaReserva.pasos): la FK no crea indice en PostgreSQL
+create index if not exists idx_saga_pasos_saga on saga_pasos (saga_id);
@@ -0,0 +1,2 @@
+-- El snapshot guarda vuelos.codigo de ms-vuelo, que es varchar(255): con 30 un codigo largo hacia fallar el refresco
+alter table reservas alter column vuelo_codigo type varchar(255);
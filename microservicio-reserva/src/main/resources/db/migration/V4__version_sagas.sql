@@ -0,0 +1,3 @@
+-- Control de version de la saga: el barrido la reclama con un UPDATE condicionado a la version
+-- y el guardado de una instancia que perdio la saga falla en vez de pisar el estado
+alter table sagas_reserva add column version bigint not null default 0;
@@ -0,0 +1,4 @@
+-- Idempotency-Key de la creacion de reservas: el indice unico frena la segunda reserva de un reintento
+-- aunque llegue a otra instancia. Las filas anteriores quedan en null (el indice admite varios null)
+alter table reservas add column clave_idempotencia varchar(300);
+alter table reservas add constraint ux_reservas_clave_idempotencia unique (clave_idempotencia);
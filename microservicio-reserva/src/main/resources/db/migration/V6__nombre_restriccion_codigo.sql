@@ -0,0 +1,17 @@
+-- Las bases que armo Hibernate (ddl-auto) antes de Flyway tienen la restriccion unique de reservas.codigo con
+-- un nombre generado (UK...); V1 no la toca porque la tabla ya existia. Se renombra al nombre que le da V1
+do $$
+declare
+    actual text;
+begin
+    select c.conname into actual
+    from pg_constraint c
+    join pg_attribute a on a.attrelid = c.conrelid and a.attnum = c.conkey[1]
+    where c.conrelid = 'reservas'::regclass and c.contype = 'u'
+      and array_length(c.conkey, 1) = 1 and a.attname = 'codigo'
+    order by c.conname = 'reservas_codigo_key' desc
+    limit 1;
+    if actual is not null and actual <> 'reservas_codigo_key' then
+        execute format('alter table reservas rename constraint %I to reservas_codigo_key', actual);
+    end if;
+end $$;
@@ -0,0 +1,59 @@
+package ar.edu.unju.fi.trabajo_final.microservicio_reserva;
+
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.service.client.CacheLocal;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheLocalTest {
+
+    private final AtomicLong reloj = new AtomicLong(1000);
+
+    @Test
+    @DisplayName("CACHE-LOCAL-01: Una entrada vencida cuenta como fallo y se descarta")
+    void testVencimiento() {
+        CacheLocal<Long, String> cache = new CacheLocal<>(100, 10, reloj::get);
+        cache.guardar(1L, "VUL01");
+
+        assertEquals("VUL01", cache.obtener(1L));
+        reloj.addAndGet(100);
+        assertNull(cache.obtener(1L));
+
+        assertEquals(1, cache.getAciertos());
+        assertEquals(1, cache.getFallos());
+        assertEquals(0, cache.tamanio());
+    }
+
+    @Test
+    @DisplayName("CACHE-LOCAL-02: Al superar el tamaño se expulsa la entrada usada hace mas tiempo")
+    void testExpulsionLru() {
+        CacheLocal<Long, String> cache = new CacheLocal<>(10_000, 2, reloj::get);
+        cache.guardar(1L, "A");
+        cache.guardar(2L, "B");
+        cache.obtener(1L);
+        cache.guardar(3L, "C");
+
+        assertEquals("A", cache.obtener(1L));
+        assertNull(cache.obtener(2L));
+        assertEquals("C", cache.obtener(3L));
+        assertEquals(1, cache.getExpulsiones());
+    }
+
+    @Test
+    @DisplayName("CACHE-LOCAL-03: invalidar e invalidarTodo descartan entradas")
+    void testInvalidar() {
+        CacheLocal<Long, String> cache = new CacheLocal<>(10_000, 10, reloj::get);
+        cache.guardar(1L, "A");
+        cache.guardar(2L, "B");
+
+        cache.invalidar(1L);
+        assertNull(cache.obtener(1L));
+        assertEquals(1, cache.tamanio());
+
+        cache.invalidarTodo();
+        assertEquals(0, cache.tamanio());
+    }
+}
@@ -0,0 +1,73 @@
+package ar.edu.unju.fi.trabajo_final.microservicio_reserva;
+
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.configuration.ReservaServiceConfiguration;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.exception.ServicioRemotoException;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.service.client.ConsultasRemotas;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsultasRemotasTest {
+
+    private ConsultasRemotas consultas;
+
+    private ConsultasRemotas crear(int hilos, long timeoutMs) {
+        ReservaServiceConfiguration config = new ReservaServiceConfiguration();
+        config.setConsultasSimultaneas(hilos);
+        config.setConsultaTimeoutMs(timeoutMs);
+        consultas = new ConsultasRemotas(config);
+        return consultas;
+    }
+
+    @AfterEach
+    void cerrar() {
+        consultas.cerrar();
+    }
+
+    @Test
+    @DisplayName("CONSULTA-01: Al vencer el plazo se interrumpe el hilo que ejecuta la llamada")
+    void testPlazoInterrumpeLaLlamada() throws InterruptedException {
+        crear(1, 50);
+        CountDownLatch interrumpida = new CountDownLatch(1);
+        CompletableFuture<String> futuro = consultas.lanzar(() -> {
+            try {
+                Thread.sleep(5_000);
+                return "tarde";
+            } catch (InterruptedException e) {
+                interrumpida.countDown();
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertThrows(ServicioRemotoException.class, () -> consultas.esperar(futuro));
+        assertTrue(interrumpida.await(1, TimeUnit.SECONDS));
+        // El hilo queda libre para la siguiente consulta
+        assertEquals("ok", consultas.esperar(consultas.lanzar(() -> "ok")));
+    }
+
+    @Test
+    @DisplayName("CONSULTA-02: El tiempo de espera en cola no cuenta para el plazo")
+    void testEsperaEnColaNoCuenta() {
+        crear(1, 300);
+        CompletableFuture<String> primera = consultas.lanzar(() -> dormir(200, "A"));
+        CompletableFuture<String> segunda = consultas.lanzar(() -> dormir(200, "B"));
+
+        assertEquals("A", consultas.esperar(primera));
+        assertEquals("B", consultas.esperar(segunda));
+    }
+
+    private static String dormir(long ms, String valor) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+        return valor;
+    }
+}
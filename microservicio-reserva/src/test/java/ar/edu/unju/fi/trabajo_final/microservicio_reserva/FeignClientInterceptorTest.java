@@ -0,0 +1,71 @@
+package ar.edu.unju.fi.trabajo_final.microservicio_reserva;
+
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.configuration.FeignClientInterceptor;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.configuration.TokenServicio;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.service.client.ClienteFeignClient;
+import ar.edu.unju.fi.trabajo_final.seguridad.IdentidadGateway;
+import feign.MethodMetadata;
+import feign.RequestTemplate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class FeignClientInterceptorTest {
+
+    private final TokenServicio tokenServicio = mock(TokenServicio.class);
+    private final FeignClientInterceptor interceptor = new FeignClientInterceptor(tokenServicio);
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    private static RequestTemplate plantilla(String metodo) {
+        List<MethodMetadata> metodos = new SpringMvcContract().parseAndValidateMetadata(ClienteFeignClient.class);
+        MethodMetadata metadata = metodos.stream()
+                .filter(m -> m.method().getName().equals(metodo)).findFirst().orElseThrow();
+        return new RequestTemplate().methodMetadata(metadata);
+    }
+
+    private static void peticionDeUsuario() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer token-usuario");
+        request.addHeader(IdentidadGateway.CABECERA, "idg1.7.ROLE_USER.9999999999.YQ.firma");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @Test
+    @DisplayName("FEIGN-01: Dentro de una peticion de usuario se reenvian su token y su identidad")
+    void testApply_ReenviaCredencialDelUsuario() {
+        peticionDeUsuario();
+        RequestTemplate template = plantilla("obtenerClientePorId");
+
+        interceptor.apply(template);
+
+        assertEquals(List.of("Bearer token-usuario"), List.copyOf(template.headers().get("Authorization")));
+        assertTrue(template.headers().containsKey(IdentidadGateway.CABECERA));
+        verifyNoInteractions(tokenServicio);
+    }
+
+    @Test
+    @DisplayName("FEIGN-02: La busqueda masiva de clientes sale siempre con el token de servicio")
+    void testApply_LlamadaDeServicio_UsaTokenDeServicio() {
+        peticionDeUsuario();
+        when(tokenServicio.obtener()).thenReturn("token-servicio");
+        RequestTemplate template = plantilla("buscarClientesPorIds");
+
+        interceptor.apply(template);
+
+        assertEquals(List.of("Bearer token-servicio"), List.copyOf(template.headers().get("Authorization")));
+        assertFalse(template.headers().containsKey(IdentidadGateway.CABECERA));
+    }
+}
@@ -0,0 +1,63 @@
+package ar.edu.unju.fi.trabajo_final.microservicio_reserva;
+
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.configuration.ReservaServiceConfiguration;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.service.impl.GeneradorCodigoReserva;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GeneradorCodigoReservaTest {
+
+    @Mock
+    JdbcTemplate jdbcTemplate;
+
+    private GeneradorCodigoReserva generador(int tamanioBloque) {
+        ReservaServiceConfiguration configReserva = new ReservaServiceConfiguration();
+        configReserva.setCodigoBloque(tamanioBloque);
+        return new GeneradorCodigoReserva(jdbcTemplate, configReserva);
+    }
+
+    @Test
+    @DisplayName("CODIGO-01: Reparte el bloque sin volver a la base y pide otro al agotarlo")
+    void testGenerar_PorBloques() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(35L, 36L);
+        GeneradorCodigoReserva generador = generador(3);
+
+        List<String> codigos = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            codigos.add(generador.generar());
+        }
+
+        assertEquals(List.of("RES-Z-0000", "RES-Z-0001", "RES-Z-0002", "RES-10-0000", "RES-10-0001"), codigos);
+        verify(jdbcTemplate, times(2)).queryForObject(anyString(), eq(Long.class));
+    }
+
+    @Test
+    @DisplayName("CODIGO-02: Los codigos no se repiten y entran en la columna de 30 caracteres")
+    void testGenerar_UnicosYAcotados() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(Long.MAX_VALUE - 1, Long.MAX_VALUE);
+        GeneradorCodigoReserva generador = generador(1000);
+
+        HashSet<String> codigos = new HashSet<>();
+        for (int i = 0; i < 2000; i++) {
+            String codigo = generador.generar();
+            assertTrue(codigo.length() <= 30, codigo);
+            codigos.add(codigo);
+        }
+
+        assertEquals(2000, codigos.size());
+    }
+}
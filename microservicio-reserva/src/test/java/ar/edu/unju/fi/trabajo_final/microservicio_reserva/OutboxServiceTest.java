@@ -0,0 +1,135 @@
+package ar.edu.unju.fi.trabajo_final.microservicio_reserva;
+
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.configuration.ReservaServiceConfiguration;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.entity.EventoOutbox;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.entity.Reserva;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.enums.EstadoReserva;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.enums.ResultadoEventoAsiento;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.exception.ServicioRemotoException;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.repository.EventoOutboxRepository;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.repository.ReservaRepository;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.service.client.CacheRemotos;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.service.client.VuelosFeignClient;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.service.impl.OutboxServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxServiceTest {
+
+    @Mock
+    EventoOutboxRepository outboxRepository;
+
+    @Mock
+    ReservaRepository reservaRepository;
+
+    @Mock
+    VuelosFeignClient vuelosFeignClient;
+
+    @Mock
+    CacheRemotos cacheRemotos;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    OutboxServiceImpl outboxService;
+
+    private EventoOutbox confirmacion;
+    private EventoOutbox liberacion;
+    private Reserva reservaConfirmada;
+
+    @BeforeEach
+    void setUp() {
+        outboxService = new OutboxServiceImpl(outboxRepository, reservaRepository, vuelosFeignClient,
+                cacheRemotos, new ReservaServiceConfiguration(), transactionManager);
+
+        confirmacion = EventoOutbox.builder()
+                .id(1L).eventoId("ev-1").reservaId(100L).vueloId(1L).delta(1)
+                .creado(LocalDateTime.now()).build();
+        liberacion = EventoOutbox.builder()
+                .id(2L).eventoId("ev-2").reservaId(101L).vueloId(2L).delta(-1).referencia("ev-0")
+                .creado(LocalDateTime.now()).build();
+        reservaConfirmada = Reserva.builder()
+                .id(100L).codigo("RES-CON").estado(EstadoReserva.CONFIRMADA)
+                .clienteId(10L).vueloId(1L).fechaCreacion(LocalDate.now())
+                .eventoConfirmacion("ev-1")
+                .build();
+    }
+
+    @Test
+    @DisplayName("OUTBOX-01: Los pendientes se publican en una sola llamada y quedan marcados con su resultado")
+    void testPublicar_MarcaPublicados() {
+        when(outboxRepository.findByPublicadoIsNullOrderByIdAsc(any())).thenReturn(List.of(confirmacion, liberacion));
+        when(vuelosFeignClient.publicarEventosAsiento(any())).thenReturn(Map.of(
+                "ev-1", ResultadoEventoAsiento.APLICADO,
+                "ev-2", ResultadoEventoAsiento.APLICADO));
+
+        int publicados = outboxService.publicarPendientes();
+
+        assertEquals(2, publicados);
+        assertNotNull(confirmacion.getPublicado());
+        assertEquals(ResultadoEventoAsiento.APLICADO, liberacion.getResultado());
+        verify(vuelosFeignClient, times(1)).publicarEventosAsiento(argThat(eventos ->
+                eventos.size() == 2 && "ev-0".equals(eventos.get(1).getReferencia())));
+        verify(cacheRemotos).invalidarVuelo(1L);
+        verify(cacheRemotos).invalidarVuelo(2L);
+        verify(reservaRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("OUTBOX-02: Una confirmación rechazada por falta de cupo devuelve la reserva a GENERADA")
+    void testPublicar_RechazoRevierteReserva() {
+        when(outboxRepository.findByPublicadoIsNullOrderByIdAsc(any())).thenReturn(List.of(confirmacion));
+        when(vuelosFeignClient.publicarEventosAsiento(any())).thenReturn(Map.of("ev-1", ResultadoEventoAsiento.RECHAZADO));
+        when(reservaRepository.findById(100L)).thenReturn(Optional.of(reservaConfirmada));
+
+        outboxService.publicarPendientes();
+
+        assertEquals(EstadoReserva.GENERADA, reservaConfirmada.getEstado());
+        assertNull(reservaConfirmada.getEventoConfirmacion());
+        verify(reservaRepository).save(reservaConfirmada);
+        verify(cacheRemotos, never()).invalidarVuelo(any());
+    }
+
+    @Test
+    @DisplayName("OUTBOX-03: Si ms-vuelos no responde los eventos siguen pendientes para el próximo intento")
+    void testPublicar_FallaRemotaNoMarca() {
+        when(outboxRepository.findByPublicadoIsNullOrderByIdAsc(any())).thenReturn(List.of(confirmacion));
+        when(vuelosFeignClient.publicarEventosAsiento(any())).thenThrow(new ServicioRemotoException("ms-vuelo no responde"));
+
+        assertThrows(ServicioRemotoException.class, () -> outboxService.publicarPendientes());
+
+        assertNull(confirmacion.getPublicado());
+        verify(outboxRepository, never()).saveAll(any());
+    }
+
+    @Test
+    @DisplayName("OUTBOX-04: La purga borra solo eventos publicados antes de la retención")
+    void testPurgarPublicados() {
+        when(outboxRepository.findIdsPublicadosAntesDe(any(), any())).thenReturn(List.of(1L, 2L));
+
+        LocalDateTime antes = LocalDateTime.now().minusDays(7);
+        assertEquals(2, outboxService.purgarPublicados());
+        LocalDateTime despues = LocalDateTime.now().minusDays(7);
+
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        // Retención por defecto: 7 días
+        verify(outboxRepository).findIdsPublicadosAntesDe(
+                argThat(limite -> !limite.isBefore(antes) && !limite.isAfter(despues)), any());
+    }
+}
@@ -0,0 +1,155 @@
+package ar.edu.unju.fi.trabajo_final.microservicio_reserva;
+
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.configuration.ReservaServiceConfiguration;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.exception.ServicioRemotoException;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.exception.ValidacionException;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.service.impl.RegistroIdempotencia;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RegistroIdempotenciaTest {
+
+    private final AtomicLong ahora = new AtomicLong(1_000);
+    private final AtomicInteger ejecuciones = new AtomicInteger();
+    private ReservaServiceConfiguration configReserva;
+    private RegistroIdempotencia registro;
+
+    @BeforeEach
+    void setUp() {
+        configReserva = new ReservaServiceConfiguration();
+        configReserva.setIdempotenciaTtlMs(500);
+        configReserva.setIdempotenciaEsperaMs(2000);
+        registro = new RegistroIdempotencia(configReserva, ahora::get);
+    }
+
+    private ResponseEntity<String> crear() {
+        return new ResponseEntity<>("reserva-" + ejecuciones.incrementAndGet(), HttpStatus.CREATED);
+    }
+
+    @Test
+    @DisplayName("IDEMP-01: Una repetición con la misma clave devuelve la respuesta guardada sin volver a ejecutar")
+    void testRepeticion_DevuelveRespuestaGuardada() {
+        ResponseEntity<String> primera = registro.ejecutar("clave-1", "crear:RES-1", this::crear);
+        ResponseEntity<String> repetida = registro.ejecutar("clave-1", "crear:RES-1", this::crear);
+
+        assertEquals(1, ejecuciones.get());
+        assertEquals(HttpStatus.CREATED, repetida.getStatusCode());
+        assertEquals(primera.getBody(), repetida.getBody());
+        assertEquals("true", repetida.getHeaders().getFirst(RegistroIdempotencia.CABECERA_REPETIDA));
+    }
+
+    @Test
+    @DisplayName("IDEMP-02: Una repetición concurrente espera a la primera ejecución en lugar de correr dos veces")
+    void testRepeticionConcurrente_Espera() throws Exception {
+        CountDownLatch enCurso = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        CompletableFuture<ResponseEntity<String>> primera = CompletableFuture.supplyAsync(() ->
+                registro.ejecutar("clave-1", "confirmar:100", () -> {
+                    enCurso.countDown();
+                    try {
+                        liberar.await(2, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return crear();
+                }));
+        assertTrue(enCurso.await(2, TimeUnit.SECONDS));
+        CompletableFuture<ResponseEntity<String>> repetida = CompletableFuture.supplyAsync(() ->
+                registro.ejecutar("clave-1", "confirmar:100", this::crear));
+
+        Thread.sleep(100);
+        assertFalse(repetida.isDone());
+        liberar.countDown();
+
+        assertEquals(primera.get(2, TimeUnit.SECONDS).getBody(), repetida.get(2, TimeUnit.SECONDS).getBody());
+        assertEquals(1, ejecuciones.get());
+    }
+
+    @Test
+    @DisplayName("IDEMP-03: La misma clave para otra operación se rechaza")
+    void testClaveReusada_OtraOperacion() {
+        registro.ejecutar("clave-1", "confirmar:100", this::crear);
+
+        assertThrows(ValidacionException.class, () -> registro.ejecutar("clave-1", "cancelar:100", this::crear));
+        assertEquals(1, ejecuciones.get());
+    }
+
+    @Test
+    @DisplayName("IDEMP-04: Los errores no se guardan y una clave vencida vuelve a ejecutar")
+    void testErrorYVencimiento() {
+        assertThrows(ValidacionException.class, () -> registro.ejecutar("clave-1", "crear:RES-1", () -> {
+            throw new ValidacionException("sin cupo");
+        }));
+        registro.ejecutar("clave-1", "crear:RES-1", this::crear);
+        assertEquals(1, ejecuciones.get());
+
+        ahora.addAndGet(501);
+        registro.limpiarVencidas();
+        assertEquals(0, registro.tamanio());
+        registro.ejecutar("clave-1", "crear:RES-1", this::crear);
+        assertEquals(2, ejecuciones.get());
+    }
+
+    @Test
+    @DisplayName("IDEMP-05: Sin cabecera la operación se ejecuta siempre y no se registra")
+    void testSinClave() {
+        registro.ejecutar(null, "crear:RES-1", this::crear);
+        registro.ejecutar(" ", "crear:RES-1", this::crear);
+
+        assertEquals(2, ejecuciones.get());
+        assertEquals(0, registro.tamanio());
+    }
+
+    @Test
+    @DisplayName("IDEMP-06: Lleno, el registro descarta la clave completada más vieja y no pasa del máximo")
+    void testMaximo_DescartaLaMasVieja() {
+        configReserva.setIdempotenciaMaxEntradas(2);
+        registro.ejecutar("clave-1", "crear:RES-1", this::crear);
+        registro.ejecutar("clave-2", "crear:RES-2", this::crear);
+        registro.ejecutar("clave-3", "crear:RES-3", this::crear);
+
+        assertEquals(2, registro.tamanio());
+        registro.ejecutar("clave-3", "crear:RES-3", this::crear);
+        assertEquals(3, ejecuciones.get());
+        registro.ejecutar("clave-1", "crear:RES-1", this::crear);
+        assertEquals(4, ejecuciones.get());
+        assertEquals(2, registro.tamanio());
+    }
+
+    @Test
+    @DisplayName("IDEMP-07: Lleno de operaciones en curso, una clave nueva se rechaza")
+    void testMaximo_TodasEnCurso() throws Exception {
+        configReserva.setIdempotenciaMaxEntradas(1);
+        CountDownLatch enCurso = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        CompletableFuture<ResponseEntity<String>> primera = CompletableFuture.supplyAsync(() ->
+                registro.ejecutar("clave-1", "confirmar:100", () -> {
+                    enCurso.countDown();
+                    try {
+                        liberar.await(2, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return crear();
+                }));
+        assertTrue(enCurso.await(2, TimeUnit.SECONDS));
+
+        assertThrows(ServicioRemotoException.class, () -> registro.ejecutar("clave-2", "confirmar:200", this::crear));
+        liberar.countDown();
+        primera.get(2, TimeUnit.SECONDS);
+        registro.ejecutar("clave-2", "confirmar:200", this::crear);
+        assertEquals(2, ejecuciones.get());
+        assertEquals(1, registro.tamanio());
+    }
+}
@@ -1,22 +1,35 @@
 package ar.edu.unju.fi.trabajo_final.microservicio_reserva;
 
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.configuration.ReservaServiceConfiguration;
 import ar.edu.unju.fi.trabajo_final.microservicio_reserva.dto.EntityMapper;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.dto.clienteDTO.ClienteDTO;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.dto.reservaDTO.ReservaDTO;
 import ar.edu.unju.fi.trabajo_final.microservicio_reserva.dto.vueloDTO.VueloDTO;
 import ar.edu.unju.fi.trabajo_final.microservicio_reserva.entity.Reserva;
 import ar.edu.unju.fi.trabajo_final.microservicio_reserva.enums.EstadoReserva;
 import ar.edu.unju.fi.trabajo_final.microservicio_reserva.exception.ElementoExistenteException;
 import ar.edu.unju.fi.trabajo_final.microservicio_reserva.exception.ElementoNoEncontradoException;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.exception.ServicioRemotoException;
 import ar.edu.unju.fi.trabajo_final.microservicio_reserva.exception.ValidacionException;
 import ar.edu.unju.fi.trabajo_final.microservicio_reserva.payload.MensajeRespondeCliente;
 import ar.edu.unju.fi.trabajo_final.microservicio_reserva.payload.MensajeRespondeVuelo;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.payload.Pagina;
 import ar.edu.unju.fi.trabajo_final.microservicio_reserva.remote.ClienteRemote;
 import ar.edu.unju.fi.trabajo_final.microservicio_reserva.remote.VueloRemote;
 import ar.edu.unju.fi.trabajo_final.microservicio_reserva.repository.ReservaRepository;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.service.OutboxService;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.service.SagaReservaService;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.service.client.CacheRemotos;
 import ar.edu.unju.fi.trabajo_final.microservicio_reserva.service.client.ClienteFeignClient;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.service.client.ConsultasRemotas;
 import ar.edu.unju.fi.trabajo_final.microservicio_reserva.service.client.VuelosFeignClient;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.service.impl.GeneradorCodigoReserva;
 import ar.edu.unju.fi.trabajo_final.microservicio_reserva.service.impl.ReservaServiceImpl;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -25,16 +38,25 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
+import java.sql.SQLException;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 @ExtendWith(MockitoExtension.class)
 class ReservaServiceMicroserviceTest {
@@ -50,9 +72,30 @@ class ReservaServiceMicroserviceTest {
     @Mock
     EntityMapper entityMapper;
 
+    @Mock
+    EntityManager entityManager;
+
+    @Mock
+    OutboxService outboxService;
+
+    @Mock
+    SagaReservaService sagaService;
+
+    @Mock
+    GeneradorCodigoReserva generadorCodigo;
+
     @Spy
     ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
 
+    @Spy
+    ReservaServiceConfiguration configReserva = new ReservaServiceConfiguration();
+
+    @Spy
+    ConsultasRemotas consultasRemotas = new ConsultasRemotas(new ReservaServiceConfiguration());
+
+    @Spy
+    CacheRemotos cacheRemotos = new CacheRemotos(new ReservaServiceConfiguration(), new SimpleMeterRegistry());
+
     @InjectMocks
     ReservaServiceImpl reservaService;
 
@@ -86,7 +129,7 @@ class ReservaServiceMicroserviceTest {
                 .build();
         clienteRemote = ClienteRemote.builder().id(10L).email("").documento("2123321").nombreCompleto("Luis Tolay").build();
         reservaNueva = Reserva.builder()
-                .codigo("RES-NEW")
+                .codigo("AGE-NEW")
                 .clienteId(10L)
                 .vueloId(1L)
                 .observaciones("Nueva reserva test")
@@ -116,8 +159,6 @@ class ReservaServiceMicroserviceTest {
     @DisplayName("CREAR-01: Debe crear reserva si código es único y Cliente/Vuelo existen (via Feign)")
     void testCrear_Exito() {
 
-        when(reservaRepository.findByCodigo("RES-NEW")).thenReturn(Optional.empty());
-
         when(vuelosFeignClient.obtenerVueloPorId(1L))
                 .thenReturn(new MensajeRespondeVuelo("",vueloConCupo,null));
 
@@ -127,7 +168,7 @@ class ReservaServiceMicroserviceTest {
 
         Reserva saved = Reserva.builder()
                 .id(200L)
-                .codigo("RES-NEW")
+                .codigo("AGE-NEW")
                 .clienteId(10L)
                 .vueloId(1L)
                 .estado(EstadoReserva.GENERADA)
@@ -145,18 +186,91 @@ class ReservaServiceMicroserviceTest {
     @Test
     @DisplayName("CREAR-02: Debe fallar con ElementoExistenteException si el código ya existe")
     void testCrear_CodigoDuplicado() {
+        when(vuelosFeignClient.obtenerVueloPorId(1L)).thenReturn(new MensajeRespondeVuelo("", vueloConCupo, null));
+        when(clienteFeignClient.obtenerClientePorId(10L)).thenReturn(new MensajeRespondeCliente("", clienteRemote, null));
+        when(reservaRepository.save(any())).thenThrow(violacion("reservas_codigo_key",
+                "duplicate key value violates unique constraint \"reservas_codigo_key\""));
 
-        when(reservaRepository.findByCodigo("RES-NEW"))
-                .thenReturn(Optional.of(reservaGeneradaExistente));
+        assertThrows(ElementoExistenteException.class, () -> reservaService.crear(reservaNueva));
+        verify(reservaRepository, never()).findByCodigo(any());
+        verifyNoInteractions(generadorCodigo);
+    }
+
+    @Test
+    @DisplayName("CREAR-07: Una violación de otra restricción no se informa como código duplicado")
+    void testCrear_OtraRestriccion() {
+        when(vuelosFeignClient.obtenerVueloPorId(1L)).thenReturn(new MensajeRespondeVuelo("", vueloConCupo, null));
+        when(clienteFeignClient.obtenerClientePorId(10L)).thenReturn(new MensajeRespondeCliente("", clienteRemote, null));
+        DataIntegrityViolationException error = violacion("reservas_estado_check",
+                "new row for relation \"reservas\" violates check constraint \"reservas_estado_check\"");
+        when(reservaRepository.save(any())).thenThrow(error);
+
+        assertSame(error, assertThrows(DataIntegrityViolationException.class, () -> reservaService.crear(reservaNueva)));
+    }
+
+    @Test
+    @DisplayName("CREAR-08: Un código cargado a mano no puede usar el prefijo de los generados")
+    void testCrear_CodigoConPrefijoGenerado() {
+        reservaNueva.setCodigo("res-1-0000");
+        when(vuelosFeignClient.obtenerVueloPorId(1L)).thenReturn(new MensajeRespondeVuelo("", vueloConCupo, null));
+        when(clienteFeignClient.obtenerClientePorId(10L)).thenReturn(new MensajeRespondeCliente("", clienteRemote, null));
+
+        assertThrows(ValidacionException.class, () -> reservaService.crear(reservaNueva));
+        verify(reservaRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("CREAR-09: Un código duplicado con la restricción de nombre generado (UK...) también es 409")
+    void testCrear_CodigoDuplicadoRestriccionGenerada() {
+        when(vuelosFeignClient.obtenerVueloPorId(1L)).thenReturn(new MensajeRespondeVuelo("", vueloConCupo, null));
+        when(clienteFeignClient.obtenerClientePorId(10L)).thenReturn(new MensajeRespondeCliente("", clienteRemote, null));
+        when(reservaRepository.save(any())).thenThrow(violacion("uk6q5ffwtb8rrn3gqdqbe0r4g6x",
+                "duplicate key value violates unique constraint \"uk6q5ffwtb8rrn3gqdqbe0r4g6x\"\n"
+                        + "  Detail: Key (codigo)=(AGE-NEW) already exists."));
 
         assertThrows(ElementoExistenteException.class, () -> reservaService.crear(reservaNueva));
     }
 
+    private static DataIntegrityViolationException violacion(String restriccion, String mensaje) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", new SQLException(mensaje), restriccion));
+    }
+
+    @Test
+    @DisplayName("CREAR-05: La reserva del usuario recibe un código generado por el servidor")
+    void testCrearParaUsuario_GeneraCodigo() {
+        reservaNueva.setCodigo(null);
+        when(generadorCodigo.generar()).thenReturn("RES-1-0000");
+        when(vuelosFeignClient.obtenerVueloPorId(1L)).thenReturn(new MensajeRespondeVuelo("", vueloConCupo, null));
+        when(clienteFeignClient.obtenerClientePorId(10L)).thenReturn(new MensajeRespondeCliente("", clienteRemote, null));
+        when(reservaRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        Reserva resultado = reservaService.crearReservaParaUsuario(reservaNueva, 10L, null);
+
+        assertEquals("RES-1-0000", resultado.getCodigo());
+        assertEquals(EstadoReserva.GENERADA, resultado.getEstado());
+        verify(reservaRepository, never()).findByCodigo(any());
+    }
+
+    @Test
+    @DisplayName("CREAR-06: Con una Idempotency-Key ya usada devuelve la reserva creada y no inserta otra")
+    void testCrearParaUsuario_ClaveRepetida() {
+        Reserva previa = Reserva.builder().id(7L).codigo("RES-1-0000").clienteId(10L)
+                .vueloId(reservaNueva.getVueloId()).observaciones(reservaNueva.getObservaciones()).build();
+        when(reservaRepository.findByClaveIdempotencia("10:clave-1")).thenReturn(Optional.of(previa));
+
+        assertSame(previa, reservaService.crearReservaParaUsuario(reservaNueva, 10L, "clave-1"));
+
+        reservaNueva.setVueloId(2L);
+        assertThrows(ValidacionException.class, () -> reservaService.crearReservaParaUsuario(reservaNueva, 10L, "clave-1"));
+        verify(reservaRepository, never()).save(any());
+        verifyNoInteractions(vuelosFeignClient, clienteFeignClient, generadorCodigo);
+    }
+
     @Test
     @DisplayName("CREAR-03: Debe fallar si Cliente responde 404")
     void testCrear_ClienteNoEncontrado() {
 
-        when(reservaRepository.findByCodigo("RES-NEW")).thenReturn(Optional.empty());
         when(vuelosFeignClient.obtenerVueloPorId(1L))
                 .thenReturn(new MensajeRespondeVuelo("",vueloConCupo,null));
 
@@ -170,7 +284,6 @@ class ReservaServiceMicroserviceTest {
     @DisplayName("CREAR-04: Debe fallar si Vuelo responde 404")
     void testCrear_VueloNoEncontrado() {
 
-        when(reservaRepository.findByCodigo("RES-NEW")).thenReturn(Optional.empty());
         when(vuelosFeignClient.obtenerVueloPorId(1L))
                 .thenThrow(feign.FeignException.NotFound.class);
 
@@ -182,47 +295,33 @@ class ReservaServiceMicroserviceTest {
     // =====================================================
 
     @Test
-    @DisplayName("CONFIRMAR-01: Debe confirmar si ms-vuelos responde OK y hay cupo")
+    @DisplayName("CONFIRMAR-01: Debe confirmar registrando el evento de asiento en el outbox, sin llamar a ms-vuelos")
     void testConfirmar_Exito() {
 
         when(reservaRepository.findById(100L))
                 .thenReturn(Optional.of(reservaGeneradaExistente));
-
-        MensajeRespondeVuelo mensajeVuelo = new MensajeRespondeVuelo("",vueloConCupo,null);
-
-        when(vuelosFeignClient.obtenerVueloPorId(1L))
-                .thenReturn(mensajeVuelo);
-
-        when(entityMapper.vueloRemoteToVueloDTO(vueloConCupo))
-                .thenReturn(vueloDTOConCupo);
-
+        when(outboxService.registrar(reservaGeneradaExistente, 1, null)).thenReturn("ev-1");
         when(reservaRepository.save(any())).thenReturn(reservaGeneradaExistente);
 
         Reserva resultado = reservaService.confirmar(100L);
 
         assertEquals(EstadoReserva.CONFIRMADA, resultado.getEstado());
-        verify(vuelosFeignClient).confirmarVuelo(1L);
+        assertEquals("ev-1", resultado.getEventoConfirmacion());
+        verifyNoInteractions(vuelosFeignClient);
     }
 
     @Test
-    @DisplayName("CONFIRMAR-02: Debe lanzar ValidacionException si no hay cupo")
-    void testConfirmar_SinCupo() {
+    @DisplayName("CONFIRMAR-02: La confirmación no depende de ms-vuelos (aunque no responda)")
+    void testConfirmar_SinEsperarAMsVuelos() {
 
-        VueloRemote vueloSinCupo = VueloRemote.builder()
-                .id(1L).codigo("AA-101")
-                .origen("").destino("").fechaLlegada(LocalDateTime.now())
-                .fechaSalida(LocalDateTime.now()).cupoTotal(5).cupoReservado(5).build();
-        VueloDTO vueloDTOSinCupo = VueloDTO.builder().id(1L).codigo("AA-101").build();
         when(reservaRepository.findById(100L))
                 .thenReturn(Optional.of(reservaGeneradaExistente));
+        lenient().when(vuelosFeignClient.obtenerVueloPorId(anyLong()))
+                .thenThrow(new ServicioRemotoException("ms-vuelo no responde"));
+        when(reservaRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
 
-        when(vuelosFeignClient.obtenerVueloPorId(1L))
-                .thenReturn(new MensajeRespondeVuelo("",vueloSinCupo,null));
-
-        when(entityMapper.vueloRemoteToVueloDTO(vueloSinCupo))
-                .thenReturn(vueloDTOSinCupo);
-
-        assertThrows(ValidacionException.class, () -> reservaService.confirmar(100L));
+        assertEquals(EstadoReserva.CONFIRMADA, reservaService.confirmar(100L).getEstado());
+        verify(outboxService).registrar(reservaGeneradaExistente, 1, null);
     }
 
     @Test
@@ -235,44 +334,81 @@ class ReservaServiceMicroserviceTest {
         assertThrows(ValidacionException.class, () -> reservaService.confirmar(101L));
     }
 
+    @Test
+    @DisplayName("CONFIRMAR-04: Varias reservas válidas se confirman a través de la saga grupal")
+    void testConfirmarVarias_UnaLlamada() {
+        Reserva otraGenerada = Reserva.builder()
+                .id(103L).codigo("RES-GEN-2").estado(EstadoReserva.GENERADA)
+                .clienteId(11L).vueloId(1L)
+                .build();
+        Reserva generadaOtroVuelo = Reserva.builder()
+                .id(104L).codigo("RES-GEN-3").estado(EstadoReserva.GENERADA)
+                .clienteId(10L).vueloId(2L)
+                .build();
+        List<Reserva> reservas = List.of(reservaGeneradaExistente, otraGenerada, generadaOtroVuelo);
+        when(reservaRepository.findAllById(any())).thenReturn(reservas);
+        when(sagaService.confirmarGrupo(reservas)).thenReturn(reservas);
+
+        List<Reserva> resultado = reservaService.confirmarVarias(List.of(100L, 103L, 104L));
+
+        assertEquals(reservas, resultado);
+        verify(sagaService, times(1)).confirmarGrupo(reservas);
+        verify(vuelosFeignClient, never()).confirmarVuelo(any());
+    }
+
+    @Test
+    @DisplayName("CONFIRMAR-05: Si una reserva no está GENERADA no se confirma ninguna ni se llama a ms-vuelos")
+    void testConfirmarVarias_EstadoIncorrecto() {
+        when(reservaRepository.findAllById(any()))
+                .thenReturn(List.of(reservaGeneradaExistente, reservaConfirmadaExistente));
+
+        assertThrows(ValidacionException.class, () -> reservaService.confirmarVarias(List.of(100L, 101L)));
+        verify(sagaService, never()).confirmarGrupo(any());
+        verify(reservaRepository, never()).saveAll(any());
+        assertEquals(EstadoReserva.GENERADA, reservaGeneradaExistente.getEstado());
+    }
+
+    @Test
+    @DisplayName("CONFIRMAR-06: Un ID inexistente en el lote lanza ElementoNoEncontradoException")
+    void testConfirmarVarias_NoEncontrada() {
+        when(reservaRepository.findAllById(any())).thenReturn(List.of(reservaGeneradaExistente));
+
+        assertThrows(ElementoNoEncontradoException.class, () -> reservaService.confirmarVarias(List.of(100L, 999L)));
+        verify(sagaService, never()).confirmarGrupo(any());
+    }
+
     // =====================================================
     // ===================== CANCELAR ======================
     // =====================================================
 
     @Test
-    @DisplayName("CANCELAR-01: Debe cancelar y llamar a ms-vuelos si estaba CONFIRMADA")
+    @DisplayName("CANCELAR-01: Debe cancelar y registrar la liberación del asiento si estaba CONFIRMADA")
     void testCancelar_Confirmada_Exito() {
 
+        reservaConfirmadaExistente.setEventoConfirmacion("ev-1");
         when(reservaRepository.findById(101L))
                 .thenReturn(Optional.of(reservaConfirmadaExistente));
-
-        MensajeRespondeVuelo msg = new MensajeRespondeVuelo("",vueloConCupo,null);
-        when(vuelosFeignClient.obtenerVueloPorId(1L)).thenReturn(msg);
-        when(entityMapper.vueloRemoteToVueloDTO(vueloConCupo)).thenReturn(vueloDTOConCupo);
         when(reservaRepository.save(any())).thenReturn(reservaConfirmadaExistente);
 
         Reserva res = reservaService.cancelar(101L);
 
         assertEquals(EstadoReserva.CANCELADA, res.getEstado());
-        verify(vuelosFeignClient).cancelarVuelo(1L);
+        verify(outboxService).registrar(reservaConfirmadaExistente, -1, "ev-1");
+        verifyNoInteractions(vuelosFeignClient);
     }
 
     @Test
-    @DisplayName("CANCELAR-02: Debe cancelar SIN llamar a ms-vuelos si estaba GENERADA")
+    @DisplayName("CANCELAR-02: Debe cancelar SIN liberar asiento si estaba GENERADA")
     void testCancelar_Generada_Exito() {
 
         when(reservaRepository.findById(100L))
                 .thenReturn(Optional.of(reservaGeneradaExistente));
-
-        MensajeRespondeVuelo msg = new MensajeRespondeVuelo("",vueloConCupo,null);
-        when(vuelosFeignClient.obtenerVueloPorId(1L)).thenReturn(msg);
-        when(entityMapper.vueloRemoteToVueloDTO(vueloConCupo)).thenReturn(vueloDTOConCupo);
         when(reservaRepository.save(any())).thenReturn(reservaGeneradaExistente);
 
         Reserva res = reservaService.cancelar(100L);
 
         assertEquals(EstadoReserva.CANCELADA, res.getEstado());
-        verify(vuelosFeignClient, never()).cancelarVuelo(anyLong());
+        verify(outboxService, never()).registrar(any(), anyInt(), any());
     }
 
     @Test
@@ -290,18 +426,6 @@ class ReservaServiceMicroserviceTest {
     // ====================== BUSCAR =======================
     // =====================================================
 
-    @Test
-    @DisplayName("BUSCAR-01: Debe retornar lista completa de reservas")
-    void testBuscarTodasReserva() {
-        List<Reserva> lista = List.of(reservaConfirmadaExistente, reservaGeneradaExistente);
-
-        when(reservaRepository.findAll((Sort) any())).thenReturn(lista);
-
-        List<Reserva> result = reservaService.buscarTodasReserva();
-
-        assertEquals(2, result.size());
-    }
-
     @Test
     @DisplayName("BUSCAR-02: Debe retornar una reserva por ID")
     void testBuscarReservaId_Exito() {
@@ -322,5 +446,315 @@ class ReservaServiceMicroserviceTest {
 
         assertThrows(ElementoNoEncontradoException.class, () -> reservaService.buscarReservaId(999L));
     }
-}
 
+    @Test
+    @DisplayName("BUSCAR-04: El listado paginado devuelve un cursor que continúa después del último id")
+    void testBuscarReservasPaginadas_Cursor() {
+        when(reservaRepository.findAllByOrderByIdDesc(any()))
+                .thenReturn(List.of(reservaCanceladaExistente, reservaConfirmadaExistente, reservaGeneradaExistente));
+
+        Pagina<Reserva> primera = reservaService.buscarReservasPaginadas(null, 2);
+
+        assertEquals(2, primera.getElementos().size());
+        assertNotNull(primera.getSiguiente());
+        verify(reservaRepository).findAllByOrderByIdDesc(PageRequest.of(0, 3));
+
+        when(reservaRepository.findByIdLessThanOrderByIdDesc(eq(101L), any()))
+                .thenReturn(List.of(reservaGeneradaExistente));
+
+        Pagina<Reserva> segunda = reservaService.buscarReservasPaginadas(primera.getSiguiente(), 2);
+
+        assertEquals(List.of(reservaGeneradaExistente), segunda.getElementos());
+        assertNull(segunda.getSiguiente());
+        verify(reservaRepository, never()).findAll(any(Sort.class));
+    }
+
+    @Test
+    @DisplayName("BUSCAR-05: Un cursor adulterado lanza ValidacionException sin consultar la base")
+    void testBuscarReservasPaginadas_CursorInvalido() {
+        assertThrows(ValidacionException.class, () -> reservaService.buscarReservasPaginadas("no-es-un-cursor", 10));
+        verifyNoInteractions(reservaRepository);
+    }
+
+    // =====================================================
+    // ===================== ESAMBLAR ======================
+    // =====================================================
+
+    @Test
+    @DisplayName("ESAMBLAR-01: La lista se enriquece con una sola llamada por microservicio")
+    void testEsamblarLista_UnaLlamadaPorServicio() {
+        List<Reserva> lista = List.of(reservaGeneradaExistente, reservaConfirmadaExistente, reservaCanceladaExistente);
+        ClienteDTO clienteDTO = ClienteDTO.builder().id(10L).nombreCompleto("Luis Tolay").build();
+
+        when(vuelosFeignClient.buscarVuelosPorIds(any()))
+                .thenReturn(Map.of(1L, vueloConCupo));
+        when(clienteFeignClient.buscarClientesPorIds(any()))
+                .thenReturn(Map.of(10L, clienteRemote));
+        when(entityMapper.vueloRemoteToVueloDTO(vueloConCupo)).thenReturn(vueloDTOConCupo);
+        when(entityMapper.clienteRemoteToClienteDTO(clienteRemote)).thenReturn(clienteDTO);
+        when(entityMapper.reservaToReservaDTO(any())).thenAnswer(inv -> new ReservaDTO());
+
+        List<ReservaDTO> dtos = reservaService.clienteVueloEsamblador(lista);
+
+        assertEquals(3, dtos.size());
+        assertEquals("AA-101", dtos.get(0).getCodigoVuelo());
+        assertEquals("Luis Tolay", dtos.get(2).getCliente());
+        verify(vuelosFeignClient, times(1)).buscarVuelosPorIds(List.of(1L));
+        verify(clienteFeignClient, times(1)).buscarClientesPorIds(List.of(10L));
+        verify(vuelosFeignClient, never()).obtenerVueloPorId(anyLong());
+        verify(clienteFeignClient, never()).obtenerClientePorId(anyLong());
+    }
+
+    @Test
+    @DisplayName("ESAMBLAR-02: Los IDs ausentes en la respuesta masiva se marcan como eliminados")
+    void testEsamblarLista_ElementosEliminados() {
+        when(vuelosFeignClient.buscarVuelosPorIds(any())).thenReturn(Map.of());
+        when(clienteFeignClient.buscarClientesPorIds(any())).thenReturn(Map.of());
+        when(entityMapper.reservaToReservaDTO(any())).thenAnswer(inv -> new ReservaDTO());
+
+        List<ReservaDTO> dtos = reservaService.clienteVueloEsamblador(List.of(reservaGeneradaExistente));
+
+        assertEquals("[Vuelo Eliminado]", dtos.get(0).getCodigoVuelo());
+        assertEquals("[Cliente Eliminado]", dtos.get(0).getCliente());
+    }
+
+    @Test
+    @DisplayName("ESAMBLAR-03: Una lista vacía no realiza llamadas remotas")
+    void testEsamblarLista_Vacia() {
+        List<ReservaDTO> dtos = reservaService.clienteVueloEsamblador(List.<Reserva>of());
+
+        assertTrue(dtos.isEmpty());
+        verifyNoInteractions(vuelosFeignClient, clienteFeignClient);
+    }
+
+    @Test
+    @DisplayName("ESAMBLAR-04: Los IDs se piden en lotes de reserva.lookupLote")
+    void testEsamblarLista_DivideEnLotes() {
+        configReserva.setLookupLote(2);
+        List<Reserva> lista = List.of(
+                Reserva.builder().id(1L).vueloId(1L).clienteId(10L).build(),
+                Reserva.builder().id(2L).vueloId(2L).clienteId(10L).build(),
+                Reserva.builder().id(3L).vueloId(3L).clienteId(10L).build());
+        when(vuelosFeignClient.buscarVuelosPorIds(any())).thenReturn(Map.of());
+        when(clienteFeignClient.buscarClientesPorIds(any())).thenReturn(Map.of());
+        when(entityMapper.reservaToReservaDTO(any())).thenAnswer(inv -> new ReservaDTO());
+
+        reservaService.clienteVueloEsamblador(lista);
+
+        verify(vuelosFeignClient, times(2)).buscarVuelosPorIds(any());
+        verify(clienteFeignClient, times(1)).buscarClientesPorIds(List.of(10L));
+    }
+
+    @Test
+    @DisplayName("ESAMBLAR-05: Vuelo y cliente de una reserva se piden en paralelo")
+    void testEsamblar_VueloYClienteEnParalelo() {
+        // Cada llamada espera a que la otra haya empezado: solo termina si corren a la vez
+        CountDownLatch ambasIniciadas = new CountDownLatch(2);
+        when(vuelosFeignClient.obtenerVueloPorId(1L)).thenAnswer(inv -> {
+            ambasIniciadas.countDown();
+            assertTrue(ambasIniciadas.await(2, TimeUnit.SECONDS));
+            return new MensajeRespondeVuelo("", vueloConCupo, null);
+        });
+        when(clienteFeignClient.obtenerClientePorId(10L)).thenAnswer(inv -> {
+            ambasIniciadas.countDown();
+            assertTrue(ambasIniciadas.await(2, TimeUnit.SECONDS));
+            return new MensajeRespondeCliente("", clienteRemote, null);
+        });
+        when(entityMapper.vueloRemoteToVueloDTO(vueloConCupo)).thenReturn(vueloDTOConCupo);
+        when(entityMapper.clienteRemoteToClienteDTO(clienteRemote))
+                .thenReturn(ClienteDTO.builder().id(10L).nombreCompleto("Luis Tolay").build());
+        when(entityMapper.reservaToReservaDTO(any())).thenAnswer(inv -> new ReservaDTO());
+
+        ReservaDTO dto = reservaService.clienteVueloEsamblador(reservaGeneradaExistente);
+
+        assertEquals("AA-101", dto.getCodigoVuelo());
+        assertEquals("Luis Tolay", dto.getCliente());
+    }
+
+    @Test
+    @DisplayName("ESAMBLAR-06: Una llamada que supera el plazo lanza ServicioRemotoException")
+    void testEsamblar_PlazoVencido() {
+        ReservaServiceConfiguration configLenta = new ReservaServiceConfiguration();
+        configLenta.setConsultaTimeoutMs(50);
+        ReservaServiceImpl servicio = new ReservaServiceImpl(reservaRepository, entityMapper,
+                clienteFeignClient, vuelosFeignClient, configLenta, new ConsultasRemotas(configLenta),
+                new CacheRemotos(configLenta, new SimpleMeterRegistry()), entityManager, outboxService, sagaService, generadorCodigo);
+        when(vuelosFeignClient.obtenerVueloPorId(1L)).thenAnswer(inv -> {
+            Thread.sleep(500);
+            return new MensajeRespondeVuelo("", vueloConCupo, null);
+        });
+        lenient().when(clienteFeignClient.obtenerClientePorId(10L))
+                .thenReturn(new MensajeRespondeCliente("", clienteRemote, null));
+
+        assertThrows(ServicioRemotoException.class, () -> servicio.clienteVueloEsamblador(reservaGeneradaExistente));
+    }
+
+    // =====================================================
+    // ==================== EXPORTAR =======================
+    // =====================================================
+
+    @Test
+    @DisplayName("EXPORTAR-01: La exportación entrega lotes de reserva.exportLote y libera cada lote entregado")
+    void testExportarReservas_PorLotes() {
+        configReserva.setExportLote(2);
+        when(reservaRepository.streamAllByOrderByIdDesc()).thenReturn(
+                java.util.stream.Stream.of(reservaCanceladaExistente, reservaConfirmadaExistente, reservaGeneradaExistente));
+        when(vuelosFeignClient.buscarVuelosPorIds(any())).thenReturn(Map.of(1L, vueloConCupo));
+        when(clienteFeignClient.buscarClientesPorIds(any())).thenReturn(Map.of(10L, clienteRemote));
+        when(entityMapper.vueloRemoteToVueloDTO(vueloConCupo)).thenReturn(vueloDTOConCupo);
+        when(entityMapper.clienteRemoteToClienteDTO(clienteRemote))
+                .thenReturn(ClienteDTO.builder().id(10L).nombreCompleto("Luis Tolay").build());
+        when(entityMapper.reservaToReservaDTO(any())).thenAnswer(inv -> new ReservaDTO());
+
+        List<Integer> tamanios = new java.util.ArrayList<>();
+        reservaService.exportarReservas(lote -> tamanios.add(lote.size()));
+
+        assertEquals(List.of(2, 1), tamanios);
+        // El segundo lote sale de la cache local: una sola consulta por servicio en toda la exportación
+        verify(vuelosFeignClient, times(1)).buscarVuelosPorIds(any());
+        verify(clienteFeignClient, times(1)).buscarClientesPorIds(any());
+        verify(entityManager, times(3)).detach(any());
+        verify(reservaRepository, never()).findAll(any(Sort.class));
+    }
+
+    // =====================================================
+    // ===================== CACHE =========================
+    // =====================================================
+
+    @Test
+    @DisplayName("CACHE-01: Un segundo listado se resuelve desde la cache local sin llamadas remotas")
+    void testEsamblarLista_UsaCache() {
+        List<Reserva> lista = List.of(reservaGeneradaExistente, reservaConfirmadaExistente);
+        when(vuelosFeignClient.buscarVuelosPorIds(any())).thenReturn(Map.of(1L, vueloConCupo));
+        when(clienteFeignClient.buscarClientesPorIds(any())).thenReturn(Map.of(10L, clienteRemote));
+        when(entityMapper.vueloRemoteToVueloDTO(vueloConCupo)).thenReturn(vueloDTOConCupo);
+        when(entityMapper.clienteRemoteToClienteDTO(clienteRemote))
+                .thenReturn(ClienteDTO.builder().id(10L).nombreCompleto("Luis Tolay").build());
+        when(entityMapper.reservaToReservaDTO(any())).thenAnswer(inv -> new ReservaDTO());
+
+        reservaService.clienteVueloEsamblador(lista);
+        List<ReservaDTO> dtos = reservaService.clienteVueloEsamblador(lista);
+
+        assertEquals("AA-101", dtos.get(1).getCodigoVuelo());
+        assertEquals("Luis Tolay", dtos.get(1).getCliente());
+        verify(vuelosFeignClient, times(1)).buscarVuelosPorIds(any());
+        verify(clienteFeignClient, times(1)).buscarClientesPorIds(any());
+    }
+
+    @Test
+    @DisplayName("CACHE-02: Invalidar un vuelo obliga a pedirlo de nuevo")
+    void testEsamblar_InvalidarVuelo() {
+        when(vuelosFeignClient.obtenerVueloPorId(1L)).thenReturn(new MensajeRespondeVuelo("", vueloConCupo, null));
+        when(clienteFeignClient.obtenerClientePorId(10L)).thenReturn(new MensajeRespondeCliente("", clienteRemote, null));
+        when(entityMapper.reservaToReservaDTO(any())).thenAnswer(inv -> new ReservaDTO());
+
+        reservaService.clienteVueloEsamblador(reservaGeneradaExistente);
+        reservaService.invalidarCacheRemota(1L, null);
+        reservaService.clienteVueloEsamblador(reservaGeneradaExistente);
+
+        verify(vuelosFeignClient, times(2)).obtenerVueloPorId(1L);
+        verify(clienteFeignClient, times(1)).obtenerClientePorId(10L);
+    }
+
+    // =====================================================
+    // ===================== SNAPSHOT ======================
+    // =====================================================
+
+    @Test
+    @DisplayName("SNAPSHOT-01: Las reservas con snapshot guardado se listan sin llamadas remotas")
+    void testEsamblarLista_ConSnapshot() {
+        reservaGeneradaExistente.setCodigoVuelo("AA-101");
+        reservaGeneradaExistente.setCliente("Luis Tolay");
+        when(entityMapper.reservaToReservaDTO(any())).thenAnswer(inv -> {
+            Reserva r = inv.getArgument(0);
+            ReservaDTO dto = new ReservaDTO();
+            dto.setCodigoVuelo(r.getCodigoVuelo());
+            dto.setCliente(r.getCliente());
+            return dto;
+        });
+
+        List<ReservaDTO> dtos = reservaService.clienteVueloEsamblador(List.of(reservaGeneradaExistente));
+
+        assertEquals("AA-101", dtos.get(0).getCodigoVuelo());
+        assertEquals("Luis Tolay", dtos.get(0).getCliente());
+        verifyNoInteractions(vuelosFeignClient, clienteFeignClient);
+    }
+
+    @Test
+    @DisplayName("SNAPSHOT-02: Al crear la reserva se guardan los datos de vuelo y cliente ya consultados")
+    void testCrear_GuardaSnapshot() {
+        when(vuelosFeignClient.obtenerVueloPorId(1L)).thenReturn(new MensajeRespondeVuelo("", vueloConCupo, null));
+        when(clienteFeignClient.obtenerClientePorId(10L)).thenReturn(new MensajeRespondeCliente("", clienteRemote, null));
+        when(reservaRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        Reserva resultado = reservaService.crear(reservaNueva);
+
+        assertEquals("AA-101", resultado.getCodigoVuelo());
+        assertEquals("España", resultado.getOrigen());
+        assertEquals("Lima", resultado.getDestino());
+        assertEquals("Luis Tolay", resultado.getCliente());
+        assertNotNull(resultado.getSnapshotActualizado());
+    }
+
+    @Test
+    @DisplayName("SNAPSHOT-03: El refresco actualiza el lote vencido con un update por vuelo/cliente y borra el vuelo que ya no existe")
+    void testRefrescarSnapshots() {
+        reservaGeneradaExistente.setCliente("Nombre Viejo");
+        reservaConfirmadaExistente.setVueloId(2L);
+        reservaConfirmadaExistente.setCodigoVuelo("ZZ-999");
+        when(reservaRepository.findSnapshotsVencidos(any(), any()))
+                .thenReturn(List.of(reservaGeneradaExistente, reservaConfirmadaExistente));
+        when(vuelosFeignClient.buscarVuelosPorIds(any())).thenReturn(Map.of(1L, vueloConCupo));
+        when(clienteFeignClient.buscarClientesPorIds(any())).thenReturn(Map.of(10L, clienteRemote));
+
+        int refrescadas = reservaService.refrescarSnapshots();
+
+        assertEquals(2, refrescadas);
+        verify(reservaRepository).actualizarSnapshotVuelo(eq(List.of(reservaGeneradaExistente.getId())),
+                eq("AA-101"), eq("España"), eq("Lima"), any());
+        verify(reservaRepository).actualizarSnapshotVuelo(eq(List.of(reservaConfirmadaExistente.getId())),
+                isNull(), isNull(), isNull(), any());
+        verify(reservaRepository).actualizarSnapshotCliente(
+                List.of(reservaGeneradaExistente.getId(), reservaConfirmadaExistente.getId()), "Luis Tolay");
+        // Solo updates puntuales: no se guarda la entidad entera (no pisa un cambio de estado concurrente)
+        verify(reservaRepository, never()).save(any());
+    }
+
+    // =====================================================
+    // ==================== EXPIRACION =====================
+    // =====================================================
+
+    @Test
+    @DisplayName("EXPIRACION-01: Cancela la tanda de GENERADA creadas antes del limite")
+    void testExpirarGeneradas() {
+        configReserva.setExpiracionDias(2);
+        configReserva.setExpiracionLote(100);
+        when(reservaRepository.bloquearGeneradasVencidas(LocalDate.now().minusDays(2), 100)).thenReturn(List.of(100L, 103L));
+        when(reservaRepository.actualizarEstado(List.of(100L, 103L), EstadoReserva.GENERADA, EstadoReserva.CANCELADA)).thenReturn(2);
+
+        assertEquals(2, reservaService.expirarGeneradas());
+        verifyNoInteractions(outboxService, vuelosFeignClient);
+    }
+
+    @Test
+    @DisplayName("EXPIRACION-02: Sin vencidas libres no se actualiza nada")
+    void testExpirarGeneradas_SinVencidas() {
+        when(reservaRepository.bloquearGeneradasVencidas(any(), anyInt())).thenReturn(List.of());
+
+        assertEquals(0, reservaService.expirarGeneradas());
+        verify(reservaRepository, never()).actualizarEstado(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("EXPIRACION-03: El atraso se mide desde que vencio la GENERADA mas vieja")
+    void testAtrasoExpiracion() {
+        configReserva.setExpiracionDias(2);
+        when(reservaRepository.findFechaCreacionMasAntigua(EstadoReserva.GENERADA))
+                .thenReturn(LocalDate.now().minusDays(5), LocalDate.now(), null);
+
+        // Creada hace 5 dias: vencio al empezar el dia de hace 2 dias
+        assertTrue(reservaService.atrasoExpiracion().toHours() >= 48);
+        assertEquals(Duration.ZERO, reservaService.atrasoExpiracion());
+        assertEquals(Duration.ZERO, reservaService.atrasoExpiracion());
+    }
+}
@@ -0,0 +1,307 @@
+package ar.edu.unju.fi.trabajo_final.microservicio_reserva;
+
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.configuration.ReservaServiceConfiguration;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.dto.eventoDTO.EventoAsientoDTO;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.entity.Reserva;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.entity.SagaReserva;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.enums.EstadoReserva;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.enums.EstadoSaga;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.enums.ResultadoEventoAsiento;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.exception.ServicioRemotoException;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.exception.ValidacionException;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.payload.MensajeRespondeVuelo;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.remote.VueloRemote;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.repository.ReservaRepository;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.repository.SagaReservaRepository;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.service.client.CacheRemotos;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.service.client.VuelosFeignClient;
+import ar.edu.unju.fi.trabajo_final.microservicio_reserva.service.impl.SagaReservaServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SagaReservaServiceTest {
+
+    @Mock
+    SagaReservaRepository sagaRepository;
+
+    @Mock
+    ReservaRepository reservaRepository;
+
+    @Mock
+    CacheRemotos cacheRemotos;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    VueloLocal vueloLocal;
+    ReservaServiceConfiguration configReserva;
+    SagaReservaServiceImpl sagaService;
+
+    private Reserva reservaVuelo1;
+    private Reserva reservaVuelo2;
+    private final List<EstadoSaga> estadosGuardados = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        vueloLocal = new VueloLocal();
+        configReserva = new ReservaServiceConfiguration();
+        configReserva.setSagaBackoffMs(1);
+        configReserva.setSagaBackoffMaxMs(4);
+        sagaService = new SagaReservaServiceImpl(sagaRepository, reservaRepository, vueloLocal,
+                cacheRemotos, configReserva, transactionManager);
+
+        reservaVuelo1 = Reserva.builder()
+                .id(100L).codigo("RES-1").estado(EstadoReserva.GENERADA)
+                .clienteId(10L).vueloId(1L).fechaCreacion(LocalDate.now()).build();
+        reservaVuelo2 = Reserva.builder()
+                .id(101L).codigo("RES-2").estado(EstadoReserva.GENERADA)
+                .clienteId(11L).vueloId(2L).fechaCreacion(LocalDate.now()).build();
+
+        lenient().when(sagaRepository.saveAndFlush(any())).thenAnswer(inv -> {
+            SagaReserva saga = inv.getArgument(0);
+            estadosGuardados.add(saga.getEstado());
+            return saga;
+        });
+        lenient().when(reservaRepository.findAllById(any())).thenReturn(List.of(reservaVuelo1, reservaVuelo2));
+    }
+
+    @Test
+    @DisplayName("SAGA-01: Con lugar en todos los vuelos se toman los asientos y se confirman las reservas")
+    void testConfirmarGrupo_Completa() {
+        vueloLocal.lugares.put(1L, 1);
+        vueloLocal.lugares.put(2L, 1);
+
+        List<Reserva> confirmadas = sagaService.confirmarGrupo(List.of(reservaVuelo1, reservaVuelo2));
+
+        assertEquals(2, confirmadas.size());
+        assertEquals(EstadoReserva.CONFIRMADA, reservaVuelo1.getEstado());
+        assertNotNull(reservaVuelo2.getEventoConfirmacion());
+        assertEquals(0, vueloLocal.lugares.get(1L));
+        assertEquals(0, vueloLocal.lugares.get(2L));
+        assertEquals(EstadoSaga.COMPLETADA, estadosGuardados.get(estadosGuardados.size() - 1));
+    }
+
+    @Test
+    @DisplayName("SAGA-02: Si un vuelo no tiene lugar se liberan los asientos ya tomados y no se confirma ninguna")
+    void testConfirmarGrupo_SinLugarCompensa() {
+        vueloLocal.lugares.put(1L, 1);
+        vueloLocal.lugares.put(2L, 0);
+
+        assertThrows(ValidacionException.class,
+                () -> sagaService.confirmarGrupo(List.of(reservaVuelo1, reservaVuelo2)));
+
+        assertEquals(1, vueloLocal.lugares.get(1L));
+        assertEquals(EstadoReserva.GENERADA, reservaVuelo1.getEstado());
+        assertTrue(estadosGuardados.contains(EstadoSaga.COMPENSANDO));
+        assertEquals(EstadoSaga.COMPENSADA, estadosGuardados.get(estadosGuardados.size() - 1));
+        verify(reservaRepository, never()).saveAll(any());
+    }
+
+    @Test
+    @DisplayName("SAGA-03: Una falla transitoria de ms-vuelos se reintenta sin tomar el asiento dos veces")
+    void testConfirmarGrupo_ReintentaFallaTransitoria() {
+        vueloLocal.lugares.put(1L, 1);
+        vueloLocal.lugares.put(2L, 1);
+        vueloLocal.fallasPendientes = 2;
+
+        sagaService.confirmarGrupo(List.of(reservaVuelo1, reservaVuelo2));
+
+        assertEquals(3, vueloLocal.llamadas);
+        assertEquals(0, vueloLocal.lugares.get(1L));
+        assertEquals(EstadoReserva.CONFIRMADA, reservaVuelo2.getEstado());
+    }
+
+    @Test
+    @DisplayName("SAGA-04: Si falla la confirmación local después de tomar los asientos se compensa")
+    void testConfirmarGrupo_FallaLocalCompensa() {
+        vueloLocal.lugares.put(1L, 1);
+        vueloLocal.lugares.put(2L, 1);
+        leerReservasSinCambiosPrevios();
+        when(reservaRepository.saveAll(any())).thenThrow(new IllegalStateException("base caida"));
+
+        assertThrows(ServicioRemotoException.class,
+                () -> sagaService.confirmarGrupo(List.of(reservaVuelo1, reservaVuelo2)));
+
+        assertEquals(1, vueloLocal.lugares.get(1L));
+        assertEquals(1, vueloLocal.lugares.get(2L));
+        assertFalse(estadosGuardados.contains(EstadoSaga.COMPLETADA));
+        assertEquals(EstadoSaga.COMPENSADA, estadosGuardados.get(estadosGuardados.size() - 1));
+    }
+
+    @Test
+    @DisplayName("SAGA-05: El barrido termina una compensación que quedó pendiente porque ms-vuelos no respondía")
+    void testRecuperarPendientes_TerminaCompensacion() {
+        vueloLocal.lugares.put(1L, 1);
+        vueloLocal.lugares.put(2L, 1);
+        leerReservasSinCambiosPrevios();
+        when(reservaRepository.saveAll(any())).thenThrow(new IllegalStateException("base caida"));
+        configReserva.setSagaIntentos(1);
+        // Toma los asientos, falla el paso local y ms-vuelo deja de responder antes de compensar
+        vueloLocal.fallarDesdeLlamada = 2;
+        assertThrows(ServicioRemotoException.class,
+                () -> sagaService.confirmarGrupo(List.of(reservaVuelo1, reservaVuelo2)));
+        SagaReserva abandonada = ultimaSagaGuardada();
+        assertEquals(EstadoSaga.COMPENSANDO, abandonada.getEstado());
+        assertEquals(0, vueloLocal.lugares.get(1L));
+
+        // ms-vuelo vuelve a responder y el barrido retoma la saga
+        vueloLocal.fallarDesdeLlamada = Integer.MAX_VALUE;
+        abandonada.setProximoIntento(LocalDateTime.now().minusSeconds(1));
+        abandonada.setVersion(3L);
+        when(sagaRepository.findByEstadoInAndProximoIntentoLessThanEqualOrderByIdAsc(any(), any(), any()))
+                .thenReturn(List.of(abandonada));
+        when(sagaRepository.reclamar(any(), eq(3L), any())).thenReturn(1);
+
+        assertEquals(1, sagaService.recuperarPendientes());
+
+        assertEquals(EstadoSaga.COMPENSADA, abandonada.getEstado());
+        assertEquals(1, vueloLocal.lugares.get(1L));
+        assertEquals(1, vueloLocal.lugares.get(2L));
+    }
+
+    @Test
+    @DisplayName("SAGA-06: El barrido no avanza una saga que otra instancia reclamó primero")
+    void testRecuperarPendientes_ReclamadaPorOtraInstancia() {
+        SagaReserva ajena = SagaReserva.builder()
+                .id(7L).estado(EstadoSaga.ASIENTOS_RESERVADOS).version(5L)
+                .proximoIntento(LocalDateTime.now().minusSeconds(1)).creada(LocalDateTime.now()).build();
+        when(sagaRepository.findByEstadoInAndProximoIntentoLessThanEqualOrderByIdAsc(any(), any(), any()))
+                .thenReturn(List.of(ajena));
+        when(sagaRepository.reclamar(eq(7L), eq(5L), any())).thenReturn(0);
+
+        assertEquals(0, sagaService.recuperarPendientes());
+
+        assertEquals(EstadoSaga.ASIENTOS_RESERVADOS, ajena.getEstado());
+        verify(sagaRepository, never()).saveAndFlush(any());
+        verify(reservaRepository, never()).saveAll(any());
+    }
+
+    @Test
+    @DisplayName("SAGA-07: Si el barrido reclamó la saga, la instancia original deja de avanzarla sin compensar")
+    void testConfirmarGrupo_PerdioLaSaga() {
+        vueloLocal.lugares.put(1L, 1);
+        vueloLocal.lugares.put(2L, 1);
+        // El guardado que completa la saga encuentra otra version: la transaccion del paso local se revierte
+        doAnswer(inv -> {
+            SagaReserva saga = inv.getArgument(0);
+            if (saga.getEstado() == EstadoSaga.COMPLETADA) {
+                throw new ObjectOptimisticLockingFailureException(SagaReserva.class, saga.getId());
+            }
+            estadosGuardados.add(saga.getEstado());
+            return saga;
+        }).when(sagaRepository).saveAndFlush(any());
+
+        assertThrows(ServicioRemotoException.class,
+                () -> sagaService.confirmarGrupo(List.of(reservaVuelo1, reservaVuelo2)));
+
+        // No libera los asientos: la saga sigue en manos del barrido, que la confirmara
+        assertEquals(0, vueloLocal.lugares.get(1L));
+        assertEquals(0, vueloLocal.lugares.get(2L));
+        assertFalse(estadosGuardados.contains(EstadoSaga.COMPENSANDO));
+    }
+
+    /**
+     * La transaccion del paso local se revierte: cada intento lee las reservas tal como estan en la base.
+     */
+    private void leerReservasSinCambiosPrevios() {
+        when(reservaRepository.findAllById(any())).thenAnswer(inv -> List.of(copia(reservaVuelo1), copia(reservaVuelo2)));
+    }
+
+    private Reserva copia(Reserva reserva) {
+        return Reserva.builder()
+                .id(reserva.getId()).codigo(reserva.getCodigo()).estado(reserva.getEstado())
+                .clienteId(reserva.getClienteId()).vueloId(reserva.getVueloId()).fechaCreacion(reserva.getFechaCreacion())
+                .build();
+    }
+
+    private SagaReserva ultimaSagaGuardada() {
+        var captor = org.mockito.ArgumentCaptor.forClass(SagaReserva.class);
+        verify(sagaRepository, atLeastOnce()).saveAndFlush(captor.capture());
+        return captor.getValue();
+    }
+
+    /**
+     * Stand-in local de ms-vuelo: reproduce el consumidor idempotente de eventos de asiento
+     * (cupo libre por vuelo, resultado guardado por eventoId) y puede simular fallas de red.
+     */
+    static class VueloLocal implements VuelosFeignClient {
+        final Map<Long, Integer> lugares = new HashMap<>();
+        final Map<String, ResultadoEventoAsiento> procesados = new HashMap<>();
+        int fallasPendientes;
+        int fallarDesdeLlamada = Integer.MAX_VALUE;
+        int llamadas;
+
+        @Override
+        public Map<String, ResultadoEventoAsiento> publicarEventosAsiento(List<EventoAsientoDTO> eventos) {
+            llamadas++;
+            if (fallasPendientes > 0) {
+                fallasPendientes--;
+                throw new ServicioRemotoException("ms-vuelo no responde");
+            }
+            if (llamadas >= fallarDesdeLlamada) {
+                throw new ServicioRemotoException("ms-vuelo no responde");
+            }
+            Map<String, ResultadoEventoAsiento> resultados = new LinkedHashMap<>();
+            for (EventoAsientoDTO evento : eventos) {
+                resultados.put(evento.getEventoId(), procesados.computeIfAbsent(evento.getEventoId(), id -> aplicar(evento)));
+            }
+            return resultados;
+        }
+
+        private ResultadoEventoAsiento aplicar(EventoAsientoDTO evento) {
+            int libres = lugares.getOrDefault(evento.getVueloId(), 0);
+            if (evento.getDelta() > 0) {
+                if (libres == 0) {
+                    return ResultadoEventoAsiento.RECHAZADO;
+                }
+                lugares.put(evento.getVueloId(), libres - 1);
+                return ResultadoEventoAsiento.APLICADO;
+            }
+            if (procesados.get(evento.getReferencia()) != ResultadoEventoAsiento.APLICADO) {
+                return ResultadoEventoAsiento.OMITIDO;
+            }
+            lugares.put(evento.getVueloId(), libres + 1);
+            return ResultadoEventoAsiento.APLICADO;
+        }
+
+        @Override
+        public MensajeRespondeVuelo obtenerVueloPorId(Long id) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Map<Long, VueloRemote> buscarVuelosPorIds(Collection<Long> ids) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public MensajeRespondeVuelo confirmarVuelo(Long id) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public MensajeRespondeVuelo cancelarVuelo(Long id) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -3,10 +3,12 @@ package ar.edu.unju.fi.trabajo_final.microservicio_vuelo;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 
 @SpringBootApplication
 @EnableDiscoveryClient
+@EnableScheduling
 public class MicroservicioVueloApplication {
 
 	public static void main(String[] args) {
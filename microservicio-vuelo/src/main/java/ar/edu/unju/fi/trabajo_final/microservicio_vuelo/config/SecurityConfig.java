@@ -1,5 +1,8 @@
 package ar.edu.unju.fi.trabajo_final.microservicio_vuelo.config;
 
+import ar.edu.unju.fi.trabajo_final.seguridad.CredencialServicio;
+import ar.edu.unju.fi.trabajo_final.seguridad.IdentidadGateway;
+import ar.edu.unju.fi.trabajo_final.seguridad.IdentidadGatewayResolver;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -23,6 +26,15 @@ public class SecurityConfig {
 
     @Value("${jwt.secret}")
     private String jwtSecret;
+    // Modo gateway de confianza: se acepta la identidad firmada por el gateway (ver IdentidadGateway en seguridad-comun)
+    @Value("${jwt.identidadGateway:false}")
+    private boolean identidadGateway;
+    // Clave de las credenciales de servicio (ROLE_SERVICIO), distinta de jwt.secret (ver CredencialServicio)
+    @Value("${jwt.servicioSecret}")
+    private String servicioSecret;
+    // Clave propia de la identidad del gateway, distinta de jwt.secret
+    @Value("${jwt.identidadSecret:}")
+    private String identidadSecret;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -45,6 +57,9 @@ public class SecurityConfig {
                                 "/webjars/**"
                         ).permitAll()
 
+                        // Eventos de asiento: los publica el outbox de ms-reserva con su token de servicio
+                        .requestMatchers(HttpMethod.POST, "/api/v1_1/vuelo/eventos/asientos").hasAnyRole("SERVICIO", "ADMIN")
+
                         // 2. RUTAS DE ADMIN (Solo ADMIN puede crear/editar/borrar vuelos)
                         .requestMatchers(HttpMethod.POST, "/api/v1_1/vuelo/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.PUT, "/api/v1_1/vuelo/**").hasRole("ADMIN")
@@ -61,10 +76,14 @@ public class SecurityConfig {
                         .anyRequest().authenticated()
                 )
                 // 4. Configura la validación de JWT
-                .oauth2ResourceServer(oauth2 -> oauth2.jwt(jwt ->
-                        jwt.decoder(jwtDecoder())
-                                .jwtAuthenticationConverter(jwtAuthenticationConverter())
-                ));
+                .oauth2ResourceServer(oauth2 -> {
+                    if (identidadGateway) {
+                        oauth2.bearerTokenResolver(new IdentidadGatewayResolver());
+                    }
+                    oauth2.jwt(jwt ->
+                            jwt.decoder(jwtDecoder())
+                                    .jwtAuthenticationConverter(jwtAuthenticationConverter()));
+                });
 
         return http.build();
     }
@@ -89,6 +108,8 @@ public class SecurityConfig {
     public JwtDecoder jwtDecoder() {
         byte[] keyBytes = jwtSecret.getBytes();
         SecretKeySpec secretKey = new SecretKeySpec(keyBytes, "HmacSHA256");
-        return NimbusJwtDecoder.withSecretKey(secretKey).build();
+        NimbusJwtDecoder usuarios = NimbusJwtDecoder.withSecretKey(secretKey).build();
+        JwtDecoder decoder = CredencialServicio.decoder(usuarios, servicioSecret);
+        return identidadGateway ? new IdentidadGateway(identidadSecret).decoder(decoder) : decoder;
     }
 }
\ No newline at end of file
@@ -14,5 +14,27 @@ public class VueloServiceConfiguration {
     private String msg;
     private String buildVersion;
     private Map<String,String> mailDetails;
+    // Cantidad maxima de IDs aceptados por POST vuelos/lookup
+    private int lookupMaxIds = 500;
+    // Inventario de asientos en memoria (write-behind) para vuelos con mucha demanda
+    private boolean inventarioHabilitado = false;
+    private long inventarioVolcadoMs = 500;
+    private int inventarioVolcadoLote = 5000;
+    // Listados paginados (vuelos y destinos): tamaño de pagina si no se indica limite y tope maximo
+    private int paginaTamanio = 50;
+    private int paginaMax = 200;
+    // Indice de lectura en memoria para las busquedas de vuelos y cada cuanto se recarga completo desde la base
+    private boolean indiceHabilitado = true;
+    private long indiceRecargaMs = 60000;
+    // Busqueda de conexiones: tiempo minimo y espera maxima entre tramos, tramos maximos, resultados por defecto/tope
+    // y tope de itinerarios parciales expandidos por busqueda
+    private int conexionMinutosMin = 45;
+    private int conexionHorasMax = 24;
+    private int conexionTramosMax = 3;
+    private int conexionResultados = 5;
+    private int conexionResultadosMax = 20;
+    private int conexionExpansionesMax = 20000;
+    // Dias maximos por consulta del calendario de disponibilidad
+    private int calendarioDiasMax = 62;
 
 }
@@ -246,7 +246,10 @@ public interface ApiDestino {
     @GetMapping("destinos")
     @Operation(
             summary = "Obtener todos los destinos",
-            description = "Devuelve la lista completa de destinos registrados en el sistema.",
+            description = """
+                    Devuelve los destinos registrados en el sistema de a una pagina (id descendente).
+                    Si hay mas destinos, `siguiente` trae el cursor para pedir la pagina siguiente; es null en la ultima.
+                    """,
             responses = {
                     @ApiResponse(
                             responseCode = "200",
@@ -280,7 +283,12 @@ public interface ApiDestino {
                     )
             }
     )
-    ResponseEntity<MensajeRespondeDestino> obtenerDestinos();
+    ResponseEntity<MensajeRespondeDestino> obtenerDestinos(
+            @Parameter(description = "Cursor `siguiente` devuelto por la pagina anterior (vacio para la primera pagina)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Cantidad maxima de elementos de la pagina (por defecto y tope segun configuracion)")
+            @RequestParam(required = false) Integer limite
+    );
 
     // ------------------------------------------------------------------------------------
     // 5. BUSCAR DESTINO POR ID
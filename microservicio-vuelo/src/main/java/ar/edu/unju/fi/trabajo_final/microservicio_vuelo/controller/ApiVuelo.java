@@ -1,6 +1,9 @@
 package ar.edu.unju.fi.trabajo_final.microservicio_vuelo.controller;
 
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.dto.EventoAsientoDTO;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.dto.VueloDTO;
 import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.entity.Vuelo;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.enums.ResultadoEventoAsiento;
 import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.payload.ApiResponde;
 import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.payload.MensajeRespondeVuelo;
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -17,6 +20,8 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 
 @io.swagger.v3.oas.annotations.tags.Tag(name = "Vuelo", description = "Operaciones CRUD y consultas sobre vuelos")
 public interface ApiVuelo {
@@ -271,7 +276,10 @@ public interface ApiVuelo {
     @GetMapping("vuelos")
     @Operation(
             summary = "Obtener todos los vuelos",
-            description = "Devuelve la lista completa de vuelos registrados.",
+            description = """
+                    Devuelve los vuelos registrados de a una pagina (id descendente).
+                    Si hay mas vuelos, `siguiente` trae el cursor para pedir la pagina siguiente; es null en la ultima.
+                    """,
             responses = {
                     @ApiResponse(
                             responseCode = "200",
@@ -303,7 +311,12 @@ public interface ApiVuelo {
                     )
             }
     )
-    ResponseEntity<MensajeRespondeVuelo> obtenerVuelos();
+    ResponseEntity<MensajeRespondeVuelo> obtenerVuelos(
+            @Parameter(description = "Cursor `siguiente` devuelto por la pagina anterior (vacio para la primera pagina)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Cantidad maxima de elementos de la pagina (por defecto y tope segun configuracion)")
+            @RequestParam(required = false) Integer limite
+    );
 
     // ------------------------------------------------------------------------------------
     // OBTENER VUELO POR ID
@@ -352,6 +365,62 @@ public interface ApiVuelo {
     ResponseEntity<MensajeRespondeVuelo> obtenerID(
             @Parameter(description = "ID del vuelo", required = true) @PathVariable Long id);
 
+    // ------------------------------------------------------------------------------------
+    // BUSQUEDA MASIVA DE VUELOS POR IDS (LOOKUP)
+    // ------------------------------------------------------------------------------------
+    @PostMapping("vuelos/lookup")
+    @Operation(
+            summary = "Busqueda masiva de vuelos por sus IDs",
+            description = """
+                    Devuelve en una sola consulta los vuelos cuyos IDs se indican, como un mapa `id -> vuelo`.
+                    Pensado para que otros microservicios (ms-reserva) ensamblen listados sin una llamada por fila.
+                    - Los IDs inexistentes se omiten del mapa.
+                    - Se aceptan como maximo `vuelo.lookupMaxIds` IDs por peticion (por defecto 500).
+                    """,
+            requestBody = @RequestBody(
+                    description = "Lista de IDs de vuelos a buscar.",
+                    required = true,
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(value = "[1, 2, 3]")
+                    )
+            ),
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Vuelos encontrados",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    examples = @ExampleObject(
+                                            value = """
+                                                    {
+                                                      "1": {
+                                                        "id": 1,
+                                                        "codigo": "VUL04",
+                                                        "origen": "salta",
+                                                        "destino": "jujuy",
+                                                        "fechaSalida": "2025-12-01T10:15:00",
+                                                        "fechaLlegada": "2025-12-01T12:30:00",
+                                                        "cupoTotal": 50,
+                                                        "cupoReservado": 0
+                                                      }
+                                                    }
+                                                    """
+                                    )
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Se supero la cantidad maxima de IDs por peticion",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ApiResponde.class)
+                            )
+                    )
+            }
+    )
+    ResponseEntity<Map<Long, VueloDTO>> buscarPorIds(@RequestBody List<Long> ids);
+
     // ------------------------------------------------------------------------------------
     // BUSCAR VUELOS POR DESTINO
     // ------------------------------------------------------------------------------------
@@ -446,6 +515,45 @@ public interface ApiVuelo {
     ResponseEntity<MensajeRespondeVuelo> confirmarReservaVuelo(
             @Parameter(description = "ID del vuelo", required = true) @PathVariable Long id);
 
+    // ------------------------------------------------------------------------------------
+    // EVENTOS DE ASIENTO (CONSUMIDOR DEL OUTBOX DE MS-RESERVA)
+    // ------------------------------------------------------------------------------------
+    @PostMapping("vuelo/eventos/asientos")
+    @Operation(
+            summary = "Aplicar eventos de asiento publicados por ms-reserva",
+            description = """
+                    Recibe, en orden, los eventos de asiento del outbox de ms-reserva (`delta` +1 reserva, -1 libera).
+                    Es idempotente: un `eventoId` ya procesado devuelve el resultado guardado sin volver a modificar el cupo.
+                    Un vuelo sin lugar o inexistente no corta el lote: el evento queda `RECHAZADO`.
+                    """,
+            requestBody = @RequestBody(
+                    description = "Eventos de asiento en orden de publicacion.",
+                    required = true,
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(value = """
+                                    [
+                                      { "eventoId": "7f0c1a52-0d6e-4c3b-9a43-2b1f2f6c9e10", "vueloId": 1, "delta": 1 },
+                                      { "eventoId": "a1d2c3b4-5e6f-4a7b-8c9d-0e1f2a3b4c5d", "vueloId": 1, "delta": -1,
+                                        "referencia": "7f0c1a52-0d6e-4c3b-9a43-2b1f2f6c9e10" }
+                                    ]
+                                    """)
+                    )
+            ),
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Resultado de cada evento por eventoId (APLICADO, RECHAZADO u OMITIDO)"
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Lista vacia o evento incompleto",
+                            content = @Content(schema = @Schema(implementation = ApiResponde.class))
+                    )
+            }
+    )
+    ResponseEntity<Map<String, ResultadoEventoAsiento>> procesarEventosAsiento(List<EventoAsientoDTO> eventos);
+
     // ------------------------------------------------------------------------------------
     // CANCELAR RESERVA (DECREMENTAR CUPOS RESERVADOS)
     // ------------------------------------------------------------------------------------
@@ -477,4 +585,87 @@ public interface ApiVuelo {
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha
     );
 
+    // ------------------------------------------------------------------------------------
+    // BUSCAR CONEXIONES (ITINERARIOS CON ESCALAS)
+    // ------------------------------------------------------------------------------------
+    @GetMapping("/vuelos/conexiones")
+    @Operation(
+            summary = "Buscar itinerarios con escalas entre dos destinos",
+            description = """
+                    Devuelve los itinerarios que llegan antes al destino, saliendo del origen en la fecha indicada:
+                    - Entre tramos se respeta el tiempo minimo de conexion (`vuelo.conexionMinutosMin`) y la espera maxima (`vuelo.conexionHorasMax`).
+                    - Cada tramo debe tener al menos `pasajeros` asientos libres (cupoTotal - cupoReservado).
+                    - A igual llegada se prefiere el itinerario con menos escalas.
+                    """,
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Itinerarios encontrados (lista vacia si no hay conexiones)",
+                            content = @Content(schema = @Schema(implementation = MensajeRespondeVuelo.class))
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Origen igual al destino o parametros fuera de rango",
+                            content = @Content(schema = @Schema(implementation = ApiResponde.class))
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "No existe el destino de origen o de llegada",
+                            content = @Content(schema = @Schema(implementation = ApiResponde.class))
+                    )
+            }
+    )
+    ResponseEntity<MensajeRespondeVuelo> buscarConexiones(
+            @Parameter(description = "Código del origen", required = true) @RequestParam String origen,
+            @Parameter(description = "Código del destino", required = true) @RequestParam String destino,
+            @Parameter(description = "Fecha de salida del primer tramo (YYYY-MM-DD)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha,
+            @Parameter(description = "Tramos maximos por itinerario (por defecto vuelo.conexionTramosMax)")
+            @RequestParam(required = false) Integer maxTramos,
+            @Parameter(description = "Cantidad de itinerarios (por defecto vuelo.conexionResultados)")
+            @RequestParam(required = false) Integer cantidad,
+            @Parameter(description = "Asientos libres requeridos en cada tramo (por defecto 1)")
+            @RequestParam(required = false) Integer pasajeros
+    );
+
+    // ------------------------------------------------------------------------------------
+    // CALENDARIO DE DISPONIBILIDAD DE UNA RUTA
+    // ------------------------------------------------------------------------------------
+    @GetMapping("/vuelos/calendario")
+    @Operation(
+            summary = "Calendario de disponibilidad de una ruta",
+            description = """
+                    Devuelve, por cada dia de [desde, hasta], la disponibilidad de la ruta origen -> destino:
+                    - vuelos: cantidad de vuelos que salen ese dia.
+                    - asientosMin: asientos libres del vuelo mas lleno.
+                    - asientosLibres: total de asientos libres del dia.
+                    Los dias sin vuelos se devuelven en 0. Se aceptan como maximo `vuelo.calendarioDiasMax` dias (por defecto 62).
+                    """,
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Calendario de la ruta",
+                            content = @Content(schema = @Schema(implementation = MensajeRespondeVuelo.class))
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Rango de fechas invalido o mayor al maximo permitido",
+                            content = @Content(schema = @Schema(implementation = ApiResponde.class))
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "No existe el destino de origen o de llegada",
+                            content = @Content(schema = @Schema(implementation = ApiResponde.class))
+                    )
+            }
+    )
+    ResponseEntity<MensajeRespondeVuelo> calendarioDisponibilidad(
+            @Parameter(description = "Código del origen", required = true) @RequestParam String origen,
+            @Parameter(description = "Código del destino", required = true) @RequestParam String destino,
+            @Parameter(description = "Primer dia (YYYY-MM-DD)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @Parameter(description = "Ultimo dia, inclusive (YYYY-MM-DD)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta
+    );
+
 }
@@ -1,9 +1,11 @@
 package ar.edu.unju.fi.trabajo_final.microservicio_vuelo.controller;
 
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.config.VueloServiceConfiguration;
 import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.dto.VueloMapper;
 import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.entity.Destino;
 import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.payload.MensajeRespondeDestino;
 import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.payload.MensajeRespondeVuelo;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.payload.Pagina;
 import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.service.impl.DestinoServiceImpl;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,6 +23,8 @@ public class DestinoController implements ApiDestino{
     private DestinoServiceImpl destinoService;
     @Autowired
     private VueloMapper destinoMapper;
+    @Autowired
+    private VueloServiceConfiguration configVuelos;
 
     @Override
     public ResponseEntity<MensajeRespondeDestino> crearDestino(@RequestBody Destino destino) {
@@ -52,12 +56,15 @@ public class DestinoController implements ApiDestino{
                 , HttpStatus.CREATED);
     }
     @Override
-    public ResponseEntity<MensajeRespondeDestino> obtenerDestinos() {
-
+    public ResponseEntity<MensajeRespondeDestino> obtenerDestinos(@RequestParam(required = false) String cursor,
+                                                                  @RequestParam(required = false) Integer limite) {
+        int tamanio = Pagina.resolverLimite(limite, configVuelos.getPaginaTamanio(), configVuelos.getPaginaMax());
+        Pagina<Destino> pagina = destinoService.listarPaginados(cursor, tamanio);
         return new ResponseEntity<>(MensajeRespondeDestino.builder()
                 .mensaje("")
                 .destino(null)
-                .destinoLista(destinoMapper.destinoToDestinoDTO(destinoService.listarTodos()))
+                .destinoLista(destinoMapper.destinoToDestinoDTO(pagina.getElementos()))
+                .siguiente(pagina.getSiguiente())
                 .build(), HttpStatus.OK);
     }
     @Override
@@ -1,10 +1,17 @@
 package ar.edu.unju.fi.trabajo_final.microservicio_vuelo.controller;
 
 import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.config.VueloServiceConfiguration;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.dto.EventoAsientoDTO;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.dto.ItinerarioDTO;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.dto.VueloDTO;
 import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.dto.VueloMapper;
 import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.entity.PropiertiesVuelo;
 import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.entity.Vuelo;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.enums.ResultadoEventoAsiento;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.exception.ValidacionException;
 import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.payload.MensajeRespondeVuelo;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.payload.Pagina;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.service.ConexionesService;
 import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.service.impl.VueloServiceImpl;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -18,7 +25,10 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 
 @RestController
@@ -30,6 +40,8 @@ public class VueloController implements ApiVuelo {
     private VueloServiceConfiguration configVuelos;
     @Autowired
     private VueloMapper vueloMapper;
+    @Autowired
+    private ConexionesService conexionesService;
 
     public VueloController(VueloServiceImpl vueloService) {this.vueloService = vueloService;}
 
@@ -66,12 +78,15 @@ public class VueloController implements ApiVuelo {
                 build(),HttpStatus.NO_CONTENT);
     }
     @Override
-    public ResponseEntity<MensajeRespondeVuelo> obtenerVuelos() {
-        List<Vuelo> vuelos= vueloService.obtenerTodosVuelos();
+    public ResponseEntity<MensajeRespondeVuelo> obtenerVuelos(@RequestParam(required = false) String cursor,
+                                                              @RequestParam(required = false) Integer limite) {
+        int tamanio = Pagina.resolverLimite(limite, configVuelos.getPaginaTamanio(), configVuelos.getPaginaMax());
+        Pagina<Vuelo> pagina = vueloService.obtenerVuelosPaginados(cursor, tamanio);
         return new ResponseEntity<>(
                 MensajeRespondeVuelo.builder()
                         .mensaje("Vuelos encontrados existosamente")
-                        .vueloLista(vueloMapper.vueloToVueloDTO(vuelos))
+                        .vueloLista(vueloMapper.vueloToVueloDTO(pagina.getElementos()))
+                        .siguiente(pagina.getSiguiente())
                         .build(),HttpStatus.OK
         );
     }
@@ -87,6 +102,17 @@ public class VueloController implements ApiVuelo {
         );
     }
     @Override
+    public ResponseEntity<Map<Long, VueloDTO>> buscarPorIds(@RequestBody List<Long> ids) {
+        if (ids != null && ids.size() > configVuelos.getLookupMaxIds()) {
+            throw new ValidacionException("No se pueden buscar mas de " + configVuelos.getLookupMaxIds() + " vuelos por peticion.");
+        }
+        Map<Long, VueloDTO> vuelos = new LinkedHashMap<>();
+        for (Vuelo vuelo : vueloService.obtenerPorIds(ids)) {
+            vuelos.put(vuelo.getId(), vueloMapper.vueloToVueloDTO(vuelo));
+        }
+        return new ResponseEntity<>(vuelos, HttpStatus.OK);
+    }
+    @Override
     public ResponseEntity<MensajeRespondeVuelo> obtenerDestino(@PathVariable Long id) {
         List<Vuelo> vuelos = vueloService.obtenerDestino(id);
         return new ResponseEntity<>(
@@ -158,6 +184,11 @@ public class VueloController implements ApiVuelo {
         );
     }
 
+    @Override
+    public ResponseEntity<Map<String, ResultadoEventoAsiento>> procesarEventosAsiento(@RequestBody List<EventoAsientoDTO> eventos) {
+        return new ResponseEntity<>(vueloService.procesarEventosAsiento(eventos), HttpStatus.OK);
+    }
+
     @Override
     public ResponseEntity<MensajeRespondeVuelo> cancelarReservaVuelo(@PathVariable Long id) {
         Vuelo vueloActualizado = vueloService.cancelarReserva(id);
@@ -176,7 +207,7 @@ public class VueloController implements ApiVuelo {
             @RequestParam String destino,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha) {
 
-        List<Vuelo> vuelos = vueloService.buscarVuelosPor(origen, destino, fecha);
+        List<VueloDTO> vuelos = vueloService.buscarVuelosPor(origen, destino, fecha);
 
         String mensaje = vuelos.isEmpty()
                 ? "No se encontraron vuelos para esa ruta y fecha."
@@ -185,7 +216,52 @@ public class VueloController implements ApiVuelo {
         return new ResponseEntity<>(
                 MensajeRespondeVuelo.builder()
                         .mensaje(mensaje)
-                        .vueloLista(vueloMapper.vueloToVueloDTO(vuelos))
+                        .vueloLista(vuelos)
+                        .build(),
+                HttpStatus.OK
+        );
+    }
+
+    @Override
+    public ResponseEntity<MensajeRespondeVuelo> buscarConexiones(
+            @RequestParam String origen,
+            @RequestParam String destino,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha,
+            @RequestParam(required = false) Integer maxTramos,
+            @RequestParam(required = false) Integer cantidad,
+            @RequestParam(required = false) Integer pasajeros) {
+
+        List<ItinerarioDTO> itinerarios = conexionesService.buscarConexiones(origen, destino, fecha, maxTramos, cantidad, pasajeros);
+
+        String mensaje = itinerarios.isEmpty()
+                ? "No se encontraron conexiones para esa ruta y fecha."
+                : "Conexiones encontradas exitosamente.";
+
+        return new ResponseEntity<>(
+                MensajeRespondeVuelo.builder()
+                        .mensaje(mensaje)
+                        .itinerarios(itinerarios)
+                        .build(),
+                HttpStatus.OK
+        );
+    }
+
+    @Override
+    public ResponseEntity<MensajeRespondeVuelo> calendarioDisponibilidad(
+            @RequestParam String origen,
+            @RequestParam String destino,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        if (hasta.isBefore(desde)) {
+            throw new ValidacionException("La fecha hasta no puede ser anterior a la fecha desde.");
+        }
+        if (ChronoUnit.DAYS.between(desde, hasta) >= configVuelos.getCalendarioDiasMax()) {
+            throw new ValidacionException("No se pueden consultar mas de " + configVuelos.getCalendarioDiasMax() + " dias por peticion.");
+        }
+        return new ResponseEntity<>(
+                MensajeRespondeVuelo.builder()
+                        .mensaje("Calendario de disponibilidad generado exitosamente.")
+                        .calendario(vueloService.calendarioDisponibilidad(origen, destino, desde, hasta))
                         .build(),
                 HttpStatus.OK
         );
@@ -0,0 +1,21 @@
+package ar.edu.unju.fi.trabajo_final.microservicio_vuelo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DisponibilidadDiaDTO {
+    private LocalDate fecha;
+    // Vuelos de la ruta que salen ese dia
+    private long vuelos;
+    // Asientos libres (cupoTotal - cupoReservado) del vuelo mas lleno y de todos los vuelos del dia
+    private int asientosMin;
+    private long asientosLibres;
+}
@@ -0,0 +1,22 @@
+package ar.edu.unju.fi.trabajo_final.microservicio_vuelo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Evento de asiento publicado por el outbox de ms-reserva.
+ * {@code delta} es +1 (reservar) o -1 (liberar); en una liberacion {@code referencia}
+ * es el evento de la reserva que la origino, si lo hubo.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventoAsientoDTO {
+    private String eventoId;
+    private Long vueloId;
+    private int delta;
+    private String referencia;
+}
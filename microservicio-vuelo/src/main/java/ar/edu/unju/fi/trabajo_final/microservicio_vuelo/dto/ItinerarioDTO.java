@@ -0,0 +1,24 @@
+package ar.edu.unju.fi.trabajo_final.microservicio_vuelo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItinerarioDTO {
+    // Vuelos en orden de viaje
+    private List<VueloDTO> tramos;
+    private int escalas;
+    private LocalDateTime fechaSalida;
+    private LocalDateTime fechaLlegada;
+    private long duracionMinutos;
+    // Menor cantidad de asientos libres entre los tramos
+    private int asientosDisponibles;
+}
@@ -1,10 +1,14 @@
 package ar.edu.unju.fi.trabajo_final.microservicio_vuelo.dto;
 
 import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.entity.Destino;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class VueloDTO {
     private Long id;
     private String codigo;
@@ -0,0 +1,40 @@
+package ar.edu.unju.fi.trabajo_final.microservicio_vuelo.entity;
+
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.enums.ResultadoEventoAsiento;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Registro de los eventos de asiento ya procesados, con su resultado.
+ * La clave unica sobre {@code evento_id} hace idempotente al consumidor: un evento reenviado
+ * devuelve el mismo resultado sin volver a tocar el cupo.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "eventos_asiento_procesados")
+public class EventoAsientoProcesado {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "evento_id", length = 36, nullable = false, unique = true)
+    private String eventoId;
+
+    @Column(name = "vuelo_id", nullable = false)
+    private Long vueloId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ResultadoEventoAsiento resultado;
+
+    @Column(nullable = false)
+    private LocalDateTime fecha;
+}
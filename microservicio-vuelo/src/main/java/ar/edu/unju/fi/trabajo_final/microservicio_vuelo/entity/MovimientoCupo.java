@@ -0,0 +1,36 @@
+package ar.edu.unju.fi.trabajo_final.microservicio_vuelo.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Movimiento de cupo (+1 confirmacion / -1 cancelacion) aceptado por el inventario en memoria
+ * y todavia no volcado a {@code vuelos.cupo_reservado}.
+ * Es un journal de solo insercion: no hay contencion sobre la fila del vuelo y,
+ * si el servicio se cae, los movimientos pendientes se aplican al arrancar.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "movimientos_cupo", indexes = @Index(name = "idx_movimientos_cupo_vuelo", columnList = "vuelo_id"))
+public class MovimientoCupo {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "vuelo_id", nullable = false)
+    private Long vueloId;
+
+    @Column(nullable = false)
+    private int delta;
+
+    @Column(nullable = false)
+    private LocalDateTime fecha;
+}
@@ -14,7 +14,11 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "vuelos")
+@Table(name = "vuelos", indexes = {
+        @Index(name = "idx_vuelos_fecha_salida", columnList = "fecha_salida"),
+        @Index(name = "idx_vuelos_origen_destino_fecha_salida", columnList = "origen_id, destino_id, fecha_salida"),
+        @Index(name = "idx_vuelos_destino", columnList = "destino_id")
+})
 public class Vuelo {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
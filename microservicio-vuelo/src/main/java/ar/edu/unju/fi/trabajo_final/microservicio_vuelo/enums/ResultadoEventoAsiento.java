@@ -0,0 +1,10 @@
+package ar.edu.unju.fi.trabajo_final.microservicio_vuelo.enums;
+
+/**
+ * Resultado de aplicar un evento de asiento enviado por ms-reserva.
+ * APLICADO: el cupo se modifico. RECHAZADO: el vuelo no existe o no tenia lugar.
+ * OMITIDO: liberacion de un asiento cuya reserva nunca llego a aplicarse.
+ */
+public enum ResultadoEventoAsiento {
+    APLICADO, RECHAZADO, OMITIDO
+}
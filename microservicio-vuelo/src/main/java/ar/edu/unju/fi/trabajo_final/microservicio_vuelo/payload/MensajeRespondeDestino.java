@@ -18,6 +18,8 @@ public class MensajeRespondeDestino {
     private String mensaje;
     private DestinoDTO destino;
     private List<DestinoDTO> destinoLista;
+    // Cursor para pedir la pagina siguiente del listado (null si no hay mas)
+    private String siguiente;
 
 
 }
@@ -1,5 +1,7 @@
 package ar.edu.unju.fi.trabajo_final.microservicio_vuelo.payload;
 
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.dto.DisponibilidadDiaDTO;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.dto.ItinerarioDTO;
 import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.dto.VueloDTO;
 import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.entity.Destino;
 import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.entity.Vuelo;
@@ -18,6 +20,12 @@ public class MensajeRespondeVuelo {
     private String mensaje;
     private VueloDTO vuelo;
     private List<VueloDTO> vueloLista;
+    // Itinerarios con escalas (busqueda de conexiones)
+    private List<ItinerarioDTO> itinerarios;
+    // Disponibilidad por dia de una ruta (calendario)
+    private List<DisponibilidadDiaDTO> calendario;
+    // Cursor para pedir la pagina siguiente del listado (null si no hay mas)
+    private String siguiente;
 
 
 }
@@ -0,0 +1,77 @@
+package ar.edu.unju.fi.trabajo_final.microservicio_vuelo.payload;
+
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.exception.ValidacionException;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Una pagina de un listado paginado por cursor (keyset) sobre el id, de mayor a menor.
+ * {@code siguiente} es un token opaco: el cliente lo reenvia tal cual para pedir la pagina
+ * siguiente y es null cuando ya no quedan elementos.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class Pagina<T> {
+
+    private static final String PREFIJO = "id:";
+
+    private final List<T> elementos;
+    private final String siguiente;
+
+    /**
+     * Arma la pagina a partir de las filas leidas con {@code limite + 1}: la fila sobrante no se
+     * devuelve, solo indica que hay otra pagina.
+     */
+    public static <T> Pagina<T> de(List<T> filas, int limite, Function<T, Long> id) {
+        if (filas.size() <= limite) {
+            return new Pagina<>(filas, null);
+        }
+        List<T> elementos = new ArrayList<>(filas.subList(0, limite));
+        return new Pagina<>(elementos, codificar(id.apply(elementos.get(limite - 1))));
+    }
+
+    /**
+     * @return el id a partir del cual continuar, o null si no se envio cursor (primera pagina).
+     * @throws ValidacionException Si el cursor no fue generado por este servicio.
+     */
+    public static Long decodificar(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (valor.startsWith(PREFIJO)) {
+                return Long.valueOf(valor.substring(PREFIJO.length()));
+            }
+        } catch (IllegalArgumentException e) {
+            // Base64 o numero invalido: se informa igual que un prefijo desconocido
+        }
+        throw new ValidacionException("El cursor de paginacion no es valido.");
+    }
+
+    /**
+     * Tamaño de pagina a usar: {@code porDefecto} si no se indica, nunca mayor que {@code maximo}.
+     * @throws ValidacionException Si el limite pedido es menor que 1.
+     */
+    public static int resolverLimite(Integer pedido, int porDefecto, int maximo) {
+        if (pedido == null) {
+            return Math.min(porDefecto, maximo);
+        }
+        if (pedido < 1) {
+            throw new ValidacionException("El limite de la pagina debe ser mayor que 0.");
+        }
+        return Math.min(pedido, maximo);
+    }
+
+    static String codificar(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIJO + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,9 +1,13 @@
 package ar.edu.unju.fi.trabajo_final.microservicio_vuelo.repository;
 
 import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.entity.Destino;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,5 +16,21 @@ public interface DestinoRepository extends JpaRepository<Destino,Long> {
     Optional<Destino> findById(Long id);
     Optional<List<Destino>> findByNombre(String nombre);
     Optional<Destino> findByCodigo(String codigo);
+
+    /**
+     * Cuales de los codigos indicados existen (una sola consulta).
+     */
+    @Query("select d.codigo from Destino d where d.codigo in :codigos")
+    List<String> findCodigosExistentes(@Param("codigos") Collection<String> codigos);
     Optional<List<Destino>> findByPais(String pais);
+
+    /**
+     * Primera pagina del listado de destinos (id descendente).
+     */
+    List<Destino> findAllByOrderByIdDesc(Pageable pageable);
+
+    /**
+     * Paginas siguientes del listado: los destinos con id menor al ultimo devuelto.
+     */
+    List<Destino> findByIdLessThanOrderByIdDesc(Long id, Pageable pageable);
 }
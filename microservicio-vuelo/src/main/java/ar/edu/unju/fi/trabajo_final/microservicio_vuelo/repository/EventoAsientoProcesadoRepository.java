@@ -0,0 +1,14 @@
+package ar.edu.unju.fi.trabajo_final.microservicio_vuelo.repository;
+
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.entity.EventoAsientoProcesado;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EventoAsientoProcesadoRepository extends JpaRepository<EventoAsientoProcesado, Long> {
+
+    List<EventoAsientoProcesado> findByEventoIdIn(Collection<String> eventoIds);
+}
@@ -0,0 +1,31 @@
+package ar.edu.unju.fi.trabajo_final.microservicio_vuelo.repository;
+
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.entity.MovimientoCupo;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface MovimientoCupoRepository extends JpaRepository<MovimientoCupo, Long> {
+
+    /**
+     * Suma de los movimientos pendientes de un vuelo (0 si no hay ninguno).
+     */
+    @Query("select coalesce(sum(m.delta), 0) from MovimientoCupo m where m.vueloId = :vueloId")
+    long sumarPendientes(@Param("vueloId") Long vueloId);
+
+    /**
+     * Suma de los movimientos pendientes de cada vuelo que tenga alguno: {@code [vueloId, suma]}.
+     */
+    @Query("select m.vueloId, sum(m.delta) from MovimientoCupo m group by m.vueloId")
+    List<Object[]> sumarPendientesPorVuelo();
+
+    /**
+     * Movimientos pendientes en orden de llegada, de a una pagina por volcado.
+     */
+    List<MovimientoCupo> findAllByOrderByIdAsc(Pageable pageable);
+}
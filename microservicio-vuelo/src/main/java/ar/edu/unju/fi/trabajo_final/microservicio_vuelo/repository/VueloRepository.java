@@ -1,11 +1,20 @@
 package ar.edu.unju.fi.trabajo_final.microservicio_vuelo.repository;
 
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.dto.DisponibilidadDiaDTO;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.dto.VueloDTO;
 import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.entity.Destino;
 import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.entity.Vuelo;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,10 +23,98 @@ public interface VueloRepository extends JpaRepository<Vuelo, Long> {
 
     Optional<Vuelo> findById(Long id);
     Optional<Vuelo> findByCodigo(String codigo);
+
+    @Query("select v from Vuelo v join fetch v.origen join fetch v.destino where v.id in :ids")
+    List<Vuelo> findAllConDestinosByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Catalogo completo con origen y destino en la misma consulta (carga del indice en memoria).
+     */
+    @Query("select v from Vuelo v join fetch v.origen join fetch v.destino")
+    List<Vuelo> findAllConDestinos();
+
+    /**
+     * Vuelos con salida en [desde, hasta] con origen y destino, ordenados por salida
+     * (busqueda de conexiones cuando el indice en memoria no esta activo).
+     */
+    @Query("select v from Vuelo v join fetch v.origen join fetch v.destino " +
+            "where v.fechaSalida between :desde and :hasta order by v.fechaSalida, v.id")
+    List<Vuelo> findConDestinosBySalidaEntre(@Param("desde") LocalDateTime desde, @Param("hasta") LocalDateTime hasta);
+
+    /**
+     * Primera pagina del listado de vuelos (id descendente), con origen y destino en la misma consulta.
+     */
+    @EntityGraph(attributePaths = {"origen", "destino"})
+    List<Vuelo> findAllByOrderByIdDesc(Pageable pageable);
+
+    /**
+     * Paginas siguientes del listado: los vuelos con id menor al ultimo devuelto.
+     */
+    @EntityGraph(attributePaths = {"origen", "destino"})
+    List<Vuelo> findByIdLessThanOrderByIdDesc(Long id, Pageable pageable);
+
+    /**
+     * Suma un cupo reservado solo si el vuelo todavia tiene lugar.
+     * La condicion se evalua en la misma sentencia UPDATE, por lo que dos confirmaciones
+     * concurrentes nunca pueden superar cupoTotal.
+     * @return cantidad de filas actualizadas: 1 si se reservo el cupo, 0 si el vuelo no existe o esta lleno.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Vuelo v set v.cupoReservado = v.cupoReservado + 1 where v.id = :id and v.cupoReservado < v.cupoTotal")
+    int incrementarCupoReservado(@Param("id") Long id);
+
+    /**
+     * Libera un cupo reservado solo si hay alguno (nunca deja cupoReservado negativo).
+     * @return cantidad de filas actualizadas: 1 si se libero el cupo, 0 si el vuelo no existe o no tenia cupos reservados.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Vuelo v set v.cupoReservado = v.cupoReservado - 1 where v.id = :id and v.cupoReservado > 0")
+    int decrementarCupoReservado(@Param("id") Long id);
+
+    /**
+     * Aplica de una vez un lote de movimientos de cupo ya validados por el inventario en memoria.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Vuelo v set v.cupoReservado = v.cupoReservado + :delta where v.id = :id")
+    int sumarCupoReservado(@Param("id") Long id, @Param("delta") int delta);
+
     List<Vuelo> findByDestino_Id(Long idDestinoDestino);
     List<Vuelo> findByOrigen_Id(Long idDestinoOrigen);
     List<Vuelo> findByFechaSalida(LocalDateTime fecha);
     List<Vuelo> findByFechaSalidaBetween(LocalDateTime fechaMin, LocalDateTime fechaMax);
+    /**
+     * Busqueda de vuelos por ruta en una sola consulta: une origen y destino por su codigo y devuelve
+     * directamente los DTO (origen/destino con el mismo formato que {@code VueloMapper.combinarDestino}),
+     * sin cargar entidades. Usa el indice (origen_id, destino_id, fecha_salida).
+     * @param desde Salida desde este momento (inclusive).
+     * @param hasta Salida antes de este momento (exclusive).
+     */
+    @Query("select new ar.edu.unju.fi.trabajo_final.microservicio_vuelo.dto.VueloDTO(v.id, v.codigo, " +
+            "concat('(', o.codigo, ')- ', o.pais, ': ', o.nombre), concat('(', d.codigo, ')- ', d.pais, ': ', d.nombre), " +
+            "v.fechaSalida, v.fechaLlegada, v.cupoTotal, v.cupoReservado) " +
+            "from Vuelo v join v.origen o join v.destino d " +
+            "where o.codigo = :origen and d.codigo = :destino and v.fechaSalida >= :desde and v.fechaSalida < :hasta " +
+            "order by v.fechaSalida, v.id")
+    List<VueloDTO> buscarRuta(@Param("origen") String origenCodigo, @Param("destino") String destinoCodigo,
+                              @Param("desde") LocalDateTime desde, @Param("hasta") LocalDateTime hasta);
+
+    /**
+     * Calendario de disponibilidad de una ruta agrupado por dia de salida en una sola consulta
+     * (mismo indice que {@link #buscarRuta}). Solo devuelve los dias con vuelos.
+     * @param desde Salida desde este momento (inclusive).
+     * @param hasta Salida antes de este momento (exclusive).
+     */
+    @Query("select new ar.edu.unju.fi.trabajo_final.microservicio_vuelo.dto.DisponibilidadDiaDTO(" +
+            "cast(v.fechaSalida as LocalDate), count(v), min(v.cupoTotal - v.cupoReservado), sum(v.cupoTotal - v.cupoReservado)) " +
+            "from Vuelo v join v.origen o join v.destino d " +
+            "where o.codigo = :origen and d.codigo = :destino and v.fechaSalida >= :desde and v.fechaSalida < :hasta " +
+            "group by cast(v.fechaSalida as LocalDate) order by cast(v.fechaSalida as LocalDate)")
+    List<DisponibilidadDiaDTO> calendarioRuta(@Param("origen") String origenCodigo, @Param("destino") String destinoCodigo,
+                                              @Param("desde") LocalDateTime desde, @Param("hasta") LocalDateTime hasta);
+
     List<Vuelo> findByOrigenAndDestinoAndFechaSalidaBetween(
             Destino origen,
             Destino destino,
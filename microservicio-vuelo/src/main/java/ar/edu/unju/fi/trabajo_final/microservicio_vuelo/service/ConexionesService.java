@@ -0,0 +1,34 @@
+package ar.edu.unju.fi.trabajo_final.microservicio_vuelo.service;
+
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.dto.ItinerarioDTO;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.exception.ElementoNoEncontradoException;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.exception.ValidacionException;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Busqueda de itinerarios con escalas: los destinos son los nodos y cada vuelo una arista que solo
+ * puede tomarse si sale despues de la llegada del tramo anterior mas el tiempo minimo de conexion
+ * ({@code vuelo.conexionMinutosMin}) y antes de la espera maxima ({@code vuelo.conexionHorasMax}).
+ */
+public interface ConexionesService {
+
+    /**
+     * Devuelve los {@code cantidad} itinerarios que llegan antes, con salida del origen en la fecha indicada.
+     * A igual llegada se prefiere el de menos tramos.
+     *
+     * @param origenCodigo Codigo del destino de origen.
+     * @param destinoCodigo Codigo del destino de llegada.
+     * @param fecha Fecha de salida del primer tramo (todo el dia).
+     * @param maxTramos Tramos maximos por itinerario (null: {@code vuelo.conexionTramosMax}).
+     * @param cantidad Itinerarios a devolver (null: {@code vuelo.conexionResultados}).
+     * @param pasajeros Asientos libres requeridos en cada tramo (null: 1).
+     * @return Itinerarios ordenados por llegada; vacia si no hay ninguno.
+     * @throws ValidacionException Si origen y destino coinciden o algun limite esta fuera de rango.
+     * @throws ElementoNoEncontradoException Si no hay itinerarios y alguno de los codigos no existe.
+     */
+    List<ItinerarioDTO> buscarConexiones(String origenCodigo, String destinoCodigo, LocalDate fecha,
+                                         Integer maxTramos, Integer cantidad, Integer pasajeros)
+            throws ValidacionException, ElementoNoEncontradoException;
+}
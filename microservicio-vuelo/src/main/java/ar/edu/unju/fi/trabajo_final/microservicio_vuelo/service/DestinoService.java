@@ -3,6 +3,8 @@ package ar.edu.unju.fi.trabajo_final.microservicio_vuelo.service;
 import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.entity.Destino;
 import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.exception.ElementoExistenteExcepction;
 import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.exception.ElementoNoEncontradoException;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.exception.ValidacionException;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.payload.Pagina;
 
 import java.util.List;
 
@@ -17,11 +19,14 @@ public interface DestinoService {
     Destino crear(Destino destino) throws ElementoExistenteExcepction;
 
     /**
-     * Obtiene una lista con todos los destinos registrados en el sistema.
+     * Obtiene una pagina del listado de destinos, del id mas alto al mas bajo (paginacion por cursor).
      *
-     * @return Una lista de todos los destinos.
+     * @param cursor El cursor {@code siguiente} de la pagina anterior, o null para la primera pagina.
+     * @param limite Cantidad maxima de destinos de la pagina.
+     * @return La pagina con los destinos y el cursor de la siguiente.
+     * @throws ValidacionException Si el cursor no es valido.
      */
-    List<Destino> listarTodos();
+    Pagina<Destino> listarPaginados(String cursor, int limite);
 
     /**
      * Busca un destino por su identificador unico.
@@ -0,0 +1,76 @@
+package ar.edu.unju.fi.trabajo_final.microservicio_vuelo.service;
+
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.entity.Vuelo;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Indice de lectura en memoria del catalogo de vuelos (opcional, {@code vuelo.indiceHabilitado}).
+ * Se carga al arrancar y se mantiene con cada alta/modificacion/baja y cambio de cupo confirmado;
+ * las busquedas por ruta, origen, destino y fecha de salida se resuelven con busqueda binaria sobre
+ * arreglos ordenados por fechaSalida, sin consultar la base.
+ * Los cambios de otra instancia de ms-vuelo se ven recien en la proxima recarga ({@code vuelo.indiceRecargaMs}).
+ * Los vuelos devueltos son copias: modificarlos no altera el indice.
+ */
+public interface IndiceVuelosService {
+
+    /**
+     * @return true si el indice esta activo y ya se cargo; si no, las busquedas deben ir a la base.
+     */
+    boolean isHabilitado();
+
+    /**
+     * Vuelos de la ruta con salida en [desde, hasta], ordenados por fechaSalida.
+     *
+     * @param origenCodigo Codigo del destino de origen.
+     * @param destinoCodigo Codigo del destino de llegada.
+     */
+    List<Vuelo> buscarRuta(String origenCodigo, String destinoCodigo, LocalDateTime desde, LocalDateTime hasta);
+
+    /**
+     * Vuelos que salen del destino indicado, ordenados por fechaSalida.
+     */
+    List<Vuelo> porOrigen(Long destinoId);
+
+    /**
+     * Vuelos que salen del destino indicado con salida en [desde, hasta], ordenados por fechaSalida
+     * (lista de adyacencia de la busqueda de conexiones).
+     */
+    List<Vuelo> porOrigen(Long destinoId, LocalDateTime desde, LocalDateTime hasta);
+
+    /**
+     * Vuelos que llegan al destino indicado, ordenados por fechaSalida.
+     */
+    List<Vuelo> porDestino(Long destinoId);
+
+    /**
+     * Vuelos con salida en [desde, hasta], ordenados por fechaSalida.
+     */
+    List<Vuelo> porSalida(LocalDateTime desde, LocalDateTime hasta);
+
+    /**
+     * Agrega o reemplaza un vuelo (con origen y destino completos) al confirmarse la transaccion en curso.
+     */
+    void guardar(Vuelo vuelo);
+
+    /**
+     * Quita un vuelo al confirmarse la transaccion en curso.
+     */
+    void quitar(Long vueloId);
+
+    /**
+     * Suma {@code delta} al cupo reservado del vuelo al confirmarse la transaccion en curso.
+     */
+    void sumarCupo(Long vueloId, int delta);
+
+    /**
+     * Fija el cupo reservado del vuelo (valor informado por el inventario en memoria) al confirmarse la transaccion en curso.
+     */
+    void fijarCupo(Long vueloId, int cupoReservado);
+
+    /**
+     * Vuelve a armar el indice completo desde la base (al confirmarse la transaccion en curso, si hay una).
+     */
+    void recargar();
+}
@@ -0,0 +1,69 @@
+package ar.edu.unju.fi.trabajo_final.microservicio_vuelo.service;
+
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.exception.ElementoNoEncontradoException;
+
+/**
+ * Inventario de asientos en memoria para vuelos con mucha demanda (opcional, {@code vuelo.inventarioHabilitado}).
+ * Las confirmaciones se validan contra un contador por vuelo y se registran en un journal de solo insercion;
+ * un proceso periodico vuelca el journal a {@code cupoReservado}.
+ * Los contadores viven en memoria: esta pensado para una unica instancia de ms-vuelo.
+ */
+public interface InventarioAsientosService {
+
+    /**
+     * @return true si el inventario en memoria esta activo.
+     */
+    boolean isHabilitado();
+
+    /**
+     * Intenta tomar {@code asientos} asientos del vuelo sin superar cupoTotal (todos o ninguno).
+     * Si la transaccion del llamador se revierte, los asientos vuelven al contador.
+     *
+     * @param vueloId El ID del vuelo.
+     * @param asientos Cantidad de asientos a tomar (mayor a 0).
+     * @return La cantidad de cupos reservados luego de la operacion, o -1 si no hay lugar suficiente.
+     * @throws ElementoNoEncontradoException Si el vuelo no existe.
+     */
+    int reservar(Long vueloId, int asientos) throws ElementoNoEncontradoException;
+
+    /**
+     * Libera hasta {@code asientos} asientos del vuelo (nunca baja de 0).
+     * Los asientos quedan disponibles recien cuando confirma la transaccion del llamador.
+     *
+     * @param vueloId El ID del vuelo.
+     * @param asientos Cantidad de asientos a liberar (mayor a 0).
+     * @return La cantidad de cupos reservados luego de la operacion.
+     * @throws ElementoNoEncontradoException Si el vuelo no existe.
+     */
+    int liberar(Long vueloId, int asientos) throws ElementoNoEncontradoException;
+
+    /**
+     * Aplica al contador en memoria la modificacion de un vuelo cuando confirma la transaccion:
+     * nuevo cupoTotal y la diferencia de cupoReservado escrita en la fila.
+     *
+     * @param vueloId El ID del vuelo.
+     * @param cupoTotal El nuevo cupo total.
+     * @param diferenciaReservados Cupo reservado nuevo menos el que tenia la fila.
+     */
+    void ajustar(Long vueloId, int cupoTotal, int diferenciaReservados);
+
+    /**
+     * Descarta el contador en memoria de un vuelo eliminado, cuando confirma la transaccion.
+     *
+     * @param vueloId El ID del vuelo.
+     */
+    void invalidar(Long vueloId);
+
+    /**
+     * Vuelca los movimientos pendientes del journal a {@code vuelos.cupo_reservado}.
+     *
+     * @return La cantidad de movimientos volcados.
+     */
+    int volcar();
+
+    /**
+     * Paso de arranque: aplica todo lo que haya quedado en el journal (por ejemplo tras una caida)
+     * y corrige contra la base los contadores en memoria que no tengan movimientos en curso.
+     */
+    void reconciliar();
+}
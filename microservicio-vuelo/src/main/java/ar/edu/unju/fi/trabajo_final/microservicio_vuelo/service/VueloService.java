@@ -1,11 +1,18 @@
 package ar.edu.unju.fi.trabajo_final.microservicio_vuelo.service;
 
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.dto.DisponibilidadDiaDTO;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.dto.EventoAsientoDTO;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.dto.VueloDTO;
 import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.entity.Vuelo;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.enums.ResultadoEventoAsiento;
 import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.exception.*;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.payload.Pagina;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Servicio que define las operaciones principales relacionadas con la gestion de vuelos.
@@ -48,11 +55,15 @@ public interface VueloService {
     void eliminar(Long id) throws ElementoNoEncontradoException;
 
     /**
-     * Obtiene todos los vuelos registrados en el sistema.
+     * Obtiene una pagina del listado de vuelos, del id mas alto al mas bajo.
+     * Pagina por cursor sobre el id (sin OFFSET) y trae origen y destino en la misma consulta.
      *
-     * @return Una lista de todos los vuelos existentes.
+     * @param cursor El cursor {@code siguiente} de la pagina anterior, o null para la primera pagina.
+     * @param limite Cantidad maxima de vuelos de la pagina.
+     * @return La pagina con los vuelos y el cursor de la siguiente.
+     * @throws ValidacionException Si el cursor no es valido.
      */
-    List<Vuelo> obtenerTodosVuelos();
+    Pagina<Vuelo> obtenerVuelosPaginados(String cursor, int limite);
 
     /**
      * Busca un vuelo especifico por su identificador unico.
@@ -63,6 +74,16 @@ public interface VueloService {
      */
     Vuelo obtenerPorId(Long id) throws ElementoNoEncontradoException;
 
+    /**
+     * Busca en una sola consulta (incluyendo origen y destino) todos los vuelos cuyos IDs se indican.
+     * Los IDs que no existen se omiten (no se lanza excepcion), de modo que
+     * el llamador puede detectar los faltantes comparando contra el resultado.
+     *
+     * @param ids Los IDs de los vuelos a buscar.
+     * @return Una lista con los vuelos encontrados (sin orden garantizado).
+     */
+    List<Vuelo> obtenerPorIds(Collection<Long> ids);
+
     /**
      * Obtiene todos los vuelos cuyo origen coincida con el ID indicado.
      *
@@ -123,13 +144,42 @@ public interface VueloService {
     Vuelo cancelarReserva(Long idVuelo)
             throws ElementoNoEncontradoException;
 
+    /**
+     * Consumidor de los eventos de asiento publicados por el outbox de ms-reserva.
+     * Los eventos se aplican en el orden recibido y cada uno una sola vez: un evento ya procesado
+     * devuelve el resultado guardado sin volver a modificar el cupo. Un vuelo sin lugar o inexistente
+     * no corta el lote, el evento queda RECHAZADO.
+     *
+     * @param eventos Eventos a aplicar, en orden de publicacion.
+     * @return Resultado de cada evento, por {@code eventoId}.
+     * @throws ValidacionException Si la lista esta vacia o algun evento esta incompleto.
+     */
+    Map<String, ResultadoEventoAsiento> procesarEventosAsiento(List<EventoAsientoDTO> eventos)
+            throws ValidacionException;
+
     /**
      * Busca vuelos basados en códigos de origen, destino y una fecha específica.
      *
      * @param origenCodigo Código del aeropuerto de origen (ej. "JUJ").
      * @param destinoCodigo Código del aeropuerto de destino (ej. "AEP").
      * @param fecha La fecha de salida (se buscará en un rango de 24h).
-     * @return Una lista de vuelos que coinciden.
+     * @return Una lista de vuelos que coinciden, ya armados como DTO.
+     * @throws ElementoNoEncontradoException Si no hay vuelos y alguno de los códigos no existe.
+     */
+    List<VueloDTO> buscarVuelosPor(String origenCodigo, String destinoCodigo, LocalDate fecha);
+
+    /**
+     * Calendario de disponibilidad de una ruta: por cada dia de [desde, hasta] la cantidad de vuelos,
+     * los asientos libres del vuelo mas lleno y el total de asientos libres. Los dias sin vuelos van en 0.
+     * Con el indice en memoria se arma a partir del cupo vigente de cada vuelo; si no, con una consulta agrupada.
+     *
+     * @param origenCodigo Código del destino de origen.
+     * @param destinoCodigo Código del destino de llegada.
+     * @param desde Primer dia (inclusive).
+     * @param hasta Ultimo dia (inclusive).
+     * @return Un elemento por dia, en orden.
+     * @throws ElementoNoEncontradoException Si no hay vuelos en el rango y alguno de los códigos no existe.
      */
-    List<Vuelo> buscarVuelosPor(String origenCodigo, String destinoCodigo, LocalDate fecha);
+    List<DisponibilidadDiaDTO> calendarioDisponibilidad(String origenCodigo, String destinoCodigo,
+                                                        LocalDate desde, LocalDate hasta);
 }
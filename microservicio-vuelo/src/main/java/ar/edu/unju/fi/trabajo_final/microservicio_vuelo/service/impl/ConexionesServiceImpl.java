@@ -0,0 +1,236 @@
+package ar.edu.unju.fi.trabajo_final.microservicio_vuelo.service.impl;
+
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.config.VueloServiceConfiguration;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.dto.ItinerarioDTO;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.dto.VueloMapper;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.entity.Destino;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.entity.Vuelo;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.exception.ElementoNoEncontradoException;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.exception.ValidacionException;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.repository.DestinoRepository;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.repository.VueloRepository;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.service.ConexionesService;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.service.IndiceVuelosService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+@Service
+public class ConexionesServiceImpl implements ConexionesService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConexionesServiceImpl.class);
+
+    /**
+     * Itinerario a medio armar: el ultimo tramo indica donde y a que hora se esta.
+     */
+    private record Parcial(List<Vuelo> tramos, int asientos) {
+        Vuelo ultimo() {
+            return tramos.get(tramos.size() - 1);
+        }
+
+        LocalDateTime llegada() {
+            return ultimo().getFechaLlegada();
+        }
+    }
+
+    /**
+     * Aristas salientes de un destino con salida en [desde, hasta], ordenadas por salida.
+     */
+    @FunctionalInterface
+    private interface Salidas {
+        List<Vuelo> de(Long destinoId, LocalDateTime desde, LocalDateTime hasta);
+    }
+
+    // Primero el que llega antes; a igual llegada, el de menos tramos y despues el que sale mas tarde
+    private static final Comparator<Parcial> POR_LLEGADA = Comparator
+            .comparing(Parcial::llegada)
+            .thenComparingInt(parcial -> parcial.tramos().size())
+            .thenComparing(parcial -> parcial.tramos().get(0).getFechaSalida(), Comparator.reverseOrder());
+
+    private final VueloRepository vueloRepository;
+    private final DestinoRepository destinoRepository;
+    private final IndiceVuelosService indiceVuelos;
+    private final VueloServiceConfiguration configVuelos;
+    private final VueloMapper vueloMapper;
+
+    public ConexionesServiceImpl(VueloRepository vueloRepository, DestinoRepository destinoRepository,
+                                 IndiceVuelosService indiceVuelos, VueloServiceConfiguration configVuelos,
+                                 VueloMapper vueloMapper) {
+        this.vueloRepository = vueloRepository;
+        this.destinoRepository = destinoRepository;
+        this.indiceVuelos = indiceVuelos;
+        this.configVuelos = configVuelos;
+        this.vueloMapper = vueloMapper;
+    }
+
+    @Override
+    public List<ItinerarioDTO> buscarConexiones(String origenCodigo, String destinoCodigo, LocalDate fecha,
+                                                Integer maxTramos, Integer cantidad, Integer pasajeros)
+            throws ValidacionException, ElementoNoEncontradoException {
+
+        int tramos = limite(maxTramos, configVuelos.getConexionTramosMax(), configVuelos.getConexionTramosMax(), "maxTramos");
+        int resultados = limite(cantidad, configVuelos.getConexionResultados(), configVuelos.getConexionResultadosMax(), "cantidad");
+        int asientos = limite(pasajeros, 1, Integer.MAX_VALUE, "pasajeros");
+        if (origenCodigo.equals(destinoCodigo)) {
+            throw new ValidacionException("El origen y el destino deben ser distintos.");
+        }
+        Destino origen = destinoRepository.findByCodigo(origenCodigo)
+                .orElseThrow(() -> new ElementoNoEncontradoException("No se encontró el destino de origen con código: " + origenCodigo));
+
+        LocalDateTime inicioDia = fecha.atStartOfDay();
+        LocalDateTime finDia = fecha.plusDays(1).atStartOfDay().minusNanos(1);
+        List<ItinerarioDTO> itinerarios = buscar(salidas(inicioDia, tramos), origen, destinoCodigo,
+                inicioDia, finDia, tramos, resultados, asientos);
+
+        // Solo sin resultados se distingue "no hay conexiones" de "codigo inexistente"
+        if (itinerarios.isEmpty() && destinoRepository.findCodigosExistentes(List.of(destinoCodigo)).isEmpty()) {
+            throw new ElementoNoEncontradoException("No se encontró el destino de llegada con código: " + destinoCodigo);
+        }
+        return itinerarios;
+    }
+
+    /**
+     * Busqueda por orden de llegada sobre el grafo dependiente del tiempo: se expande siempre el itinerario
+     * parcial que llega antes, asi los primeros {@code resultados} que alcanzan el destino son los mejores.
+     * Se poda al agregar: sin asientos, destinos ya visitados, ultimo tramo que no llega al destino y
+     * parciales que llegan despues del peor de los {@code resultados} completos ya encontrados.
+     */
+    private List<ItinerarioDTO> buscar(Salidas salidas, Destino origen, String destinoCodigo,
+                                       LocalDateTime inicioDia, LocalDateTime finDia,
+                                       int maxTramos, int resultados, int asientos) {
+        Duration conexionMin = Duration.ofMinutes(configVuelos.getConexionMinutosMin());
+        Duration esperaMax = Duration.ofHours(configVuelos.getConexionHorasMax());
+        PriorityQueue<Parcial> pendientes = new PriorityQueue<>(POR_LLEGADA);
+        // Llegadas de los mejores completos encontrados hasta ahora (la cabeza es la peor)
+        PriorityQueue<LocalDateTime> mejores = new PriorityQueue<>(Comparator.reverseOrder());
+
+        for (Vuelo vuelo : salidas.de(origen.getId(), inicioDia, finDia)) {
+            agregar(pendientes, mejores, List.of(), vuelo, Integer.MAX_VALUE, origen.getId(), destinoCodigo, maxTramos, resultados, asientos);
+        }
+
+        List<ItinerarioDTO> itinerarios = new ArrayList<>();
+        int expansiones = 0;
+        while (!pendientes.isEmpty() && itinerarios.size() < resultados) {
+            Parcial parcial = pendientes.poll();
+            Vuelo ultimo = parcial.ultimo();
+            if (ultimo.getDestino().getCodigo().equals(destinoCodigo)) {
+                itinerarios.add(itinerario(parcial));
+                continue;
+            }
+            if (++expansiones > configVuelos.getConexionExpansionesMax()) {
+                logger.debug("Busqueda de conexiones {} -> {} cortada en {} expansiones.",
+                        origen.getCodigo(), destinoCodigo, configVuelos.getConexionExpansionesMax());
+                break;
+            }
+            LocalDateTime llegada = ultimo.getFechaLlegada();
+            for (Vuelo vuelo : salidas.de(ultimo.getDestino().getId(), llegada.plus(conexionMin), llegada.plus(esperaMax))) {
+                agregar(pendientes, mejores, parcial.tramos(), vuelo, parcial.asientos(), origen.getId(), destinoCodigo, maxTramos, resultados, asientos);
+            }
+        }
+        return itinerarios;
+    }
+
+    private static void agregar(PriorityQueue<Parcial> pendientes, PriorityQueue<LocalDateTime> mejores,
+                                List<Vuelo> previos, Vuelo vuelo, int asientosPrevios, Long origenId,
+                                String destinoCodigo, int maxTramos, int resultados, int asientos) {
+        int libres = vuelo.getCupoTotal() - vuelo.getCupoReservado();
+        if (libres < asientos) {
+            return;
+        }
+        boolean llega = vuelo.getDestino().getCodigo().equals(destinoCodigo);
+        // El ultimo tramo permitido solo sirve si termina en el destino
+        if (!llega && previos.size() + 1 >= maxTramos) {
+            return;
+        }
+        if (mejores.size() == resultados && vuelo.getFechaLlegada().isAfter(mejores.peek())) {
+            return;
+        }
+        if (visitado(previos, vuelo.getDestino().getId(), origenId)) {
+            return;
+        }
+        List<Vuelo> tramos = new ArrayList<>(previos.size() + 1);
+        tramos.addAll(previos);
+        tramos.add(vuelo);
+        pendientes.add(new Parcial(tramos, Math.min(asientosPrevios, libres)));
+        if (llega) {
+            mejores.add(vuelo.getFechaLlegada());
+            if (mejores.size() > resultados) {
+                mejores.poll();
+            }
+        }
+    }
+
+    private static boolean visitado(List<Vuelo> tramos, Long destinoId, Long origenId) {
+        if (destinoId.equals(origenId)) {
+            return true;
+        }
+        for (Vuelo tramo : tramos) {
+            if (tramo.getDestino().getId().equals(destinoId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Con el indice activo las aristas salen de memoria. Si no, se trae de una vez la ventana de salidas
+     * que puede alcanzar la busqueda (el dia mas la espera maxima por cada escala, con un dia de margen
+     * por tramo para la duracion del vuelo) y se agrupa por origen.
+     */
+    private Salidas salidas(LocalDateTime inicioDia, int maxTramos) {
+        if (indiceVuelos.isHabilitado()) {
+            return indiceVuelos::porOrigen;
+        }
+        LocalDateTime hasta = inicioDia.plusDays(maxTramos)
+                .plusHours((long) configVuelos.getConexionHorasMax() * (maxTramos - 1));
+        Map<Long, List<Vuelo>> porOrigen = new HashMap<>();
+        for (Vuelo vuelo : vueloRepository.findConDestinosBySalidaEntre(inicioDia, hasta)) {
+            porOrigen.computeIfAbsent(vuelo.getOrigen().getId(), id -> new ArrayList<>()).add(vuelo);
+        }
+        return (destinoId, desde, hastaSalida) -> {
+            List<Vuelo> rango = new ArrayList<>();
+            for (Vuelo vuelo : porOrigen.getOrDefault(destinoId, List.of())) {
+                if (vuelo.getFechaSalida().isAfter(hastaSalida)) {
+                    break;
+                }
+                if (!vuelo.getFechaSalida().isBefore(desde)) {
+                    rango.add(vuelo);
+                }
+            }
+            return rango;
+        };
+    }
+
+    private ItinerarioDTO itinerario(Parcial parcial) {
+        Vuelo primero = parcial.tramos().get(0);
+        Vuelo ultimo = parcial.ultimo();
+        return ItinerarioDTO.builder()
+                .tramos(vueloMapper.vueloToVueloDTO(parcial.tramos()))
+                .escalas(parcial.tramos().size() - 1)
+                .fechaSalida(primero.getFechaSalida())
+                .fechaLlegada(ultimo.getFechaLlegada())
+                .duracionMinutos(Duration.between(primero.getFechaSalida(), ultimo.getFechaLlegada()).toMinutes())
+                .asientosDisponibles(parcial.asientos())
+                .build();
+    }
+
+    private static int limite(Integer valor, int porDefecto, int maximo, String nombre) {
+        if (valor == null) {
+            return porDefecto;
+        }
+        if (valor < 1 || valor > maximo) {
+            throw new ValidacionException("El parámetro " + nombre + " debe estar entre 1 y " + maximo + ".");
+        }
+        return valor;
+    }
+}
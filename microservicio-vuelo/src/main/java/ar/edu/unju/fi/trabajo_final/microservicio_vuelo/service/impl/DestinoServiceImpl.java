@@ -3,8 +3,11 @@ package ar.edu.unju.fi.trabajo_final.microservicio_vuelo.service.impl;
 import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.entity.Destino;
 import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.exception.ElementoExistenteExcepction;
 import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.exception.ElementoNoEncontradoException;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.payload.Pagina;
 import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.repository.DestinoRepository;
 import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.service.DestinoService;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.service.IndiceVuelosService;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -13,7 +16,11 @@ import java.util.List;
 @Service
 public class DestinoServiceImpl implements DestinoService {
     private final  DestinoRepository destinoRepository;
-    public DestinoServiceImpl(DestinoRepository destinoRepository) {this.destinoRepository = destinoRepository;}
+    private final IndiceVuelosService indiceVuelos;
+    public DestinoServiceImpl(DestinoRepository destinoRepository, IndiceVuelosService indiceVuelos) {
+        this.destinoRepository = destinoRepository;
+        this.indiceVuelos = indiceVuelos;
+    }
 
     @Override
     @Transactional
@@ -24,8 +31,13 @@ public class DestinoServiceImpl implements DestinoService {
         return destinoRepository.save(destino);
     }
     @Override
-    public List<Destino> listarTodos() {
-        return destinoRepository.findAll();
+    public Pagina<Destino> listarPaginados(String cursor, int limite) {
+        Long despuesDe = Pagina.decodificar(cursor);
+        PageRequest pagina = PageRequest.of(0, limite + 1);
+        List<Destino> filas = despuesDe == null
+                ? destinoRepository.findAllByOrderByIdDesc(pagina)
+                : destinoRepository.findByIdLessThanOrderByIdDesc(despuesDe, pagina);
+        return Pagina.de(filas, limite, Destino::getId);
     }
     @Override
     public Destino buscarPorID(long id) throws  ElementoNoEncontradoException {
@@ -64,7 +76,10 @@ public class DestinoServiceImpl implements DestinoService {
         destinoId.setCodigo(destino.getCodigo());
         destinoId.setPais(destino.getPais().toLowerCase());
         destinoId.setNombre(destino.getNombre().toLowerCase());
-        return destinoRepository.save(destinoId);
+        Destino destinoActualizado = destinoRepository.save(destinoId);
+        // Los vuelos indexados guardan el codigo y nombre del destino
+        indiceVuelos.recargar();
+        return destinoActualizado;
     }
     @Override
     @Transactional
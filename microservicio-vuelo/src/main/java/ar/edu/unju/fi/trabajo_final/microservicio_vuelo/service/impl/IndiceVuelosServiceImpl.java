@@ -0,0 +1,366 @@
+package ar.edu.unju.fi.trabajo_final.microservicio_vuelo.service.impl;
+
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.config.VueloServiceConfiguration;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.entity.Vuelo;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.repository.MovimientoCupoRepository;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.repository.VueloRepository;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.service.IndiceVuelosService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+@Service
+public class IndiceVuelosServiceImpl implements IndiceVuelosService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndiceVuelosServiceImpl.class);
+
+    /**
+     * Un vuelo indexado: los datos no cambian (una modificacion crea otra Entrada) y el cupo reservado
+     * se actualiza en el lugar, sin rearmar los arreglos.
+     */
+    private static final class Entrada {
+        private final Vuelo datos;
+        private final AtomicInteger reservados;
+
+        private Entrada(Vuelo datos, int reservados) {
+            this.datos = datos;
+            this.reservados = new AtomicInteger(reservados);
+        }
+    }
+
+    private record Ruta(String origen, String destino) {}
+
+    /**
+     * Foto inmutable del indice. Los lectores la toman sin locks; cada escritura arma una nueva
+     * copiando solo los arreglos de las claves que tocan al vuelo modificado.
+     */
+    private record Indice(Map<Long, Entrada> porId, Map<Ruta, Entrada[]> porRuta, Map<Long, Entrada[]> porOrigen,
+                          Map<Long, Entrada[]> porDestino, Entrada[] porSalida) {}
+
+    private static final Entrada[] VACIO = new Entrada[0];
+    private static final Comparator<Entrada> POR_SALIDA = Comparator
+            .comparing((Entrada entrada) -> entrada.datos.getFechaSalida())
+            .thenComparing(entrada -> entrada.datos.getId());
+
+    private final VueloRepository vueloRepository;
+    private final MovimientoCupoRepository movimientoCupoRepository;
+    private final VueloServiceConfiguration configVuelos;
+    // null hasta la primera carga
+    private volatile Indice indice;
+    // Una recarga a la vez; los cambios no toman este lock mientras la recarga lee la base
+    private final Object recarga = new Object();
+    // Cambios aplicados mientras una recarga lee la base (null si no hay ninguna). Protegido por this
+    private List<Runnable> cambiosDuranteCarga;
+
+    public IndiceVuelosServiceImpl(VueloRepository vueloRepository, MovimientoCupoRepository movimientoCupoRepository,
+                                   VueloServiceConfiguration configVuelos) {
+        this.vueloRepository = vueloRepository;
+        this.movimientoCupoRepository = movimientoCupoRepository;
+        this.configVuelos = configVuelos;
+    }
+
+    @Override
+    public boolean isHabilitado() {
+        return configVuelos.isIndiceHabilitado() && indice != null;
+    }
+
+    @Override
+    public List<Vuelo> buscarRuta(String origenCodigo, String destinoCodigo, LocalDateTime desde, LocalDateTime hasta) {
+        return rango(indice.porRuta().getOrDefault(new Ruta(origenCodigo, destinoCodigo), VACIO), desde, hasta);
+    }
+
+    @Override
+    public List<Vuelo> porOrigen(Long destinoId) {
+        return copias(indice.porOrigen().getOrDefault(destinoId, VACIO), 0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Vuelo> porOrigen(Long destinoId, LocalDateTime desde, LocalDateTime hasta) {
+        return rango(indice.porOrigen().getOrDefault(destinoId, VACIO), desde, hasta);
+    }
+
+    @Override
+    public List<Vuelo> porDestino(Long destinoId) {
+        return copias(indice.porDestino().getOrDefault(destinoId, VACIO), 0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Vuelo> porSalida(LocalDateTime desde, LocalDateTime hasta) {
+        return rango(indice.porSalida(), desde, hasta);
+    }
+
+    @Override
+    public void guardar(Vuelo vuelo) {
+        Vuelo datos = copia(vuelo, 0);
+        int reservados = vuelo.getCupoReservado();
+        // Cada aplicacion crea su Entrada: si se repite sobre un indice recargado no comparte el contador con el anterior
+        alConfirmar(() -> aplicar(() -> reemplazar(vuelo.getId(), new Entrada(datos, reservados))));
+    }
+
+    @Override
+    public void quitar(Long vueloId) {
+        alConfirmar(() -> aplicar(() -> reemplazar(vueloId, null)));
+    }
+
+    @Override
+    public void sumarCupo(Long vueloId, int delta) {
+        alConfirmar(() -> aplicar(() -> {
+            Entrada entrada = entrada(vueloId);
+            if (entrada != null) {
+                entrada.reservados.addAndGet(delta);
+            }
+        }));
+    }
+
+    @Override
+    public void fijarCupo(Long vueloId, int cupoReservado) {
+        alConfirmar(() -> aplicar(() -> {
+            Entrada entrada = entrada(vueloId);
+            if (entrada != null) {
+                entrada.reservados.set(cupoReservado);
+            }
+        }));
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public void recargar() {
+        // Dentro de una transaccion (por ejemplo, al modificar un destino) se espera a que confirme
+        alConfirmar(this::cargar);
+    }
+
+    /**
+     * Arma el indice completo desde la base. Los cambios confirmados mientras lee se siguen aplicando al indice
+     * anterior y quedan anotados; al publicar el nuevo (con el mismo lock que {@link #reemplazar}) se repiten
+     * sobre el, asi no se pierden hasta la proxima recarga. Un {@code sumarCupo} cuya transaccion confirmo justo
+     * antes de empezar la lectura puede contarse dos veces; lo corrige la recarga siguiente.
+     */
+    private void cargar() {
+        synchronized (recarga) {
+            if (!configVuelos.isIndiceHabilitado()) {
+                synchronized (this) {
+                    indice = null;
+                }
+                return;
+            }
+            synchronized (this) {
+                cambiosDuranteCarga = new ArrayList<>();
+            }
+            try {
+                // Con el inventario en memoria la fila del vuelo va atrasada: se suman los movimientos sin volcar
+                Map<Long, Long> pendientes = new HashMap<>();
+                for (Object[] fila : movimientoCupoRepository.sumarPendientesPorVuelo()) {
+                    pendientes.put((Long) fila[0], ((Number) fila[1]).longValue());
+                }
+                List<Entrada> entradas = new ArrayList<>();
+                for (Vuelo vuelo : vueloRepository.findAllConDestinos()) {
+                    int reservados = (int) (vuelo.getCupoReservado() + pendientes.getOrDefault(vuelo.getId(), 0L));
+                    entradas.add(new Entrada(copia(vuelo, 0), reservados));
+                }
+                Indice nuevo = armar(entradas);
+                int repetidos;
+                synchronized (this) {
+                    indice = nuevo;
+                    cambiosDuranteCarga.forEach(Runnable::run);
+                    repetidos = cambiosDuranteCarga.size();
+                }
+                logger.debug("Indice de vuelos cargado: {} vuelos, {} rutas, {} cambios repetidos.",
+                        nuevo.porId().size(), nuevo.porRuta().size(), repetidos);
+            } finally {
+                synchronized (this) {
+                    cambiosDuranteCarga = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Aplica un cambio al indice vigente y, si hay una recarga leyendo la base, lo anota para repetirlo
+     * sobre el indice que esa recarga va a publicar.
+     */
+    private synchronized void aplicar(Runnable cambio) {
+        cambio.run();
+        if (cambiosDuranteCarga != null) {
+            cambiosDuranteCarga.add(cambio);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${vuelo.indiceRecargaMs:60000}", initialDelayString = "${vuelo.indiceRecargaMs:60000}")
+    public void recargarPeriodicamente() {
+        try {
+            recargar();
+        } catch (RuntimeException e) {
+            // Se sigue usando el indice anterior hasta la proxima recarga
+            logger.warn("No se pudo recargar el indice de vuelos: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Los cambios se aplican recien cuando la transaccion confirma: si se revierte, el indice no se toca.
+     */
+    private void alConfirmar(Runnable cambio) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cambio.run();
+                }
+            });
+        } else {
+            cambio.run();
+        }
+    }
+
+    private Entrada entrada(Long vueloId) {
+        Indice actual = indice;
+        return actual == null ? null : actual.porId().get(vueloId);
+    }
+
+    /**
+     * Saca la entrada anterior del vuelo (si habia) y agrega la nueva (si no es null), rearmando solo
+     * los arreglos de su ruta, origen, destino y el de salidas.
+     */
+    private synchronized void reemplazar(Long vueloId, Entrada nueva) {
+        Indice actual = indice;
+        if (actual == null) {
+            return;
+        }
+        Entrada anterior = actual.porId().get(vueloId);
+        Map<Long, Entrada> porId = new HashMap<>(actual.porId());
+        Map<Ruta, Entrada[]> porRuta = new HashMap<>(actual.porRuta());
+        Map<Long, Entrada[]> porOrigen = new HashMap<>(actual.porOrigen());
+        Map<Long, Entrada[]> porDestino = new HashMap<>(actual.porDestino());
+        Entrada[] porSalida = actual.porSalida();
+        if (anterior != null) {
+            porId.remove(vueloId);
+            porRuta.computeIfPresent(ruta(anterior), (clave, entradas) -> sin(entradas, anterior));
+            porOrigen.computeIfPresent(anterior.datos.getOrigen().getId(), (clave, entradas) -> sin(entradas, anterior));
+            porDestino.computeIfPresent(anterior.datos.getDestino().getId(), (clave, entradas) -> sin(entradas, anterior));
+            porSalida = sin(porSalida, anterior);
+        }
+        if (nueva != null) {
+            porId.put(vueloId, nueva);
+            porRuta.compute(ruta(nueva), (clave, entradas) -> con(entradas, nueva));
+            porOrigen.compute(nueva.datos.getOrigen().getId(), (clave, entradas) -> con(entradas, nueva));
+            porDestino.compute(nueva.datos.getDestino().getId(), (clave, entradas) -> con(entradas, nueva));
+            porSalida = con(porSalida, nueva);
+        }
+        indice = new Indice(porId, porRuta, porOrigen, porDestino, porSalida == null ? VACIO : porSalida);
+    }
+
+    private static Indice armar(List<Entrada> entradas) {
+        entradas.sort(POR_SALIDA);
+        Map<Long, Entrada> porId = new HashMap<>();
+        entradas.forEach(entrada -> porId.put(entrada.datos.getId(), entrada));
+        return new Indice(porId,
+                agrupar(entradas, IndiceVuelosServiceImpl::ruta),
+                agrupar(entradas, entrada -> entrada.datos.getOrigen().getId()),
+                agrupar(entradas, entrada -> entrada.datos.getDestino().getId()),
+                entradas.toArray(VACIO));
+    }
+
+    /**
+     * Agrupa entradas ya ordenadas por salida: cada arreglo conserva ese orden.
+     */
+    private static <K> Map<K, Entrada[]> agrupar(List<Entrada> ordenadas, Function<Entrada, K> clave) {
+        Map<K, List<Entrada>> grupos = new HashMap<>();
+        ordenadas.forEach(entrada -> grupos.computeIfAbsent(clave.apply(entrada), k -> new ArrayList<>()).add(entrada));
+        Map<K, Entrada[]> arreglos = new HashMap<>();
+        grupos.forEach((k, lista) -> arreglos.put(k, lista.toArray(VACIO)));
+        return arreglos;
+    }
+
+    private static Ruta ruta(Entrada entrada) {
+        return new Ruta(entrada.datos.getOrigen().getCodigo(), entrada.datos.getDestino().getCodigo());
+    }
+
+    /**
+     * Copia del arreglo con la entrada insertada en su posicion (busqueda binaria por salida e id).
+     */
+    private static Entrada[] con(Entrada[] entradas, Entrada nueva) {
+        Entrada[] origen = entradas == null ? VACIO : entradas;
+        int posicion = Arrays.binarySearch(origen, nueva, POR_SALIDA);
+        posicion = posicion < 0 ? -posicion - 1 : posicion;
+        Entrada[] copia = new Entrada[origen.length + 1];
+        System.arraycopy(origen, 0, copia, 0, posicion);
+        copia[posicion] = nueva;
+        System.arraycopy(origen, posicion, copia, posicion + 1, origen.length - posicion);
+        return copia;
+    }
+
+    /**
+     * Copia del arreglo sin la entrada; null si queda vacio (asi el mapa descarta la clave).
+     */
+    private static Entrada[] sin(Entrada[] entradas, Entrada quitada) {
+        int posicion = Arrays.binarySearch(entradas, quitada, POR_SALIDA);
+        if (posicion < 0) {
+            return entradas;
+        }
+        if (entradas.length == 1) {
+            return null;
+        }
+        Entrada[] copia = new Entrada[entradas.length - 1];
+        System.arraycopy(entradas, 0, copia, 0, posicion);
+        System.arraycopy(entradas, posicion + 1, copia, posicion, entradas.length - posicion - 1);
+        return copia;
+    }
+
+    private static List<Vuelo> rango(Entrada[] entradas, LocalDateTime desde, LocalDateTime hasta) {
+        return copias(entradas, primeraPosterior(entradas, desde, false), primeraPosterior(entradas, hasta, true));
+    }
+
+    /**
+     * Primera posicion cuya salida es posterior a {@code fecha} (o igual, si {@code estricto} es false).
+     */
+    private static int primeraPosterior(Entrada[] entradas, LocalDateTime fecha, boolean estricto) {
+        int desde = 0;
+        int hasta = entradas.length;
+        while (desde < hasta) {
+            int medio = (desde + hasta) >>> 1;
+            int comparacion = entradas[medio].datos.getFechaSalida().compareTo(fecha);
+            if (comparacion < 0 || (estricto && comparacion == 0)) {
+                desde = medio + 1;
+            } else {
+                hasta = medio;
+            }
+        }
+        return desde;
+    }
+
+    private static List<Vuelo> copias(Entrada[] entradas, int desde, int hasta) {
+        int fin = Math.min(hasta, entradas.length);
+        List<Vuelo> vuelos = new ArrayList<>(Math.max(0, fin - desde));
+        for (int i = desde; i < fin; i++) {
+            vuelos.add(copia(entradas[i].datos, entradas[i].reservados.get()));
+        }
+        return vuelos;
+    }
+
+    private static Vuelo copia(Vuelo vuelo, int cupoReservado) {
+        return Vuelo.builder()
+                .id(vuelo.getId())
+                .codigo(vuelo.getCodigo())
+                .origen(vuelo.getOrigen())
+                .destino(vuelo.getDestino())
+                .fechaSalida(vuelo.getFechaSalida())
+                .fechaLlegada(vuelo.getFechaLlegada())
+                .cupoTotal(vuelo.getCupoTotal())
+                .cupoReservado(cupoReservado)
+                .build();
+    }
+}
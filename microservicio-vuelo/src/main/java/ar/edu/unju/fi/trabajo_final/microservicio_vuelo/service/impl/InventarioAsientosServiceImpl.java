@@ -0,0 +1,284 @@
+package ar.edu.unju.fi.trabajo_final.microservicio_vuelo.service.impl;
+
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.config.VueloServiceConfiguration;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.entity.MovimientoCupo;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.entity.Vuelo;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.exception.ElementoNoEncontradoException;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.repository.MovimientoCupoRepository;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.repository.VueloRepository;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.service.InventarioAsientosService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntConsumer;
+
+@Service
+public class InventarioAsientosServiceImpl implements InventarioAsientosService {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventarioAsientosServiceImpl.class);
+
+    /**
+     * Contador de un vuelo: el tope se controla con compare-and-set sobre {@code reservados}, sin locks.
+     * - Una reserva toma el asiento en el acto y lo devuelve si su transaccion se revierte.
+     * - Una liberacion se descuenta recien cuando su transaccion confirma; mientras tanto queda en {@code liberando}.
+     * - {@code enCurso} cuenta los movimientos cuya transaccion no termino: la base todavia no los refleja.
+     */
+    private static final class Contador {
+        private volatile int cupoTotal;
+        private final AtomicInteger reservados;
+        private final AtomicInteger enCurso = new AtomicInteger();
+        // Protegido por el monitor del contador
+        private int liberando;
+
+        private Contador(int cupoTotal, int reservados) {
+            this.cupoTotal = cupoTotal;
+            this.reservados = new AtomicInteger(reservados);
+        }
+    }
+
+    private final VueloRepository vueloRepository;
+    private final MovimientoCupoRepository movimientoCupoRepository;
+    private final VueloServiceConfiguration configVuelos;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<Long, Contador> contadores = new ConcurrentHashMap<>();
+    // El volcado y la carga de un contador leen cupoReservado + journal: no deben intercalarse
+    private final ReentrantLock volcado = new ReentrantLock();
+
+    public InventarioAsientosServiceImpl(VueloRepository vueloRepository, MovimientoCupoRepository movimientoCupoRepository,
+                                         VueloServiceConfiguration configVuelos, PlatformTransactionManager transactionManager) {
+        this.vueloRepository = vueloRepository;
+        this.movimientoCupoRepository = movimientoCupoRepository;
+        this.configVuelos = configVuelos;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public boolean isHabilitado() {
+        return configVuelos.isInventarioHabilitado();
+    }
+
+    @Override
+    public int reservar(Long vueloId, int asientos) throws ElementoNoEncontradoException {
+        Contador contador = contador(vueloId);
+        // Primero enCurso y despues el asiento: la reconciliacion nunca ve el asiento sin el movimiento abierto
+        contador.enCurso.incrementAndGet();
+        int actual;
+        do {
+            actual = contador.reservados.get();
+            if (actual + asientos > contador.cupoTotal) {
+                contador.enCurso.decrementAndGet();
+                return -1;
+            }
+        } while (!contador.reservados.compareAndSet(actual, actual + asientos));
+        registrarMovimiento(vueloId, asientos, estado -> {
+            if (estado == TransactionSynchronization.STATUS_ROLLED_BACK) {
+                contador.reservados.addAndGet(-asientos);
+            }
+            contador.enCurso.decrementAndGet();
+        });
+        return actual + asientos;
+    }
+
+    @Override
+    public int liberar(Long vueloId, int asientos) throws ElementoNoEncontradoException {
+        Contador contador = contador(vueloId);
+        contador.enCurso.incrementAndGet();
+        int liberados;
+        int restantes;
+        synchronized (contador) {
+            // Los asientos de otras liberaciones sin confirmar no se pueden volver a liberar
+            liberados = Math.min(asientos, contador.reservados.get() - contador.liberando);
+            if (liberados <= 0) {
+                contador.enCurso.decrementAndGet();
+                return 0;
+            }
+            contador.liberando += liberados;
+            restantes = contador.reservados.get() - contador.liberando;
+        }
+        int cantidad = liberados;
+        registrarMovimiento(vueloId, -cantidad, estado -> {
+            synchronized (contador) {
+                contador.liberando -= cantidad;
+                if (estado == TransactionSynchronization.STATUS_COMMITTED) {
+                    contador.reservados.addAndGet(-cantidad);
+                }
+            }
+            contador.enCurso.decrementAndGet();
+        });
+        return restantes;
+    }
+
+    @Override
+    public void ajustar(Long vueloId, int cupoTotal, int diferenciaReservados) {
+        alConfirmar(() -> {
+            Contador contador = contadores.get(vueloId);
+            if (contador != null) {
+                contador.cupoTotal = cupoTotal;
+                contador.reservados.addAndGet(diferenciaReservados);
+            }
+        });
+    }
+
+    @Override
+    public void invalidar(Long vueloId) {
+        alConfirmar(() -> contadores.remove(vueloId));
+    }
+
+    @Override
+    public int volcar() {
+        volcado.lock();
+        try {
+            Integer volcados = transactionTemplate.execute(status -> {
+                List<MovimientoCupo> lote = movimientoCupoRepository.findAllByOrderByIdAsc(
+                        PageRequest.of(0, configVuelos.getInventarioVolcadoLote()));
+                if (lote.isEmpty()) {
+                    return 0;
+                }
+                Map<Long, Integer> deltas = new HashMap<>();
+                for (MovimientoCupo movimiento : lote) {
+                    deltas.merge(movimiento.getVueloId(), movimiento.getDelta(), Integer::sum);
+                }
+                deltas.forEach((vueloId, delta) -> {
+                    if (delta != 0) {
+                        vueloRepository.sumarCupoReservado(vueloId, delta);
+                    }
+                });
+                // Se borran exactamente los movimientos leidos: los que lleguen mientras tanto quedan para el proximo volcado
+                movimientoCupoRepository.deleteAllInBatch(lote);
+                return lote.size();
+            });
+            return volcados == null ? 0 : volcados;
+        } finally {
+            volcado.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${vuelo.inventarioVolcadoMs:500}")
+    public void volcarPeriodicamente() {
+        if (!isHabilitado()) {
+            return;
+        }
+        while (volcar() >= configVuelos.getInventarioVolcadoLote()) {
+            // quedan mas movimientos pendientes: se sigue volcando
+        }
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconciliar() {
+        // Se ejecuta aunque el inventario este deshabilitado: puede haber movimientos de una ejecucion anterior
+        int total = 0;
+        int volcados;
+        do {
+            volcados = volcar();
+            total += volcados;
+        } while (volcados > 0);
+        if (total > 0) {
+            logger.warn("RECONCILIACION: se aplicaron {} movimientos de cupo pendientes.", total);
+        }
+        contadores.forEach(this::reconciliar);
+    }
+
+    /**
+     * Corrige un contador contra la base sin sacarlo del mapa: las peticiones en curso lo siguen usando.
+     * Solo se toca si no tiene movimientos abiertos y no cambio mientras se leia la base (compare-and-set).
+     */
+    private void reconciliar(Long vueloId, Contador contador) {
+        int actual = contador.reservados.get();
+        if (contador.enCurso.get() > 0) {
+            return;
+        }
+        Contador enBase;
+        try {
+            enBase = cargar(vueloId);
+        } catch (ElementoNoEncontradoException e) {
+            contadores.remove(vueloId, contador);
+            return;
+        }
+        contador.cupoTotal = enBase.cupoTotal;
+        int esperado = enBase.reservados.get();
+        if (actual != esperado && contador.reservados.compareAndSet(actual, esperado)) {
+            logger.warn("RECONCILIACION: el contador del vuelo {} paso de {} a {} cupos reservados.", vueloId, actual, esperado);
+        }
+    }
+
+    private Contador contador(Long vueloId) {
+        Contador contador = contadores.get(vueloId);
+        if (contador != null) {
+            return contador;
+        }
+        // La carga consulta la base: se hace fuera de computeIfAbsent para no bloquear el mapa
+        Contador cargado = cargar(vueloId);
+        Contador previo = contadores.putIfAbsent(vueloId, cargado);
+        return previo != null ? previo : cargado;
+    }
+
+    private Contador cargar(Long vueloId) {
+        volcado.lock();
+        try {
+            Vuelo vuelo = vueloRepository.findById(vueloId)
+                    .orElseThrow(() -> new ElementoNoEncontradoException("No existe vuelo con id: " + vueloId));
+            long pendientes = movimientoCupoRepository.sumarPendientes(vueloId);
+            return new Contador(vuelo.getCupoTotal(), (int) (vuelo.getCupoReservado() + pendientes));
+        } finally {
+            volcado.unlock();
+        }
+    }
+
+    /**
+     * Inserta el movimiento en el journal dentro de la transaccion del llamador e informa como termino
+     * (un {@code TransactionSynchronization.STATUS_*}). Sin transaccion el insert ya quedo confirmado.
+     */
+    private void registrarMovimiento(Long vueloId, int delta, IntConsumer alTerminar) {
+        try {
+            movimientoCupoRepository.save(MovimientoCupo.builder()
+                    .vueloId(vueloId)
+                    .delta(delta)
+                    .fecha(LocalDateTime.now())
+                    .build());
+        } catch (RuntimeException e) {
+            // Si no se pudo registrar, el asiento no se tomo/libero
+            alTerminar.accept(TransactionSynchronization.STATUS_ROLLED_BACK);
+            throw e;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    alTerminar.accept(status);
+                }
+            });
+        } else {
+            alTerminar.accept(TransactionSynchronization.STATUS_COMMITTED);
+        }
+    }
+
+    private void alConfirmar(Runnable cambio) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cambio.run();
+                }
+            });
+        } else {
+            cambio.run();
+        }
+    }
+}
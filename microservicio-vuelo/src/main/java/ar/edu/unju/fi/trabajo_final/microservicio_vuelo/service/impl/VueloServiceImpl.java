@@ -1,60 +1,114 @@
 package ar.edu.unju.fi.trabajo_final.microservicio_vuelo.service.impl;
 
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.dto.DisponibilidadDiaDTO;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.dto.EventoAsientoDTO;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.dto.VueloDTO;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.dto.VueloMapper;
 import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.entity.Destino;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.entity.EventoAsientoProcesado;
 import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.entity.Vuelo;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.enums.ResultadoEventoAsiento;
 import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.exception.ElementoExistenteExcepction;
 import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.exception.ElementoNoEncontradoException;
 import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.exception.ValidacionException;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.payload.Pagina;
 import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.repository.DestinoRepository;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.repository.EventoAsientoProcesadoRepository;
 import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.repository.VueloRepository;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.service.IndiceVuelosService;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.service.InventarioAsientosService;
 import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.service.VueloService;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class VueloServiceImpl implements VueloService {
     private final VueloRepository vueloRepository;
     private final DestinoRepository destinoRepository;
+    private final InventarioAsientosService inventarioAsientos;
+    private final EventoAsientoProcesadoRepository eventosProcesados;
+    private final IndiceVuelosService indiceVuelos;
+    private final VueloMapper vueloMapper;
 
-    public VueloServiceImpl(VueloRepository vueloRepository,  DestinoRepository destinoRepository) {
+    public VueloServiceImpl(VueloRepository vueloRepository,  DestinoRepository destinoRepository, InventarioAsientosService inventarioAsientos,
+                            EventoAsientoProcesadoRepository eventosProcesados, IndiceVuelosService indiceVuelos, VueloMapper vueloMapper) {
         this.vueloRepository = vueloRepository;
         this.destinoRepository = destinoRepository;
+        this.inventarioAsientos = inventarioAsientos;
+        this.eventosProcesados = eventosProcesados;
+        this.indiceVuelos = indiceVuelos;
+        this.vueloMapper = vueloMapper;
     }
     @Override
     @Transactional
     public Vuelo crear(Vuelo unVuelo) throws ElementoNoEncontradoException, ValidacionException {
         vueloRepository.findByCodigo(unVuelo.getCodigo()).ifPresent(x -> {throw new ElementoExistenteExcepction("Ya existe un Vuelo con código: " + unVuelo.getCodigo());});
-        destinoRepository.findById(unVuelo.getDestino().getId()).orElseThrow(() -> new ElementoNoEncontradoException("Destino no registrado ID: "+unVuelo.getDestino().getId()));
-        destinoRepository.findById(unVuelo.getOrigen().getId()).orElseThrow(() ->new ElementoNoEncontradoException("Origen no registrado ID: "+unVuelo.getOrigen().getId()));
+        cargarDestinos(unVuelo);
         validacionVuelo(unVuelo);
-        return vueloRepository.save(unVuelo);
+        Vuelo vueloCreado = vueloRepository.save(unVuelo);
+        indiceVuelos.guardar(vueloCreado);
+        return vueloCreado;
     }
     @Override
     @Transactional
     public Vuelo actualizar(Vuelo unVuelo) throws ElementoNoEncontradoException, ValidacionException,ElementoExistenteExcepction {
-        vueloRepository.findById(unVuelo.getId()).orElseThrow(() -> new ElementoNoEncontradoException("Vuelo no existe"));
+        int cupoAnterior = vueloRepository.findById(unVuelo.getId())
+                .orElseThrow(() -> new ElementoNoEncontradoException("Vuelo no existe")).getCupoReservado();
         vueloRepository.findByCodigo(unVuelo.getCodigo()).ifPresent(x -> {
             if (!x.getId().equals(unVuelo.getId())) {
                 throw new ElementoExistenteExcepction("Ya existe un Vuelo con código: " + unVuelo.getCodigo());
             }
         });
-        destinoRepository.findById(unVuelo.getDestino().getId()).orElseThrow(() -> new ElementoNoEncontradoException("Destino no registrado ID: "+unVuelo.getDestino().getId()));
-        destinoRepository.findById(unVuelo.getOrigen().getId()).orElseThrow(() ->new ElementoNoEncontradoException("Origen no registrado ID: "+unVuelo.getOrigen().getId()));
+        cargarDestinos(unVuelo);
         validacionVuelo(unVuelo);
-        return vueloRepository.save(unVuelo);
+        Vuelo vueloActualizado = vueloRepository.save(unVuelo);
+        inventarioAsientos.ajustar(vueloActualizado.getId(), vueloActualizado.getCupoTotal(),
+                vueloActualizado.getCupoReservado() - cupoAnterior);
+        indiceVuelos.guardar(vueloActualizado);
+        return vueloActualizado;
+    }
+
+    /**
+     * Reemplaza el origen/destino recibidos (solo con ID) por los registrados: el vuelo guardado
+     * queda con los datos completos para la respuesta y el indice en memoria.
+     */
+    private void cargarDestinos(Vuelo unVuelo) {
+        Long destinoId = unVuelo.getDestino().getId();
+        Long origenId = unVuelo.getOrigen().getId();
+        unVuelo.setDestino(destinoRepository.findById(destinoId).orElseThrow(() -> new ElementoNoEncontradoException("Destino no registrado ID: "+destinoId)));
+        unVuelo.setOrigen(destinoRepository.findById(origenId).orElseThrow(() ->new ElementoNoEncontradoException("Origen no registrado ID: "+origenId)));
     }
     @Override
     @Transactional
     public void eliminar(Long id) throws ElementoNoEncontradoException {
         vueloRepository.findById(id).ifPresentOrElse(vueloRepository::delete,
                 ()->{throw new ElementoNoEncontradoException("No existe Vuelo con ID : " + id);});
+        inventarioAsientos.invalidar(id);
+        indiceVuelos.quitar(id);
     }
     @Override
-    public List<Vuelo> obtenerTodosVuelos() {return vueloRepository.findAll();}
+    @Transactional(readOnly = true)
+    public Pagina<Vuelo> obtenerVuelosPaginados(String cursor, int limite) {
+        Long despuesDe = Pagina.decodificar(cursor);
+        // Una fila de mas indica si hay otra pagina
+        PageRequest pagina = PageRequest.of(0, limite + 1);
+        List<Vuelo> filas = despuesDe == null
+                ? vueloRepository.findAllByOrderByIdDesc(pagina)
+                : vueloRepository.findByIdLessThanOrderByIdDesc(despuesDe, pagina);
+        return Pagina.de(filas, limite, Vuelo::getId);
+    }
     @Override
     public Vuelo obtenerPorId(Long id) throws ElementoNoEncontradoException {
         Vuelo vuelo;
@@ -62,8 +116,16 @@ public class VueloServiceImpl implements VueloService {
         return vuelo;
     }
     @Override
+    @Transactional(readOnly = true)
+    public List<Vuelo> obtenerPorIds(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        return vueloRepository.findAllConDestinosByIdIn(ids);
+    }
+    @Override
     public List<Vuelo> obtenerOrigen (Long id) throws ElementoNoEncontradoException {
-        List<Vuelo> listaVuelo = vueloRepository.findByOrigen_Id(id);
+        List<Vuelo> listaVuelo = indiceVuelos.isHabilitado() ? indiceVuelos.porOrigen(id) : vueloRepository.findByOrigen_Id(id);
         if (listaVuelo.isEmpty()) {
             throw new ElementoNoEncontradoException("No existen vuelos cuyo Origen tenga el ID: " + id);
         }
@@ -71,7 +133,7 @@ public class VueloServiceImpl implements VueloService {
     }
     @Override
     public List<Vuelo> obtenerDestino (Long id) throws ElementoNoEncontradoException{
-        List<Vuelo> listaVuelo = vueloRepository.findByDestino_Id(id);
+        List<Vuelo> listaVuelo = indiceVuelos.isHabilitado() ? indiceVuelos.porDestino(id) : vueloRepository.findByDestino_Id(id);
         if (listaVuelo.isEmpty()) {
             throw new ElementoNoEncontradoException("No existen vuelos cuyo Destino tenga el ID: " + id);
         }
@@ -79,11 +141,17 @@ public class VueloServiceImpl implements VueloService {
     }
     @Override
     public List<Vuelo> buscarPorFechaDeSalida(LocalDateTime fechaExacta){
+        if (indiceVuelos.isHabilitado()) {
+            return indiceVuelos.porSalida(fechaExacta, fechaExacta);
+        }
         return vueloRepository.findByFechaSalida(fechaExacta);
     }
     @Override
     public List<Vuelo> buscarPorFechaDeSalida(LocalDateTime fechaMin, LocalDateTime fechaMax)throws ValidacionException{
         if(fechaMin.isBefore(fechaMax)){
+            if (indiceVuelos.isHabilitado()) {
+                return indiceVuelos.porSalida(fechaMin, fechaMax);
+            }
             return vueloRepository.findByFechaSalidaBetween(fechaMin, fechaMax);
         }else{
             throw new ValidacionException("Fecha de salida invalido:\n Rango invalido["+fechaMin+","+fechaMax+"]");
@@ -104,15 +172,24 @@ public class VueloServiceImpl implements VueloService {
     public Vuelo confirmarReserva(Long idVuelo)
             throws ElementoNoEncontradoException, ValidacionException {
 
-        Vuelo vuelo = vueloRepository.findById(idVuelo)
-                .orElseThrow(() -> new ElementoNoEncontradoException("No existe vuelo con id: " + idVuelo));
-
-        if (vuelo.getCupoReservado() + 1 > vuelo.getCupoTotal()) {
+        if (inventarioAsientos.isHabilitado()) {
+            int reservados = inventarioAsientos.reservar(idVuelo, 1);
+            if (reservados < 0) {
+                throw new ValidacionException("El vuelo ha alcanzado el cupo total. No se pueden agregar más reservas.");
+            }
+            indiceVuelos.sumarCupo(idVuelo, 1);
+            return conCupoReservado(idVuelo, reservados);
+        }
+        // UPDATE condicional: la base decide si hay cupo, sin leer-modificar-guardar
+        if (vueloRepository.incrementarCupoReservado(idVuelo) == 0) {
+            if (!vueloRepository.existsById(idVuelo)) {
+                throw new ElementoNoEncontradoException("No existe vuelo con id: " + idVuelo);
+            }
             throw new ValidacionException("El vuelo ha alcanzado el cupo total. No se pueden agregar más reservas.");
         }
-
-        vuelo.setCupoReservado(vuelo.getCupoReservado() + 1);
-        return vueloRepository.save(vuelo);
+        indiceVuelos.sumarCupo(idVuelo, 1);
+        return vueloRepository.findById(idVuelo)
+                .orElseThrow(() -> new ElementoNoEncontradoException("No existe vuelo con id: " + idVuelo));
     }
 
     @Override
@@ -120,34 +197,176 @@ public class VueloServiceImpl implements VueloService {
     public Vuelo cancelarReserva(Long idVuelo)
             throws ElementoNoEncontradoException {
 
-        Vuelo vuelo = vueloRepository.findById(idVuelo)
+        if (inventarioAsientos.isHabilitado()) {
+            int reservados = inventarioAsientos.liberar(idVuelo, 1);
+            indiceVuelos.fijarCupo(idVuelo, reservados);
+            return conCupoReservado(idVuelo, reservados);
+        }
+        // Solo decrementa si hay cupos reservados (lo controla el propio UPDATE)
+        if (vueloRepository.decrementarCupoReservado(idVuelo) > 0) {
+            indiceVuelos.sumarCupo(idVuelo, -1);
+        }
+        return vueloRepository.findById(idVuelo)
                 .orElseThrow(() -> new ElementoNoEncontradoException("No existe vuelo con id: " + idVuelo));
+    }
 
-        // Solo decrementa si hay cupos reservados
-        if (vuelo.getCupoReservado() > 0) {
-            vuelo.setCupoReservado(vuelo.getCupoReservado() - 1);
+    @Override
+    @Transactional
+    public Map<String, ResultadoEventoAsiento> procesarEventosAsiento(List<EventoAsientoDTO> eventos)
+            throws ValidacionException {
+        if (eventos == null || eventos.isEmpty()) {
+            throw new ValidacionException("Debe indicar al menos un evento de asiento.");
+        }
+        Set<String> consultados = new HashSet<>();
+        for (EventoAsientoDTO evento : eventos) {
+            if (evento.getEventoId() == null || evento.getEventoId().isBlank() || evento.getVueloId() == null) {
+                throw new ValidacionException("Cada evento de asiento debe indicar eventoId y vueloId.");
+            }
+            if (evento.getDelta() != 1 && evento.getDelta() != -1) {
+                throw new ValidacionException("El delta del evento " + evento.getEventoId() + " debe ser 1 o -1.");
+            }
+            consultados.add(evento.getEventoId());
+            if (evento.getReferencia() != null) {
+                consultados.add(evento.getReferencia());
+            }
         }
+        // Resultados ya conocidos: eventos reenviados y reservas a las que hacen referencia las liberaciones
+        Map<String, ResultadoEventoAsiento> conocidos = new HashMap<>();
+        eventosProcesados.findByEventoIdIn(consultados)
+                .forEach(procesado -> conocidos.put(procesado.getEventoId(), procesado.getResultado()));
 
-        return vueloRepository.save(vuelo);
+        Map<String, ResultadoEventoAsiento> resultados = new LinkedHashMap<>();
+        for (EventoAsientoDTO evento : eventos) {
+            ResultadoEventoAsiento resultado = conocidos.get(evento.getEventoId());
+            if (resultado == null) {
+                // Se inserta antes de tocar el cupo: un reenvio concurrente del mismo evento choca con la clave unica
+                EventoAsientoProcesado procesado = EventoAsientoProcesado.builder()
+                        .eventoId(evento.getEventoId())
+                        .vueloId(evento.getVueloId())
+                        .resultado(ResultadoEventoAsiento.RECHAZADO)
+                        .fecha(LocalDateTime.now())
+                        .build();
+                eventosProcesados.saveAndFlush(procesado);
+                resultado = aplicarEvento(evento, conocidos);
+                procesado.setResultado(resultado);
+                // Los UPDATE de cupo limpian el contexto de persistencia: se guarda de nuevo en vez de confiar en el dirty checking
+                eventosProcesados.save(procesado);
+                conocidos.put(evento.getEventoId(), resultado);
+            }
+            resultados.put(evento.getEventoId(), resultado);
+        }
+        return resultados;
+    }
+
+    /**
+     * Aplica un evento sin lanzar excepciones: un vuelo sin lugar o inexistente no debe revertir el resto del lote.
+     * Una liberacion solo devuelve el asiento si la reserva que la origino efectivamente lo tomo.
+     */
+    private ResultadoEventoAsiento aplicarEvento(EventoAsientoDTO evento, Map<String, ResultadoEventoAsiento> conocidos) {
+        Long idVuelo = evento.getVueloId();
+        if (!vueloRepository.existsById(idVuelo)) {
+            return ResultadoEventoAsiento.RECHAZADO;
+        }
+        if (evento.getDelta() > 0) {
+            boolean reservado = inventarioAsientos.isHabilitado()
+                    ? inventarioAsientos.reservar(idVuelo, 1) >= 0
+                    : vueloRepository.incrementarCupoReservado(idVuelo) > 0;
+            if (!reservado) {
+                return ResultadoEventoAsiento.RECHAZADO;
+            }
+            indiceVuelos.sumarCupo(idVuelo, 1);
+            return ResultadoEventoAsiento.APLICADO;
+        }
+        if (evento.getReferencia() != null
+                && conocidos.get(evento.getReferencia()) != ResultadoEventoAsiento.APLICADO) {
+            return ResultadoEventoAsiento.OMITIDO;
+        }
+        if (inventarioAsientos.isHabilitado()) {
+            indiceVuelos.fijarCupo(idVuelo, inventarioAsientos.liberar(idVuelo, 1));
+        } else if (vueloRepository.decrementarCupoReservado(idVuelo) > 0) {
+            indiceVuelos.sumarCupo(idVuelo, -1);
+        }
+        return ResultadoEventoAsiento.APLICADO;
+    }
+
+    /**
+     * Copia del vuelo con el cupo reservado que informa el inventario en memoria
+     * (la fila de la base se actualiza recien en el proximo volcado).
+     * Es una copia para que el cambio no se persista por dirty checking.
+     */
+    private Vuelo conCupoReservado(Long idVuelo, int cupoReservado) {
+        Vuelo vuelo = vueloRepository.findById(idVuelo)
+                .orElseThrow(() -> new ElementoNoEncontradoException("No existe vuelo con id: " + idVuelo));
+        return Vuelo.builder()
+                .id(vuelo.getId())
+                .codigo(vuelo.getCodigo())
+                .origen(vuelo.getOrigen())
+                .destino(vuelo.getDestino())
+                .fechaSalida(vuelo.getFechaSalida())
+                .fechaLlegada(vuelo.getFechaLlegada())
+                .cupoTotal(vuelo.getCupoTotal())
+                .cupoReservado(cupoReservado)
+                .build();
     }
 
     @Override
     @Transactional(readOnly = true) // Es una consulta, no modifica datos
-    public List<Vuelo> buscarVuelosPor(String origenCodigo, String destinoCodigo, LocalDate fecha)
+    public List<VueloDTO> buscarVuelosPor(String origenCodigo, String destinoCodigo, LocalDate fecha)
             throws ElementoNoEncontradoException {
 
-        // 1. Buscar las entidades de Destino usando los códigos
-        Destino origen = destinoRepository.findByCodigo(origenCodigo)
-                .orElseThrow(() -> new ElementoNoEncontradoException("No se encontró el destino de origen con código: " + origenCodigo));
-
-        Destino destino = destinoRepository.findByCodigo(destinoCodigo)
-                .orElseThrow(() -> new ElementoNoEncontradoException("No se encontró el destino de llegada con código: " + destinoCodigo));
+        // Rango del día completo: desde las 00:00 hasta las 00:00 del día siguiente (sin incluirlo)
+        LocalDateTime desde = fecha.atStartOfDay();
+        LocalDateTime hasta = fecha.plusDays(1).atStartOfDay();
+        List<VueloDTO> vuelos = indiceVuelos.isHabilitado()
+                ? vueloMapper.vueloToVueloDTO(indiceVuelos.buscarRuta(origenCodigo, destinoCodigo, desde, hasta.minusNanos(1)))
+                : vueloRepository.buscarRuta(origenCodigo, destinoCodigo, desde, hasta);
+        if (!vuelos.isEmpty()) {
+            return vuelos;
+        }
+        validarCodigos(origenCodigo, destinoCodigo);
+        return vuelos;
+    }
 
-        // 2. Definir el rango del día completo (de 00:00 a 23:59)
-        LocalDateTime inicioDelDia = fecha.atStartOfDay(); // Ej: 2025-12-01T00:00:00
-        LocalDateTime finDelDia = fecha.atTime(23, 59, 59); // Ej: 2025-12-01T23:59:59
+    @Override
+    public List<DisponibilidadDiaDTO> calendarioDisponibilidad(String origenCodigo, String destinoCodigo,
+                                                               LocalDate desde, LocalDate hasta) {
+        LocalDateTime inicio = desde.atStartOfDay();
+        LocalDateTime fin = hasta.plusDays(1).atStartOfDay();
+        Map<LocalDate, DisponibilidadDiaDTO> porDia = new HashMap<>();
+        if (indiceVuelos.isHabilitado()) {
+            for (Vuelo vuelo : indiceVuelos.buscarRuta(origenCodigo, destinoCodigo, inicio, fin.minusNanos(1))) {
+                int libres = vuelo.getCupoTotal() - vuelo.getCupoReservado();
+                DisponibilidadDiaDTO dia = porDia.computeIfAbsent(vuelo.getFechaSalida().toLocalDate(),
+                        fecha -> new DisponibilidadDiaDTO(fecha, 0, Integer.MAX_VALUE, 0));
+                dia.setVuelos(dia.getVuelos() + 1);
+                dia.setAsientosMin(Math.min(dia.getAsientosMin(), libres));
+                dia.setAsientosLibres(dia.getAsientosLibres() + libres);
+            }
+        } else {
+            for (DisponibilidadDiaDTO dia : vueloRepository.calendarioRuta(origenCodigo, destinoCodigo, inicio, fin)) {
+                porDia.put(dia.getFecha(), dia);
+            }
+        }
+        if (porDia.isEmpty()) {
+            validarCodigos(origenCodigo, destinoCodigo);
+        }
+        List<DisponibilidadDiaDTO> calendario = new ArrayList<>();
+        for (LocalDate fecha = desde; !fecha.isAfter(hasta); fecha = fecha.plusDays(1)) {
+            calendario.add(porDia.getOrDefault(fecha, new DisponibilidadDiaDTO(fecha, 0, 0, 0)));
+        }
+        return calendario;
+    }
 
-        // 3. Llamar al nuevo método del repositorio
-        return vueloRepository.findByOrigenAndDestinoAndFechaSalidaBetween(origen, destino, inicioDelDia, finDelDia);
+    /**
+     * Solo sin resultados se distingue "no hay vuelos" de "codigo inexistente".
+     */
+    private void validarCodigos(String origenCodigo, String destinoCodigo) throws ElementoNoEncontradoException {
+        List<String> existentes = destinoRepository.findCodigosExistentes(List.of(origenCodigo, destinoCodigo));
+        if (!existentes.contains(origenCodigo)) {
+            throw new ElementoNoEncontradoException("No se encontró el destino de origen con código: " + origenCodigo);
+        }
+        if (!existentes.contains(destinoCodigo)) {
+            throw new ElementoNoEncontradoException("No se encontró el destino de llegada con código: " + destinoCodigo);
+        }
     }
 }
@@ -0,0 +1,36 @@
+-- Esquema de ms-vuelo tal como lo venia generando Hibernate (ddl-auto=update).
+-- Usa IF NOT EXISTS para poder correr tambien sobre bases creadas antes de Flyway.
+
+create table if not exists destinos (
+    id bigint generated by default as identity primary key,
+    nombre varchar(50) not null,
+    codigo varchar(20) not null unique,
+    pais varchar(30) not null
+);
+
+create table if not exists vuelos (
+    id bigint generated by default as identity primary key,
+    codigo varchar(255) not null unique,
+    origen_id bigint not null references destinos (id),
+    destino_id bigint not null references destinos (id),
+    fecha_salida timestamp(6) not null,
+    fecha_llegada timestamp(6) not null,
+    cupo_total integer not null,
+    cupo_reservado integer not null
+);
+
+create table if not exists movimientos_cupo (
+    id bigint generated by default as identity primary key,
+    vuelo_id bigint not null,
+    delta integer not null,
+    fecha timestamp(6) not null
+);
+create index if not exists idx_movimientos_cupo_vuelo on movimientos_cupo (vuelo_id);
+
+create table if not exists eventos_asiento_procesados (
+    id bigint generated by default as identity primary key,
+    evento_id varchar(36) not null unique,
+    vuelo_id bigint not null,
+    resultado varchar(255) not null,
+    fecha timestamp(6) not null
+);
@@ -0,0 +1,9 @@
+-- findByFechaSalida / findByFechaSalidaBetween
+create index if not exists idx_vuelos_fecha_salida on vuelos (fecha_salida);
+
+-- findByOrigenAndDestinoAndFechaSalidaBetween (igualdad en origen y destino, rango en la fecha);
+-- el prefijo origen_id tambien sirve a findByOrigen_Id
+create index if not exists idx_vuelos_origen_destino_fecha_salida on vuelos (origen_id, destino_id, fecha_salida);
+
+-- findByDestino_Id
+create index if not exists idx_vuelos_destino on vuelos (destino_id);
@@ -0,0 +1,231 @@
+package ar.edu.unju.fi.trabajo_final.microservicio_vuelo.repository;
+
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.config.VueloServiceConfiguration;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.dto.EventoAsientoDTO;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.dto.VueloMapperImpl;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.entity.Destino;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.entity.MovimientoCupo;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.entity.Vuelo;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.exception.ValidacionException;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.service.impl.IndiceVuelosServiceImpl;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.service.impl.InventarioAsientosServiceImpl;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.service.impl.VueloServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba de estres sobre una base H2 en memoria: muchas confirmaciones/cancelaciones
+ * simultaneas sobre el mismo vuelo nunca deben sobrevender ni dejar cupos negativos,
+ * tanto con el UPDATE condicional como con el inventario en memoria.
+ * Sin transaccion de test, para que cada llamada al servicio confirme contra la base.
+ * El volcado periodico se posterga para que el test controle cuando se vuelca el journal.
+ */
+@DataJpaTest(properties = {"spring.cloud.config.enabled=false", "vuelo.inventarioVolcadoMs=3600000"})
+@Import({VueloServiceImpl.class, InventarioAsientosServiceImpl.class, IndiceVuelosServiceImpl.class, VueloMapperImpl.class, VueloServiceConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class VueloRepositoryConcurrenciaTest {
+
+    private static final int CUPO_TOTAL = 25;
+    private static final int HILOS = 16;
+    private static final int INTENTOS = 100;
+
+    @Autowired
+    private VueloRepository vueloRepository;
+    @Autowired
+    private DestinoRepository destinoRepository;
+    @Autowired
+    private MovimientoCupoRepository movimientoCupoRepository;
+    @Autowired
+    private VueloServiceImpl vueloService;
+    @Autowired
+    private InventarioAsientosServiceImpl inventarioAsientos;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private VueloServiceConfiguration configVuelos;
+
+    private Long vueloId;
+
+    @BeforeEach
+    void setUp() {
+        configVuelos.setInventarioHabilitado(false);
+        movimientoCupoRepository.deleteAll();
+        vueloRepository.deleteAll();
+        destinoRepository.deleteAll();
+        Destino origen = destinoRepository.save(Destino.builder().nombre("jujuy").codigo("ARGJY001").pais("argentina").build());
+        Destino destino = destinoRepository.save(Destino.builder().nombre("lima").codigo("PERLM001").pais("peru").build());
+        vueloId = vueloRepository.save(Vuelo.builder()
+                .codigo("VUL-STRESS")
+                .origen(origen).destino(destino)
+                .fechaSalida(LocalDateTime.now().plusDays(1))
+                .fechaLlegada(LocalDateTime.now().plusDays(2))
+                .cupoTotal(CUPO_TOTAL).cupoReservado(0)
+                .build()).getId();
+        inventarioAsientos.reconciliar();
+    }
+
+    @Test
+    void confirmacionesConcurrentes_NoSobrevenden() throws Exception {
+        AtomicInteger confirmadas = new AtomicInteger();
+        AtomicInteger rechazadas = new AtomicInteger();
+
+        ejecutarEnParalelo(() -> {
+            try {
+                vueloService.confirmarReserva(vueloId);
+                confirmadas.incrementAndGet();
+            } catch (ValidacionException e) {
+                rechazadas.incrementAndGet();
+            }
+            return null;
+        });
+
+        assertEquals(CUPO_TOTAL, confirmadas.get());
+        assertEquals(INTENTOS - CUPO_TOTAL, rechazadas.get());
+        assertEquals(CUPO_TOTAL, vueloRepository.findById(vueloId).orElseThrow().getCupoReservado());
+    }
+
+    @Test
+    void cancelacionesConcurrentes_NoDejanCupoNegativo() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            vueloService.confirmarReserva(vueloId);
+        }
+
+        ejecutarEnParalelo(() -> vueloService.cancelarReserva(vueloId));
+
+        assertEquals(0, vueloRepository.findById(vueloId).orElseThrow().getCupoReservado());
+    }
+
+    @Test
+    void inventarioEnMemoria_NoSobrevendeYVuelcaALaBase() throws Exception {
+        configVuelos.setInventarioHabilitado(true);
+        AtomicInteger confirmadas = new AtomicInteger();
+
+        ejecutarEnParalelo(() -> {
+            try {
+                vueloService.confirmarReserva(vueloId);
+                confirmadas.incrementAndGet();
+            } catch (ValidacionException e) {
+                // vuelo lleno
+            }
+            return null;
+        });
+
+        assertEquals(CUPO_TOTAL, confirmadas.get());
+        assertEquals(0, vueloRepository.findById(vueloId).orElseThrow().getCupoReservado());
+        assertEquals(CUPO_TOTAL, movimientoCupoRepository.count());
+
+        inventarioAsientos.volcar();
+
+        assertEquals(CUPO_TOTAL, vueloRepository.findById(vueloId).orElseThrow().getCupoReservado());
+        assertEquals(0, movimientoCupoRepository.count());
+    }
+
+    @Test
+    void reconciliar_AplicaMovimientosPendientesTrasUnaCaida() {
+        // Movimientos que quedaron en el journal sin volcar (ej: el servicio se cayo)
+        for (int delta : new int[]{1, 1, 1, -1}) {
+            movimientoCupoRepository.save(MovimientoCupo.builder()
+                    .vueloId(vueloId).delta(delta).fecha(LocalDateTime.now()).build());
+        }
+
+        inventarioAsientos.reconciliar();
+
+        assertEquals(2, vueloRepository.findById(vueloId).orElseThrow().getCupoReservado());
+        assertEquals(0, movimientoCupoRepository.count());
+    }
+
+    @Test
+    void inventarioEnMemoria_RollbackDevuelveLosAsientos() {
+        configVuelos.setInventarioHabilitado(true);
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+
+        assertThrows(IllegalStateException.class, () -> transaccion.executeWithoutResult(estado -> {
+            for (int i = 0; i < 3; i++) {
+                vueloService.confirmarReserva(vueloId);
+            }
+            throw new IllegalStateException("falla despues de tomar los asientos");
+        }));
+        assertEquals(0, movimientoCupoRepository.count());
+
+        // Los 3 asientos volvieron al contador: el vuelo se puede llenar entero
+        llenar(vueloId);
+    }
+
+    @Test
+    void inventarioEnMemoria_ActualizarAjustaElContadorSinPerderReservas() {
+        configVuelos.setInventarioHabilitado(true);
+        for (int i = 0; i < 5; i++) {
+            vueloService.confirmarReserva(vueloId);
+        }
+        Vuelo vuelo = vueloRepository.findById(vueloId).orElseThrow();
+        vuelo.setCupoTotal(6);
+        vueloService.actualizar(vuelo);
+
+        // La fila todavia no tiene las 5 reservas del journal: el contador las conserva y aplica el nuevo cupoTotal
+        vueloService.confirmarReserva(vueloId);
+        assertThrows(ValidacionException.class, () -> vueloService.confirmarReserva(vueloId));
+        inventarioAsientos.reconciliar();
+        assertEquals(6, vueloRepository.findById(vueloId).orElseThrow().getCupoReservado());
+    }
+
+    @Test
+    void eventosDeAsiento_LoteRevertidoNoDejaAsientosTomados() {
+        configVuelos.setInventarioHabilitado(true);
+        // El segundo evento no entra en la columna evento_id: falla el insert y se revierte todo el lote
+        List<EventoAsientoDTO> lote = List.of(
+                EventoAsientoDTO.builder().eventoId("e-1").vueloId(vueloId).delta(1).build(),
+                EventoAsientoDTO.builder().eventoId("x".repeat(40)).vueloId(vueloId).delta(1).build());
+
+        assertThrows(RuntimeException.class, () -> vueloService.procesarEventosAsiento(lote));
+        assertEquals(0, movimientoCupoRepository.count());
+
+        llenar(vueloId);
+    }
+
+    private void llenar(Long id) {
+        for (int i = 0; i < CUPO_TOTAL; i++) {
+            vueloService.confirmarReserva(id);
+        }
+        assertThrows(ValidacionException.class, () -> vueloService.confirmarReserva(id));
+    }
+
+    private void ejecutarEnParalelo(Callable<?> tarea) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(HILOS);
+        CountDownLatch largada = new CountDownLatch(1);
+        try {
+            List<Future<?>> resultados = new ArrayList<>();
+            for (int i = 0; i < INTENTOS; i++) {
+                resultados.add(executor.submit(() -> {
+                    largada.await();
+                    return tarea.call();
+                }));
+            }
+            largada.countDown();
+            for (Future<?> resultado : resultados) {
+                resultado.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
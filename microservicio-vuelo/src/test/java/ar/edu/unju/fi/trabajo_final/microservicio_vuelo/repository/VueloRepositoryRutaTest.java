@@ -0,0 +1,78 @@
+package ar.edu.unju.fi.trabajo_final.microservicio_vuelo.repository;
+
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.dto.DisponibilidadDiaDTO;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.dto.VueloDTO;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.entity.Destino;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.entity.Vuelo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Consulta de vuelos por ruta sobre una base H2 en memoria: filtra por codigos de origen/destino
+ * y por la ventana de salida, y arma los DTO en la misma consulta.
+ */
+@DataJpaTest(properties = {"spring.cloud.config.enabled=false", "vuelo.inventarioVolcadoMs=3600000"})
+class VueloRepositoryRutaTest {
+
+    private static final LocalDateTime DIA = LocalDateTime.of(2030, 1, 10, 0, 0);
+
+    @Autowired
+    private VueloRepository vueloRepository;
+    @Autowired
+    private DestinoRepository destinoRepository;
+
+    @BeforeEach
+    void setUp() {
+        Destino jujuy = destinoRepository.save(Destino.builder().nombre("jujuy").codigo("ARGJY001").pais("argentina").build());
+        Destino lima = destinoRepository.save(Destino.builder().nombre("lima").codigo("PERLM001").pais("peru").build());
+        vueloRepository.save(vuelo("VUL-02", jujuy, lima, DIA.plusHours(18)));
+        vueloRepository.save(vuelo("VUL-01", jujuy, lima, DIA.plusHours(6)));
+        // Fuera de la ventana o de la ruta
+        vueloRepository.save(vuelo("VUL-03", jujuy, lima, DIA.plusDays(1)));
+        vueloRepository.save(vuelo("VUL-04", lima, jujuy, DIA.plusHours(6)));
+    }
+
+    private static Vuelo vuelo(String codigo, Destino origen, Destino destino, LocalDateTime salida) {
+        return Vuelo.builder()
+                .codigo(codigo)
+                .origen(origen).destino(destino)
+                .fechaSalida(salida).fechaLlegada(salida.plusHours(3))
+                .cupoTotal(10).cupoReservado(2)
+                .build();
+    }
+
+    @Test
+    void buscarRuta_FiltraPorCodigosYVentanaYArmaElDTO() {
+        List<VueloDTO> vuelos = vueloRepository.buscarRuta("ARGJY001", "PERLM001", DIA, DIA.plusDays(1));
+
+        assertEquals(List.of("VUL-01", "VUL-02"), vuelos.stream().map(VueloDTO::getCodigo).toList());
+        VueloDTO primero = vuelos.get(0);
+        assertEquals("(ARGJY001)- argentina: jujuy", primero.getOrigen());
+        assertEquals("(PERLM001)- peru: lima", primero.getDestino());
+        assertEquals(DIA.plusHours(6), primero.getFechaSalida());
+        assertEquals(10, primero.getCupoTotal());
+        assertEquals(2, primero.getCupoReservado());
+    }
+
+    @Test
+    void calendarioRuta_AgrupaPorDiaDeSalida() {
+        List<DisponibilidadDiaDTO> calendario = vueloRepository.calendarioRuta("ARGJY001", "PERLM001", DIA, DIA.plusDays(2));
+
+        assertEquals(List.of(DIA.toLocalDate(), DIA.toLocalDate().plusDays(1)),
+                calendario.stream().map(DisponibilidadDiaDTO::getFecha).toList());
+        assertEquals(new DisponibilidadDiaDTO(DIA.toLocalDate(), 2, 8, 16), calendario.get(0));
+        assertEquals(new DisponibilidadDiaDTO(DIA.toLocalDate().plusDays(1), 1, 8, 8), calendario.get(1));
+    }
+
+    @Test
+    void findCodigosExistentes_DevuelveSoloLosQueExisten() {
+        assertEquals(List.of("ARGJY001"), destinoRepository.findCodigosExistentes(List.of("ARGJY001", "XXX")));
+    }
+}
@@ -0,0 +1,156 @@
+package ar.edu.unju.fi.trabajo_final.microservicio_vuelo.service.impl;
+
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.config.VueloServiceConfiguration;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.dto.ItinerarioDTO;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.dto.VueloDTO;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.dto.VueloMapperImpl;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.entity.Destino;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.entity.Vuelo;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.exception.ElementoNoEncontradoException;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.exception.ValidacionException;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.repository.DestinoRepository;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.repository.MovimientoCupoRepository;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.repository.VueloRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConexionesServiceImplTest {
+
+    private static final LocalDate FECHA = LocalDate.of(2030, 1, 10);
+    private static final LocalDateTime DIA = FECHA.atStartOfDay();
+
+    @Mock
+    private VueloRepository vueloRepository;
+    @Mock
+    private DestinoRepository destinoRepository;
+    @Mock
+    private MovimientoCupoRepository movimientoCupoRepository;
+
+    private VueloServiceConfiguration configVuelos;
+    private IndiceVuelosServiceImpl indice;
+    private ConexionesServiceImpl conexiones;
+    private Destino jujuy, salta, cordoba, lima;
+    private List<Vuelo> catalogo;
+
+    @BeforeEach
+    void setUp() {
+        configVuelos = new VueloServiceConfiguration();
+        configVuelos.setConexionMinutosMin(60);
+        indice = new IndiceVuelosServiceImpl(vueloRepository, movimientoCupoRepository, configVuelos);
+        conexiones = new ConexionesServiceImpl(vueloRepository, destinoRepository, indice, configVuelos, new VueloMapperImpl());
+        jujuy = destino(1L, "ARGJY001");
+        salta = destino(2L, "ARGSA001");
+        cordoba = destino(3L, "ARGCB001");
+        lima = destino(4L, "PERLM001");
+        catalogo = List.of(
+                // Directo que llega tarde
+                vuelo(1L, jujuy, lima, DIA.plusHours(14), 6, 10, 0),
+                // Jujuy -> Salta -> Lima: llega a las 13
+                vuelo(2L, jujuy, salta, DIA.plusHours(8), 1, 10, 0),
+                vuelo(3L, salta, lima, DIA.plusHours(10), 3, 10, 8),
+                // Conexion de solo 30 minutos: no se puede tomar
+                vuelo(4L, salta, lima, DIA.plusHours(9).plusMinutes(30), 2, 10, 0),
+                // Jujuy -> Cordoba -> Salta -> Lima: tres tramos, llega a las 16
+                vuelo(5L, jujuy, cordoba, DIA.plusHours(6), 1, 10, 0),
+                vuelo(6L, cordoba, salta, DIA.plusHours(8), 1, 10, 0),
+                vuelo(7L, salta, lima, DIA.plusHours(13), 3, 10, 0),
+                // Vuelta al origen: se descarta por ciclo
+                vuelo(8L, salta, jujuy, DIA.plusHours(10), 1, 10, 0));
+        when(destinoRepository.findByCodigo("ARGJY001")).thenReturn(Optional.of(jujuy));
+    }
+
+    private void cargarIndice() {
+        when(movimientoCupoRepository.sumarPendientesPorVuelo()).thenReturn(List.of());
+        when(vueloRepository.findAllConDestinos()).thenReturn(catalogo);
+        indice.recargar();
+    }
+
+    private static Destino destino(Long id, String codigo) {
+        return Destino.builder().id(id).nombre(codigo.toLowerCase()).codigo(codigo).pais("pais").build();
+    }
+
+    private static Vuelo vuelo(Long id, Destino origen, Destino destino, LocalDateTime salida, int horas,
+                               int cupoTotal, int cupoReservado) {
+        return Vuelo.builder()
+                .id(id).codigo("VUL-" + id)
+                .origen(origen).destino(destino)
+                .fechaSalida(salida).fechaLlegada(salida.plusHours(horas))
+                .cupoTotal(cupoTotal).cupoReservado(cupoReservado)
+                .build();
+    }
+
+    private static List<List<Long>> tramos(List<ItinerarioDTO> itinerarios) {
+        return itinerarios.stream()
+                .map(itinerario -> itinerario.getTramos().stream().map(VueloDTO::getId).toList())
+                .toList();
+    }
+
+    @Test
+    void buscarConexiones_OrdenaPorLlegadaYRespetaConexionMinima() {
+        cargarIndice();
+
+        List<ItinerarioDTO> itinerarios = conexiones.buscarConexiones("ARGJY001", "PERLM001", FECHA, null, null, null);
+
+        // A igual llegada va primero el de menos tramos; el directo llega ultimo
+        assertEquals(List.of(List.of(2L, 3L), List.of(5L, 6L, 3L), List.of(2L, 7L), List.of(5L, 6L, 7L), List.of(1L)),
+                tramos(itinerarios));
+        ItinerarioDTO primero = itinerarios.get(0);
+        assertEquals(1, primero.getEscalas());
+        assertEquals(DIA.plusHours(8), primero.getFechaSalida());
+        assertEquals(DIA.plusHours(13), primero.getFechaLlegada());
+        assertEquals(300, primero.getDuracionMinutos());
+        assertEquals(2, primero.getAsientosDisponibles());
+        verify(vueloRepository, never()).findConDestinosBySalidaEntre(any(), any());
+    }
+
+    @Test
+    void buscarConexiones_FiltraPorAsientosTramosYCantidad() {
+        cargarIndice();
+
+        // El tramo Salta -> Lima de las 10 solo tiene 2 asientos libres
+        assertEquals(List.of(List.of(2L, 7L), List.of(5L, 6L, 7L)),
+                tramos(conexiones.buscarConexiones("ARGJY001", "PERLM001", FECHA, null, 2, 3)));
+        assertEquals(List.of(List.of(2L, 3L), List.of(2L, 7L), List.of(1L)),
+                tramos(conexiones.buscarConexiones("ARGJY001", "PERLM001", FECHA, 2, null, null)));
+        assertEquals(List.of(List.of(1L)),
+                tramos(conexiones.buscarConexiones("ARGJY001", "PERLM001", FECHA, 1, null, null)));
+    }
+
+    @Test
+    void buscarConexiones_SinIndice_UsaLaVentanaDeLaBase() {
+        configVuelos.setIndiceHabilitado(false);
+        when(vueloRepository.findConDestinosBySalidaEntre(DIA, DIA.plusDays(3).plusHours(48)))
+                .thenReturn(catalogo.stream().sorted(Comparator.comparing(Vuelo::getFechaSalida)).toList());
+
+        List<ItinerarioDTO> itinerarios = conexiones.buscarConexiones("ARGJY001", "PERLM001", FECHA, null, 2, null);
+
+        assertEquals(List.of(List.of(2L, 3L), List.of(5L, 6L, 3L)), tramos(itinerarios));
+    }
+
+    @Test
+    void buscarConexiones_SinResultados_DistingueDestinoInexistente() {
+        cargarIndice();
+        when(destinoRepository.findCodigosExistentes(List.of("XXX"))).thenReturn(List.of());
+
+        assertThrows(ElementoNoEncontradoException.class,
+                () -> conexiones.buscarConexiones("ARGJY001", "XXX", FECHA, null, null, null));
+        assertThrows(ValidacionException.class,
+                () -> conexiones.buscarConexiones("ARGJY001", "ARGJY001", FECHA, null, null, null));
+        assertThrows(ValidacionException.class,
+                () -> conexiones.buscarConexiones("ARGJY001", "PERLM001", FECHA, 4, null, null));
+    }
+}
@@ -3,13 +3,16 @@ package ar.edu.unju.fi.trabajo_final.microservicio_vuelo.service.impl;
 import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.entity.Destino;
 import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.exception.ElementoExistenteExcepction;
 import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.exception.ElementoNoEncontradoException;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.payload.Pagina;
 import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.repository.DestinoRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.service.IndiceVuelosService;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 
 import java.util.List;
 import java.util.Optional;
@@ -22,6 +25,8 @@ class DestinoServiceImplTest {
 
     @Mock
     private DestinoRepository destinoRepository;
+    @Mock
+    private IndiceVuelosService indiceVuelos;
     @InjectMocks
     private DestinoServiceImpl destinoServiceImpl;
 
@@ -120,17 +125,14 @@ class DestinoServiceImplTest {
     }
     //<------- TEST DE BUSCAR -------->
     @Test
-    void listarTodos_Exitoso() {
-        when(destinoRepository.findAll()).thenReturn(List.of(destino));
-
-        List<Destino> lista = destinoServiceImpl.listarTodos();
+    void listarPaginados_UltimaPaginaSinCursor() {
+        when(destinoRepository.findAllByOrderByIdDesc(PageRequest.of(0, 11))).thenReturn(List.of(destino));
 
-        assertNotNull(lista);
-        assertFalse(lista.isEmpty());
-        assertEquals(1, lista.size());
-        assertEquals("Jujuy", lista.get(0).getNombre());
+        Pagina<Destino> pagina = destinoServiceImpl.listarPaginados(null, 10);
 
-        verify(destinoRepository, times(1)).findAll();
+        assertEquals(List.of(destino), pagina.getElementos());
+        assertNull(pagina.getSiguiente());
+        verify(destinoRepository, never()).findAll();
     }
 
     // <----------TEST BUSCAR POR ID------->
@@ -0,0 +1,142 @@
+package ar.edu.unju.fi.trabajo_final.microservicio_vuelo.service.impl;
+
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.config.VueloServiceConfiguration;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.entity.Destino;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.entity.Vuelo;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.repository.MovimientoCupoRepository;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.repository.VueloRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IndiceVuelosServiceImplTest {
+
+    private static final LocalDateTime DIA = LocalDateTime.of(2030, 1, 10, 0, 0);
+
+    @Mock
+    private VueloRepository vueloRepository;
+    @Mock
+    private MovimientoCupoRepository movimientoCupoRepository;
+
+    private VueloServiceConfiguration configVuelos;
+    private IndiceVuelosServiceImpl indice;
+    private Destino jujuy, lima;
+
+    @BeforeEach
+    void setUp() {
+        configVuelos = new VueloServiceConfiguration();
+        indice = new IndiceVuelosServiceImpl(vueloRepository, movimientoCupoRepository, configVuelos);
+        jujuy = Destino.builder().id(1L).nombre("jujuy").codigo("ARGJY001").pais("argentina").build();
+        lima = Destino.builder().id(2L).nombre("lima").codigo("PERLM001").pais("peru").build();
+        List<Object[]> pendientes = new ArrayList<>();
+        pendientes.add(new Object[]{10L, 2L});
+        when(movimientoCupoRepository.sumarPendientesPorVuelo()).thenReturn(pendientes);
+        when(vueloRepository.findAllConDestinos()).thenReturn(List.of(
+                vuelo(11L, jujuy, lima, DIA.plusHours(18)),
+                vuelo(10L, jujuy, lima, DIA.plusHours(6)),
+                vuelo(12L, jujuy, lima, DIA.plusDays(1)),
+                vuelo(13L, lima, jujuy, DIA.plusHours(6))));
+        indice.recargar();
+    }
+
+    private static Vuelo vuelo(Long id, Destino origen, Destino destino, LocalDateTime salida) {
+        return Vuelo.builder()
+                .id(id).codigo("VUL-" + id)
+                .origen(origen).destino(destino)
+                .fechaSalida(salida).fechaLlegada(salida.plusHours(3))
+                .cupoTotal(10).cupoReservado(1)
+                .build();
+    }
+
+    private static List<Long> ids(List<Vuelo> vuelos) {
+        return vuelos.stream().map(Vuelo::getId).toList();
+    }
+
+    @Test
+    void recargar_ArmaRutasOrdenadasYSumaElJournalPendiente() {
+        assertTrue(indice.isHabilitado());
+        List<Vuelo> ruta = indice.buscarRuta("ARGJY001", "PERLM001", DIA, DIA.plusDays(1).minusNanos(1));
+
+        assertEquals(List.of(10L, 11L), ids(ruta));
+        assertEquals(3, ruta.get(0).getCupoReservado());
+        assertEquals(1, ruta.get(1).getCupoReservado());
+        assertEquals(List.of(10L, 11L, 12L), ids(indice.porOrigen(1L)));
+        assertEquals(List.of(13L), ids(indice.porDestino(1L)));
+        assertTrue(indice.buscarRuta("ARGJY001", "XXX", DIA, DIA.plusDays(1)).isEmpty());
+    }
+
+    @Test
+    void porSalida_RangoInclusivoYFechaExacta() {
+        assertEquals(List.of(10L, 13L), ids(indice.porSalida(DIA.plusHours(6), DIA.plusHours(6))));
+        assertEquals(List.of(10L, 13L, 11L, 12L), ids(indice.porSalida(DIA, DIA.plusDays(1))));
+        assertTrue(indice.porSalida(DIA.plusDays(2), DIA.plusDays(3)).isEmpty());
+    }
+
+    @Test
+    void guardarYQuitar_ActualizanSoloElVueloIndicado() {
+        indice.guardar(vuelo(14L, jujuy, lima, DIA.plusHours(12)));
+        assertEquals(List.of(10L, 14L, 11L), ids(indice.buscarRuta("ARGJY001", "PERLM001", DIA, DIA.plusHours(23))));
+
+        // Cambia de fecha y de ruta: sale de los arreglos anteriores
+        indice.guardar(vuelo(10L, lima, jujuy, DIA.plusHours(1)));
+        assertEquals(List.of(14L, 11L), ids(indice.buscarRuta("ARGJY001", "PERLM001", DIA, DIA.plusHours(23))));
+        assertEquals(List.of(10L, 13L), ids(indice.porOrigen(2L)));
+
+        indice.quitar(13L);
+        assertEquals(List.of(10L), ids(indice.porOrigen(2L)));
+        assertEquals(List.of(10L, 14L, 11L, 12L), ids(indice.porSalida(DIA, DIA.plusDays(1))));
+        verify(vueloRepository, times(1)).findAllConDestinos();
+    }
+
+    @Test
+    void cupos_SeActualizanSinRearmarYLasCopiasNoAlteranElIndice() {
+        indice.sumarCupo(11L, 2);
+        indice.fijarCupo(12L, 7);
+        indice.porSalida(DIA, DIA.plusDays(1)).forEach(vuelo -> vuelo.setCupoReservado(99));
+
+        List<Vuelo> vuelos = indice.porOrigen(1L);
+        assertEquals(3, vuelos.get(1).getCupoReservado());
+        assertEquals(7, vuelos.get(2).getCupoReservado());
+    }
+
+    @Test
+    void recargar_RepiteLosCambiosConfirmadosMientrasLeiaLaBase() {
+        List<Vuelo> leidos = List.of(
+                vuelo(11L, jujuy, lima, DIA.plusHours(18)),
+                vuelo(13L, lima, jujuy, DIA.plusHours(6)));
+        // Los cambios confirman despues de que la recarga empezo a leer: la lectura no los incluye
+        when(vueloRepository.findAllConDestinos()).thenAnswer(invocacion -> {
+            indice.sumarCupo(11L, 2);
+            indice.guardar(vuelo(14L, jujuy, lima, DIA.plusHours(12)));
+            indice.quitar(13L);
+            return leidos;
+        });
+
+        indice.recargar();
+
+        List<Vuelo> ruta = indice.buscarRuta("ARGJY001", "PERLM001", DIA, DIA.plusDays(1));
+        assertEquals(List.of(14L, 11L), ids(ruta));
+        assertEquals(3, ruta.get(1).getCupoReservado());
+        assertTrue(indice.porOrigen(2L).isEmpty());
+
+        // Terminada la recarga los cambios ya no se anotan ni se repiten
+        indice.sumarCupo(11L, 1);
+        assertEquals(4, indice.porOrigen(1L).get(1).getCupoReservado());
+    }
+
+    @Test
+    void deshabilitado_NoSeUsaAunqueEsteCargado() {
+        configVuelos.setIndiceHabilitado(false);
+        assertFalse(indice.isHabilitado());
+    }
+}
@@ -1,20 +1,36 @@
 package ar.edu.unju.fi.trabajo_final.microservicio_vuelo.service.impl;
 
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.dto.DisponibilidadDiaDTO;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.dto.EventoAsientoDTO;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.dto.VueloDTO;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.dto.VueloMapper;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.dto.VueloMapperImpl;
 import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.entity.Destino;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.entity.EventoAsientoProcesado;
 import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.entity.Vuelo;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.enums.ResultadoEventoAsiento;
 import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.exception.ElementoExistenteExcepction;
 import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.exception.ElementoNoEncontradoException;
 import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.exception.ValidacionException;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.payload.Pagina;
 import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.repository.DestinoRepository;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.repository.EventoAsientoProcesadoRepository;
 import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.repository.VueloRepository;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.service.IndiceVuelosService;
+import ar.edu.unju.fi.trabajo_final.microservicio_vuelo.service.InventarioAsientosService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -28,6 +44,14 @@ class VueloServiceImplTest {
     private VueloRepository vueloRepository;
     @Mock
     private DestinoRepository destinoRepository;
+    @Mock
+    private InventarioAsientosService inventarioAsientos;
+    @Mock
+    private EventoAsientoProcesadoRepository eventosProcesados;
+    @Mock
+    private IndiceVuelosService indiceVuelos;
+    @Spy
+    private VueloMapper vueloMapper = new VueloMapperImpl();
 
     @InjectMocks
     private VueloServiceImpl vueloService;
@@ -245,6 +269,43 @@ class VueloServiceImplTest {
         assertThrows(ElementoNoEncontradoException.class, () -> vueloService.obtenerPorId(1L));
     }
 
+    @Test
+    void obtenerPorIds_UnaSolaConsulta() {
+        var ids = java.util.List.of(1L, 2L);
+        when(vueloRepository.findAllConDestinosByIdIn(ids)).thenReturn(java.util.List.of(vuelo, vuelo2));
+        var lista = vueloService.obtenerPorIds(ids);
+        assertEquals(2, lista.size());
+        verify(vueloRepository, times(1)).findAllConDestinosByIdIn(ids);
+        verify(vueloRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void obtenerVuelosPaginados_PrimeraYSiguientePagina() {
+        when(vueloRepository.findAllByOrderByIdDesc(PageRequest.of(0, 2))).thenReturn(java.util.List.of(vuelo2, vueloActualizar));
+        Pagina<Vuelo> primera = vueloService.obtenerVuelosPaginados(null, 1);
+        assertEquals(java.util.List.of(vuelo2), primera.getElementos());
+        assertNotNull(primera.getSiguiente());
+
+        when(vueloRepository.findByIdLessThanOrderByIdDesc(2L, PageRequest.of(0, 2))).thenReturn(java.util.List.of(vueloActualizar));
+        Pagina<Vuelo> segunda = vueloService.obtenerVuelosPaginados(primera.getSiguiente(), 1);
+        assertEquals(java.util.List.of(vueloActualizar), segunda.getElementos());
+        assertNull(segunda.getSiguiente());
+        verify(vueloRepository, never()).findAll();
+    }
+
+    @Test
+    void obtenerVuelosPaginados_CursorInvalido() {
+        assertThrows(ValidacionException.class, () -> vueloService.obtenerVuelosPaginados("%%%", 10));
+        verifyNoInteractions(vueloRepository);
+    }
+
+    @Test
+    void obtenerPorIds_ListaVacia() {
+        var lista = vueloService.obtenerPorIds(java.util.List.of());
+        assertTrue(lista.isEmpty());
+        verifyNoInteractions(vueloRepository);
+    }
+
     @Test
     void obtenerOrigen_Exitoso() {
         when(vueloRepository.findByOrigen_Id(1L)).thenReturn(java.util.List.of(vuelo));
@@ -300,4 +361,171 @@ class VueloServiceImplTest {
     }
 
 
-}
\ No newline at end of file
+
+    @Test
+    void confirmarReserva_Exitoso() {
+        when(vueloRepository.incrementarCupoReservado(1L)).thenReturn(1);
+        when(vueloRepository.findById(1L)).thenReturn(Optional.of(vuelo));
+        Vuelo resultado = vueloService.confirmarReserva(1L);
+        assertEquals(vuelo, resultado);
+        verify(vueloRepository, never()).save(any());
+    }
+
+    @Test
+    void confirmarReserva_CupoLleno() {
+        when(vueloRepository.incrementarCupoReservado(1L)).thenReturn(0);
+        when(vueloRepository.existsById(1L)).thenReturn(true);
+        assertThrows(ValidacionException.class, () -> vueloService.confirmarReserva(1L));
+    }
+
+    @Test
+    void confirmarReserva_NoExistente() {
+        when(vueloRepository.incrementarCupoReservado(1L)).thenReturn(0);
+        when(vueloRepository.existsById(1L)).thenReturn(false);
+        assertThrows(ElementoNoEncontradoException.class, () -> vueloService.confirmarReserva(1L));
+    }
+
+    @Test
+    void cancelarReserva_Exitoso() {
+        when(vueloRepository.decrementarCupoReservado(1L)).thenReturn(1);
+        when(vueloRepository.findById(1L)).thenReturn(Optional.of(vuelo));
+        assertEquals(vuelo, vueloService.cancelarReserva(1L));
+        verify(vueloRepository, never()).save(any());
+    }
+
+    @Test
+    void cancelarReserva_NoExistente() {
+        when(vueloRepository.findById(1L)).thenReturn(Optional.empty());
+        assertThrows(ElementoNoEncontradoException.class, () -> vueloService.cancelarReserva(1L));
+    }
+
+    @Test
+    void confirmarReserva_InventarioEnMemoria() {
+        when(inventarioAsientos.isHabilitado()).thenReturn(true);
+        when(inventarioAsientos.reservar(1L, 1)).thenReturn(4);
+        when(vueloRepository.findById(1L)).thenReturn(Optional.of(vuelo));
+        Vuelo resultado = vueloService.confirmarReserva(1L);
+        assertEquals(4, resultado.getCupoReservado());
+        assertEquals(3, vuelo.getCupoReservado());
+        verify(vueloRepository, never()).incrementarCupoReservado(anyLong());
+    }
+
+    @Test
+    void confirmarReserva_InventarioEnMemoriaLleno() {
+        when(inventarioAsientos.isHabilitado()).thenReturn(true);
+        when(inventarioAsientos.reservar(1L, 1)).thenReturn(-1);
+        assertThrows(ValidacionException.class, () -> vueloService.confirmarReserva(1L));
+        verify(vueloRepository, never()).incrementarCupoReservado(anyLong());
+    }
+
+    @Test
+    void procesarEventosAsiento_AplicaYRechazaSinCortarElLote() {
+        when(vueloRepository.existsById(1L)).thenReturn(true);
+        when(vueloRepository.existsById(2L)).thenReturn(true);
+        when(vueloRepository.incrementarCupoReservado(1L)).thenReturn(1);
+        when(vueloRepository.incrementarCupoReservado(2L)).thenReturn(0);
+
+        Map<String, ResultadoEventoAsiento> resultados = vueloService.procesarEventosAsiento(List.of(
+                EventoAsientoDTO.builder().eventoId("e1").vueloId(1L).delta(1).build(),
+                EventoAsientoDTO.builder().eventoId("e2").vueloId(2L).delta(1).build()));
+
+        assertEquals(ResultadoEventoAsiento.APLICADO, resultados.get("e1"));
+        assertEquals(ResultadoEventoAsiento.RECHAZADO, resultados.get("e2"));
+        verify(eventosProcesados, times(2)).saveAndFlush(any());
+    }
+
+    @Test
+    void procesarEventosAsiento_EventoRepetidoNoVuelveAAplicarse() {
+        when(eventosProcesados.findByEventoIdIn(any())).thenReturn(List.of(
+                EventoAsientoProcesado.builder().eventoId("e1").vueloId(1L).resultado(ResultadoEventoAsiento.APLICADO).build()));
+
+        Map<String, ResultadoEventoAsiento> resultados = vueloService.procesarEventosAsiento(List.of(
+                EventoAsientoDTO.builder().eventoId("e1").vueloId(1L).delta(1).build()));
+
+        assertEquals(ResultadoEventoAsiento.APLICADO, resultados.get("e1"));
+        verify(vueloRepository, never()).incrementarCupoReservado(anyLong());
+        verify(eventosProcesados, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void procesarEventosAsiento_LiberacionDeReservaRechazadaSeOmite() {
+        when(eventosProcesados.findByEventoIdIn(any())).thenReturn(List.of(
+                EventoAsientoProcesado.builder().eventoId("e1").vueloId(1L).resultado(ResultadoEventoAsiento.RECHAZADO).build()));
+        when(vueloRepository.existsById(1L)).thenReturn(true);
+
+        Map<String, ResultadoEventoAsiento> resultados = vueloService.procesarEventosAsiento(List.of(
+                EventoAsientoDTO.builder().eventoId("e2").vueloId(1L).delta(-1).referencia("e1").build()));
+
+        assertEquals(ResultadoEventoAsiento.OMITIDO, resultados.get("e2"));
+        verify(vueloRepository, never()).decrementarCupoReservado(anyLong());
+    }
+
+    @Test
+    void buscarVuelosPor_UnaSolaConsultaCuandoHayVuelos() {
+        VueloDTO dto = new VueloDTO(1L, "AR123", "(ARGJY001)- argentina: jujuy", "(ARGBB009)- argentina: buenos aires",
+                LocalDateTime.of(2030, 1, 10, 8, 0), LocalDateTime.of(2030, 1, 10, 10, 0), 10, 3);
+        when(vueloRepository.buscarRuta("ARGJY001", "ARGBB009",
+                LocalDateTime.of(2030, 1, 10, 0, 0), LocalDateTime.of(2030, 1, 11, 0, 0))).thenReturn(List.of(dto));
+
+        List<VueloDTO> vuelos = vueloService.buscarVuelosPor("ARGJY001", "ARGBB009", LocalDate.of(2030, 1, 10));
+
+        assertEquals(List.of(dto), vuelos);
+        verifyNoInteractions(destinoRepository);
+    }
+
+    @Test
+    void buscarVuelosPor_SinVuelosDistingueCodigoInexistente() {
+        when(vueloRepository.buscarRuta(any(), any(), any(), any())).thenReturn(List.of());
+        when(destinoRepository.findCodigosExistentes(List.of("ARGJY001", "XXX"))).thenReturn(List.of("ARGJY001"));
+        when(destinoRepository.findCodigosExistentes(List.of("ARGJY001", "ARGBB009"))).thenReturn(List.of("ARGJY001", "ARGBB009"));
+
+        assertThrows(ElementoNoEncontradoException.class,
+                () -> vueloService.buscarVuelosPor("ARGJY001", "XXX", LocalDate.of(2030, 1, 10)));
+        assertTrue(vueloService.buscarVuelosPor("ARGJY001", "ARGBB009", LocalDate.of(2030, 1, 10)).isEmpty());
+    }
+
+    @Test
+    void buscarVuelosPor_ConIndiceNoConsultaLaBase() {
+        Vuelo indexado = Vuelo.builder().id(1L).codigo("AR123").origen(destinoOrigen1).destino(destinoDestino1)
+                .fechaSalida(LocalDateTime.of(2030, 1, 10, 8, 0)).fechaLlegada(LocalDateTime.of(2030, 1, 10, 10, 0))
+                .cupoTotal(10).cupoReservado(3).build();
+        when(indiceVuelos.isHabilitado()).thenReturn(true);
+        when(indiceVuelos.buscarRuta("ARGJY001", "ARGBB009", LocalDateTime.of(2030, 1, 10, 0, 0),
+                LocalDateTime.of(2030, 1, 11, 0, 0).minusNanos(1))).thenReturn(List.of(indexado));
+
+        List<VueloDTO> vuelos = vueloService.buscarVuelosPor("ARGJY001", "ARGBB009", LocalDate.of(2030, 1, 10));
+
+        assertEquals("(ARGJY001)- argentina: jujuy", vuelos.get(0).getOrigen());
+        assertEquals(3, vuelos.get(0).getCupoReservado());
+        verifyNoInteractions(vueloRepository, destinoRepository);
+    }
+
+    @Test
+    void confirmarReserva_ActualizaElCupoDelIndice() {
+        when(vueloRepository.incrementarCupoReservado(1L)).thenReturn(1);
+        when(vueloRepository.findById(1L)).thenReturn(Optional.of(vueloActualizar));
+
+        vueloService.confirmarReserva(1L);
+
+        verify(indiceVuelos).sumarCupo(1L, 1);
+    }
+
+    @Test
+    void calendarioDisponibilidad_ConIndice_AgrupaPorDiaYCompletaLosDiasSinVuelos() {
+        LocalDateTime dia = LocalDateTime.of(2030, 1, 10, 0, 0);
+        when(indiceVuelos.isHabilitado()).thenReturn(true);
+        when(indiceVuelos.buscarRuta("ARGJY001", "ARGBB009", dia, dia.plusDays(3).minusNanos(1))).thenReturn(List.of(
+                Vuelo.builder().id(1L).fechaSalida(dia.plusHours(8)).cupoTotal(10).cupoReservado(3).build(),
+                Vuelo.builder().id(2L).fechaSalida(dia.plusHours(20)).cupoTotal(10).cupoReservado(9).build(),
+                Vuelo.builder().id(3L).fechaSalida(dia.plusDays(2)).cupoTotal(5).cupoReservado(0).build()));
+
+        List<DisponibilidadDiaDTO> calendario = vueloService.calendarioDisponibilidad("ARGJY001", "ARGBB009",
+                dia.toLocalDate(), dia.toLocalDate().plusDays(2));
+
+        assertEquals(List.of(
+                new DisponibilidadDiaDTO(dia.toLocalDate(), 2, 1, 8),
+                new DisponibilidadDiaDTO(dia.toLocalDate().plusDays(1), 0, 0, 0),
+                new DisponibilidadDiaDTO(dia.toLocalDate().plusDays(2), 1, 5, 5)), calendario);
+        verifyNoInteractions(vueloRepository, destinoRepository);
+    }
+}
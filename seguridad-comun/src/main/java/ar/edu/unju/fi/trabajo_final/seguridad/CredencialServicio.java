@@ -0,0 +1,66 @@
+package ar.edu.unju.fi.trabajo_final.seguridad;
+
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Credencial de servicio a servicio (por ejemplo ms-reserva llamando a ms-vuelo desde una tarea programada).
+ * Es un JWT con {@code rol = ROLE_SERVICIO} firmado con {@code jwt.servicioSecret}, una clave distinta de
+ * {@code jwt.secret} (tokens de usuario) y de {@code jwt.identidadSecret} (identidad del gateway).
+ * - Con la clave de servicio solo se acepta ROLE_SERVICIO: no sirve para hacerse pasar por un usuario o un ADMIN.
+ * - Con la clave de usuarios nunca se acepta ROLE_SERVICIO: quien tenga {@code jwt.secret} no puede emitir credenciales de servicio.
+ */
+public final class CredencialServicio {
+
+    public static final String ROL = "ROLE_SERVICIO";
+
+    private CredencialServicio() {
+    }
+
+    /**
+     * Decoder que valida primero como token de usuario y, si la firma no corresponde, como credencial de servicio.
+     * @param usuarios Decoder de los tokens de usuario (clave {@code jwt.secret}).
+     * @param servicioSecret Clave {@code jwt.servicioSecret}, de al menos 32 caracteres.
+     */
+    public static JwtDecoder decoder(JwtDecoder usuarios, String servicioSecret) {
+        if (servicioSecret == null || servicioSecret.length() < 32) {
+            throw new IllegalArgumentException("jwt.servicioSecret debe tener al menos 32 caracteres");
+        }
+        NimbusJwtDecoder servicios = NimbusJwtDecoder
+                .withSecretKey(new SecretKeySpec(servicioSecret.getBytes(), "HmacSHA256"))
+                .build();
+        servicios.setJwtValidator(new DelegatingOAuth2TokenValidator<>(JwtValidators.createDefault(), soloRolServicio()));
+        return token -> {
+            Jwt jwt;
+            try {
+                jwt = usuarios.decode(token);
+            } catch (BadJwtException comoUsuario) {
+                try {
+                    return servicios.decode(token);
+                } catch (BadJwtException comoServicio) {
+                    // Se informa el error del token de usuario, que es el caso comun
+                    throw comoUsuario;
+                }
+            }
+            if (ROL.equals(jwt.getClaimAsString("rol"))) {
+                throw new BadJwtException("ROLE_SERVICIO solo se acepta firmado con la clave de servicio");
+            }
+            return jwt;
+        };
+    }
+
+    private static OAuth2TokenValidator<Jwt> soloRolServicio() {
+        return jwt -> ROL.equals(jwt.getClaimAsString("rol"))
+                ? OAuth2TokenValidatorResult.success()
+                : OAuth2TokenValidatorResult.failure(new OAuth2Error("invalid_token", "La clave de servicio solo firma ROLE_SERVICIO", null));
+    }
+}
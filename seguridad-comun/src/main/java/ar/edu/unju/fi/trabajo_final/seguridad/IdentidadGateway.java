@@ -0,0 +1,107 @@
+package ar.edu.unju.fi.trabajo_final.seguridad;
+
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Identidad que agrega el gateway despues de verificar el JWT del usuario (modo {@code jwt.identidadGateway}).
+ * Formato de la cabecera {@value #CABECERA}: {@code idg1.<id>.<rol>.<exp>.<sub en base64url>.<firma>},
+ * donde la firma es un HMAC-SHA256 de todo lo anterior con {@code jwt.identidadSecret}, una clave distinta de
+ * {@code jwt.secret}: filtrar una de las dos no alcanza para falsificar la otra credencial.
+ * Verificarla cuesta un HMAC sobre unos pocos bytes, sin parsear JSON, en lugar de volver a decodificar el JWT completo.
+ * El resultado es un {@link Jwt} con los mismos claims que usan los controladores (sub, id, rol, exp).
+ * El gateway solo usa {@link #firmar}; los servicios, {@link #decoder} e {@link IdentidadGatewayResolver}.
+ */
+public class IdentidadGateway {
+
+    public static final String CABECERA = "X-Identidad-Gateway";
+
+    private static final String VERSION = "idg1.";
+    private static final Base64.Encoder BASE64 = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder BASE64_DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec clave;
+    // Mac no es thread-safe: uno por hilo, ya inicializado con la clave
+    private final ThreadLocal<Mac> macs;
+
+    public IdentidadGateway(String secreto) {
+        if (secreto == null || secreto.length() < 32) {
+            throw new IllegalArgumentException("jwt.identidadSecret debe tener al menos 32 caracteres");
+        }
+        this.clave = new SecretKeySpec(secreto.getBytes(), "HmacSHA256");
+        this.macs = ThreadLocal.withInitial(this::nuevoMac);
+    }
+
+    public static boolean esIdentidad(String valor) {
+        return valor != null && valor.startsWith(VERSION);
+    }
+
+    /**
+     * Decoder que valida las identidades del gateway con el HMAC y delega el resto (JWT Bearer) en {@code bearer}.
+     */
+    public JwtDecoder decoder(JwtDecoder bearer) {
+        return token -> esIdentidad(token) ? verificar(token) : bearer.decode(token);
+    }
+
+    public String firmar(Long id, String rol, String sujeto, Instant expira) {
+        String contenido = VERSION + (id == null ? "" : id) + "." + rol + "." + expira.getEpochSecond() + "."
+                + BASE64.encodeToString(sujeto.getBytes(StandardCharsets.UTF_8));
+        return contenido + "." + BASE64.encodeToString(firma(contenido));
+    }
+
+    /**
+     * @throws BadJwtException Si la cabecera esta mal formada, la firma no coincide o ya vencio.
+     */
+    public Jwt verificar(String valor) throws BadJwtException {
+        int corte = valor.lastIndexOf('.');
+        String[] partes = valor.split("\\.", -1);
+        if (!esIdentidad(valor) || partes.length != 6) {
+            throw new BadJwtException("Identidad del gateway mal formada");
+        }
+        byte[] firma;
+        try {
+            firma = BASE64_DECODER.decode(partes[5]);
+        } catch (IllegalArgumentException e) {
+            throw new BadJwtException("Identidad del gateway mal formada");
+        }
+        if (!MessageDigest.isEqual(firma, firma(valor.substring(0, corte)))) {
+            throw new BadJwtException("Firma de la identidad del gateway invalida");
+        }
+        Instant expira = Instant.ofEpochSecond(Long.parseLong(partes[3]));
+        if (!Instant.now().isBefore(expira)) {
+            throw new BadJwtException("Identidad del gateway vencida");
+        }
+        Jwt.Builder jwt = Jwt.withTokenValue(valor)
+                .header("alg", "HS256")
+                .subject(new String(BASE64_DECODER.decode(partes[4]), StandardCharsets.UTF_8))
+                .claim("rol", partes[2])
+                .expiresAt(expira);
+        if (!partes[1].isEmpty()) {
+            jwt.claim("id", Long.valueOf(partes[1]));
+        }
+        return jwt.build();
+    }
+
+    private byte[] firma(String contenido) {
+        return macs.get().doFinal(contenido.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Mac nuevoMac() {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(clave);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
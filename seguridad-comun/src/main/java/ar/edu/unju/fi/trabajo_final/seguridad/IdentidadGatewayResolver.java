@@ -0,0 +1,20 @@
+package ar.edu.unju.fi.trabajo_final.seguridad;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.security.oauth2.server.resource.web.BearerTokenResolver;
+import org.springframework.security.oauth2.server.resource.web.DefaultBearerTokenResolver;
+
+/**
+ * Toma la cabecera {@value IdentidadGateway#CABECERA} si viene en la peticion; si no, el token Bearer de siempre.
+ * Separado de {@link IdentidadGateway} porque depende de la API servlet, que el gateway (WebFlux) no tiene.
+ */
+public class IdentidadGatewayResolver implements BearerTokenResolver {
+
+    private final DefaultBearerTokenResolver bearer = new DefaultBearerTokenResolver();
+
+    @Override
+    public String resolve(HttpServletRequest request) {
+        String identidad = request.getHeader(IdentidadGateway.CABECERA);
+        return identidad != null ? identidad : bearer.resolve(request);
+    }
+}
@@ -0,0 +1,55 @@
+package ar.edu.unju.fi.trabajo_final.seguridad;
+
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CredencialServicioTest {
+
+    private static final String SECRET = "ClaveSecretaDemoParaPortafolioGithub1234567890";
+    private static final String SERVICIO_SECRET = "ClaveServicioReservaDemoPortafolio1234567890";
+
+    private final JwtDecoder decoder = CredencialServicio.decoder(
+            NimbusJwtDecoder.withSecretKey(clave(SECRET)).build(), SERVICIO_SECRET);
+
+    private static SecretKeySpec clave(String secreto) {
+        return new SecretKeySpec(secreto.getBytes(), "HmacSHA256");
+    }
+
+    private static String token(String secreto, String rol) {
+        JwtClaimsSet claims = JwtClaimsSet.builder().subject("ms-reserva").claim("rol", rol)
+                .issuedAt(Instant.now()).expiresAt(Instant.now().plusSeconds(60)).build();
+        return new NimbusJwtEncoder(new ImmutableSecret<>(clave(secreto)))
+                .encode(JwtEncoderParameters.from(JwsHeader.with(MacAlgorithm.HS256).build(), claims))
+                .getTokenValue();
+    }
+
+    @Test
+    @DisplayName("SERVICIO-01: Acepta tokens de usuario y credenciales de servicio, cada una con su clave")
+    void testDecode_CadaCredencialConSuClave() {
+        assertEquals("ROLE_USER", decoder.decode(token(SECRET, "ROLE_USER")).getClaimAsString("rol"));
+        assertEquals("ROLE_SERVICIO", decoder.decode(token(SERVICIO_SECRET, "ROLE_SERVICIO")).getClaimAsString("rol"));
+    }
+
+    @Test
+    @DisplayName("SERVICIO-02: Ninguna de las dos claves alcanza para falsificar la otra credencial")
+    void testDecode_RolesCruzadosRechazados() {
+        assertThrows(BadJwtException.class, () -> decoder.decode(token(SECRET, "ROLE_SERVICIO")));
+        assertThrows(BadJwtException.class, () -> decoder.decode(token(SERVICIO_SECRET, "ROLE_ADMIN")));
+        assertThrows(BadJwtException.class, () -> decoder.decode(token(SERVICIO_SECRET + "otra", "ROLE_SERVICIO")));
+        assertThrows(IllegalArgumentException.class, () -> CredencialServicio.decoder(decoder, "corta"));
+    }
+}